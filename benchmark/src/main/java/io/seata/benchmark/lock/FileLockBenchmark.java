@@ -0,0 +1,71 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.lock;
+
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.server.lock.LockManager;
+import io.seata.server.session.BranchSession;
+import io.seata.server.storage.file.lock.FileLockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The acquire and release of the row locks of a branch through the file lock manager of the TC.
+ * <p>
+ * Every thread locks rows of its own, run it with more threads to see how the lock table scales:
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar FileLockBenchmark -t 8
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileLockBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int rows;
+
+    private final LockManager lockManager = new FileLockManager();
+
+    private BranchSession branchSession;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        branchSession = LockBenchmarks.newBranchSession(rows);
+    }
+
+    @Benchmark
+    public boolean acquireAndRelease() throws TransactionException {
+        boolean acquired = lockManager.acquireLock(branchSession);
+        lockManager.releaseLock(branchSession);
+        return acquired;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.lock;
+
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+
+/**
+ * The branch sessions shared by the lock benchmarks.
+ */
+final class LockBenchmarks {
+
+    static final String RESOURCE_ID = "jdbc:mysql://192.168.0.1:3306/seata_order";
+
+    private static final AtomicLong TRANSACTION_ID = new AtomicLong(2000000000L);
+
+    private LockBenchmarks() {
+    }
+
+    /**
+     * A branch of a new transaction locking its own rows, so the branches of different threads never conflict.
+     *
+     * @param rows the count of rows to lock
+     * @return the branch session
+     */
+    static BranchSession newBranchSession(int rows) {
+        long transactionId = TRANSACTION_ID.incrementAndGet();
+        StringJoiner lockKey = new StringJoiner(",", "t_order:", "");
+        for (int i = 0; i < rows; i++) {
+            lockKey.add(transactionId + "_" + i);
+        }
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid("192.168.0.1:8091:" + transactionId);
+        branchSession.setTransactionId(transactionId);
+        branchSession.setBranchId(transactionId + 1);
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setResourceId(RESOURCE_ID);
+        branchSession.setLockKey(lockKey.toString());
+        branchSession.setClientId("order-service:192.168.0.2:50001");
+        return branchSession;
+    }
+}
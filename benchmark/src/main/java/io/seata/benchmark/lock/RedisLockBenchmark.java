@@ -0,0 +1,113 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.lock;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.github.fppt.jedismock.RedisServer;
+import io.seata.core.exception.TransactionException;
+import io.seata.server.session.BranchSession;
+import io.seata.server.storage.redis.JedisPooledFactory;
+import io.seata.server.storage.redis.lock.RedisLockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+
+/**
+ * The acquire and release of the row locks of a branch through the redis lock manager of the TC.
+ * <p>
+ * By default the locks go to an in-process jedis-mock server, which is enough to check the suite runs but is far
+ * slower than a real redis and dominates the numbers. Point it to a real redis for representative results:
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar RedisLockBenchmark -jvmArgsAppend "-Dbenchmark.redis.host=127.0.0.1 -Dbenchmark.redis.port=6379"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisLockBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int rows;
+
+    private BranchSession branchSession;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        branchSession = LockBenchmarks.newBranchSession(rows);
+    }
+
+    @Benchmark
+    public boolean acquireAndRelease(Redis redis) throws TransactionException {
+        boolean acquired = redis.lockManager.acquireLock(branchSession);
+        redis.lockManager.releaseLock(branchSession);
+        return acquired;
+    }
+
+    /**
+     * The redis server and the lock manager shared by all the threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Redis {
+
+        private static final int MOCK_PORT = 6790;
+
+        private RedisServer mockServer;
+
+        private RedisLockManager lockManager;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            String host = System.getProperty("benchmark.redis.host");
+            int port = Integer.getInteger("benchmark.redis.port", 6379);
+            if (host == null) {
+                mockServer = RedisServer.newRedisServer(MOCK_PORT);
+                mockServer.start();
+                host = "127.0.0.1";
+                port = MOCK_PORT;
+            }
+            JedisPoolConfig poolConfig = new JedisPoolConfig();
+            poolConfig.setMaxTotal(64);
+            poolConfig.setMaxIdle(64);
+            JedisPooledFactory.getJedisPoolInstance(new JedisPool(poolConfig, host, port, 60000));
+            lockManager = new RedisLockManager();
+            lockManager.init();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (mockServer != null) {
+                mockServer.stop();
+            }
+        }
+    }
+}
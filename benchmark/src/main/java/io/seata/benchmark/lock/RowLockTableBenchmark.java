@@ -0,0 +1,174 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.lock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.server.storage.file.lock.RowLockHolder;
+import io.seata.server.storage.file.lock.RowLockTable;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Fills the row lock table of the file lock store and the nested map layout it replaced in FileLocker.
+ * <p>
+ * Every invocation fills a layout from scratch and reports the heap it retains as the {@code retainedBytes} counter,
+ * the used heap after a forced gc with the filled layout alive minus the used heap after a forced gc before filling:
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar RowLockTableBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RowLockTableBenchmark {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    private static final int LOCKS_PER_BRANCH = 10;
+
+    private static final int BUCKET_PER_TABLE = 128;
+
+    @Param({"100000"})
+    private int locks;
+
+    /**
+     * The heap retained by the layout filled in the invocation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+
+        public long retainedBytes;
+    }
+
+    /**
+     * The layout of FileLocker before the row lock table, a branch is modeled by a plain object.
+     */
+    @Benchmark
+    public void nestedMaps(RetainedHeap retainedHeap, Blackhole blackhole) {
+        long usedBefore = usedHeapAfterGc();
+        ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>>> lockMap =
+            new ConcurrentHashMap<>();
+        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap =
+            lockMap.computeIfAbsent(RESOURCE_ID, key -> new ConcurrentHashMap<>());
+        Object branch = null;
+        ConcurrentMap<BucketLockMap, Set<String>> holder = null;
+        ConcurrentMap<Object, ConcurrentMap<BucketLockMap, Set<String>>> holders = new ConcurrentHashMap<>();
+        for (int i = 0; i < locks; i++) {
+            if (i % LOCKS_PER_BRANCH == 0) {
+                branch = new Object();
+                holder = new ConcurrentHashMap<>();
+                holders.put(branch, holder);
+            }
+            String tableName = "table_" + (i % 16);
+            String pk = String.valueOf(i);
+            ConcurrentMap<Integer, BucketLockMap> tableLockMap =
+                dbLockMap.computeIfAbsent(tableName, key -> new ConcurrentHashMap<>());
+            BucketLockMap bucket = tableLockMap.computeIfAbsent(pk.hashCode() % BUCKET_PER_TABLE,
+                bucketId -> new BucketLockMap(tableName, bucketId));
+            bucket.rows.put(pk, branch);
+            holder.computeIfAbsent(bucket, key -> ConcurrentHashMap.newKeySet()).add(pk);
+        }
+        retainedHeap.retainedBytes = usedHeapAfterGc() - usedBefore;
+        blackhole.consume(lockMap);
+        blackhole.consume(holders);
+    }
+
+    @Benchmark
+    public void rowLockTable(RetainedHeap retainedHeap, Blackhole blackhole) {
+        long usedBefore = usedHeapAfterGc();
+        RowLockTable table = new RowLockTable(128, 64);
+        RowLockHolder[] holders = new RowLockHolder[(locks + LOCKS_PER_BRANCH - 1) / LOCKS_PER_BRANCH];
+        long[] keys = new long[LOCKS_PER_BRANCH];
+        for (int i = 0; i < locks; i += LOCKS_PER_BRANCH) {
+            int count = Math.min(LOCKS_PER_BRANCH, locks - i);
+            for (int j = 0; j < count; j++) {
+                keys[j] = RowLockTable.keyOf(RESOURCE_ID, "table_" + ((i + j) % 16), String.valueOf(i + j));
+            }
+            long branchId = i / LOCKS_PER_BRANCH + 1;
+            RowLockHolder holder = new RowLockHolder();
+            table.acquire(branchId, branchId, count == keys.length ? keys : Arrays.copyOf(keys, count), holder);
+            holders[i / LOCKS_PER_BRANCH] = holder;
+        }
+        retainedHeap.retainedBytes = usedHeapAfterGc() - usedBefore;
+        blackhole.consume(table);
+        blackhole.consume(holders);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            memoryBean.gc();
+        }
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * The bucket of the nested map layout, the key of the branch holders is fixed by the table and the bucket id
+     * instead of the rows it holds, as the hash of a {@link ConcurrentHashMap} changes with its content.
+     */
+    private static final class BucketLockMap {
+
+        private final String tableName;
+
+        private final int bucketId;
+
+        private final ConcurrentMap<String, Object> rows = new ConcurrentHashMap<>();
+
+        BucketLockMap(String tableName, int bucketId) {
+            this.tableName = tableName;
+            this.bucketId = bucketId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketLockMap)) {
+                return false;
+            }
+            BucketLockMap that = (BucketLockMap)o;
+            return bucketId == that.bucketId && tableName.equals(that.tableName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableName, bucketId);
+        }
+    }
+}
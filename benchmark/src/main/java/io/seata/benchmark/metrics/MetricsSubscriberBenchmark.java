@@ -0,0 +1,121 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.event.GlobalTransactionEvent;
+import io.seata.core.model.GlobalStatus;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+import io.seata.metrics.registry.compact.CompactRegistry;
+import io.seata.server.metrics.MeterIdConstants;
+import io.seata.server.metrics.MetricsSubscriber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static io.seata.metrics.IdConstants.APP_ID_KEY;
+import static io.seata.metrics.IdConstants.GROUP_KEY;
+
+/**
+ * The recording of the begin and the commit of a global transaction by the {@link MetricsSubscriber}, spread over
+ * a number of groups whose meters are resolved in the setup. The gc profiler reports the bytes allocated per
+ * transaction in gc.alloc.rate.norm, against the lookup of every meter by its tagged id the subscriber used to do:
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar MetricsSubscriberBenchmark -p groups=1,64 -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsSubscriberBenchmark {
+
+    private static final String APPLICATION_ID = "order-service";
+
+    @Param({"1", "64"})
+    private int groups;
+
+    private Registry registry;
+
+    private MetricsSubscriber subscriber;
+
+    private GlobalTransactionEvent[] beginEvents;
+
+    private GlobalTransactionEvent[] committedEvents;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new CompactRegistry();
+        subscriber = new MetricsSubscriber(registry);
+        beginEvents = new GlobalTransactionEvent[groups];
+        committedEvents = new GlobalTransactionEvent[groups];
+        for (int i = 0; i < groups; i++) {
+            beginEvents[i] = newEvent("tx_group_" + i, GlobalStatus.Begin);
+            committedEvents[i] = newEvent("tx_group_" + i, GlobalStatus.Committed);
+            subscriber.recordGlobalTransactionEventForMetrics(beginEvents[i]);
+            subscriber.recordGlobalTransactionEventForMetrics(committedEvents[i]);
+        }
+    }
+
+    @Benchmark
+    public void recordCommittedTransaction() {
+        int group = nextGroup();
+        subscriber.recordGlobalTransactionEventForMetrics(beginEvents[group]);
+        subscriber.recordGlobalTransactionEventForMetrics(committedEvents[group]);
+    }
+
+    @Benchmark
+    public void lookupMetersPerEvent() {
+        GlobalTransactionEvent event = committedEvents[nextGroup()];
+        registry.getCounter(MeterIdConstants.COUNTER_ACTIVE.withTag(APP_ID_KEY, event.getApplicationId())
+            .withTag(GROUP_KEY, event.getGroup())).increase(1);
+        registry.getCounter(MeterIdConstants.COUNTER_ACTIVE.withTag(APP_ID_KEY, event.getApplicationId())
+            .withTag(GROUP_KEY, event.getGroup())).decrease(1);
+        registry.getCounter(MeterIdConstants.COUNTER_COMMITTED.withTag(APP_ID_KEY, event.getApplicationId())
+            .withTag(GROUP_KEY, event.getGroup())).increase(1);
+        registry.getSummary(MeterIdConstants.SUMMARY_COMMITTED.withTag(APP_ID_KEY, event.getApplicationId())
+            .withTag(GROUP_KEY, event.getGroup())).increase(1);
+        registry.getTimer(MeterIdConstants.TIMER_COMMITTED.withTag(APP_ID_KEY, event.getApplicationId())
+            .withTag(GROUP_KEY, event.getGroup()))
+            .record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
+    }
+
+    private int nextGroup() {
+        int group = next;
+        next = group + 1 == groups ? 0 : group + 1;
+        return group;
+    }
+
+    private static GlobalTransactionEvent newEvent(String group, GlobalStatus status) {
+        return new GlobalTransactionEvent(1L, IdConstants.ROLE_VALUE_TC, "placeOrder", APPLICATION_ID, group, 1L, 5L,
+            status.name(), false, false);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.rpc;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.seata.core.compressor.Compressor;
+import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.Serializer;
+import io.seata.core.serializer.SerializerServiceLoader;
+import io.seata.core.serializer.SerializerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The round trip of a branch register request through the v1 protocol codec, over the byte[] path the codec used to
+ * take and over the ByteBuf path it takes now.
+ * <p>
+ * Run it with the gc profiler to compare the bytes allocated per message, see {@code gc.alloc.rate.norm}:
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar ProtocolV1CodecBenchmark -prof gc
+ * </pre>
+ * On JDK 9+ kryo needs the packages of java.base opened, e.g.
+ * {@code -jvmArgsAppend "--add-opens java.base/java.lang=ALL-UNNAMED --add-opens java.base/java.util=ALL-UNNAMED"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolV1CodecBenchmark {
+
+    @Param({"SEATA", "KRYO", "HESSIAN"})
+    private String codec;
+
+    @Param({"NONE", "GZIP", "ZIP", "SEVENZ", "BZIP2", "LZ4", "DEFLATER", "ZSTD"})
+    private String compressor;
+
+    private final ProtocolV1Encoder encoder = new ProtocolV1Encoder();
+
+    private final ProtocolV1Decoder decoder = new ProtocolV1Decoder();
+
+    private RpcMessage rpcMessage;
+
+    private ByteBuf frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid("192.168.0.1:8091:2000042948");
+        request.setBranchType(BranchType.AT);
+        request.setResourceId("jdbc:mysql://192.168.0.1:3306/seata_order");
+        request.setLockKey("t_order:1001,1002,1003;t_order_item:20001,20002");
+        request.setApplicationData("{\"autoCommit\":false}");
+
+        rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        rpcMessage.setCodec(SerializerType.getByName(codec).getCode());
+        rpcMessage.setCompressor(CompressorType.getByName(compressor).getCode());
+        rpcMessage.setBody(request);
+
+        frame = PooledByteBufAllocator.DEFAULT.buffer(1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.release();
+    }
+
+    @Benchmark
+    public Object byteArrayRoundTrip() {
+        frame.clear();
+        encodeByByteArray(rpcMessage, frame);
+        return decodeByByteArray(frame);
+    }
+
+    @Benchmark
+    public Object byteBufRoundTrip() {
+        frame.clear();
+        encoder.encode(null, rpcMessage, frame);
+        return decoder.decodeFrame(frame);
+    }
+
+    /**
+     * The body encoding of the codec before the ByteBuf path, the head is encoded the same way.
+     */
+    private static void encodeByByteArray(RpcMessage rpcMessage, ByteBuf out) {
+        int headIndex = out.writerIndex();
+        out.writeBytes(ProtocolConstants.MAGIC_CODE_BYTES);
+        out.writeByte(ProtocolConstants.VERSION);
+        out.writerIndex(out.writerIndex() + 6);
+        out.writeByte(rpcMessage.getMessageType());
+        out.writeByte(rpcMessage.getCodec());
+        out.writeByte(rpcMessage.getCompressor());
+        out.writeInt(rpcMessage.getId());
+
+        Serializer serializer = SerializerServiceLoader.load(SerializerType.getByCode(rpcMessage.getCodec()));
+        byte[] bodyBytes = serializer.serialize(rpcMessage.getBody());
+        Compressor bodyCompressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
+        bodyBytes = bodyCompressor.compress(bodyBytes);
+        out.writeBytes(bodyBytes);
+
+        int writeIndex = out.writerIndex();
+        out.writerIndex(headIndex + 3);
+        out.writeInt(writeIndex - headIndex);
+        out.writeShort(ProtocolConstants.V1_HEAD_LENGTH);
+        out.writerIndex(writeIndex);
+    }
+
+    /**
+     * The body decoding of the codec before the ByteBuf path.
+     */
+    private static Object decodeByByteArray(ByteBuf frame) {
+        frame.skipBytes(3);
+        int fullLength = frame.readInt();
+        short headLength = frame.readShort();
+        frame.skipBytes(1);
+        byte codecType = frame.readByte();
+        byte compressorType = frame.readByte();
+        frame.skipBytes(4);
+
+        byte[] bs = new byte[fullLength - headLength];
+        frame.readBytes(bs);
+        Compressor bodyCompressor = CompressorFactory.getCompressor(compressorType);
+        bs = bodyCompressor.decompress(bs);
+        Serializer serializer = SerializerServiceLoader.load(SerializerType.getByCode(codecType));
+        return serializer.deserialize(bs);
+    }
+}
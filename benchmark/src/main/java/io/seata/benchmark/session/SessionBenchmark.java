@@ -0,0 +1,155 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchType;
+import io.seata.core.store.StoreMode;
+import io.seata.server.lock.LockerManagerFactory;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHolder;
+import io.seata.server.session.SessionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The add and remove of global sessions through the root session manager of {@link SessionHolder}, and of branch
+ * sessions through a begun {@link GlobalSession}, both written to the session store of the file mode.
+ * <p>
+ * The session store is put into a temporary directory, which is deleted after the run:
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar SessionBenchmark -t 8
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionBenchmark {
+
+    private static final AtomicLong BRANCH_ID = new AtomicLong(1);
+
+    @Benchmark
+    public GlobalSession addAndRemoveGlobalSession(Store store) throws TransactionException {
+        GlobalSession session = newGlobalSession();
+        store.sessionManager.addGlobalSession(session);
+        store.sessionManager.removeGlobalSession(session);
+        return session;
+    }
+
+    @Benchmark
+    public GlobalSession addAndRemoveBranches(Branches branches) throws TransactionException {
+        GlobalSession globalSession = branches.globalSession;
+        for (BranchSession branchSession : branches.branchSessions) {
+            globalSession.addBranch(branchSession);
+        }
+        for (BranchSession branchSession : branches.branchSessions) {
+            globalSession.removeBranch(branchSession);
+        }
+        return globalSession;
+    }
+
+    private static GlobalSession newGlobalSession() {
+        return GlobalSession.createGlobalSession("order-service", "default_tx_group", "placeOrder", 60000);
+    }
+
+    private static BranchSession newBranchSession(GlobalSession globalSession) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(globalSession.getXid());
+        branchSession.setTransactionId(globalSession.getTransactionId());
+        branchSession.setBranchId(BRANCH_ID.incrementAndGet());
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setResourceId("jdbc:mysql://192.168.0.1:3306/seata_order");
+        branchSession.setClientId("order-service:192.168.0.2:50001");
+        return branchSession;
+    }
+
+    /**
+     * A begun global session of every thread and the branches added to it.
+     */
+    @State(Scope.Thread)
+    public static class Branches {
+
+        @Param({"1", "10"})
+        private int count;
+
+        private GlobalSession globalSession;
+
+        private BranchSession[] branchSessions;
+
+        @Setup(Level.Trial)
+        public void setUp(Store store) throws TransactionException {
+            globalSession = newGlobalSession();
+            globalSession.addSessionLifecycleListener(store.sessionManager);
+            globalSession.begin();
+            branchSessions = new BranchSession[count];
+            for (int i = 0; i < count; i++) {
+                branchSessions[i] = newBranchSession(globalSession);
+            }
+        }
+    }
+
+    /**
+     * The session store of the file mode shared by all the threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Store {
+
+        private File storeDir;
+
+        private SessionManager sessionManager;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            storeDir = Files.createTempDirectory("seata-session-benchmark").toFile();
+            System.setProperty(ConfigurationKeys.STORE_FILE_DIR, storeDir.getAbsolutePath());
+            LockerManagerFactory.init(StoreMode.FILE.getName());
+            SessionHolder.init(StoreMode.FILE.getName());
+            sessionManager = SessionHolder.getRootSessionManager();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            SessionHolder.destroy();
+            try (Stream<File> files = Files.walk(storeDir.toPath()).map(Path::toFile)) {
+                files.sorted(Comparator.reverseOrder()).forEach(File::delete);
+            }
+        }
+    }
+}
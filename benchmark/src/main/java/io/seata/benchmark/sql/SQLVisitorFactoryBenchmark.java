@@ -0,0 +1,83 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.sql;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.rm.datasource.sql.SQLVisitorFactory;
+import io.seata.sqlparser.SQLRecognizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The parsing of the statements the AT mode intercepts into their recognizers, the way every statement executed in
+ * a global transaction goes through {@link SQLVisitorFactory#get(String, String)}.
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar SQLVisitorFactoryBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SQLVisitorFactoryBenchmark {
+
+    @Param({"mysql", "oracle", "postgresql"})
+    private String dbType;
+
+    @Param({"INSERT", "UPDATE", "DELETE", "SELECT_FOR_UPDATE"})
+    private String sqlType;
+
+    private String sql;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (sqlType) {
+            case "INSERT":
+                sql = "insert into t_order (id, user_id, commodity_code, count, money) values (?, ?, ?, ?, ?)";
+                break;
+            case "UPDATE":
+                sql = "update t_order set count = count - ?, money = ? where id = ? and user_id = ?";
+                break;
+            case "DELETE":
+                sql = "delete from t_order where id in (?, ?, ?)";
+                break;
+            case "SELECT_FOR_UPDATE":
+                sql = "select id, count from t_order where user_id = ? and commodity_code = ? for update";
+                break;
+            default:
+                throw new IllegalArgumentException("unknown sql type: " + sqlType);
+        }
+    }
+
+    @Benchmark
+    public List<SQLRecognizer> parse() {
+        return SQLVisitorFactory.get(sql, dbType);
+    }
+}
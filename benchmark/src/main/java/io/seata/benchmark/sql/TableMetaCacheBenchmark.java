@@ -0,0 +1,88 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.sql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableMetaCache;
+import io.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
+import io.seata.sqlparser.util.JdbcConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The lookup of a cached table meta through the mysql table meta cache, which every intercepted statement does
+ * before building its images. The connection is an in-memory h2 database in the mysql mode.
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar TableMetaCacheBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableMetaCacheBenchmark {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://192.168.0.1:3306/seata_order";
+
+    @Param({"t_order", "`t_order`"})
+    private String tableName;
+
+    private Connection connection;
+
+    private TableMetaCache tableMetaCache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:seata_order;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS t_order (id BIGINT PRIMARY KEY, user_id VARCHAR(32), "
+                + "commodity_code VARCHAR(32), count INT, money DECIMAL(10, 2), gmt_modified TIMESTAMP)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_user_id ON t_order (user_id)");
+        }
+        tableMetaCache = TableMetaCacheFactory.getTableMetaCache(JdbcConstants.MYSQL);
+        // load it into the cache, the benchmark measures the hits
+        tableMetaCache.getTableMeta(connection, tableName, RESOURCE_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public TableMeta lookup() {
+        return tableMetaCache.getTableMeta(connection, tableName, RESOURCE_ID);
+    }
+}
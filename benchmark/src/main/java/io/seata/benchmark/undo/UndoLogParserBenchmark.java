@@ -0,0 +1,126 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark.undo;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import io.seata.rm.datasource.undo.UndoLogParserFactory;
+import io.seata.sqlparser.SQLType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The encoding and decoding of the undo log of an update branch by every undo log parser.
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar UndoLogParserBenchmark -p rows=1,100 -prof gc
+ * </pre>
+ * On JDK 9+ kryo and fst need the packages of java.base opened as in {@code ProtocolV1CodecBenchmark}, fst also
+ * needs {@code --add-opens java.sql/java.sql=ALL-UNNAMED} and
+ * {@code --add-opens java.sql.rowset/javax.sql.rowset.serial=ALL-UNNAMED}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoLogParserBenchmark {
+
+    @Param({"jackson", "fastjson", "kryo", "fst", "protostuff"})
+    private String parser;
+
+    @Param({"1", "10", "100"})
+    private int rows;
+
+    private UndoLogParser undoLogParser;
+
+    private BranchUndoLog branchUndoLog;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        undoLogParser = UndoLogParserFactory.getInstance(parser);
+
+        TableMeta tableMeta = new TableMeta();
+        tableMeta.setTableName("t_order");
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("t_order");
+        sqlUndoLog.setTableMeta(tableMeta);
+        sqlUndoLog.setBeforeImage(newImage(tableMeta, 10));
+        sqlUndoLog.setAfterImage(newImage(tableMeta, 9));
+
+        branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("192.168.0.1:8091:2000042948");
+        branchUndoLog.setBranchId(2000042950L);
+        List<SQLUndoLog> sqlUndoLogs = new ArrayList<>();
+        sqlUndoLogs.add(sqlUndoLog);
+        branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+        encoded = undoLogParser.encode(branchUndoLog);
+    }
+
+    private TableRecords newImage(TableMeta tableMeta, int count) {
+        TableRecords image = new TableRecords(tableMeta);
+        Timestamp updateTime = new Timestamp(1600000000000L);
+        for (int i = 0; i < rows; i++) {
+            Row row = new Row();
+            Field id = new Field("id", Types.BIGINT, 10000L + i);
+            id.setKeyType(KeyType.PRIMARY_KEY);
+            row.add(id);
+            row.add(new Field("user_id", Types.VARCHAR, "U100001"));
+            row.add(new Field("commodity_code", Types.VARCHAR, "C00321"));
+            row.add(new Field("count", Types.INTEGER, count));
+            row.add(new Field("money", Types.DECIMAL, new BigDecimal("399.90")));
+            row.add(new Field("gmt_modified", Types.TIMESTAMP, updateTime));
+            image.add(row);
+        }
+        return image;
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return undoLogParser.encode(branchUndoLog);
+    }
+
+    @Benchmark
+    public BranchUndoLog decode() {
+        return undoLogParser.decode(encoded);
+    }
+}
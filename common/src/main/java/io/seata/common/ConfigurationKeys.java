@@ -181,6 +181,21 @@ public interface ConfigurationKeys {
      */
     String CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = CLIENT_RM_LOCK_PREFIX + "retryPolicyBranchRollbackOnConflict";
 
+    /**
+     * The constant CLIENT_LOCK_LOCAL_INTENT_ENABLE.
+     */
+    String CLIENT_LOCK_LOCAL_INTENT_ENABLE = CLIENT_RM_LOCK_PREFIX + "localIntentEnable";
+
+    /**
+     * The constant CLIENT_LOCK_RETRY_MODE.
+     */
+    String CLIENT_LOCK_RETRY_MODE = CLIENT_RM_LOCK_PREFIX + "retryMode";
+
+    /**
+     * The constant CLIENT_LOCK_RETRY_MAX_INTERVAL.
+     */
+    String CLIENT_LOCK_RETRY_MAX_INTERVAL = CLIENT_RM_LOCK_PREFIX + "retryMaxInterval";
+
     /**
      * The constant SERVICE_SESSION_RELOAD_READ_SIZE
      */
@@ -211,6 +226,11 @@ public interface ConfigurationKeys {
      */
     String CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = CLIENT_RM_PREFIX + "sagaCompensatePersistModeUpdate";
 
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_WRITE_BEHIND.
+     */
+    String CLIENT_SAGA_STATE_LOG_WRITE_BEHIND = CLIENT_RM_PREFIX + "sagaStateLogWriteBehind";
+
     /**
      * The constant CLIENT_REPORT_RETRY_COUNT.
      */
@@ -342,6 +362,16 @@ public interface ConfigurationKeys {
      */
     String LOCK_DB_TABLE = STORE_DB_PREFIX + "lockTable";
 
+    /**
+     * The constant STORE_DB_LOCK_BATCH_INSERT_SIZE.
+     */
+    String STORE_DB_LOCK_BATCH_INSERT_SIZE = STORE_DB_PREFIX + "lockBatchInsertSize";
+
+    /**
+     * The constant STORE_DB_LOCK_CONFLICT_DETECT_MODE.
+     */
+    String STORE_DB_LOCK_CONFLICT_DETECT_MODE = STORE_DB_PREFIX + "lockConflictDetectMode";
+
     /**
      * The constant SERVER_RPC_PORT.
      */
@@ -382,6 +412,36 @@ public interface ConfigurationKeys {
      */
     String TIMEOUT_RETRY_PERIOD = RECOVERY_PREFIX + "timeoutRetryPeriod";
 
+    /**
+     * The constant TIMEOUT_SCAN_PERIOD.
+     */
+    String TIMEOUT_SCAN_PERIOD = RECOVERY_PREFIX + "timeoutScanPeriod";
+
+    /**
+     * The constant ENABLE_RECOVERY_SHARDED_SCHEDULE.
+     */
+    String ENABLE_RECOVERY_SHARDED_SCHEDULE = RECOVERY_PREFIX + "enableShardedSchedule";
+
+    /**
+     * The constant RECOVERY_SHARD_COUNT.
+     */
+    String RECOVERY_SHARD_COUNT = RECOVERY_PREFIX + "shardCount";
+
+    /**
+     * The constant RECOVERY_SHARD_THREADS.
+     */
+    String RECOVERY_SHARD_THREADS = RECOVERY_PREFIX + "shardThreads";
+
+    /**
+     * The constant RECOVERY_SHARD_QUEUE_SIZE.
+     */
+    String RECOVERY_SHARD_QUEUE_SIZE = RECOVERY_PREFIX + "shardQueueSize";
+
+    /**
+     * The constant RECOVERY_MAX_CONCURRENCY_PER_RESOURCE.
+     */
+    String RECOVERY_MAX_CONCURRENCY_PER_RESOURCE = RECOVERY_PREFIX + "maxConcurrencyPerResource";
+
     /**
      * The constant CLIENT_UNDO_PREFIX.
      */
@@ -402,6 +462,11 @@ public interface ConfigurationKeys {
      */
     String TRANSACTION_UNDO_ONLY_CARE_UPDATE_COLUMNS = CLIENT_UNDO_PREFIX + "onlyCareUpdateColumns";
 
+    /**
+     * The constant TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE.
+     */
+    String TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE = CLIENT_UNDO_PREFIX + "computeAfterImage";
+
     /**
      * the constant CLIENT_UNDO_COMPRESS_PREFIX
      */
@@ -446,6 +511,16 @@ public interface ConfigurationKeys {
      */
     String METRICS_EXPORTER_PROMETHEUS_PORT = "exporterPrometheusPort";
 
+    /**
+     * The constant METRICS_HISTOGRAM_PRECISION
+     */
+    String METRICS_HISTOGRAM_PRECISION = "histogramPrecision";
+
+    /**
+     * The constant METRICS_HISTOGRAM_PERCENTILES
+     */
+    String METRICS_HISTOGRAM_PERCENTILES = "histogramPercentiles";
+
     /**
      * The constant SERVER_UNDO_PREFIX.
      */
@@ -520,6 +595,31 @@ public interface ConfigurationKeys {
      */
     String MAX_BRANCH_RESULT_POOL_SIZE = TRANSPORT_PREFIX + "maxBranchResultPoolSize";
 
+    /**
+     * The constant MIN_GLOBAL_POOL_SIZE.
+     */
+    String MIN_GLOBAL_POOL_SIZE = TRANSPORT_PREFIX + "minGlobalPoolSize";
+
+    /**
+     * The constant MAX_GLOBAL_POOL_SIZE.
+     */
+    String MAX_GLOBAL_POOL_SIZE = TRANSPORT_PREFIX + "maxGlobalPoolSize";
+
+    /**
+     * The constant MIN_BRANCH_POOL_SIZE.
+     */
+    String MIN_BRANCH_POOL_SIZE = TRANSPORT_PREFIX + "minBranchPoolSize";
+
+    /**
+     * The constant MAX_BRANCH_POOL_SIZE.
+     */
+    String MAX_BRANCH_POOL_SIZE = TRANSPORT_PREFIX + "maxBranchPoolSize";
+
+    /**
+     * The constant SERVER_ADMISSION_QUEUE_TIMEOUT.
+     */
+    String SERVER_ADMISSION_QUEUE_TIMEOUT = TRANSPORT_PREFIX + "serverAdmissionQueueTimeout";
+
     /**
      * The constant MAX_TASK_QUEUE_SIZE.
      */
@@ -621,6 +721,21 @@ public interface ConfigurationKeys {
      */
     String ENABLE_RM_CLIENT_BATCH_SEND_REQUEST = TRANSPORT_PREFIX + "enableRmClientBatchSendRequest";
 
+    /**
+     * The constant CLIENT_BATCH_SEND_QUEUE_SIZE
+     */
+    String CLIENT_BATCH_SEND_QUEUE_SIZE = TRANSPORT_PREFIX + "clientBatchSendQueueSize";
+
+    /**
+     * The constant CLIENT_BATCH_SEND_MAX_SIZE
+     */
+    String CLIENT_BATCH_SEND_MAX_SIZE = TRANSPORT_PREFIX + "clientBatchSendMaxSize";
+
+    /**
+     * The constant CLIENT_BATCH_SEND_LINGER_MICROS
+     */
+    String CLIENT_BATCH_SEND_LINGER_MICROS = TRANSPORT_PREFIX + "clientBatchSendLingerMicros";
+
     /**
      * The constant ENABLE_TC_SERVER_BATCH_SEND_RESPONSE
      */
@@ -636,6 +751,11 @@ public interface ConfigurationKeys {
      */
     String SQL_PARSER_TYPE = CLIENT_RM_PREFIX + "sqlParserType";
 
+    /**
+     * The constant CLIENT_SQL_PARSER_CACHE_SIZE, the max total length of the sql whose parsed recognizers are cached.
+     */
+    String CLIENT_SQL_PARSER_CACHE_SIZE = CLIENT_RM_PREFIX + "sqlParserCacheSize";
+
     /**
      * The constant STORE_REDIS_MODE.
      */
@@ -854,4 +974,14 @@ public interface ConfigurationKeys {
      */
     String ENABLE_PARALLEL_REQUEST_HANDLE_KEY = SERVER_PREFIX + "enableParallelRequestHandle";
 
+    /**
+     * The constant ENABLE_PARALLEL_BRANCH_DISPATCH
+     */
+    String ENABLE_PARALLEL_BRANCH_DISPATCH = SERVER_PREFIX + "enableParallelBranchDispatch";
+
+    /**
+     * The constant PARALLEL_BRANCH_DISPATCH_TIMEOUT
+     */
+    String PARALLEL_BRANCH_DISPATCH_TIMEOUT = SERVER_PREFIX + "parallelBranchDispatchTimeout";
+
 }
@@ -161,6 +161,11 @@ public interface Constants {
      */
     String SKIP_CHECK_LOCK = "skipCheckLock";
 
+    /**
+     * The constant LOCK_WAIT_NOTIFY
+     */
+    String LOCK_WAIT_NOTIFY = "lockWaitNotify";
+
     /**
      * The constant REGISTRY_TYPE_SPLIT_CHAR.
      */
@@ -25,6 +25,9 @@ public interface DefaultValues {
     int DEFAULT_TM_DEGRADE_CHECK_ALLOW_TIMES = 10;
     int DEFAULT_CLIENT_LOCK_RETRY_TIMES = 30;
     boolean DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = true;
+    boolean DEFAULT_CLIENT_LOCK_LOCAL_INTENT_ENABLE = false;
+    String DEFAULT_CLIENT_LOCK_RETRY_MODE = "fixed";
+    int DEFAULT_CLIENT_LOCK_RETRY_MAX_INTERVAL = 1000;
     int DEFAULT_LOG_EXCEPTION_RATE = 100;
     int DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = 10000;
     int DEFAULT_TM_DEGRADE_CHECK_PERIOD = 2000;
@@ -32,10 +35,16 @@ public interface DefaultValues {
     boolean DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE = false;
     boolean DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE = true;
     long DEFAULT_TABLE_META_CHECKER_INTERVAL = 60000L;
+    /**
+     * The max total length in chars of the sql whose parsed recognizers are cached, 0 disables the cache. It bounds
+     * the length of the cached sql, the heap retained by their parsed statements is a multiple of it
+     */
+    long DEFAULT_CLIENT_SQL_PARSER_CACHE_SIZE = 262144L;
     boolean DEFAULT_TM_DEGRADE_CHECK = false;
     boolean DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE = false;
     boolean DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE = false;
     boolean DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = false;
+    boolean DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND = false;
 
     /**
      * Shutdown timeout default 3s
@@ -52,6 +61,16 @@ public interface DefaultValues {
     boolean DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_REQUEST = false;
     boolean DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST = true;
     boolean DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = false;
+    long DEFAULT_SERVER_ADMISSION_QUEUE_TIMEOUT = 0L;
+
+    /**
+     * the number of significant digits of the timers and summaries of the compact metrics registry, 0 to disable
+     */
+    int DEFAULT_METRICS_HISTOGRAM_PRECISION = 2;
+    String DEFAULT_METRICS_HISTOGRAM_PERCENTILES = "0.5,0.9,0.99,0.999";
+    int DEFAULT_CLIENT_BATCH_SEND_QUEUE_SIZE = 4096;
+    int DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE = 128;
+    long DEFAULT_CLIENT_BATCH_SEND_LINGER_MICROS = 0L;
 
 
     String DEFAULT_BOSS_THREAD_PREFIX = "NettyBoss";
@@ -62,6 +81,7 @@ public interface DefaultValues {
     boolean DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION = true;
     String DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION = "jackson";
     boolean DEFAULT_ONLY_CARE_UPDATE_COLUMNS = true;
+    boolean DEFAULT_TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE = false;
     /**
      * The constant  DEFAULT_TRANSACTION_UNDO_LOG_TABLE.
      */
@@ -81,6 +101,17 @@ public interface DefaultValues {
      */
     String DEFAULT_LOCK_DB_TABLE = "lock_table";
 
+    /**
+     * The constant DEFAULT_LOCK_BATCH_INSERT_SIZE, the max rows of a multi-row insert into the lock table, 1 keeps
+     * the jdbc batch insert.
+     */
+    int DEFAULT_LOCK_BATCH_INSERT_SIZE = 1;
+
+    /**
+     * The constant DEFAULT_LOCK_CONFLICT_DETECT_MODE, query the lock table before inserting.
+     */
+    String DEFAULT_LOCK_CONFLICT_DETECT_MODE = "query";
+
     /**
      * the constant DEFAULT_DISTRIBUTED_LOCK_DB_TABLE
      */
@@ -195,4 +226,44 @@ public interface DefaultValues {
      */
     int DEFAULT_XA_CONNECTION_TWO_PHASE_HOLD_TIMEOUT = 10000;
 
+    /**
+     * the constant DEFAULT_TIMEOUT_SCAN_PERIOD
+     */
+    long DEFAULT_TIMEOUT_SCAN_PERIOD = 60000L;
+
+    /**
+     * the constant DEFAULT_ENABLE_RECOVERY_SHARDED_SCHEDULE
+     */
+    boolean DEFAULT_ENABLE_RECOVERY_SHARDED_SCHEDULE = false;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_COUNT
+     */
+    int DEFAULT_RECOVERY_SHARD_COUNT = 8;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_THREADS
+     */
+    int DEFAULT_RECOVERY_SHARD_THREADS = 2;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_QUEUE_SIZE
+     */
+    int DEFAULT_RECOVERY_SHARD_QUEUE_SIZE = 2000;
+
+    /**
+     * the constant DEFAULT_RECOVERY_MAX_CONCURRENCY_PER_RESOURCE
+     */
+    int DEFAULT_RECOVERY_MAX_CONCURRENCY_PER_RESOURCE = 1;
+
+    /**
+     * the constant DEFAULT_ENABLE_PARALLEL_BRANCH_DISPATCH
+     */
+    boolean DEFAULT_ENABLE_PARALLEL_BRANCH_DISPATCH = false;
+
+    /**
+     * the constant DEFAULT_PARALLEL_BRANCH_DISPATCH_TIMEOUT
+     */
+    long DEFAULT_PARALLEL_BRANCH_DISPATCH_TIMEOUT = DEFAULT_RPC_TC_REQUEST_TIMEOUT;
+
 }
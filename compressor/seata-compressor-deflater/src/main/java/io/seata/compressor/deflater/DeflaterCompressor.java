@@ -15,6 +15,7 @@
  */
 package io.seata.compressor.deflater;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.LoadLevel;
 import io.seata.core.compressor.Compressor;
 
@@ -34,4 +35,14 @@ public class DeflaterCompressor implements Compressor {
         return DeflaterUtil.decompress(bytes);
     }
 
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        DeflaterUtil.compress(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        DeflaterUtil.decompress(in, out);
+    }
+
 }
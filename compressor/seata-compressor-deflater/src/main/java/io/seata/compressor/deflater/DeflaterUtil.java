@@ -18,7 +18,13 @@ package io.seata.compressor.deflater;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 /**
  * @author dongzl
@@ -75,4 +81,26 @@ public class DeflaterUtil {
         }
     }
 
+    public static void compress(ByteBuf in, ByteBuf out) {
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(new ByteBufOutputStream(out))) {
+            in.readBytes(deflater, in.readableBytes());
+            deflater.finish();
+        } catch (IOException e) {
+            throw new RuntimeException("Deflater compress error", e);
+        }
+    }
+
+    public static void decompress(ByteBuf in, ByteBuf out) {
+        Inflater inflater = new Inflater();
+        try (InflaterInputStream is = new InflaterInputStream(new ByteBufInputStream(in), inflater, BUFFER_SIZE)) {
+            while (out.writeBytes(is, BUFFER_SIZE) > -1) {
+                // read until the end of the stream
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Deflater decompress error", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
 }
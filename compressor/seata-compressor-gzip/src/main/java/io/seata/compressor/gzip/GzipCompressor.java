@@ -15,6 +15,7 @@
  */
 package io.seata.compressor.gzip;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.LoadLevel;
 import io.seata.core.compressor.Compressor;
 
@@ -34,4 +35,14 @@ public class GzipCompressor implements Compressor {
         return GzipUtil.decompress(bytes);
     }
 
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        GzipUtil.compress(in, out);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        GzipUtil.decompress(in, out);
+    }
+
 }
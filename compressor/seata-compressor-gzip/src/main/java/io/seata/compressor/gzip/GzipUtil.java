@@ -21,6 +21,10 @@ import java.io.IOException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
 /**
  * @author jsbxyyx
  */
@@ -65,4 +69,23 @@ public class GzipUtil {
         }
     }
 
+    public static void compress(ByteBuf in, ByteBuf out) {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(new ByteBufOutputStream(out))) {
+            in.readBytes(gzip, in.readableBytes());
+            gzip.finish();
+        } catch (IOException e) {
+            throw new RuntimeException("gzip compress error", e);
+        }
+    }
+
+    public static void decompress(ByteBuf in, ByteBuf out) {
+        try (GZIPInputStream gunzip = new GZIPInputStream(new ByteBufInputStream(in), BUFFER_SIZE)) {
+            while (out.writeBytes(gunzip, BUFFER_SIZE) > -1) {
+                // read until the end of the stream
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("gzip decompress error", e);
+        }
+    }
+
 }
@@ -15,6 +15,9 @@
  */
 package io.seata.compressor.gzip;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -31,4 +34,19 @@ public class GzipCompressorTest {
         bytes = compressor.decompress(bytes);
         Assertions.assertEquals(new String(bytes), "aa");
     }
+
+    @Test
+    public void testCompressAndDecompressByteBuf() {
+        GzipCompressor compressor = new GzipCompressor();
+        byte[] bytes = "seata seata seata seata".getBytes();
+        ByteBuf compressed = Unpooled.buffer();
+        compressor.compress(Unpooled.wrappedBuffer(bytes), compressed);
+        // the streamed and the byte[] path are interchangeable
+        Assertions.assertArrayEquals(bytes, compressor.decompress(ByteBufUtil.getBytes(compressed)));
+
+        ByteBuf decompressed = Unpooled.buffer();
+        compressor.decompress(compressed, decompressed);
+        Assertions.assertEquals(0, compressed.readableBytes());
+        Assertions.assertArrayEquals(bytes, ByteBufUtil.getBytes(decompressed));
+    }
 }
@@ -15,6 +15,9 @@
  */
 package io.seata.core.compressor;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  * @author jsbxyyx
  */
@@ -34,4 +37,28 @@ public interface Compressor {
      */
     byte[] decompress(byte[] bytes);
 
+    /**
+     * compress the readable bytes of the input buffer into the output buffer.
+     * the default implementation goes through {@link #compress(byte[])}, compressors able to stream over the
+     * buffers should override it.
+     * @param in the input buffer
+     * @param out the output buffer
+     */
+    default void compress(ByteBuf in, ByteBuf out) {
+        out.writeBytes(compress(ByteBufUtil.getBytes(in)));
+        in.skipBytes(in.readableBytes());
+    }
+
+    /**
+     * decompress the readable bytes of the input buffer into the output buffer.
+     * the default implementation goes through {@link #decompress(byte[])}, compressors able to stream over the
+     * buffers should override it.
+     * @param in the input buffer
+     * @param out the output buffer
+     */
+    default void decompress(ByteBuf in, ByteBuf out) {
+        out.writeBytes(decompress(ByteBufUtil.getBytes(in)));
+        in.skipBytes(in.readableBytes());
+    }
+
 }
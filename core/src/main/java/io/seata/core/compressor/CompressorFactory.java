@@ -15,6 +15,7 @@
  */
 package io.seata.core.compressor;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.util.CollectionUtils;
@@ -63,6 +64,16 @@ public class CompressorFactory {
         public byte[] decompress(byte[] bytes) {
             return bytes;
         }
+
+        @Override
+        public void compress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
+
+        @Override
+        public void decompress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
     }
 
 }
@@ -120,7 +120,12 @@ public enum TransactionExceptionCode {
     /**
      * Lock key conflict fail fast transaction exception code.
      */
-    LockKeyConflictFailFast
+    LockKeyConflictFailFast,
+
+    /**
+     * The TC is overloaded and did not handle the request, it may be retried later.
+     */
+    ServerBusy
     ;
 
 
@@ -15,9 +15,11 @@
  */
 package io.seata.core.protocol;
 
+import io.netty.util.Timeout;
 import io.seata.common.exception.ShouldNeverHappenException;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -32,6 +34,7 @@ public class MessageFuture {
     private long timeout;
     private long start = System.currentTimeMillis();
     private transient CompletableFuture<Object> origin = new CompletableFuture<>();
+    private transient volatile Timeout timeoutTask;
 
     /**
      * Is timeout boolean.
@@ -74,6 +77,20 @@ public class MessageFuture {
         return result;
     }
 
+    /**
+     * Gets the future of the result message, it is completed exceptionally if the request failed or timed out.
+     *
+     * @return the result future
+     */
+    public CompletableFuture<Object> toCompletableFuture() {
+        return origin.thenApply(result -> {
+            if (result instanceof Throwable) {
+                throw new CompletionException((Throwable)result);
+            }
+            return result;
+        });
+    }
+
     /**
      * Sets result message.
      *
@@ -81,6 +98,22 @@ public class MessageFuture {
      */
     public void setResultMessage(Object obj) {
         origin.complete(obj);
+        Timeout task = timeoutTask;
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Bind the task expiring this future, it is cancelled once the result message is set.
+     *
+     * @param timeoutTask the timeout task
+     */
+    public void bindTimeoutTask(Timeout timeoutTask) {
+        this.timeoutTask = timeoutTask;
+        if (origin.isDone()) {
+            timeoutTask.cancel();
+        }
     }
 
     /**
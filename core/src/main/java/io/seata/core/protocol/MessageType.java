@@ -133,6 +133,10 @@ public interface MessageType {
      * The constant TYPE_RM_DELETE_UNDOLOG.
      */
     short TYPE_RM_DELETE_UNDOLOG = 111;
+    /**
+     * The constant TYPE_RM_LOCK_RELEASE_NOTIFY.
+     */
+    short TYPE_RM_LOCK_RELEASE_NOTIFY = 112;
 
     /**
      * the constant TYPE_HEARTBEAT_MSG
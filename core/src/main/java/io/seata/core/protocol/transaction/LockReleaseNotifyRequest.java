@@ -0,0 +1,87 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.protocol.transaction;
+
+import java.io.Serializable;
+
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.MessageType;
+import io.seata.core.rpc.RpcContext;
+
+/**
+ * The notify sent by the TC to a resource manager waiting for global locks, when the rows it failed to lock have
+ * been released.
+ */
+public class LockReleaseNotifyRequest extends AbstractTransactionRequestToRM implements Serializable {
+
+    private static final long serialVersionUID = -3251407427380327428L;
+
+    /**
+     * The xid of the waiting branch.
+     */
+    private String xid;
+
+    private String resourceId;
+
+    /**
+     * The Branch type.
+     */
+    protected BranchType branchType = BranchType.AT;
+
+    public String getXid() {
+        return xid;
+    }
+
+    public void setXid(String xid) {
+        this.xid = xid;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(String resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public BranchType getBranchType() {
+        return branchType;
+    }
+
+    public void setBranchType(BranchType branchType) {
+        this.branchType = branchType;
+    }
+
+    @Override
+    public AbstractTransactionResponse handle(RpcContext rpcContext) {
+        handler.handle(this);
+        return null;
+    }
+
+    @Override
+    public short getTypeCode() {
+        return MessageType.TYPE_RM_LOCK_RELEASE_NOTIFY;
+    }
+
+    @Override
+    public String toString() {
+        return "LockReleaseNotifyRequest{" +
+                "xid='" + xid + '\'' +
+                ", resourceId='" + resourceId + '\'' +
+                ", branchType=" + branchType +
+                '}';
+    }
+}
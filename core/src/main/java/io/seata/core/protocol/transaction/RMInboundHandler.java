@@ -44,4 +44,11 @@ public interface RMInboundHandler {
      * @param request the request
      */
     void handle(UndoLogDeleteRequest request);
+
+    /**
+     * Handle lock release notify.
+     *
+     * @param request the request
+     */
+    void handle(LockReleaseNotifyRequest request);
 }
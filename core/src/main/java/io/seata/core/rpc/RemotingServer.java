@@ -19,6 +19,7 @@ import io.netty.channel.Channel;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.processor.RemotingProcessor;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
@@ -60,6 +61,25 @@ public interface RemotingServer {
      */
     void sendAsyncRequest(Channel channel, Object msg);
 
+    /**
+     * server send async request and get the response by the returned future.
+     * The default implementation waits for the response by {@link #sendSyncRequest(String, String, Object)}.
+     *
+     * @param resourceId rm client resourceId
+     * @param clientId   rm client id
+     * @param msg        transaction message {@link io.seata.core.protocol}
+     * @return the future of the client result message
+     */
+    default CompletableFuture<Object> sendAsyncRequest(String resourceId, String clientId, Object msg) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        try {
+            future.complete(sendSyncRequest(resourceId, clientId, msg));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
     /**
      * server send async response.
      *
@@ -18,6 +18,7 @@ package io.seata.core.rpc.netty;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.HashedWheelTimer;
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.loader.EnhancedServiceLoader;
@@ -41,7 +42,7 @@ import java.lang.management.ManagementFactory;
 import java.net.SocketAddress;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -50,6 +51,7 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The abstract netty remoting.
@@ -84,16 +86,24 @@ public abstract class AbstractNettyRemoting implements Disposable {
 
     private static final long NOT_WRITEABLE_CHECK_MILLS = 10L;
 
+    private static final long FUTURE_TIMEOUT_TICK_MILLS = 100L;
+
     /**
-     * The Now mills.
+     * The timer expiring the futures, a future is scheduled and cancelled in O(1) whatever the number in flight.
      */
-    protected volatile long nowMills = 0;
-    private static final int TIMEOUT_CHECK_INTERVAL = 3000;
-    protected final Object lock = new Object();
+    protected final HashedWheelTimer futureTimeoutTimer = new HashedWheelTimer(
+        new NamedThreadFactory("futureTimeoutChecker", 1, true), FUTURE_TIMEOUT_TICK_MILLS, TimeUnit.MILLISECONDS);
+
+    /**
+     * The number of the futures expired before their response.
+     */
+    protected final AtomicLong expiredFutureCount = new AtomicLong();
+
     /**
-     * The Is sending.
+     * The number of the responses whose future was no longer waiting, mostly the responses of the expired futures.
      */
-    protected volatile boolean isSending = false;
+    protected final AtomicLong lateResponseCount = new AtomicLong();
+    protected final Object lock = new Object();
     private String group = "DEFAULT";
 
     /**
@@ -105,25 +115,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
     protected final List<RpcHook> rpcHooks = EnhancedServiceLoader.loadAll(RpcHook.class);
 
     public void init() {
-        timerExecutor.scheduleAtFixedRate(new Runnable() {
-            @Override
-            public void run() {
-                for (Map.Entry<Integer, MessageFuture> entry : futures.entrySet()) {
-                    MessageFuture future = entry.getValue();
-                    if (future.isTimeout()) {
-                        futures.remove(entry.getKey());
-                        RpcMessage rpcMessage = future.getRequestMessage();
-                        future.setResultMessage(new TimeoutException(String
-                            .format("msgId: %s ,msgType: %s ,msg: %s ,request timeout", rpcMessage.getId(), String.valueOf(rpcMessage.getMessageType()), rpcMessage.getBody().toString())));
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("timeout clear future: {}", entry.getValue().getRequestMessage().getBody());
-                        }
-                    }
-                }
-
-                nowMills = System.currentTimeMillis();
-            }
-        }, TIMEOUT_CHECK_INTERVAL, TIMEOUT_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        futureTimeoutTimer.start();
     }
 
     public AbstractNettyRemoting(ThreadPoolExecutor messageExecutor) {
@@ -138,6 +130,14 @@ public abstract class AbstractNettyRemoting implements Disposable {
         return futures;
     }
 
+    public long getExpiredFutureCount() {
+        return expiredFutureCount.get();
+    }
+
+    public long getLateResponseCount() {
+        return lateResponseCount.get();
+    }
+
     public String getGroup() {
         return group;
     }
@@ -153,6 +153,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
     @Override
     public void destroy() {
         timerExecutor.shutdown();
+        futureTimeoutTimer.stop();
         messageExecutor.shutdown();
     }
 
@@ -178,7 +179,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
         MessageFuture messageFuture = new MessageFuture();
         messageFuture.setRequestMessage(rpcMessage);
         messageFuture.setTimeout(timeoutMillis);
-        futures.put(rpcMessage.getId(), messageFuture);
+        putFuture(rpcMessage, messageFuture);
 
         channelWritableCheck(channel, rpcMessage.getBody());
 
@@ -210,6 +211,71 @@ public abstract class AbstractNettyRemoting implements Disposable {
         }
     }
 
+    /**
+     * rpc request without blocking the caller.
+     * The response, the failure or the timeout of the request completes the returned future.
+     *
+     * @param channel       netty channel
+     * @param rpcMessage    rpc message
+     * @param timeoutMillis rpc communication timeout
+     * @return the future of the response message
+     */
+    protected CompletableFuture<Object> sendAsyncWithResponse(Channel channel, RpcMessage rpcMessage,
+                                                              long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new FrameworkException("timeout should more than 0ms");
+        }
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(rpcMessage);
+        messageFuture.setTimeout(timeoutMillis);
+        putFuture(rpcMessage, messageFuture);
+
+        channelWritableCheck(channel, rpcMessage.getBody());
+
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        doBeforeRpcHooks(remoteAddr, rpcMessage);
+
+        channel.writeAndFlush(rpcMessage).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                MessageFuture messageFuture1 = futures.remove(rpcMessage.getId());
+                if (messageFuture1 != null) {
+                    messageFuture1.setResultMessage(future.cause());
+                }
+                destroyChannel(future.channel());
+            }
+        });
+
+        return messageFuture.toCompletableFuture().thenApply(result -> {
+            doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            return result;
+        });
+    }
+
+    /**
+     * Put the future of the request, it is expired by the timer unless its response comes first.
+     *
+     * @param rpcMessage    rpc message
+     * @param messageFuture the future of the response message
+     */
+    protected void putFuture(RpcMessage rpcMessage, MessageFuture messageFuture) {
+        futures.put(rpcMessage.getId(), messageFuture);
+        messageFuture.bindTimeoutTask(futureTimeoutTimer.newTimeout(timeout -> expireFuture(messageFuture),
+            messageFuture.getTimeout(), TimeUnit.MILLISECONDS));
+    }
+
+    private void expireFuture(MessageFuture future) {
+        RpcMessage rpcMessage = future.getRequestMessage();
+        if (!futures.remove(rpcMessage.getId(), future)) {
+            return;
+        }
+        expiredFutureCount.incrementAndGet();
+        future.setResultMessage(new TimeoutException(String
+            .format("msgId: %s ,msgType: %s ,msg: %s ,request timeout", rpcMessage.getId(), String.valueOf(rpcMessage.getMessageType()), rpcMessage.getBody().toString())));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("timeout clear future: {}", rpcMessage.getBody());
+        }
+    }
+
     /**
      * rpc async request.
      *
@@ -274,46 +340,59 @@ public abstract class AbstractNettyRemoting implements Disposable {
             MessageTypeAware messageTypeAware = (MessageTypeAware) body;
             final Pair<RemotingProcessor, ExecutorService> pair = this.processorTable.get((int) messageTypeAware.getTypeCode());
             if (pair != null) {
-                if (pair.getSecond() != null) {
-                    try {
-                        pair.getSecond().execute(() -> {
-                            try {
-                                pair.getFirst().process(ctx, rpcMessage);
-                            } catch (Throwable th) {
-                                LOGGER.error(FrameworkErrorCode.NetDispatch.getErrCode(), th.getMessage(), th);
-                            } finally {
-                                MDC.clear();
-                            }
-                        });
-                    } catch (RejectedExecutionException e) {
-                        LOGGER.error(FrameworkErrorCode.ThreadPoolFull.getErrCode(),
-                            "thread pool is full, current max pool size is " + messageExecutor.getActiveCount());
-                        if (allowDumpStack) {
-                            String name = ManagementFactory.getRuntimeMXBean().getName();
-                            String pid = name.split("@")[0];
-                            long idx = System.currentTimeMillis();
-                            try {
-                                String jstackFile = idx + ".log";
-                                LOGGER.info("jstack command will dump to " + jstackFile);
-                                Runtime.getRuntime().exec(String.format("jstack %s > %s", pid, jstackFile));
-                            } catch (IOException exx) {
-                                LOGGER.error(exx.getMessage());
-                            }
-                            allowDumpStack = false;
-                        }
-                    }
-                } else {
+                dispatch(ctx, rpcMessage, pair.getFirst(), pair.getSecond());
+            } else {
+                LOGGER.error("This message type [{}] has no processor.", messageTypeAware.getTypeCode());
+            }
+        } else {
+            LOGGER.error("This rpcMessage body[{}] is not MessageTypeAware type.", body);
+        }
+    }
+
+    /**
+     * Hand a rpc message to its processor, on the executor if any, otherwise on the calling thread.
+     *
+     * @param ctx        Channel handler context.
+     * @param rpcMessage rpc message.
+     * @param processor  the processor of the message.
+     * @param executor   the executor the message is processed on, may be null.
+     */
+    protected void dispatch(ChannelHandlerContext ctx, RpcMessage rpcMessage, RemotingProcessor processor,
+                            ExecutorService executor) {
+        if (executor != null) {
+            try {
+                executor.execute(() -> {
                     try {
-                        pair.getFirst().process(ctx, rpcMessage);
+                        processor.process(ctx, rpcMessage);
                     } catch (Throwable th) {
                         LOGGER.error(FrameworkErrorCode.NetDispatch.getErrCode(), th.getMessage(), th);
+                    } finally {
+                        MDC.clear();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                LOGGER.error(FrameworkErrorCode.ThreadPoolFull.getErrCode(),
+                    "thread pool is full, current max pool size is " + messageExecutor.getActiveCount());
+                if (allowDumpStack) {
+                    String name = ManagementFactory.getRuntimeMXBean().getName();
+                    String pid = name.split("@")[0];
+                    long idx = System.currentTimeMillis();
+                    try {
+                        String jstackFile = idx + ".log";
+                        LOGGER.info("jstack command will dump to " + jstackFile);
+                        Runtime.getRuntime().exec(String.format("jstack %s > %s", pid, jstackFile));
+                    } catch (IOException exx) {
+                        LOGGER.error(exx.getMessage());
                     }
+                    allowDumpStack = false;
                 }
-            } else {
-                LOGGER.error("This message type [{}] has no processor.", messageTypeAware.getTypeCode());
             }
         } else {
-            LOGGER.error("This rpcMessage body[{}] is not MessageTypeAware type.", body);
+            try {
+                processor.process(ctx, rpcMessage);
+            } catch (Throwable th) {
+                LOGGER.error(FrameworkErrorCode.NetDispatch.getErrCode(), th.getMessage(), th);
+            }
         }
     }
 
@@ -19,7 +19,6 @@ import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -78,15 +77,13 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     private static final String MSG_ID_PREFIX = "msgId:";
     private static final String FUTURES_PREFIX = "futures:";
     private static final String SINGLE_LOG_POSTFIX = ";";
-    private static final int MAX_MERGE_SEND_MILLS = 1;
     private static final String THREAD_PREFIX_SPLIT_CHAR = "_";
 
-    private static final int MAX_MERGE_SEND_THREAD = 1;
+    private static final int MAX_MERGE_SEND_THREAD = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
     private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
     private static final long SCHEDULE_DELAY_MILLS = 60 * 1000L;
     private static final long SCHEDULE_INTERVAL_MILLS = 10 * 1000L;
     private static final String MERGE_THREAD_PREFIX = "rpcMergeMessageSend";
-    protected final Object mergeLock = new Object();
 
     /**
      * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
@@ -94,11 +91,10 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     protected final Map<Integer, MergeMessage> mergeMsgMap = new ConcurrentHashMap<>();
 
     /**
-     * When batch sending is enabled, the message will be stored to basketMap
-     * Send via asynchronous thread {@link MergedSendRunnable}
+     * When batch sending is enabled, the message will be offered to the merged send queue of its server address
      * {@link this#isEnableClientBatchSendRequest()}
      */
-    protected final ConcurrentHashMap<String/*serverAddress*/, BlockingQueue<RpcMessage>> basketMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String/*serverAddress*/, MergedSendQueue> mergedSendQueues = new ConcurrentHashMap<>();
 
     private final NettyClientBootstrap clientBootstrap;
     private NettyClientChannelManager clientChannelManager;
@@ -121,7 +117,6 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
                 KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
                 new LinkedBlockingQueue<>(),
                 new NamedThreadFactory(getThreadPrefix(), MAX_MERGE_SEND_THREAD));
-            mergeSendExecutorService.submit(new MergedSendRunnable());
         }
         super.init();
         clientBootstrap.start();
@@ -144,31 +139,30 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
 
         // send batch message
-        // put message into basketMap, @see MergedSendRunnable
+        // offer message to the merged send queue, @see MergedSendQueue
         if (this.isEnableClientBatchSendRequest()) {
 
             // send batch message is sync request, needs to create messageFuture and put it in futures.
             MessageFuture messageFuture = new MessageFuture();
             messageFuture.setRequestMessage(rpcMessage);
             messageFuture.setTimeout(timeoutMillis);
-            futures.put(rpcMessage.getId(), messageFuture);
-
-            // put message into basketMap
-            BlockingQueue<RpcMessage> basket = CollectionUtils.computeIfAbsent(basketMap, serverAddress,
-                key -> new LinkedBlockingQueue<>());
-            if (!basket.offer(rpcMessage)) {
-                LOGGER.error("put message into basketMap offer failed, serverAddress:{},rpcMessage:{}",
+            putFuture(rpcMessage, messageFuture);
+
+            // offer message to the merged send queue of the server, waiting for room while it is full
+            MergedSendQueue mergedSendQueue = CollectionUtils.computeIfAbsent(mergedSendQueues, serverAddress,
+                key -> new MergedSendQueue(key, NettyClientConfig.getClientBatchSendQueueSize(),
+                    NettyClientConfig.getClientBatchSendMaxSize(), NettyClientConfig.getClientBatchSendLingerMicros(),
+                    mergeSendExecutorService, this::sendMergedMessage));
+            if (!mergedSendQueue.offer(rpcMessage, timeoutMillis)) {
+                futures.remove(rpcMessage.getId());
+                LOGGER.error("offer message to the merged send queue timeout, serverAddress:{},rpcMessage:{}",
                         serverAddress, rpcMessage);
-                return null;
+                throw new TimeoutException(String.format("the merged send queue of %s is full, msgId: %s",
+                    serverAddress, rpcMessage.getId()));
             }
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("offer message: {}", rpcMessage.getBody());
             }
-            if (!isSending) {
-                synchronized (mergeLock) {
-                    mergeLock.notifyAll();
-                }
-            }
 
             try {
                 return messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
@@ -332,76 +326,54 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     protected abstract long getRpcRequestTimeout();
 
     /**
-     * The type Merged send runnable.
+     * Send the merged message of the server address, the futures of its messages fail fast if it can not be sent.
+     *
+     * @param address      the server address
+     * @param mergeMessage the merged message
      */
-    private class MergedSendRunnable implements Runnable {
-
-        @Override
-        public void run() {
-            while (true) {
-                synchronized (mergeLock) {
-                    try {
-                        mergeLock.wait(MAX_MERGE_SEND_MILLS);
-                    } catch (InterruptedException e) {
-                    }
+    private void sendMergedMessage(String address, MergedWarpMessage mergeMessage) {
+        if (mergeMessage.msgIds.size() > 1) {
+            printMergeMessageLog(mergeMessage);
+        }
+        Channel sendChannel = null;
+        try {
+            // send batch message is sync request, but there is no need to get the return value.
+            // Since the messageFuture has been created before the message is offered to the merged send queue,
+            // the return value will be obtained in ClientOnResponseProcessor.
+            sendChannel = clientChannelManager.acquireChannel(address);
+            sendAsyncRequest(sendChannel, mergeMessage);
+        } catch (Exception e) {
+            if (e instanceof FrameworkException && ((FrameworkException) e).getErrcode()
+                == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
+                destroyChannel(address, sendChannel);
+            }
+            // fast fail
+            for (Integer msgId : mergeMessage.msgIds) {
+                MessageFuture messageFuture = futures.remove(msgId);
+                if (messageFuture != null) {
+                    messageFuture.setResultMessage(
+                        new RuntimeException(String.format("%s is unreachable", address), e));
                 }
-                isSending = true;
-                basketMap.forEach((address, basket) -> {
-                    if (basket.isEmpty()) {
-                        return;
-                    }
-
-                    MergedWarpMessage mergeMessage = new MergedWarpMessage();
-                    while (!basket.isEmpty()) {
-                        RpcMessage msg = basket.poll();
-                        mergeMessage.msgs.add((AbstractMessage) msg.getBody());
-                        mergeMessage.msgIds.add(msg.getId());
-                    }
-                    if (mergeMessage.msgIds.size() > 1) {
-                        printMergeMessageLog(mergeMessage);
-                    }
-                    Channel sendChannel = null;
-                    try {
-                        // send batch message is sync request, but there is no need to get the return value.
-                        // Since the messageFuture has been created before the message is placed in basketMap,
-                        // the return value will be obtained in ClientOnResponseProcessor.
-                        sendChannel = clientChannelManager.acquireChannel(address);
-                        AbstractNettyRemotingClient.this.sendAsyncRequest(sendChannel, mergeMessage);
-                    } catch (FrameworkException e) {
-                        if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
-                            destroyChannel(address, sendChannel);
-                        }
-                        // fast fail
-                        for (Integer msgId : mergeMessage.msgIds) {
-                            MessageFuture messageFuture = futures.remove(msgId);
-                            if (messageFuture != null) {
-                                messageFuture.setResultMessage(
-                                    new RuntimeException(String.format("%s is unreachable", address), e));
-                            }
-                        }
-                        LOGGER.error("client merge call failed: {}", e.getMessage(), e);
-                    }
-                });
-                isSending = false;
             }
+            LOGGER.error("client merge call failed: {}", e.getMessage(), e);
         }
+    }
 
-        private void printMergeMessageLog(MergedWarpMessage mergeMessage) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("merge msg size:{}", mergeMessage.msgIds.size());
-                for (AbstractMessage cm : mergeMessage.msgs) {
-                    LOGGER.debug(cm.toString());
-                }
-                StringBuilder sb = new StringBuilder();
-                for (long l : mergeMessage.msgIds) {
-                    sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
-                sb.append("\n");
-                for (long l : futures.keySet()) {
-                    sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
-                LOGGER.debug(sb.toString());
+    private void printMergeMessageLog(MergedWarpMessage mergeMessage) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("merge msg size:{}", mergeMessage.msgIds.size());
+            for (AbstractMessage cm : mergeMessage.msgs) {
+                LOGGER.debug(cm.toString());
+            }
+            StringBuilder sb = new StringBuilder();
+            for (long l : mergeMessage.msgIds) {
+                sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
+            }
+            sb.append("\n");
+            for (long l : futures.keySet()) {
+                sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
             }
+            LOGGER.debug(sb.toString());
         }
     }
 
@@ -15,6 +15,7 @@
  */
 package io.seata.core.rpc.netty;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeoutException;
@@ -90,6 +91,19 @@ public abstract class AbstractNettyRemotingServer extends AbstractNettyRemoting
         super.sendAsync(channel, rpcMessage);
     }
 
+    @Override
+    public CompletableFuture<Object> sendAsyncRequest(String resourceId, String clientId, Object msg) {
+        Channel channel = ChannelManager.getChannel(resourceId, clientId);
+        if (channel == null) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeExceptionally(new RuntimeException(
+                "rm client is not connected. dbkey:" + resourceId + ",clientId:" + clientId));
+            return future;
+        }
+        RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        return super.sendAsyncWithResponse(channel, rpcMessage, NettyServerConfig.getRpcRequestTimeout());
+    }
+
     @Override
     public void sendAsyncResponse(RpcMessage rpcMessage, Channel channel, Object msg) {
         Channel clientChannel = channel;
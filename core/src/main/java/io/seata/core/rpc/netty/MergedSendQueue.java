@@ -0,0 +1,195 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import io.netty.util.internal.PlatformDependent;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RpcMessage;
+
+/**
+ * The requests batched to one server address.
+ * <p>
+ * The callers offer their requests to a bounded multi-producer single-consumer queue without any lock. A drain task
+ * is scheduled on the executor by the caller finding the queue idle, so there is at most one writer of an address
+ * and the addresses are drained in parallel. The writer flushes a merged message once it reaches the max batch size
+ * or the linger time has passed, a caller facing a full queue waits for room instead of failing right away.
+ *
+ * @author seata
+ */
+final class MergedSendQueue implements Runnable {
+
+    private static final long FULL_QUEUE_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final String address;
+
+    private final Queue<RpcMessage> queue;
+
+    private final int maxBatchSize;
+
+    private final long lingerNanos;
+
+    private final Executor executor;
+
+    private final MergedMessageSender sender;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private volatile Thread writer;
+
+    /**
+     * Instantiates a new Merged send queue.
+     *
+     * @param address      the server address
+     * @param capacity     the capacity of the queue
+     * @param maxBatchSize the max number of requests of a merged message
+     * @param lingerMicros the time the writer waits for a batch to fill up, 0 to flush what is queued right away
+     * @param executor     the executor of the drain task
+     * @param sender       the sender of the merged messages
+     */
+    MergedSendQueue(String address, int capacity, int maxBatchSize, long lingerMicros, Executor executor,
+                    MergedMessageSender sender) {
+        this.address = address;
+        this.queue = PlatformDependent.newFixedMpscQueue(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.executor = executor;
+        this.sender = sender;
+    }
+
+    /**
+     * Offer a request, waiting for room while the queue is full.
+     *
+     * @param rpcMessage    the request
+     * @param timeoutMillis the max time to wait for room
+     * @return false if the queue stayed full until the timeout
+     */
+    boolean offer(RpcMessage rpcMessage, long timeoutMillis) {
+        if (!queue.offer(rpcMessage)) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            do {
+                if (System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                schedule();
+                LockSupport.parkNanos(this, FULL_QUEUE_BACKOFF_NANOS);
+            } while (!queue.offer(rpcMessage));
+        }
+        if (!schedule() && lingerNanos > 0 && queue.size() >= maxBatchSize) {
+            Thread lingering = writer;
+            if (lingering != null) {
+                LockSupport.unpark(lingering);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The number of the queued requests.
+     *
+     * @return the size
+     */
+    int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        boolean completed = false;
+        try {
+            do {
+                writer = Thread.currentThread();
+                while (!queue.isEmpty()) {
+                    linger();
+                    flush();
+                }
+                writer = null;
+                scheduled.set(false);
+                // a request offered after the last poll and before the flag was cleared has nobody else to send it
+            } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+            completed = true;
+        } finally {
+            if (!completed) {
+                writer = null;
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private boolean schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void linger() {
+        if (lingerNanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + lingerNanos;
+        while (queue.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    private void flush() {
+        MergedWarpMessage mergeMessage = new MergedWarpMessage();
+        for (int i = 0; i < maxBatchSize; i++) {
+            RpcMessage msg = queue.poll();
+            if (msg == null) {
+                break;
+            }
+            mergeMessage.msgs.add((AbstractMessage) msg.getBody());
+            mergeMessage.msgIds.add(msg.getId());
+        }
+        if (!mergeMessage.msgIds.isEmpty()) {
+            sender.send(address, mergeMessage);
+        }
+    }
+
+    /**
+     * The sender of the merged messages of an address.
+     */
+    @FunctionalInterface
+    interface MergedMessageSender {
+
+        /**
+         * Send a merged message, it must not throw.
+         *
+         * @param address      the server address
+         * @param mergeMessage the merged message
+         */
+        void send(String address, MergedWarpMessage mergeMessage);
+    }
+}
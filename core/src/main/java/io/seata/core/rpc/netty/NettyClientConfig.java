@@ -19,6 +19,9 @@ import io.netty.channel.Channel;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.rpc.TransportServerType;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_LINGER_MICROS;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_QUEUE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_RM_REQUEST_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TM_REQUEST_TIMEOUT;
@@ -43,6 +46,9 @@ public class NettyClientConfig extends NettyBaseConfig {
     private int pendingConnSize = Integer.MAX_VALUE;
     private static final long RPC_RM_REQUEST_TIMEOUT = CONFIG.getLong(ConfigurationKeys.RPC_RM_REQUEST_TIMEOUT, DEFAULT_RPC_RM_REQUEST_TIMEOUT);
     private static final long RPC_TM_REQUEST_TIMEOUT = CONFIG.getLong(ConfigurationKeys.RPC_TM_REQUEST_TIMEOUT, DEFAULT_RPC_TM_REQUEST_TIMEOUT);
+    private static final int CLIENT_BATCH_SEND_QUEUE_SIZE = CONFIG.getInt(ConfigurationKeys.CLIENT_BATCH_SEND_QUEUE_SIZE, DEFAULT_CLIENT_BATCH_SEND_QUEUE_SIZE);
+    private static final int CLIENT_BATCH_SEND_MAX_SIZE = CONFIG.getInt(ConfigurationKeys.CLIENT_BATCH_SEND_MAX_SIZE, DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE);
+    private static final long CLIENT_BATCH_SEND_LINGER_MICROS = CONFIG.getLong(ConfigurationKeys.CLIENT_BATCH_SEND_LINGER_MICROS, DEFAULT_CLIENT_BATCH_SEND_LINGER_MICROS);
     private static String vgroup;
     private static String clientAppName;
     private static int clientType;
@@ -235,6 +241,33 @@ public class NettyClientConfig extends NettyBaseConfig {
         return RPC_TM_REQUEST_TIMEOUT;
     }
 
+    /**
+     * Gets the capacity of the batch send queue of a server address.
+     *
+     * @return the client batch send queue size
+     */
+    public static int getClientBatchSendQueueSize() {
+        return CLIENT_BATCH_SEND_QUEUE_SIZE;
+    }
+
+    /**
+     * Gets the max number of requests merged into one batch.
+     *
+     * @return the client batch send max size
+     */
+    public static int getClientBatchSendMaxSize() {
+        return CLIENT_BATCH_SEND_MAX_SIZE;
+    }
+
+    /**
+     * Gets the time a batch waits to fill up before it is sent.
+     *
+     * @return the client batch send linger micros
+     */
+    public static long getClientBatchSendLingerMicros() {
+        return CLIENT_BATCH_SEND_LINGER_MICROS;
+    }
+
     /**
      * Gets vgroup.
      *
@@ -16,8 +16,15 @@
 package io.seata.core.rpc.netty;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
 import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.StringUtils;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.MergedWarpMessage;
 import io.seata.core.protocol.MessageType;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.Version;
+import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.ShutdownHook;
 import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.processor.server.RegRmProcessor;
@@ -28,6 +35,8 @@ import io.seata.core.rpc.processor.server.ServerOnResponseProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -53,6 +62,18 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
             new LinkedBlockingQueue<>(NettyServerConfig.getMaxTaskQueueSize()),
             new NamedThreadFactory("BranchResultHandlerThread", NettyServerConfig.getMaxBranchResultPoolSize()), new ThreadPoolExecutor.CallerRunsPolicy());
 
+    private final ServerMessageExecutor globalMessageExecutor = new ServerMessageExecutor("GlobalHandlerThread",
+            NettyServerConfig.getMinGlobalPoolSize(), NettyServerConfig.getMaxGlobalPoolSize(),
+            NettyServerConfig.getKeepAliveTime(), NettyServerConfig.getMaxTaskQueueSize(),
+            NettyServerConfig.getServerAdmissionQueueTimeout());
+
+    private final ServerMessageExecutor branchMessageExecutor = new ServerMessageExecutor("BranchHandlerThread",
+            NettyServerConfig.getMinBranchPoolSize(), NettyServerConfig.getMaxBranchPoolSize(),
+            NettyServerConfig.getKeepAliveTime(), NettyServerConfig.getMaxTaskQueueSize(),
+            NettyServerConfig.getServerAdmissionQueueTimeout());
+
+    private ServerOnRequestProcessor onRequestProcessor;
+
     @Override
     public void init() {
         // registry processor
@@ -95,21 +116,23 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
 
     private void registerProcessor() {
         // 1. registry on request message processor
-        ServerOnRequestProcessor onRequestProcessor =
-            new ServerOnRequestProcessor(this, getHandler());
+        onRequestProcessor = new ServerOnRequestProcessor(this, getHandler(), messageExecutor);
         ShutdownHook.getInstance().addDisposable(onRequestProcessor);
-        super.registerProcessor(MessageType.TYPE_BRANCH_REGISTER, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_BRANCH_STATUS_REPORT, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_GLOBAL_BEGIN, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_GLOBAL_COMMIT, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_GLOBAL_LOCK_QUERY, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_GLOBAL_REPORT, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_GLOBAL_ROLLBACK, onRequestProcessor, messageExecutor);
-        super.registerProcessor(MessageType.TYPE_GLOBAL_STATUS, onRequestProcessor, messageExecutor);
+        // the requests of the TM and of the RM are queued apart, so a burst of branch requests can't starve the
+        // commits and rollbacks which would release their locks
+        super.registerProcessor(MessageType.TYPE_GLOBAL_BEGIN, onRequestProcessor, globalMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_GLOBAL_COMMIT, onRequestProcessor, globalMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_GLOBAL_REPORT, onRequestProcessor, globalMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_GLOBAL_ROLLBACK, onRequestProcessor, globalMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_GLOBAL_STATUS, onRequestProcessor, globalMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_BRANCH_REGISTER, onRequestProcessor, branchMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_BRANCH_STATUS_REPORT, onRequestProcessor, branchMessageExecutor);
+        super.registerProcessor(MessageType.TYPE_GLOBAL_LOCK_QUERY, onRequestProcessor, branchMessageExecutor);
+        // a merged message is queued on the pool of its requests by processMessage, on this one if it can't be
         super.registerProcessor(MessageType.TYPE_SEATA_MERGE, onRequestProcessor, messageExecutor);
         // 2. registry on response message processor
         ServerOnResponseProcessor onResponseProcessor =
-            new ServerOnResponseProcessor(getHandler(), getFutures());
+            new ServerOnResponseProcessor(getHandler(), getFutures(), lateResponseCount);
         super.registerProcessor(MessageType.TYPE_BRANCH_COMMIT_RESULT, onResponseProcessor, branchResultMessageExecutor);
         super.registerProcessor(MessageType.TYPE_BRANCH_ROLLBACK_RESULT, onResponseProcessor, branchResultMessageExecutor);
         // 3. registry rm message processor
@@ -123,9 +146,126 @@ public class NettyRemotingServer extends AbstractNettyRemotingServer {
         super.registerProcessor(MessageType.TYPE_HEARTBEAT_MSG, heartbeatMessageProcessor, null);
     }
 
+    /**
+     * The requests of a merged message are queued on the pool of their kind as the single ones are, a message of
+     * the RM on the branch pool and a message of the TM on the global pool.
+     */
+    @Override
+    protected void processMessage(ChannelHandlerContext ctx, RpcMessage rpcMessage) throws Exception {
+        if (rpcMessage.getBody() instanceof MergedWarpMessage && onRequestProcessor != null
+            && dispatchMergedMessage(ctx, rpcMessage)) {
+            return;
+        }
+        super.processMessage(ctx, rpcMessage);
+    }
+
+    /**
+     * Queue a merged message on the global pool or on the branch pool. A message mixing the requests of both is split
+     * when its requests are answered one by one, otherwise it is left to the message executor.
+     *
+     * @param ctx        the ctx
+     * @param rpcMessage the merged message
+     * @return false if the message is left to the message executor
+     */
+    private boolean dispatchMergedMessage(ChannelHandlerContext ctx, RpcMessage rpcMessage) {
+        MergedWarpMessage[] parts = splitMergedMessage((MergedWarpMessage)rpcMessage.getBody());
+        if (parts == null) {
+            return false;
+        }
+        MergedWarpMessage globalPart = parts[0];
+        MergedWarpMessage branchPart = parts[1];
+        if (branchPart.msgs.isEmpty()) {
+            dispatch(ctx, rpcMessage, onRequestProcessor, globalMessageExecutor);
+        } else if (globalPart.msgs.isEmpty()) {
+            dispatch(ctx, rpcMessage, onRequestProcessor, branchMessageExecutor);
+        } else if (isAnsweredByMsgId(ctx.channel())) {
+            dispatch(ctx, copyOf(rpcMessage, globalPart), onRequestProcessor, globalMessageExecutor);
+            dispatch(ctx, copyOf(rpcMessage, branchPart), onRequestProcessor, branchMessageExecutor);
+        } else {
+            // the merged result of an older client has to be sent at once
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Split the requests of a merged message into the requests of the TM and the requests of the RM, keeping their
+     * order and their msgIds.
+     *
+     * @param message the merged message
+     * @return the global part and the branch part, null if a request is of neither kind
+     */
+    static MergedWarpMessage[] splitMergedMessage(MergedWarpMessage message) {
+        boolean withMsgIds = message.msgIds != null && message.msgIds.size() == message.msgs.size();
+        MergedWarpMessage globalPart = new MergedWarpMessage();
+        MergedWarpMessage branchPart = new MergedWarpMessage();
+        for (int i = 0; i < message.msgs.size(); i++) {
+            AbstractMessage msg = message.msgs.get(i);
+            MergedWarpMessage part;
+            switch (msg.getTypeCode()) {
+                case MessageType.TYPE_GLOBAL_BEGIN:
+                case MessageType.TYPE_GLOBAL_COMMIT:
+                case MessageType.TYPE_GLOBAL_REPORT:
+                case MessageType.TYPE_GLOBAL_ROLLBACK:
+                case MessageType.TYPE_GLOBAL_STATUS:
+                    part = globalPart;
+                    break;
+                case MessageType.TYPE_BRANCH_REGISTER:
+                case MessageType.TYPE_BRANCH_STATUS_REPORT:
+                case MessageType.TYPE_GLOBAL_LOCK_QUERY:
+                    part = branchPart;
+                    break;
+                default:
+                    return null;
+            }
+            part.msgs.add(msg);
+            if (withMsgIds) {
+                part.msgIds.add(message.msgIds.get(i));
+            }
+        }
+        return new MergedWarpMessage[] {globalPart, branchPart};
+    }
+
+    private static boolean isAnsweredByMsgId(Channel channel) {
+        if (!NettyServerConfig.isEnableTcServerBatchSendResponse()) {
+            return false;
+        }
+        RpcContext rpcContext = ChannelManager.getContextFromIdentified(channel);
+        return rpcContext != null && StringUtils.isNotBlank(rpcContext.getVersion())
+            && Version.isAboveOrEqualVersion150(rpcContext.getVersion());
+    }
+
+    private static RpcMessage copyOf(RpcMessage rpcMessage, MergedWarpMessage body) {
+        RpcMessage copy = new RpcMessage();
+        copy.setId(rpcMessage.getId());
+        copy.setMessageType(rpcMessage.getMessageType());
+        copy.setCodec(rpcMessage.getCodec());
+        copy.setCompressor(rpcMessage.getCompressor());
+        copy.setHeadMap(rpcMessage.getHeadMap());
+        copy.setBody(body);
+        return copy;
+    }
+
     @Override
     public void destroy() {
         super.destroy();
         branchResultMessageExecutor.shutdown();
+        globalMessageExecutor.shutdown();
+        branchMessageExecutor.shutdown();
+    }
+
+    /**
+     * Gets the pools of the requests, the message executor is included if it is a server message executor.
+     *
+     * @return the server message executors
+     */
+    public List<ServerMessageExecutor> getServerMessageExecutors() {
+        List<ServerMessageExecutor> executors = new ArrayList<>(3);
+        executors.add(globalMessageExecutor);
+        executors.add(branchMessageExecutor);
+        if (messageExecutor instanceof ServerMessageExecutor) {
+            executors.add((ServerMessageExecutor)messageExecutor);
+        }
+        return executors;
     }
 }
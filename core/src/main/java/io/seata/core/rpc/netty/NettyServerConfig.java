@@ -66,6 +66,16 @@ public class NettyServerConfig extends NettyBaseConfig {
             ConfigurationKeys.MIN_BRANCH_RESULT_POOL_SIZE, String.valueOf(WORKER_THREAD_SIZE)));
     private static int maxBranchResultPoolSize = Integer.parseInt(System.getProperty(
             ConfigurationKeys.MAX_BRANCH_RESULT_POOL_SIZE, String.valueOf(WORKER_THREAD_SIZE)));
+    private static int minGlobalPoolSize = Integer.parseInt(System.getProperty(
+            ConfigurationKeys.MIN_GLOBAL_POOL_SIZE, "10"));
+    private static int maxGlobalPoolSize = Integer.parseInt(System.getProperty(
+            ConfigurationKeys.MAX_GLOBAL_POOL_SIZE, "100"));
+    private static int minBranchPoolSize = Integer.parseInt(System.getProperty(
+            ConfigurationKeys.MIN_BRANCH_POOL_SIZE, "50"));
+    private static int maxBranchPoolSize = Integer.parseInt(System.getProperty(
+            ConfigurationKeys.MAX_BRANCH_POOL_SIZE, "500"));
+    private static final long SERVER_ADMISSION_QUEUE_TIMEOUT = CONFIG.getLong(
+        ConfigurationKeys.SERVER_ADMISSION_QUEUE_TIMEOUT, DefaultValues.DEFAULT_SERVER_ADMISSION_QUEUE_TIMEOUT);
     private static boolean ENABLE_TC_SERVER_BATCH_SEND_RESPONSE = CONFIG.getBoolean(ConfigurationKeys.ENABLE_TC_SERVER_BATCH_SEND_RESPONSE,
         DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE);
 
@@ -328,6 +338,51 @@ public class NettyServerConfig extends NettyBaseConfig {
         return maxBranchResultPoolSize;
     }
 
+    /**
+     * Get the min size for global transaction request thread pool
+     *
+     * @return the int
+     */
+    public static int getMinGlobalPoolSize() {
+        return minGlobalPoolSize;
+    }
+
+    /**
+     * Get the max size for global transaction request thread pool
+     *
+     * @return the int
+     */
+    public static int getMaxGlobalPoolSize() {
+        return maxGlobalPoolSize;
+    }
+
+    /**
+     * Get the min size for branch transaction request thread pool
+     *
+     * @return the int
+     */
+    public static int getMinBranchPoolSize() {
+        return minBranchPoolSize;
+    }
+
+    /**
+     * Get the max size for branch transaction request thread pool
+     *
+     * @return the int
+     */
+    public static int getMaxBranchPoolSize() {
+        return maxBranchPoolSize;
+    }
+
+    /**
+     * Get the max time in milliseconds a request waits in the queue before it is answered with a retryable failure
+     *
+     * @return the long, 0 or less if all the requests are admitted
+     */
+    public static long getServerAdmissionQueueTimeout() {
+        return SERVER_ADMISSION_QUEUE_TIMEOUT;
+    }
+
     /**
      * Get the tc server batch send response enable
      *
@@ -0,0 +1,164 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import io.seata.common.thread.NamedThreadFactory;
+
+/**
+ * The bounded pool handling a class of the requests received by the TC.
+ * <p>
+ * The time a request waits in the queue is measured when a worker takes it. A request that waited longer than the
+ * admission timeout, or that found the queue full, is marked as not admitted: it is still handed to its processor,
+ * which is expected to answer it with a retryable failure instead of doing the work, so the client backs off and the
+ * backlog drains. A request found the queue full is answered on the calling netty thread, which is cheap, instead of
+ * being handled there as with {@link ThreadPoolExecutor.CallerRunsPolicy}.
+ *
+ * @author seata
+ */
+public class ServerMessageExecutor extends ThreadPoolExecutor {
+
+    private static final ThreadLocal<Boolean> NOT_ADMITTED = new ThreadLocal<>();
+
+    private final String name;
+
+    private final long admissionTimeoutNanos;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private volatile LongConsumer queueTimeListener;
+
+    /**
+     * Instantiates a new Server message executor.
+     *
+     * @param name                    the name of the pool, also the prefix of its threads
+     * @param corePoolSize            the core pool size
+     * @param maxPoolSize             the max pool size
+     * @param keepAliveSeconds        the keep alive time of the idle threads in seconds
+     * @param queueSize               the capacity of the queue
+     * @param admissionTimeoutMillis  the max time a request may wait in the queue, 0 or less to admit all of them
+     */
+    public ServerMessageExecutor(String name, int corePoolSize, int maxPoolSize, long keepAliveSeconds, int queueSize,
+                                 long admissionTimeoutMillis) {
+        super(corePoolSize, maxPoolSize, keepAliveSeconds, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueSize),
+            new NamedThreadFactory(name, maxPoolSize));
+        setRejectedExecutionHandler((task, executor) -> {
+            rejectedCount.incrementAndGet();
+            runNotAdmitted(task);
+        });
+        this.name = name;
+        this.admissionTimeoutNanos = admissionTimeoutMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMillis)
+            : Long.MAX_VALUE;
+    }
+
+    /**
+     * Whether the request being handled by the current thread was not admitted by its pool.
+     *
+     * @return true if the request should be answered with a retryable failure
+     */
+    public static boolean isNotAdmitted() {
+        return Boolean.TRUE.equals(NOT_ADMITTED.get());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new QueuedTask(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof QueuedTask) {
+            long queueNanos = System.nanoTime() - ((QueuedTask)r).enqueueNanos;
+            LongConsumer listener = queueTimeListener;
+            if (listener != null) {
+                listener.accept(queueNanos);
+            }
+            if (queueNanos > admissionTimeoutNanos) {
+                rejectedCount.incrementAndGet();
+                NOT_ADMITTED.set(Boolean.TRUE);
+            }
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        NOT_ADMITTED.remove();
+        super.afterExecute(r, t);
+    }
+
+    /**
+     * Sets the listener of the time every request waited in the queue, in nanoseconds.
+     *
+     * @param queueTimeListener the queue time listener
+     */
+    public void setQueueTimeListener(LongConsumer queueTimeListener) {
+        this.queueTimeListener = queueTimeListener;
+    }
+
+    /**
+     * Gets the name of the pool.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of the requests not admitted because the queue was full or they waited too long.
+     *
+     * @return the rejected count
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private static void runNotAdmitted(Runnable task) {
+        Boolean outer = NOT_ADMITTED.get();
+        NOT_ADMITTED.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            if (outer == null) {
+                NOT_ADMITTED.remove();
+            } else {
+                NOT_ADMITTED.set(outer);
+            }
+        }
+    }
+
+    private static class QueuedTask implements Runnable {
+
+        private final Runnable task;
+
+        private final long enqueueNanos = System.nanoTime();
+
+        QueuedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import io.netty.handler.codec.MessageToByteEncoder;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.compressor.CompressorType;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.serializer.SerializerServiceLoader;
@@ -88,19 +89,25 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                     fullLength += headMapBytesLength;
                 }
 
-                byte[] bodyBytes = null;
                 if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
                         && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
                     // heartbeat has no body
                     Serializer serializer = SerializerServiceLoader.load(SerializerType.getByCode(rpcMessage.getCodec()));
-                    bodyBytes = serializer.serialize(rpcMessage.getBody());
-                    Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
-                    bodyBytes = compressor.compress(bodyBytes);
-                    fullLength += bodyBytes.length;
-                }
-
-                if (bodyBytes != null) {
-                    out.writeBytes(bodyBytes);
+                    int bodyIndex = out.writerIndex();
+                    if (rpcMessage.getCompressor() == CompressorType.NONE.getCode()) {
+                        // direct write body with zero-copy
+                        serializer.serialize(rpcMessage.getBody(), out);
+                    } else {
+                        Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
+                        ByteBuf body = out.alloc().buffer();
+                        try {
+                            serializer.serialize(rpcMessage.getBody(), body);
+                            compressor.compress(body, out);
+                        } finally {
+                            body.release();
+                        }
+                    }
+                    fullLength += out.writerIndex() - bodyIndex;
                 }
 
                 // fix fullLength and headLength
@@ -18,6 +18,7 @@ package io.seata.core.rpc.processor.client;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.seata.core.protocol.AbstractResultMessage;
@@ -81,12 +82,19 @@ public class ClientOnResponseProcessor implements RemotingProcessor {
      */
     private final TransactionMessageHandler transactionMessageHandler;
 
+    /**
+     * The late response count from io.seata.core.rpc.netty.AbstractNettyRemoting#lateResponseCount
+     */
+    private final AtomicLong lateResponseCount;
+
     public ClientOnResponseProcessor(Map<Integer, MergeMessage> mergeMsgMap,
                                      ConcurrentHashMap<Integer, MessageFuture> futures,
-                                     TransactionMessageHandler transactionMessageHandler) {
+                                     TransactionMessageHandler transactionMessageHandler,
+                                     AtomicLong lateResponseCount) {
         this.mergeMsgMap = mergeMsgMap;
         this.futures = futures;
         this.transactionMessageHandler = transactionMessageHandler;
+        this.lateResponseCount = lateResponseCount;
     }
 
     @Override
@@ -98,6 +106,7 @@ public class ClientOnResponseProcessor implements RemotingProcessor {
                 int msgId = mergeMessage.msgIds.get(i);
                 MessageFuture future = futures.remove(msgId);
                 if (future == null) {
+                    lateResponseCount.incrementAndGet();
                     LOGGER.error("msg: {} is not found in futures, result message: {}", msgId,results.getMsgs()[i]);
                 } else {
                     future.setResultMessage(results.getMsgs()[i]);
@@ -110,6 +119,7 @@ public class ClientOnResponseProcessor implements RemotingProcessor {
                     int msgId = batchResultMessage.getMsgIds().get(i);
                     MessageFuture future = futures.remove(msgId);
                     if (future == null) {
+                        lateResponseCount.incrementAndGet();
                         LOGGER.error("msg: {} is not found in futures, result message: {}", msgId, batchResultMessage.getResultMessages().get(i));
                     } else {
                         future.setResultMessage(batchResultMessage.getResultMessages().get(i));
@@ -126,6 +136,10 @@ public class ClientOnResponseProcessor implements RemotingProcessor {
             if (messageFuture != null) {
                 messageFuture.setResultMessage(rpcMessage.getBody());
             } else {
+                // the register of the resources is sent one way, its response has no future
+                if (!(rpcMessage.getBody() instanceof RegisterRMResponse)) {
+                    lateResponseCount.incrementAndGet();
+                }
                 if (rpcMessage.getBody() instanceof AbstractResultMessage) {
                     if (transactionMessageHandler != null) {
                         transactionMessageHandler.onResponse((AbstractResultMessage) rpcMessage.getBody(), null);
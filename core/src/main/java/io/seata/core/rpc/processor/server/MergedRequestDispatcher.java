@@ -0,0 +1,192 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchReportRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fan the sub-requests of a merged message out across an executor.
+ * <p>
+ * The sub-requests of the same xid form a group handled one after another in the order of the batch, so a branch
+ * report never overtakes the register before it, the groups of different xids and the sub-requests without a xid are
+ * handled in parallel. The first group runs on the calling thread. A sub-request whose handler throws is answered by
+ * a failure result of its own. The results of a group are handed over as soon as the group has completed, and all of
+ * them in the order of the batch once every group has completed.
+ *
+ * @author seata
+ */
+class MergedRequestDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MergedRequestDispatcher.class);
+
+    private final Executor executor;
+
+    /**
+     * Instantiates a new Merged request dispatcher.
+     *
+     * @param executor the executor of the groups, null to handle all of them on the calling thread
+     */
+    MergedRequestDispatcher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Handle the sub-requests of a merged message.
+     *
+     * @param msgs            the sub-requests
+     * @param handler         the handler of a sub-request
+     * @param onFailure       builds the failure result of a sub-request whose handler threw
+     * @param onGroupComplete called with the indexes of a group and the results once the group is handled, may be null
+     * @param onComplete      called with the results in the order of the sub-requests once all of them are handled,
+     *                        may be null
+     */
+    void dispatch(List<AbstractMessage> msgs, Function<AbstractMessage, AbstractResultMessage> handler,
+                  BiFunction<AbstractMessage, RuntimeException, AbstractResultMessage> onFailure,
+                  BiConsumer<int[], AbstractResultMessage[]> onGroupComplete,
+                  Consumer<AbstractResultMessage[]> onComplete) {
+        List<int[]> groups = group(msgs);
+        Batch batch = new Batch(msgs, handler, onFailure, onGroupComplete, onComplete, groups.size());
+        for (int i = 1; i < groups.size(); i++) {
+            int[] group = groups.get(i);
+            if (executor == null) {
+                batch.handle(group);
+                continue;
+            }
+            try {
+                executor.execute(() -> batch.handle(group));
+            } catch (RejectedExecutionException e) {
+                batch.handle(group);
+            }
+        }
+        if (!groups.isEmpty()) {
+            batch.handle(groups.get(0));
+        } else if (onComplete != null) {
+            onComplete.accept(new AbstractResultMessage[0]);
+        }
+    }
+
+    /**
+     * Group the indexes of the sub-requests by xid, keeping the order of the batch within a group.
+     *
+     * @param msgs the sub-requests
+     * @return the groups
+     */
+    static List<int[]> group(List<AbstractMessage> msgs) {
+        List<int[]> groups = new ArrayList<>(msgs.size());
+        Map<String, List<Integer>> xidGroups = null;
+        for (int i = 0; i < msgs.size(); i++) {
+            String xid = xidOf(msgs.get(i));
+            if (xid == null) {
+                groups.add(new int[] {i});
+                continue;
+            }
+            if (xidGroups == null) {
+                xidGroups = new LinkedHashMap<>();
+            }
+            xidGroups.computeIfAbsent(xid, key -> new ArrayList<>()).add(i);
+        }
+        if (xidGroups != null) {
+            for (List<Integer> indexes : xidGroups.values()) {
+                int[] group = new int[indexes.size()];
+                for (int i = 0; i < group.length; i++) {
+                    group[i] = indexes.get(i);
+                }
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private static String xidOf(AbstractMessage msg) {
+        if (msg instanceof BranchRegisterRequest) {
+            return ((BranchRegisterRequest)msg).getXid();
+        }
+        if (msg instanceof BranchReportRequest) {
+            return ((BranchReportRequest)msg).getXid();
+        }
+        if (msg instanceof AbstractGlobalEndRequest) {
+            return ((AbstractGlobalEndRequest)msg).getXid();
+        }
+        return null;
+    }
+
+    private static class Batch {
+
+        private final List<AbstractMessage> msgs;
+
+        private final Function<AbstractMessage, AbstractResultMessage> handler;
+
+        private final BiFunction<AbstractMessage, RuntimeException, AbstractResultMessage> onFailure;
+
+        private final BiConsumer<int[], AbstractResultMessage[]> onGroupComplete;
+
+        private final Consumer<AbstractResultMessage[]> onComplete;
+
+        private final AbstractResultMessage[] results;
+
+        private final AtomicInteger remainingGroups;
+
+        Batch(List<AbstractMessage> msgs, Function<AbstractMessage, AbstractResultMessage> handler,
+              BiFunction<AbstractMessage, RuntimeException, AbstractResultMessage> onFailure,
+              BiConsumer<int[], AbstractResultMessage[]> onGroupComplete,
+              Consumer<AbstractResultMessage[]> onComplete, int groupCount) {
+            this.msgs = msgs;
+            this.handler = handler;
+            this.onFailure = onFailure;
+            this.onGroupComplete = onGroupComplete;
+            this.onComplete = onComplete;
+            this.results = new AbstractResultMessage[msgs.size()];
+            this.remainingGroups = new AtomicInteger(groupCount);
+        }
+
+        void handle(int[] group) {
+            for (int index : group) {
+                AbstractMessage msg = msgs.get(index);
+                try {
+                    results[index] = handler.apply(msg);
+                } catch (RuntimeException e) {
+                    LOGGER.error("handle merged request error: {}", e.getMessage(), e);
+                    results[index] = onFailure.apply(msg, e);
+                }
+            }
+            if (onGroupComplete != null) {
+                onGroupComplete.accept(group, results);
+            }
+            // the decrement publishes the results written by this group to the thread completing the batch
+            if (remainingGroups.decrementAndGet() == 0 && onComplete != null) {
+                onComplete.accept(results);
+            }
+        }
+    }
+}
@@ -15,17 +15,14 @@
  */
 package io.seata.core.rpc.processor.server;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -39,27 +36,42 @@ import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.NetUtil;
 import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.BatchResultMessage;
 import io.seata.core.protocol.MergeResultMessage;
 import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.MessageType;
+import io.seata.core.protocol.ResultCode;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.protocol.Version;
+import io.seata.core.protocol.transaction.AbstractGlobalEndResponse;
+import io.seata.core.protocol.transaction.AbstractTransactionResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.protocol.transaction.BranchReportResponse;
 import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalBeginResponse;
 import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
 import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import io.seata.core.protocol.transaction.GlobalLockQueryResponse;
 import io.seata.core.protocol.transaction.GlobalReportRequest;
+import io.seata.core.protocol.transaction.GlobalReportResponse;
 import io.seata.core.protocol.transaction.GlobalRollbackRequest;
+import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
+import io.seata.core.protocol.transaction.GlobalStatusResponse;
 import io.seata.core.rpc.Disposable;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.netty.ChannelManager;
 import io.seata.core.rpc.netty.NettyServerConfig;
+import io.seata.core.rpc.netty.ServerMessageExecutor;
 import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -92,6 +104,8 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
 
     private final TransactionMessageHandler transactionMessageHandler;
 
+    private final MergedRequestDispatcher mergedRequestDispatcher;
+
     private ExecutorService batchResponseExecutorService;
 
     private final ConcurrentMap<Channel, BlockingQueue<QueueItem>> basketMap = new ConcurrentHashMap<>();
@@ -105,8 +119,22 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
         ConfigurationFactory.getInstance().getBoolean(ConfigurationKeys.ENABLE_PARALLEL_REQUEST_HANDLE_KEY, false);
 
     public ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler) {
+        this(remotingServer, transactionMessageHandler, null);
+    }
+
+    /**
+     * Instantiates a new Server on request processor.
+     *
+     * @param remotingServer            the remoting server
+     * @param transactionMessageHandler the transaction message handler
+     * @param parallelRequestExecutor   the executor the sub-requests of a merged message are fanned out across when
+     *                                  the parallel request handle is enabled, null to handle them on the calling thread
+     */
+    public ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler,
+                                    Executor parallelRequestExecutor) {
         this.remotingServer = remotingServer;
         this.transactionMessageHandler = transactionMessageHandler;
+        this.mergedRequestDispatcher = new MergedRequestDispatcher(parallelRequestExecutor);
         if (NettyServerConfig.isEnableTcServerBatchSendResponse()) {
             batchResponseExecutorService = new ThreadPoolExecutor(MAX_BATCH_RESPONSE_THREAD,
                 MAX_BATCH_RESPONSE_THREAD,
@@ -162,50 +190,41 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
         if (!(message instanceof AbstractMessage)) {
             return;
         }
+        if (ServerMessageExecutor.isNotAdmitted()) {
+            rejectRequestMessage(ctx, rpcMessage, rpcContext);
+            return;
+        }
         // the batch send request message
         if (message instanceof MergedWarpMessage) {
             if (NettyServerConfig.isEnableTcServerBatchSendResponse() && StringUtils.isNotBlank(rpcContext.getVersion())
                 && Version.isAboveOrEqualVersion150(rpcContext.getVersion())) {
                 List<AbstractMessage> msgs = ((MergedWarpMessage)message).msgs;
                 List<Integer> msgIds = ((MergedWarpMessage)message).msgIds;
-                for (int i = 0; i < msgs.size(); i++) {
-                    AbstractMessage msg = msgs.get(i);
-                    int msgId = msgIds.get(i);
-                    if (PARALLEL_REQUEST_HANDLE) {
-                        CompletableFuture.runAsync(
-                            () -> handleRequestsByMergedWarpMessageBy150(msg, msgId, rpcMessage, ctx, rpcContext));
-                    } else {
-                        handleRequestsByMergedWarpMessageBy150(msg, msgId, rpcMessage, ctx, rpcContext);
+                if (PARALLEL_REQUEST_HANDLE) {
+                    mergedRequestDispatcher.dispatch(msgs,
+                        msg -> handleRequestsByMergedWarpMessage(msg, rpcContext),
+                        ServerOnRequestProcessor::buildFailedResponse,
+                        (group, results) -> offerGroupResultsBy150(group, results, msgIds, rpcMessage, ctx), null);
+                } else {
+                    for (int i = 0; i < msgs.size(); i++) {
+                        handleRequestsByMergedWarpMessageBy150(msgs.get(i), msgIds.get(i), rpcMessage, ctx,
+                            rpcContext);
                     }
                 }
             } else {
-                List<AbstractResultMessage> results = new CopyOnWriteArrayList<>();
-                List<CompletableFuture<Void>> completableFutures = null;
-                for (int i = 0; i < ((MergedWarpMessage)message).msgs.size(); i++) {
-                    if (PARALLEL_REQUEST_HANDLE) {
-                        if (completableFutures == null) {
-                            completableFutures = new ArrayList<>();
-                        }
-                        int finalI = i;
-                        completableFutures.add(CompletableFuture.runAsync(() -> {
-                            results.add(finalI, handleRequestsByMergedWarpMessage(
-                                ((MergedWarpMessage)message).msgs.get(finalI), rpcContext));
-                        }));
-                    } else {
-                        results.add(i,
-                            handleRequestsByMergedWarpMessage(((MergedWarpMessage)message).msgs.get(i), rpcContext));
-                    }
-                }
-                if (CollectionUtils.isNotEmpty(completableFutures)) {
-                    try {
-                        CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[0])).get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        LOGGER.error("handle request error: {}", e.getMessage(), e);
+                List<AbstractMessage> msgs = ((MergedWarpMessage)message).msgs;
+                if (PARALLEL_REQUEST_HANDLE) {
+                    mergedRequestDispatcher.dispatch(msgs,
+                        msg -> handleRequestsByMergedWarpMessage(msg, rpcContext),
+                        ServerOnRequestProcessor::buildFailedResponse, null,
+                        results -> sendMergeResult(results, rpcMessage, ctx));
+                } else {
+                    AbstractResultMessage[] results = new AbstractResultMessage[msgs.size()];
+                    for (int i = 0; i < msgs.size(); i++) {
+                        results[i] = handleRequestsByMergedWarpMessage(msgs.get(i), rpcContext);
                     }
+                    sendMergeResult(results, rpcMessage, ctx);
                 }
-                MergeResultMessage resultMessage = new MergeResultMessage();
-                resultMessage.setMsgs(results.toArray(new AbstractResultMessage[0]));
-                remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
             }
         } else {
             // the single send request message
@@ -215,6 +234,95 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
         }
     }
 
+    /**
+     * answer every request of the message with a retryable failure, without handling it
+     * @param ctx ctx
+     * @param rpcMessage rpcMessage
+     * @param rpcContext rpcContext
+     */
+    private void rejectRequestMessage(ChannelHandlerContext ctx, RpcMessage rpcMessage, RpcContext rpcContext) {
+        Object message = rpcMessage.getBody();
+        if (LOGGER.isWarnEnabled()) {
+            LOGGER.warn("the server is busy, reject the request:{},clientIp:{}", message,
+                NetUtil.toIpAddress(ctx.channel().remoteAddress()));
+        }
+        if (message instanceof MergedWarpMessage) {
+            List<AbstractMessage> msgs = ((MergedWarpMessage)message).msgs;
+            AbstractResultMessage[] results = new AbstractResultMessage[msgs.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = buildServerBusyResponse(msgs.get(i));
+            }
+            if (NettyServerConfig.isEnableTcServerBatchSendResponse() && StringUtils.isNotBlank(rpcContext.getVersion())
+                && Version.isAboveOrEqualVersion150(rpcContext.getVersion())) {
+                offerResultsBy150(results, ((MergedWarpMessage)message).msgIds, rpcMessage, ctx);
+            } else {
+                sendMergeResult(results, rpcMessage, ctx);
+            }
+        } else {
+            remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(),
+                buildServerBusyResponse((AbstractMessage)message));
+        }
+    }
+
+    /**
+     * build the response of a request the server is too busy to handle
+     * @param request request
+     * @return the failed response with the {@link TransactionExceptionCode#ServerBusy} code
+     */
+    static AbstractResultMessage buildServerBusyResponse(AbstractMessage request) {
+        return buildFailedResponse(request, TransactionExceptionCode.ServerBusy, "the server is busy, please retry later");
+    }
+
+    /**
+     * build the response of a request whose handling threw
+     * @param request request
+     * @param e the exception thrown
+     * @return the failed response with the {@link TransactionExceptionCode#Unknown} code
+     */
+    static AbstractResultMessage buildFailedResponse(AbstractMessage request, RuntimeException e) {
+        return buildFailedResponse(request, TransactionExceptionCode.Unknown, e.getMessage());
+    }
+
+    private static AbstractResultMessage buildFailedResponse(AbstractMessage request, TransactionExceptionCode code,
+                                                             String msg) {
+        AbstractTransactionResponse response;
+        switch (request.getTypeCode()) {
+            case MessageType.TYPE_GLOBAL_BEGIN:
+                response = new GlobalBeginResponse();
+                break;
+            case MessageType.TYPE_GLOBAL_COMMIT:
+                response = new GlobalCommitResponse();
+                break;
+            case MessageType.TYPE_GLOBAL_ROLLBACK:
+                response = new GlobalRollbackResponse();
+                break;
+            case MessageType.TYPE_GLOBAL_STATUS:
+                response = new GlobalStatusResponse();
+                break;
+            case MessageType.TYPE_GLOBAL_REPORT:
+                response = new GlobalReportResponse();
+                break;
+            case MessageType.TYPE_GLOBAL_LOCK_QUERY:
+                response = new GlobalLockQueryResponse();
+                break;
+            case MessageType.TYPE_BRANCH_REGISTER:
+                response = new BranchRegisterResponse();
+                break;
+            case MessageType.TYPE_BRANCH_STATUS_REPORT:
+                response = new BranchReportResponse();
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported request type: " + request.getTypeCode());
+        }
+        if (response instanceof AbstractGlobalEndResponse) {
+            ((AbstractGlobalEndResponse)response).setGlobalStatus(GlobalStatus.UnKnown);
+        }
+        response.setResultCode(ResultCode.Failed);
+        response.setTransactionExceptionCode(code);
+        response.setMsg(msg);
+        return response;
+    }
+
     private void notifyBatchRespondingThread() {
         if (!isResponding) {
             synchronized (batchResponseLock) {
@@ -301,6 +409,45 @@ public class ServerOnRequestProcessor implements RemotingProcessor, Disposable {
         notifyBatchRespondingThread();
     }
 
+    /**
+     * offer the results of the sub-requests of a merged message to the basket in the order of the sub-requests
+     * @param results results
+     * @param msgIds msgIds
+     * @param rpcMessage rpcMessage
+     * @param ctx ctx
+     */
+    private void offerResultsBy150(AbstractResultMessage[] results, List<Integer> msgIds, RpcMessage rpcMessage,
+        ChannelHandlerContext ctx) {
+        BlockingQueue<QueueItem> msgQueue = computeIfAbsentMsgQueue(ctx.channel());
+        for (int i = 0; i < results.length; i++) {
+            offerMsg(msgQueue, rpcMessage, results[i], msgIds.get(i), ctx.channel());
+        }
+        notifyBatchRespondingThread();
+    }
+
+    /**
+     * offer the results of a group of the sub-requests of a merged message to the basket once the group is handled
+     * @param group the indexes of the sub-requests of the group
+     * @param results results
+     * @param msgIds msgIds
+     * @param rpcMessage rpcMessage
+     * @param ctx ctx
+     */
+    private void offerGroupResultsBy150(int[] group, AbstractResultMessage[] results, List<Integer> msgIds,
+        RpcMessage rpcMessage, ChannelHandlerContext ctx) {
+        BlockingQueue<QueueItem> msgQueue = computeIfAbsentMsgQueue(ctx.channel());
+        for (int index : group) {
+            offerMsg(msgQueue, rpcMessage, results[index], msgIds.get(index), ctx.channel());
+        }
+        notifyBatchRespondingThread();
+    }
+
+    private void sendMergeResult(AbstractResultMessage[] results, RpcMessage rpcMessage, ChannelHandlerContext ctx) {
+        MergeResultMessage resultMessage = new MergeResultMessage();
+        resultMessage.setMsgs(results);
+        remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+    }
+
     /**
      * build RpcMessage
      *
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * handle RM/TM response message.
@@ -57,10 +58,16 @@ public class ServerOnResponseProcessor implements RemotingProcessor {
      */
     private ConcurrentMap<Integer, MessageFuture> futures;
 
+    /**
+     * The late response count from io.seata.core.rpc.netty.AbstractNettyRemoting#lateResponseCount
+     */
+    private final AtomicLong lateResponseCount;
+
     public ServerOnResponseProcessor(TransactionMessageHandler transactionMessageHandler,
-                                     ConcurrentHashMap<Integer, MessageFuture> futures) {
+                                     ConcurrentHashMap<Integer, MessageFuture> futures, AtomicLong lateResponseCount) {
         this.transactionMessageHandler = transactionMessageHandler;
         this.futures = futures;
+        this.lateResponseCount = lateResponseCount;
     }
 
     @Override
@@ -69,6 +76,7 @@ public class ServerOnResponseProcessor implements RemotingProcessor {
         if (messageFuture != null) {
             messageFuture.setResultMessage(rpcMessage.getBody());
         } else {
+            lateResponseCount.incrementAndGet();
             if (ChannelManager.isRegistered(ctx.channel())) {
                 onResponseMessage(ctx, rpcMessage);
             } else {
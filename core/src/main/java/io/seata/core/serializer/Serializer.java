@@ -15,6 +15,8 @@
  */
 package io.seata.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * The interface Codec.
  *
@@ -39,4 +41,35 @@ public interface Serializer {
      * @return the t
      */
     <T> T deserialize(byte[] bytes);
+
+    /**
+     * Encode object straight into the buffer, without the intermediate byte[].
+     * <p>
+     * The default implementation copies the result of {@link #serialize(Object)}, serializers able to write into a
+     * buffer should override it.
+     *
+     * @param <T> the type parameter
+     * @param t   the t
+     * @param out the buffer to write into
+     */
+    default <T> void serialize(T t, ByteBuf out) {
+        out.writeBytes(serialize(t));
+    }
+
+    /**
+     * Decode t from the next length bytes of the buffer, without the intermediate byte[].
+     * <p>
+     * The default implementation copies the bytes for {@link #deserialize(byte[])}, serializers able to read from a
+     * buffer should override it.
+     *
+     * @param <T>    the type parameter
+     * @param in     the buffer to read from
+     * @param length the length of the encoded object
+     * @return the t
+     */
+    default <T> T deserialize(ByteBuf in, int length) {
+        byte[] bytes = new byte[length];
+        in.readBytes(bytes);
+        return deserialize(bytes);
+    }
 }
@@ -57,6 +57,7 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.LockReleaseNotifyRequest;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 
 /**
@@ -115,6 +116,7 @@ public class SerializerClassRegistry {
         registerClass(GlobalStatusRequest.class);
         registerClass(GlobalStatusResponse.class);
         registerClass(UndoLogDeleteRequest.class);
+        registerClass(LockReleaseNotifyRequest.class);
         registerClass(GlobalReportRequest.class);
         registerClass(GlobalReportResponse.class);
 
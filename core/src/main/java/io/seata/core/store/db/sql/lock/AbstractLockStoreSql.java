@@ -135,6 +135,16 @@ public class AbstractLockStoreSql implements LockStoreSql {
         throw new NotSupportYetException("unknown dbType:" + CONFIG.getConfig(ConfigurationKeys.STORE_DB_TYPE));
     }
 
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int rowSize) {
+        return null;
+    }
+
+    @Override
+    public String getInsertIgnoreLockSql(String lockTable, int rowSize) {
+        return null;
+    }
+
     @Override
     public String getDeleteLockSql(String lockTable) {
         return DELETE_LOCK_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
@@ -176,6 +186,24 @@ public class AbstractLockStoreSql implements LockStoreSql {
         return BATCH_UPDATE_STATUS_LOCK_BY_GLOBAL_SQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    /**
+     * Build the values clause of a multi-row insert, the result will like :"(?,?,now()),(?,?,now())"
+     *
+     * @param rowValues the values of a row
+     * @param rowSize   the row size
+     * @return the values clause
+     */
+    protected String buildBatchValues(String rowValues, int rowSize) {
+        StringBuilder values = new StringBuilder(rowValues.length() * rowSize + rowSize);
+        for (int i = 0; i < rowSize; i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append(rowValues);
+        }
+        return values.toString();
+    }
+
     /**
      * each pk is a condition.the result will like :" (id,userCode) in ((?,?),(?,?)) or (id,userCode) in ((?,?),(?,?)
      * ) or (id,userCode) in ((?,?))"
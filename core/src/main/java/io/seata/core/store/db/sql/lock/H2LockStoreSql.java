@@ -32,9 +32,20 @@ public class H2LockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_H2 = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant ROW_VALUES_H2.
+     */
+    private static final String ROW_VALUES_H2 = "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_H2.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int rowSize) {
+        return "insert into " + lockTable + "(" + ALL_COLUMNS + ") values "
+            + buildBatchValues(ROW_VALUES_H2, rowSize);
+    }
+
 }
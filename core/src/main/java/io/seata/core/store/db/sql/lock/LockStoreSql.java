@@ -40,6 +40,25 @@ public interface LockStoreSql {
      */
     String getInsertLockSQL(String lockTable);
 
+    /**
+     * Get multi-row insert lock sql string.
+     *
+     * @param lockTable the lock table
+     * @param rowSize   the row size
+     * @return the string, null if the db type does not support it
+     */
+    String getBatchInsertLockSql(String lockTable, int rowSize);
+
+    /**
+     * Get multi-row insert lock sql string which skips the rows whose row key already exists. Only a dialect which
+     * skips nothing but the duplicate keys returns it, any other error of a row must still fail the statement.
+     *
+     * @param lockTable the lock table
+     * @param rowSize   the row size
+     * @return the string, null if the db type does not support it
+     */
+    String getInsertIgnoreLockSql(String lockTable, int rowSize);
+
     /**
      * Get delete lock sql string.
      *
@@ -32,9 +32,20 @@ public class MysqlLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_MYSQL = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant ROW_VALUES_MYSQL.
+     */
+    private static final String ROW_VALUES_MYSQL = "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_MYSQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int rowSize) {
+        return "insert into " + lockTable + "(" + ALL_COLUMNS + ") values "
+            + buildBatchValues(ROW_VALUES_MYSQL, rowSize);
+    }
+
 }
@@ -32,8 +32,20 @@ public class OceanbaseLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_OCEANBASE = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant ROW_VALUES_OCEANBASE.
+     */
+    private static final String ROW_VALUES_OCEANBASE = "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_OCEANBASE.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
+
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int rowSize) {
+        return "insert into " + lockTable + "(" + ALL_COLUMNS + ") values "
+            + buildBatchValues(ROW_VALUES_OCEANBASE, rowSize);
+    }
+
 }
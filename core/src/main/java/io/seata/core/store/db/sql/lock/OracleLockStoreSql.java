@@ -32,9 +32,25 @@ public class OracleLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_ORACLE = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, sysdate, sysdate, ?)";
 
+    /**
+     * The constant INTO_LOCK_ROW_ORACLE, oracle has no multi-row values clause, an insert all takes one per row.
+     */
+    private static final String INTO_LOCK_ROW_ORACLE = "into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
+        + " values (?, ?, ?, ?, ?, ?, ?, sysdate, sysdate, ?)";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_ORACLE.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int rowSize) {
+        String intoRow = INTO_LOCK_ROW_ORACLE.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
+        StringBuilder sql = new StringBuilder("insert all");
+        for (int i = 0; i < rowSize; i++) {
+            sql.append(' ').append(intoRow);
+        }
+        return sql.append(" select 1 from dual").toString();
+    }
+
 }
@@ -32,9 +32,25 @@ public class PostgresqlLockStoreSql extends AbstractLockStoreSql {
     private static final String INSERT_LOCK_SQL_POSTGRESQL = "insert into " + LOCK_TABLE_PLACE_HOLD + "(" + ALL_COLUMNS + ")"
         + " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
 
+    /**
+     * The constant ROW_VALUES_POSTGRESQL.
+     */
+    private static final String ROW_VALUES_POSTGRESQL = "(?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+
     @Override
     public String getInsertLockSQL(String lockTable) {
         return INSERT_LOCK_SQL_POSTGRESQL.replace(LOCK_TABLE_PLACE_HOLD, lockTable);
     }
 
+    @Override
+    public String getBatchInsertLockSql(String lockTable, int rowSize) {
+        return "insert into " + lockTable + "(" + ALL_COLUMNS + ") values "
+            + buildBatchValues(ROW_VALUES_POSTGRESQL, rowSize);
+    }
+
+    @Override
+    public String getInsertIgnoreLockSql(String lockTable, int rowSize) {
+        return getBatchInsertLockSql(lockTable, rowSize) + " on conflict do nothing";
+    }
+
 }
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.netty.channel.Channel;
+import io.seata.core.protocol.MessageFuture;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Abstract netty remoting test.
+ */
+public class AbstractNettyRemotingTest {
+
+    private AbstractNettyRemoting remoting;
+
+    @BeforeEach
+    public void setUp() {
+        remoting = new AbstractNettyRemoting(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>())) {
+            @Override
+            public void destroyChannel(String serverAddress, Channel channel) {
+            }
+        };
+        remoting.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        remoting.destroy();
+    }
+
+    @Test
+    public void testFutureExpiredByTimer() {
+        RpcMessage rpcMessage = remoting.buildRequestMessage("expired", ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        MessageFuture messageFuture = newMessageFuture(rpcMessage, 50);
+        remoting.putFuture(rpcMessage, messageFuture);
+
+        Assertions.assertThrows(TimeoutException.class, () -> messageFuture.get(5000, TimeUnit.MILLISECONDS));
+        Assertions.assertFalse(remoting.getFutures().containsKey(rpcMessage.getId()));
+        Assertions.assertEquals(1, remoting.getExpiredFutureCount());
+    }
+
+    @Test
+    public void testFutureCompletedBeforeTimeout() throws Exception {
+        RpcMessage rpcMessage = remoting.buildRequestMessage("completed", ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        MessageFuture messageFuture = newMessageFuture(rpcMessage, 100);
+        remoting.putFuture(rpcMessage, messageFuture);
+        remoting.getFutures().remove(rpcMessage.getId()).setResultMessage("result");
+
+        Assertions.assertEquals("result", messageFuture.get(100, TimeUnit.MILLISECONDS));
+        Thread.sleep(300);
+        Assertions.assertEquals(0, remoting.getExpiredFutureCount());
+    }
+
+    private static MessageFuture newMessageFuture(RpcMessage rpcMessage, long timeoutMillis) {
+        MessageFuture messageFuture = new MessageFuture();
+        messageFuture.setRequestMessage(rpcMessage);
+        messageFuture.setTimeout(timeoutMillis);
+        return messageFuture;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Merged send queue test.
+ */
+public class MergedSendQueueTest {
+
+    private static final String ADDRESS = "127.0.0.1:8091";
+
+    private final AtomicInteger idGenerator = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAllRequestsSentOnceInBatches() throws Exception {
+        int producers = 8;
+        int perProducer = 1000;
+        List<MergedWarpMessage> sent = new CopyOnWriteArrayList<>();
+        MergedSendQueue queue = new MergedSendQueue(ADDRESS, 64, 16, 0, executor,
+            (address, mergeMessage) -> sent.add(mergeMessage));
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            producerPool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    Assertions.assertTrue(queue.offer(newRequest(), 5000));
+                }
+                done.countDown();
+            });
+        }
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        producerPool.shutdown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countRequests(sent) < producers * perProducer && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(producers * perProducer, countRequests(sent));
+        Assertions.assertEquals(producers * perProducer,
+            sent.stream().flatMap(m -> m.msgIds.stream()).distinct().count());
+        Assertions.assertTrue(sent.stream().allMatch(m -> m.msgIds.size() <= 16));
+    }
+
+    @Test
+    public void testLingerWaitsForFullBatch() throws Exception {
+        List<MergedWarpMessage> sent = new CopyOnWriteArrayList<>();
+        MergedSendQueue queue = new MergedSendQueue(ADDRESS, 64, 4, TimeUnit.SECONDS.toMicros(5), executor,
+            (address, mergeMessage) -> sent.add(mergeMessage));
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(queue.offer(newRequest(), 1000));
+        }
+        long deadline = System.currentTimeMillis() + 2000;
+        while (sent.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // the full batch is flushed long before the linger time
+        Assertions.assertEquals(1, sent.size());
+        Assertions.assertEquals(4, sent.get(0).msgIds.size());
+    }
+
+    @Test
+    public void testOfferTimeoutWhenFull() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        MergedSendQueue queue = new MergedSendQueue(ADDRESS, 2, 1, 0, executor, (address, mergeMessage) -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        // the writer takes the first one and blocks, the next two fill the queue
+        Assertions.assertTrue(queue.offer(newRequest(), 1000));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (queue.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(queue.offer(newRequest(), 1000));
+        Assertions.assertTrue(queue.offer(newRequest(), 1000));
+        Assertions.assertFalse(queue.offer(newRequest(), 50));
+        blocked.countDown();
+    }
+
+    private RpcMessage newRequest() {
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(idGenerator.incrementAndGet());
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        rpcMessage.setBody(new BranchRegisterRequest());
+        return rpcMessage;
+    }
+
+    private static int countRequests(List<MergedWarpMessage> sent) {
+        return sent.stream().mapToInt(m -> m.msgIds.size()).sum();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.Arrays;
+
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RegisterRMRequest;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Netty remoting server test.
+ */
+public class NettyRemotingServerTest {
+
+    @Test
+    public void testSplitMergedMessage() {
+        MergedWarpMessage message = new MergedWarpMessage();
+        BranchRegisterRequest register = new BranchRegisterRequest();
+        GlobalBeginRequest begin = new GlobalBeginRequest();
+        BranchReportRequest report = new BranchReportRequest();
+        GlobalCommitRequest commit = new GlobalCommitRequest();
+        GlobalLockQueryRequest lockQuery = new GlobalLockQueryRequest();
+        message.msgs.addAll(Arrays.asList(register, begin, report, commit, lockQuery));
+        message.msgIds.addAll(Arrays.asList(11, 12, 13, 14, 15));
+
+        MergedWarpMessage[] parts = NettyRemotingServer.splitMergedMessage(message);
+        Assertions.assertNotNull(parts);
+        Assertions.assertEquals(Arrays.asList(begin, commit), parts[0].msgs);
+        Assertions.assertEquals(Arrays.asList(12, 14), parts[0].msgIds);
+        Assertions.assertEquals(Arrays.asList(register, report, lockQuery), parts[1].msgs);
+        Assertions.assertEquals(Arrays.asList(11, 13, 15), parts[1].msgIds);
+    }
+
+    @Test
+    public void testSplitMergedMessageOfOneKind() {
+        MergedWarpMessage message = new MergedWarpMessage();
+        message.msgs.addAll(Arrays.asList(new BranchRegisterRequest(), new BranchReportRequest()));
+
+        MergedWarpMessage[] parts = NettyRemotingServer.splitMergedMessage(message);
+        Assertions.assertNotNull(parts);
+        Assertions.assertTrue(parts[0].msgs.isEmpty());
+        Assertions.assertEquals(2, parts[1].msgs.size());
+        // an older client sends no msgIds
+        Assertions.assertTrue(parts[1].msgIds.isEmpty());
+    }
+
+    @Test
+    public void testSplitMergedMessageOfUnknownKind() {
+        MergedWarpMessage message = new MergedWarpMessage();
+        message.msgs.addAll(Arrays.asList(new BranchRegisterRequest(), new RegisterRMRequest()));
+        message.msgIds.addAll(Arrays.asList(1, 2));
+        Assertions.assertNull(NettyRemotingServer.splitMergedMessage(message));
+    }
+}
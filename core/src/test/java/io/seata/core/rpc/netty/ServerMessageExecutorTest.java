@@ -0,0 +1,103 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Server message executor test.
+ */
+public class ServerMessageExecutorTest {
+
+    @Test
+    public void testQueuedTooLongIsNotAdmitted() throws Exception {
+        ServerMessageExecutor executor = new ServerMessageExecutor("testHandler", 1, 1, 60, 10, 50);
+        List<Long> queueTimes = new CopyOnWriteArrayList<>();
+        executor.setQueueTimeListener(queueTimes::add);
+        try {
+            CountDownLatch blocker = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+            List<Boolean> notAdmitted = new CopyOnWriteArrayList<>();
+            executor.execute(() -> {
+                notAdmitted.add(ServerMessageExecutor.isNotAdmitted());
+                awaitQuietly(blocker);
+                done.countDown();
+            });
+            executor.execute(() -> {
+                notAdmitted.add(ServerMessageExecutor.isNotAdmitted());
+                done.countDown();
+            });
+            Thread.sleep(100);
+            blocker.countDown();
+            Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, notAdmitted.size());
+            Assertions.assertFalse(notAdmitted.get(0));
+            Assertions.assertTrue(notAdmitted.get(1));
+            Assertions.assertEquals(1, executor.getRejectedCount());
+            Assertions.assertEquals(2, queueTimes.size());
+            Assertions.assertTrue(queueTimes.get(1) >= TimeUnit.MILLISECONDS.toNanos(50));
+
+            // the flag doesn't leak to the next request of the thread
+            CountDownLatch next = new CountDownLatch(1);
+            executor.execute(() -> {
+                notAdmitted.add(ServerMessageExecutor.isNotAdmitted());
+                next.countDown();
+            });
+            Assertions.assertTrue(next.await(5, TimeUnit.SECONDS));
+            Assertions.assertFalse(notAdmitted.get(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFullQueueRunsNotAdmittedOnCaller() throws Exception {
+        ServerMessageExecutor executor = new ServerMessageExecutor("testHandler", 1, 1, 60, 1, 0);
+        try {
+            CountDownLatch blocker = new CountDownLatch(1);
+            executor.execute(() -> awaitQuietly(blocker));
+            executor.execute(() -> { });
+            Thread caller = Thread.currentThread();
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            List<Boolean> notAdmitted = new CopyOnWriteArrayList<>();
+            executor.execute(() -> {
+                threads.add(Thread.currentThread());
+                notAdmitted.add(ServerMessageExecutor.isNotAdmitted());
+            });
+            Assertions.assertSame(caller, threads.get(0));
+            Assertions.assertTrue(notAdmitted.get(0));
+            Assertions.assertFalse(ServerMessageExecutor.isNotAdmitted());
+            Assertions.assertEquals(1, executor.getRejectedCount());
+            blocker.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
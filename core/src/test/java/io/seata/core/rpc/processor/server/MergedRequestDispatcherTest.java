@@ -0,0 +1,205 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.protocol.transaction.BranchReportRequest;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Merged request dispatcher test.
+ */
+public class MergedRequestDispatcherTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGroupByXid() {
+        List<AbstractMessage> msgs = Arrays.asList(branchRegister("xid-1"), new GlobalBeginRequest(),
+            branchReport("xid-2"), branchReport("xid-1"), globalCommit("xid-2"), branchRegister("xid-1"));
+        List<int[]> groups = MergedRequestDispatcher.group(msgs);
+        Assertions.assertEquals(3, groups.size());
+        Assertions.assertArrayEquals(new int[] {1}, groups.get(0));
+        Assertions.assertArrayEquals(new int[] {0, 3, 5}, groups.get(1));
+        Assertions.assertArrayEquals(new int[] {2, 4}, groups.get(2));
+    }
+
+    @Test
+    public void testParallelKeepsOrderOfXid() throws Exception {
+        List<AbstractMessage> msgs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String xid = "xid-" + (i % 7);
+            msgs.add(i % 2 == 0 ? branchRegister(xid) : branchReport(xid));
+            if (i % 10 == 0) {
+                msgs.add(new GlobalBeginRequest());
+            }
+        }
+        Map<String, List<Integer>> handledByXid = new ConcurrentHashMap<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CompletableFuture<AbstractResultMessage[]> completed = new CompletableFuture<>();
+        new MergedRequestDispatcher(executor).dispatch(msgs, msg -> {
+            int index = msgs.indexOf(msg);
+            String xid = msg instanceof BranchRegisterRequest ? ((BranchRegisterRequest)msg).getXid()
+                : msg instanceof BranchReportRequest ? ((BranchReportRequest)msg).getXid() : null;
+            if (xid != null) {
+                handledByXid.computeIfAbsent(xid, key -> new CopyOnWriteArrayList<>()).add(index);
+            }
+            if (!threads.contains(Thread.currentThread())) {
+                threads.add(Thread.currentThread());
+            }
+            BranchRegisterResponse response = new BranchRegisterResponse();
+            response.setBranchId(index);
+            return response;
+        }, ServerOnRequestProcessor::buildFailedResponse, null, results -> {
+            if (!completed.complete(results)) {
+                Assertions.fail("completed twice");
+            }
+        });
+
+        AbstractResultMessage[] results = completed.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(msgs.size(), results.length);
+        for (int i = 0; i < results.length; i++) {
+            Assertions.assertEquals(i, ((BranchRegisterResponse)results[i]).getBranchId());
+        }
+        Assertions.assertEquals(7, handledByXid.size());
+        for (List<Integer> handled : handledByXid.values()) {
+            for (int i = 1; i < handled.size(); i++) {
+                Assertions.assertTrue(handled.get(i - 1) < handled.get(i));
+            }
+        }
+        Assertions.assertTrue(threads.size() > 1);
+    }
+
+    @Test
+    public void testFailedRequestAnsweredByFailure() {
+        List<AbstractMessage> msgs = Arrays.asList(branchRegister("xid-1"), branchRegister("xid-2"),
+            branchReport("xid-1"));
+        List<AbstractResultMessage[]> completions = new ArrayList<>();
+        AtomicInteger handled = new AtomicInteger();
+        new MergedRequestDispatcher(null).dispatch(msgs, msg -> {
+            handled.incrementAndGet();
+            if (msg instanceof BranchRegisterRequest && "xid-2".equals(((BranchRegisterRequest)msg).getXid())) {
+                throw new IllegalStateException("mock failure");
+            }
+            BranchRegisterResponse response = new BranchRegisterResponse();
+            response.setResultCode(ResultCode.Success);
+            return response;
+        }, ServerOnRequestProcessor::buildFailedResponse, null, completions::add);
+        Assertions.assertEquals(3, handled.get());
+        Assertions.assertEquals(1, completions.size());
+        AbstractResultMessage[] results = completions.get(0);
+        Assertions.assertEquals(ResultCode.Success, results[0].getResultCode());
+        Assertions.assertEquals(ResultCode.Failed, ((BranchRegisterResponse)results[1]).getResultCode());
+        Assertions.assertEquals(TransactionExceptionCode.Unknown,
+            ((BranchRegisterResponse)results[1]).getTransactionExceptionCode());
+        Assertions.assertEquals("mock failure", ((BranchRegisterResponse)results[1]).getMsg());
+        Assertions.assertEquals(ResultCode.Success, results[2].getResultCode());
+
+        AtomicInteger emptyCompletions = new AtomicInteger();
+        new MergedRequestDispatcher(null).dispatch(new ArrayList<>(), msg -> null,
+            ServerOnRequestProcessor::buildFailedResponse, null, empty -> emptyCompletions.incrementAndGet());
+        Assertions.assertEquals(1, emptyCompletions.get());
+    }
+
+    @Test
+    public void testGroupCompletesBeforeSlowestGroup() throws Exception {
+        List<AbstractMessage> msgs = Arrays.asList(branchRegister("xid-slow"), branchRegister("xid-fast"),
+            branchReport("xid-fast"));
+        CountDownLatch fastDelivered = new CountDownLatch(1);
+        CountDownLatch slowReleased = new CountDownLatch(1);
+        List<int[]> delivered = new CopyOnWriteArrayList<>();
+        CompletableFuture<AbstractResultMessage[]> completed = new CompletableFuture<>();
+        CompletableFuture<Void> dispatched = CompletableFuture.runAsync(
+            () -> new MergedRequestDispatcher(executor).dispatch(msgs, msg -> {
+                if (msg instanceof BranchRegisterRequest && "xid-slow".equals(((BranchRegisterRequest)msg).getXid())) {
+                    try {
+                        // the first group runs on the calling thread and waits for the other group to be delivered
+                        slowReleased.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new BranchRegisterResponse();
+            }, ServerOnRequestProcessor::buildFailedResponse, (group, results) -> {
+                delivered.add(group);
+                for (int index : group) {
+                    Assertions.assertNotNull(results[index]);
+                }
+                fastDelivered.countDown();
+            }, completed::complete), executor);
+
+        Assertions.assertTrue(fastDelivered.await(10, TimeUnit.SECONDS));
+        Assertions.assertFalse(completed.isDone());
+        Assertions.assertArrayEquals(new int[] {1, 2}, delivered.get(0));
+        slowReleased.countDown();
+
+        Assertions.assertEquals(3, completed.get(10, TimeUnit.SECONDS).length);
+        dispatched.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, delivered.size());
+        Assertions.assertArrayEquals(new int[] {0}, delivered.get(1));
+    }
+
+    private static BranchRegisterRequest branchRegister(String xid) {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid(xid);
+        return request;
+    }
+
+    private static BranchReportRequest branchReport(String xid) {
+        BranchReportRequest request = new BranchReportRequest();
+        request.setXid(xid);
+        return request;
+    }
+
+    private static GlobalCommitRequest globalCommit(String xid) {
+        GlobalCommitRequest request = new GlobalCommitRequest();
+        request.setXid(xid);
+        return request;
+    }
+}
@@ -282,4 +282,24 @@ public class LockStoreSqlFactoryTest {
         sql = OCEANBASE_LOCK_STORE.getCheckLockableSql(BRANCH_TABLE, 3);
         Assertions.assertEquals(EXPECT_CHECK_BRANCH_LOCKABLE_SQL,sql);
     }
+
+    @Test
+    public void batchInsertLockTest() {
+        String mysqlValues = " values (?, ?, ?, ?, ?, ?, ?, now(), now(), ?), (?, ?, ?, ?, ?, ?, ?, now(), now(), ?)";
+        String columns = "(xid, transaction_id, branch_id, resource_id, table_name, pk, row_key, gmt_create, gmt_modified,status)";
+        Assertions.assertEquals("insert into " + GLOBAL_TABLE + columns + mysqlValues,
+            MYSQL_LOCK_STORE.getBatchInsertLockSql(GLOBAL_TABLE, 2));
+        // insert ignore downgrades the errors other than a duplicate key as well
+        Assertions.assertNull(MYSQL_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(OCEANBASE_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertEquals("insert into " + GLOBAL_TABLE + columns + mysqlValues + " on conflict do nothing",
+            POSTGRESQL_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+
+        String oracleRow = " into " + GLOBAL_TABLE + columns + " values (?, ?, ?, ?, ?, ?, ?, sysdate, sysdate, ?)";
+        Assertions.assertEquals("insert all" + oracleRow + oracleRow + " select 1 from dual",
+            ORACLE_LOCK_STORE.getBatchInsertLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(ORACLE_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNotNull(H2_LOCK_STORE.getBatchInsertLockSql(GLOBAL_TABLE, 2));
+        Assertions.assertNull(H2_LOCK_STORE.getInsertIgnoreLockSql(GLOBAL_TABLE, 2));
+    }
 }
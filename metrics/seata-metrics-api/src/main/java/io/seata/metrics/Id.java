@@ -44,6 +44,10 @@ public class Id {
         return tags.entrySet();
     }
 
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
     public int getTagCount() {
         return tags.size();
     }
@@ -23,6 +23,12 @@ package io.seata.metrics;
 public interface IdConstants {
     String SEATA_TRANSACTION = "seata.transaction";
 
+    String SEATA_RECOVERY = "seata.recovery";
+
+    String SEATA_STORE = "seata.store";
+
+    String SEATA_RPC = "seata.rpc";
+
     String APP_ID_KEY = "applicationId";
     
     String GROUP_KEY = "group";
@@ -35,8 +41,14 @@ public interface IdConstants {
 
     String STATISTIC_KEY = "statistic";
 
+    String QUANTILE_KEY = "quantile";
+
     String STATUS_KEY = "status";
 
+    String TYPE_KEY = "type";
+
+    String BUCKET_KEY = "le";
+
     String ROLE_VALUE_TC = "tc";
 
     String ROLE_VALUE_TM = "tm";
@@ -61,6 +73,26 @@ public interface IdConstants {
 
     String STATISTIC_VALUE_AVERAGE = "average";
 
+    String STATISTIC_VALUE_PERCENTILE = "percentile";
+
+    String STATISTIC_VALUE_QUEUE_DEPTH = "queueDepth";
+
+    String STATISTIC_VALUE_DRAINED = "drained";
+
+    String STATISTIC_VALUE_DEFERRED = "deferred";
+
+    String STATISTIC_VALUE_EXPIRED = "expired";
+
+    String STATISTIC_VALUE_LATE = "late";
+
+    String STATISTIC_VALUE_REJECTED = "rejected";
+
+    String TYPE_VALUE_QUEUE_TIME = "queueTime";
+
+    String TYPE_VALUE_FSYNC = "fsync";
+
+    String TYPE_VALUE_BATCH_SIZE = "batchSize";
+
     String STATUS_VALUE_ACTIVE = "active";
 
     String STATUS_VALUE_COMMITTED = "committed";
@@ -17,7 +17,9 @@ package io.seata.metrics.exporter.prometheus;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import io.prometheus.client.Collector;
@@ -26,6 +28,7 @@ import io.prometheus.client.exporter.HTTPServer;
 import io.seata.common.loader.LoadLevel;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.metrics.IdConstants;
 import io.seata.metrics.Measurement;
 import io.seata.metrics.exporter.Exporter;
 import io.seata.metrics.registry.Registry;
@@ -40,6 +43,8 @@ import static io.seata.core.constants.ConfigurationKeys.METRICS_EXPORTER_PROMETH
 @LoadLevel(name = "prometheus", order = 1)
 public class PrometheusExporter extends Collector implements Collector.Describable, Exporter {
 
+    static final String PERCENTILE_SUFFIX = "_percentile";
+
     private final HTTPServer server;
 
     private Registry registry;
@@ -58,21 +63,37 @@ public class PrometheusExporter extends Collector implements Collector.Describab
 
     @Override
     public List<MetricFamilySamples> collect() {
+        if (registry == null) {
+            return new ArrayList<>();
+        }
+        return convertMeasurementsToFamilySamples(registry.measure());
+    }
+
+    static List<MetricFamilySamples> convertMeasurementsToFamilySamples(Iterable<Measurement> measurements) {
         List<MetricFamilySamples> familySamples = new ArrayList<>();
-        if (registry != null) {
-            Iterable<Measurement> measurements = registry.measure();
-            List<Sample> samples = new ArrayList<>();
-            measurements.forEach(measurement -> samples.add(convertMeasurementToSample(measurement)));
-
-            if (!samples.isEmpty()) {
-                Type unknownType = getUnknownType();
-                familySamples.add(new MetricFamilySamples("seata", unknownType, "seata", samples));
+        List<Sample> samples = new ArrayList<>();
+        // the percentiles of the timers and summaries are exported as the quantiles of a summary per metric,
+        // named apart from the samples of the 'seata' family so no sample name belongs to two families
+        Map<String, List<Sample>> quantileSamples = new LinkedHashMap<>();
+        measurements.forEach(measurement -> {
+            if (measurement.getId().getTag(IdConstants.QUANTILE_KEY) != null) {
+                Sample sample = convertMeasurementToQuantileSample(measurement);
+                quantileSamples.computeIfAbsent(sample.name, key -> new ArrayList<>()).add(sample);
+            } else {
+                samples.add(convertMeasurementToSample(measurement));
             }
+        });
+
+        if (!samples.isEmpty()) {
+            Type unknownType = getUnknownType();
+            familySamples.add(new MetricFamilySamples("seata", unknownType, "seata", samples));
         }
+        quantileSamples.forEach((name, quantiles) ->
+            familySamples.add(new MetricFamilySamples(name, Type.SUMMARY, "seata", quantiles)));
         return familySamples;
     }
 
-    private Sample convertMeasurementToSample(Measurement measurement) {
+    private static Sample convertMeasurementToSample(Measurement measurement) {
         String prometheusName = measurement.getId().getName().replace(".", "_");
         List<String> labelNames = new ArrayList<>();
         List<String> labelValues = new ArrayList<>();
@@ -84,6 +105,21 @@ public class PrometheusExporter extends Collector implements Collector.Describab
             (long)measurement.getTimestamp());
     }
 
+    private static Sample convertMeasurementToQuantileSample(Measurement measurement) {
+        String prometheusName = measurement.getId().getName().replace(".", "_") + PERCENTILE_SUFFIX;
+        List<String> labelNames = new ArrayList<>();
+        List<String> labelValues = new ArrayList<>();
+        for (Entry<String, String> tag : measurement.getId().getTags()) {
+            if (IdConstants.STATISTIC_KEY.equals(tag.getKey())) {
+                continue;
+            }
+            labelNames.add(tag.getKey());
+            labelValues.add(tag.getValue());
+        }
+        return new Sample(prometheusName, labelNames, labelValues, measurement.getValue(),
+            (long)measurement.getTimestamp());
+    }
+
     /**
      * Compatible with high and low versions of 'io.prometheus:simpleclient'
      *
@@ -15,6 +15,17 @@
  */
 package io.seata.metrics.exporter.prometheus;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+import io.prometheus.client.Collector.Type;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Measurement;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -31,4 +42,32 @@ public class PrometheusExporterTest {
             PrometheusExporter.getUnknownType();
         });
     }
+
+    @Test
+    public void testPercentileFamilyNames() {
+        Id id = new Id(IdConstants.SEATA_TRANSACTION).withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER);
+        List<Measurement> measurements = Arrays.asList(
+            new Measurement(new Id(id.getName()).withTag(id.getTags())
+                .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_COUNT), 0, 1),
+            new Measurement(new Id(id.getName()).withTag(id.getTags())
+                .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_PERCENTILE)
+                .withTag(IdConstants.QUANTILE_KEY, "0.99"), 0, 5));
+
+        List<MetricFamilySamples> familySamples = PrometheusExporter.convertMeasurementsToFamilySamples(measurements);
+        Assertions.assertEquals(2, familySamples.size());
+        Set<String> sampleNames = new HashSet<>();
+        for (MetricFamilySamples family : familySamples) {
+            Set<String> familyNames = new HashSet<>();
+            for (Sample sample : family.samples) {
+                familyNames.add(sample.name);
+            }
+            for (String name : familyNames) {
+                Assertions.assertTrue(sampleNames.add(name), name + " is exported by two families");
+            }
+        }
+        MetricFamilySamples summary = familySamples.get(1);
+        Assertions.assertEquals(Type.SUMMARY, summary.type);
+        Assertions.assertEquals("seata_transaction" + PrometheusExporter.PERCENTILE_SUFFIX, summary.name);
+        Assertions.assertFalse(summary.samples.get(0).labelNames.contains(IdConstants.STATISTIC_KEY));
+    }
 }
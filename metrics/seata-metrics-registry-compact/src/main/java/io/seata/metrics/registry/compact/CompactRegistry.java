@@ -22,8 +22,13 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import io.seata.common.ConfigurationKeys;
+import io.seata.common.DefaultValues;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
 import io.seata.metrics.Counter;
 import io.seata.metrics.Gauge;
 import io.seata.metrics.Id;
@@ -31,6 +36,7 @@ import io.seata.metrics.Measurement;
 import io.seata.metrics.Meter;
 import io.seata.metrics.registry.Registry;
 import io.seata.metrics.Summary;
+import io.seata.metrics.SystemClock;
 import io.seata.metrics.Timer;
 
 /**
@@ -42,6 +48,20 @@ import io.seata.metrics.Timer;
 public class CompactRegistry implements Registry {
     private static final Map<UUID, Meter> METERS = new ConcurrentHashMap<>();
 
+    private final int histogramPrecision;
+
+    private final double[] histogramPercentiles;
+
+    public CompactRegistry() {
+        Configuration config = ConfigurationFactory.getInstance();
+        this.histogramPrecision = Math.min(Histogram.MAX_PRECISION, config.getInt(
+            ConfigurationKeys.METRICS_PREFIX + ConfigurationKeys.METRICS_HISTOGRAM_PRECISION,
+            DefaultValues.DEFAULT_METRICS_HISTOGRAM_PRECISION));
+        this.histogramPercentiles = parsePercentiles(config.getConfig(
+            ConfigurationKeys.METRICS_PREFIX + ConfigurationKeys.METRICS_HISTOGRAM_PERCENTILES,
+            DefaultValues.DEFAULT_METRICS_HISTOGRAM_PERCENTILES));
+    }
+
     @Override
     public <T extends Number> Gauge<T> getGauge(Id id, Supplier<T> supplier) {
         return (Gauge<T>)CollectionUtils.computeIfAbsent(METERS, id.getId(), key -> new CompactGauge<>(id, supplier));
@@ -54,12 +74,14 @@ public class CompactRegistry implements Registry {
 
     @Override
     public Summary getSummary(Id id) {
-        return (Summary)CollectionUtils.computeIfAbsent(METERS, id.getId(), key -> new CompactSummary(id));
+        return (Summary)CollectionUtils.computeIfAbsent(METERS, id.getId(), key -> new CompactSummary(id, SystemClock.INSTANCE,
+            histogramPrecision, histogramPercentiles));
     }
 
     @Override
     public Timer getTimer(Id id) {
-        return (Timer)CollectionUtils.computeIfAbsent(METERS, id.getId(), key -> new CompactTimer(id));
+        return (Timer)CollectionUtils.computeIfAbsent(METERS, id.getId(), key -> new CompactTimer(id, SystemClock.INSTANCE,
+            histogramPrecision, histogramPercentiles));
     }
 
     @Override
@@ -77,4 +99,19 @@ public class CompactRegistry implements Registry {
     public void clearUp() {
         METERS.clear();
     }
+
+    private static double[] parsePercentiles(String percentiles) {
+        if (StringUtils.isBlank(percentiles)) {
+            return new double[0];
+        }
+        String[] values = percentiles.split(",");
+        double[] parsed = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            parsed[i] = Double.parseDouble(values[i].trim());
+            if (parsed[i] < 0 || parsed[i] > 1) {
+                throw new IllegalArgumentException("the percentiles must be between 0 and 1: " + percentiles);
+            }
+        }
+        return parsed;
+    }
 }
@@ -15,7 +15,8 @@
  */
 package io.seata.metrics.registry.compact;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 
 import io.seata.metrics.Clock;
 import io.seata.metrics.Id;
@@ -38,8 +39,18 @@ public class CompactSummary implements Summary {
 
     private final Id tpsId;
 
+    private final double[] percentiles;
+
+    private final Id[] percentileIds;
+
+    private final int precision;
+
     private volatile SummaryValue value;
 
+    private Histogram histogram;
+
+    private Histogram spareHistogram;
+
     private final Clock clock;
 
     public CompactSummary(Id id) {
@@ -47,6 +58,18 @@ public class CompactSummary implements Summary {
     }
 
     public CompactSummary(Id id, Clock clock) {
+        this(id, clock, 0, new double[0]);
+    }
+
+    /**
+     * Instantiates a new Compact summary which also tracks the percentiles of every measure window.
+     *
+     * @param id          the id
+     * @param clock       the clock
+     * @param precision   the number of significant digits of the percentiles, 0 to track none
+     * @param percentiles the percentiles to measure, as fractions from 0 to 1
+     */
+    public CompactSummary(Id id, Clock clock, int precision, double[] percentiles) {
         this.id = id;
         this.countId = new Id(id.getName()).withTag(id.getTags())
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_COUNT);
@@ -54,10 +77,34 @@ public class CompactSummary implements Summary {
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_TOTAL);
         this.tpsId = new Id(id.getName()).withTag(id.getTags())
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_TPS);
-        this.value = new SummaryValue(clock.getCurrentMilliseconds());
+        this.precision = precision;
+        this.percentiles = precision > 0 ? percentiles.clone() : new double[0];
+        this.percentileIds = new Id[this.percentiles.length];
+        for (int i = 0; i < this.percentiles.length; i++) {
+            this.percentileIds[i] = new Id(id.getName()).withTag(id.getTags())
+                .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_PERCENTILE)
+                .withTag(IdConstants.QUANTILE_KEY, String.valueOf(this.percentiles[i]));
+        }
+        this.value = newValue(clock.getCurrentMilliseconds());
         this.clock = clock;
     }
 
+    private SummaryValue newValue(double startMilliseconds) {
+        if (precision <= 0) {
+            return new SummaryValue(startMilliseconds);
+        }
+        //swap in the histogram of the window before last instead of allocating a new one every measure
+        Histogram histogram = spareHistogram;
+        if (histogram == null) {
+            histogram = new Histogram(precision, Integer.MAX_VALUE);
+        } else {
+            histogram.reset();
+        }
+        this.spareHistogram = null;
+        this.histogram = histogram;
+        return new SummaryValue(startMilliseconds, histogram);
+    }
+
     @Override
     public Id getId() {
         return id;
@@ -83,13 +130,30 @@ public class CompactSummary implements Summary {
         return this.value.getTps(clock.getCurrentMilliseconds());
     }
 
+    /**
+     * Gets the value the given fraction of the values increased since the last measure are less than or equal to.
+     *
+     * @param percentile the fraction, from 0 to 1
+     * @return the value, 0 if the percentiles are not tracked
+     */
+    public long valueAtPercentile(double percentile) {
+        return this.value.getValueAtPercentile(percentile);
+    }
+
     @Override
-    public Iterable<Measurement> measure() {
+    public synchronized Iterable<Measurement> measure() {
         SummaryValue value = this.value;
+        Histogram histogram = this.histogram;
         double time = clock.getCurrentMilliseconds();
-        this.value = new SummaryValue(time);
-        return Arrays.asList(new Measurement(countId, time, value.getCount()),
-            new Measurement(totalId, time, value.getTotal()),
-            new Measurement(tpsId, time, value.getTps(time)));
+        this.value = newValue(time);
+        List<Measurement> measurements = new ArrayList<>(3 + percentiles.length);
+        measurements.add(new Measurement(countId, time, value.getCount()));
+        measurements.add(new Measurement(totalId, time, value.getTotal()));
+        measurements.add(new Measurement(tpsId, time, value.getTps(time)));
+        for (int i = 0; i < percentiles.length; i++) {
+            measurements.add(new Measurement(percentileIds[i], time, value.getValueAtPercentile(percentiles[i])));
+        }
+        this.spareHistogram = histogram;
+        return measurements;
     }
 }
@@ -15,7 +15,8 @@
  */
 package io.seata.metrics.registry.compact;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import io.seata.metrics.Clock;
@@ -41,8 +42,18 @@ public class CompactTimer implements Timer {
 
     private final Id averageId;
 
+    private final double[] percentiles;
+
+    private final Id[] percentileIds;
+
+    private final int precision;
+
     private volatile TimerValue value;
 
+    private Histogram histogram;
+
+    private Histogram spareHistogram;
+
     private final Clock clock;
 
     public CompactTimer(Id id) {
@@ -50,6 +61,18 @@ public class CompactTimer implements Timer {
     }
 
     public CompactTimer(Id id, Clock clock) {
+        this(id, clock, 0, new double[0]);
+    }
+
+    /**
+     * Instantiates a new Compact timer which also tracks the percentiles of every measure window.
+     *
+     * @param id          the id
+     * @param clock       the clock
+     * @param precision   the number of significant digits of the percentiles, 0 to track none
+     * @param percentiles the percentiles to measure, as fractions from 0 to 1
+     */
+    public CompactTimer(Id id, Clock clock, int precision, double[] percentiles) {
         this.id = id;
         this.countId = new Id(id.getName()).withTag(id.getTags())
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_COUNT);
@@ -59,10 +82,34 @@ public class CompactTimer implements Timer {
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_MAX);
         this.averageId = new Id(id.getName()).withTag(id.getTags())
             .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_AVERAGE);
-        this.value = new TimerValue();
+        this.precision = precision;
+        this.percentiles = precision > 0 ? percentiles.clone() : new double[0];
+        this.percentileIds = new Id[this.percentiles.length];
+        for (int i = 0; i < this.percentiles.length; i++) {
+            this.percentileIds[i] = new Id(id.getName()).withTag(id.getTags())
+                .withTag(IdConstants.STATISTIC_KEY, IdConstants.STATISTIC_VALUE_PERCENTILE)
+                .withTag(IdConstants.QUANTILE_KEY, String.valueOf(this.percentiles[i]));
+        }
+        this.value = newValue();
         this.clock = clock;
     }
 
+    private TimerValue newValue() {
+        if (precision <= 0) {
+            return new TimerValue();
+        }
+        //swap in the histogram of the window before last instead of allocating a new one every measure
+        Histogram histogram = spareHistogram;
+        if (histogram == null) {
+            histogram = new Histogram(precision, TimeUnit.HOURS.toMicros(1));
+        } else {
+            histogram.reset();
+        }
+        this.spareHistogram = null;
+        this.histogram = histogram;
+        return new TimerValue(histogram);
+    }
+
     @Override
     public Id getId() {
         return id;
@@ -93,15 +140,33 @@ public class CompactTimer implements Timer {
         return this.value.getAverage();
     }
 
+    /**
+     * Gets the value in microseconds the given fraction of the values recorded since the last measure are less than
+     * or equal to.
+     *
+     * @param percentile the fraction, from 0 to 1
+     * @return the value, 0 if the percentiles are not tracked
+     */
+    public long valueAtPercentile(double percentile) {
+        return this.value.getValueAtPercentile(percentile);
+    }
+
     @Override
-    public Iterable<Measurement> measure() {
+    public synchronized Iterable<Measurement> measure() {
         //reset value when measure
         double time = clock.getCurrentMilliseconds();
         TimerValue value = this.value;
-        this.value = new TimerValue();
-        return Arrays.asList(new Measurement(countId, time, value.getCount()),
-            new Measurement(totalId, time, value.getTotal() * 0.001),
-            new Measurement(maxId, time, value.getMax() * 0.001),
-            new Measurement(averageId, time, value.getAverage() * 0.001));
+        Histogram histogram = this.histogram;
+        this.value = newValue();
+        List<Measurement> measurements = new ArrayList<>(4 + percentiles.length);
+        measurements.add(new Measurement(countId, time, value.getCount()));
+        measurements.add(new Measurement(totalId, time, value.getTotal() * 0.001));
+        measurements.add(new Measurement(maxId, time, value.getMax() * 0.001));
+        measurements.add(new Measurement(averageId, time, value.getAverage() * 0.001));
+        for (int i = 0; i < percentiles.length; i++) {
+            measurements.add(new Measurement(percentileIds[i], time, value.getValueAtPercentile(percentiles[i]) * 0.001));
+        }
+        this.spareHistogram = histogram;
+        return measurements;
     }
 }
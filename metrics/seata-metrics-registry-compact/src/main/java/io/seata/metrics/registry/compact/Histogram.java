@@ -0,0 +1,134 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free log-linear histogram laid out as HdrHistogram does.
+ * <p>
+ * The values below the sub bucket count are counted one by one, above it every power of two is split into half a sub
+ * bucket count of linear buckets, so a value is known to the precision of its significant digits whatever its
+ * magnitude. A record is a single atomic increment, the values above the highest trackable value are counted in the
+ * last bucket.
+ *
+ * @author seata
+ */
+public class Histogram {
+
+    /**
+     * The max number of significant digits, a histogram of 3 digits up to an hour in microseconds takes about 190KB.
+     */
+    public static final int MAX_PRECISION = 3;
+
+    private final int subBucketBits;
+
+    private final int subBucketCount;
+
+    private final int subBucketHalfCount;
+
+    private final long highestTrackableValue;
+
+    private final AtomicLongArray counts;
+
+    /**
+     * Instantiates a new Histogram.
+     *
+     * @param precision             the number of significant digits of the values, from 1 to {@link #MAX_PRECISION}
+     * @param highestTrackableValue the highest value told apart from the others
+     */
+    public Histogram(int precision, long highestTrackableValue) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between 1 and " + MAX_PRECISION);
+        }
+        long largestValueWithSingleUnitResolution = 2 * (long)Math.pow(10, precision);
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(largestValueWithSingleUnitResolution - 1);
+        this.subBucketCount = 1 << subBucketBits;
+        this.subBucketHalfCount = subBucketCount >> 1;
+        this.highestTrackableValue = Math.max(highestTrackableValue, subBucketCount);
+        this.counts = new AtomicLongArray(indexOf(this.highestTrackableValue) + 1);
+    }
+
+    /**
+     * Record a value, the negative values are ignored.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        counts.incrementAndGet(indexOf(value));
+    }
+
+    /**
+     * Gets the smallest recorded value that the given fraction of the recorded values are less than or equal to,
+     * within the precision of the histogram.
+     *
+     * @param percentile the fraction, from 0 to 1
+     * @return the value, 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        int length = counts.length();
+        for (int i = 0; i < length; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long)Math.ceil(Math.min(percentile, 1.0) * total));
+        long cumulative = 0;
+        for (int i = 0; i < length; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return highestEquivalentValue(i);
+            }
+        }
+        // the counts read by the second pass are never less than by the first one
+        return highestEquivalentValue(length - 1);
+    }
+
+    /**
+     * Clear the recorded values, so the histogram can be reused for the next measure window.
+     */
+    public void reset() {
+        int length = counts.length();
+        for (int i = 0; i < length; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    int indexOf(long value) {
+        if (value < subBucketCount) {
+            return (int)value;
+        }
+        long tracked = Math.min(value, highestTrackableValue);
+        int exponent = 63 - Long.numberOfLeadingZeros(tracked) - (subBucketBits - 1);
+        int subBucket = (int)(tracked >>> exponent);
+        return subBucketCount + (exponent - 1) * subBucketHalfCount + (subBucket - subBucketHalfCount);
+    }
+
+    long highestEquivalentValue(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int offset = index - subBucketCount;
+        int exponent = offset / subBucketHalfCount + 1;
+        long subBucket = offset % subBucketHalfCount + subBucketHalfCount;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+}
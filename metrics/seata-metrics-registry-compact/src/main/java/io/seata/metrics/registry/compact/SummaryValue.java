@@ -29,6 +29,8 @@ public class SummaryValue {
 
     private final double startMilliseconds;
 
+    private final Histogram histogram;
+
     public long getCount() {
         return count.longValue();
     }
@@ -44,10 +46,25 @@ public class SummaryValue {
         return total.doubleValue() / (currentMilliseconds - startMilliseconds) * 1000.0;
     }
 
+    /**
+     * Gets the value the given fraction of the increased values are less than or equal to.
+     *
+     * @param percentile the fraction, from 0 to 1
+     * @return the value, 0 without histogram
+     */
+    public long getValueAtPercentile(double percentile) {
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile);
+    }
+
     public SummaryValue(double startMilliseconds) {
+        this(startMilliseconds, null);
+    }
+
+    public SummaryValue(double startMilliseconds, Histogram histogram) {
         this.count = new LongAdder();
         this.total = new LongAdder();
         this.startMilliseconds = startMilliseconds;
+        this.histogram = histogram;
     }
 
     public void increase() {
@@ -60,5 +77,8 @@ public class SummaryValue {
         }
         this.count.increment();
         this.total.add(value);
+        if (this.histogram != null) {
+            this.histogram.record(value);
+        }
     }
 }
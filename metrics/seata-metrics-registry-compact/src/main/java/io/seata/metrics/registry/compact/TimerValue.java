@@ -31,6 +31,8 @@ public class TimerValue {
 
     private final AtomicLong max;
 
+    private final Histogram histogram;
+
     public long getCount() {
         return count.longValue();
     }
@@ -49,10 +51,28 @@ public class TimerValue {
         return count == 0 ? 0 : total / count;
     }
 
+    /**
+     * Gets the value in microseconds the given fraction of the recorded values are less than or equal to.
+     *
+     * @param percentile the fraction, from 0 to 1
+     * @return the value, 0 without histogram
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (histogram == null) {
+            return 0;
+        }
+        return Math.min(histogram.getValueAtPercentile(percentile), getMax());
+    }
+
     public TimerValue() {
+        this(null);
+    }
+
+    public TimerValue(Histogram histogram) {
         this.count = new LongAdder();
         this.total = new LongAdder();
         this.max = new AtomicLong(0);
+        this.histogram = histogram;
     }
 
     public void record(long value, TimeUnit unit) {
@@ -63,5 +83,8 @@ public class TimerValue {
         this.count.increment();
         this.total.add(changeValue);
         this.max.accumulateAndGet(changeValue, Math::max);
+        if (this.histogram != null) {
+            this.histogram.record(changeValue);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.metrics.registry.compact;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Measurement;
+import io.seata.metrics.SystemClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Compact timer test.
+ */
+public class CompactTimerTest {
+
+    @Test
+    public void testHistogramPrecision() {
+        for (int precision = 1; precision <= Histogram.MAX_PRECISION; precision++) {
+            Histogram histogram = new Histogram(precision, TimeUnit.HOURS.toMicros(1));
+            double maxError = Math.pow(10, -precision);
+            int previous = -1;
+            for (long value = 0; value < TimeUnit.HOURS.toMicros(1); value = value * 11 / 10 + 1) {
+                int index = histogram.indexOf(value);
+                Assertions.assertTrue(index >= previous);
+                previous = index;
+                long highest = histogram.highestEquivalentValue(index);
+                Assertions.assertTrue(highest >= value);
+                Assertions.assertTrue(highest - value <= Math.max(1, value * maxError));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram(2, TimeUnit.HOURS.toMicros(1));
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(0.99));
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i * 100L);
+        }
+        histogram.record(-1);
+        assertClose(500000, histogram.getValueAtPercentile(0.5));
+        assertClose(990000, histogram.getValueAtPercentile(0.99));
+        assertClose(999900, histogram.getValueAtPercentile(0.9999));
+        assertClose(1000000, histogram.getValueAtPercentile(1));
+    }
+
+    @Test
+    public void testMeasureWindow() {
+        Id id = new Id(IdConstants.SEATA_TRANSACTION)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER);
+        CompactTimer timer = new CompactTimer(id, SystemClock.INSTANCE, 2, new double[] {0.5, 0.99});
+        for (int i = 1; i <= 100; i++) {
+            timer.record(i, TimeUnit.MILLISECONDS);
+        }
+        assertClose(99000, timer.valueAtPercentile(0.99));
+
+        Map<String, Double> percentiles = new HashMap<>();
+        int count = 0;
+        for (Measurement measurement : timer.measure()) {
+            count++;
+            String quantile = measurement.getId().getTag(IdConstants.QUANTILE_KEY);
+            if (quantile != null) {
+                Assertions.assertEquals(IdConstants.STATISTIC_VALUE_PERCENTILE,
+                    measurement.getId().getTag(IdConstants.STATISTIC_KEY));
+                percentiles.put(quantile, measurement.getValue());
+            }
+        }
+        Assertions.assertEquals(6, count);
+        Assertions.assertEquals(50, percentiles.get("0.5"), 0.5);
+        Assertions.assertEquals(99, percentiles.get("0.99"), 1);
+
+        // a new window starts on every measure
+        Assertions.assertEquals(0, timer.valueAtPercentile(0.99));
+        timer.record(7, TimeUnit.MILLISECONDS);
+        assertClose(7000, timer.valueAtPercentile(0.5));
+    }
+
+    @Test
+    public void testReuseHistogram() {
+        Histogram histogram = new Histogram(2, TimeUnit.HOURS.toMicros(1));
+        histogram.record(1000);
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(0.5));
+
+        CompactTimer timer = new CompactTimer(new Id(IdConstants.SEATA_TRANSACTION), SystemClock.INSTANCE, 2,
+            new double[] {0.5});
+        for (int window = 1; window <= 3; window++) {
+            Assertions.assertEquals(0, timer.valueAtPercentile(0.5));
+            timer.record(window, TimeUnit.MILLISECONDS);
+            assertClose(window * 1000L, timer.valueAtPercentile(0.5));
+            timer.measure();
+        }
+    }
+
+    @Test
+    public void testWithoutHistogram() {
+        CompactTimer timer = new CompactTimer(new Id(IdConstants.SEATA_TRANSACTION));
+        timer.record(5, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(0, timer.valueAtPercentile(0.99));
+        int count = 0;
+        for (Measurement ignored : timer.measure()) {
+            count++;
+        }
+        Assertions.assertEquals(4, count);
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assertions.assertTrue(Math.abs(actual - expected) <= expected / 100, "expected " + expected + " but " + actual);
+    }
+}
@@ -24,9 +24,11 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.core.model.BranchType;
 import io.seata.core.model.ResourceManager;
+import io.seata.core.protocol.transaction.LockReleaseNotifyRequest;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 import io.seata.rm.datasource.DataSourceManager;
 import io.seata.rm.datasource.DataSourceProxy;
+import io.seata.rm.datasource.exec.LockRetryController;
 import io.seata.rm.datasource.undo.UndoLogManager;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
@@ -45,6 +47,11 @@ public class RMHandlerAT extends AbstractRMHandler {
 
     private final Map<String, Boolean> undoLogTableExistRecord = new ConcurrentHashMap<>();
 
+    @Override
+    public void handle(LockReleaseNotifyRequest request) {
+        LockRetryController.notifyLockRelease(request.getXid());
+    }
+
     @Override
     public void handle(UndoLogDeleteRequest request) {
         String resourceId = request.getResourceId();
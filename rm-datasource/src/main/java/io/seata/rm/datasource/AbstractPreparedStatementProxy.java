@@ -232,6 +232,22 @@ public abstract class AbstractPreparedStatementProxy extends StatementProxy<Prep
         targetStatement.addBatch();
     }
 
+    @Override
+    public int[] executeBatch() throws SQLException {
+        try {
+            return super.executeBatch();
+        } finally {
+            // the batch is emptied by executing it, so are the parameter sets kept for the images
+            initParameterHolder();
+        }
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        targetStatement.clearBatch();
+        initParameterHolder();
+    }
+
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
         setParamByIndex(parameterIndex, reader);
@@ -32,9 +32,11 @@ import io.seata.common.exception.ShouldNeverHappenException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
 import io.seata.core.exception.TransactionException;
+import io.seata.rm.datasource.exec.LockRetryController;
 import io.seata.rm.datasource.undo.SQLUndoLog;
 
 import static io.seata.common.Constants.AUTO_COMMIT;
+import static io.seata.common.Constants.LOCK_WAIT_NOTIFY;
 import static io.seata.common.Constants.SKIP_CHECK_LOCK;
 
 /**
@@ -62,7 +64,7 @@ public class ConnectionContext {
     private boolean isGlobalLockRequire;
     private Savepoint currentSavepoint = DEFAULT_SAVEPOINT;
     private boolean autoCommitChanged;
-    private final Map<String, Object> applicationData = new HashMap<>(2, 1.0001f);
+    private final Map<String, Object> applicationData = new HashMap<>(3, 1.0001f);
 
     /**
      * the lock keys buffer
@@ -282,6 +284,9 @@ public class ConnectionContext {
 
         if (allBeforeImageEmpty()) {
             this.applicationData.put(SKIP_CHECK_LOCK, true);
+        } else if (LockRetryController.isLockWaitNotify()) {
+            // ask the TC to notify the lock release if the lock conflicts
+            this.applicationData.put(LOCK_WAIT_NOTIFY, true);
         }
 
         if (!this.applicationData.isEmpty()) {
@@ -28,12 +28,14 @@ import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.rm.DefaultResourceManager;
 import io.seata.rm.datasource.exec.LockConflictException;
+import io.seata.rm.datasource.exec.LockIntentTable;
 import io.seata.rm.datasource.exec.LockRetryController;
 import io.seata.rm.datasource.undo.SQLUndoLog;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_LOCAL_INTENT_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
@@ -57,6 +59,9 @@ public class ConnectionProxy extends AbstractConnectionProxy {
     public static final boolean IS_REPORT_SUCCESS_ENABLE = ConfigurationFactory.getInstance().getBoolean(
         ConfigurationKeys.CLIENT_REPORT_SUCCESS_ENABLE, DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE);
 
+    private static final boolean IS_LOCAL_LOCK_INTENT_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.CLIENT_LOCK_LOCAL_INTENT_ENABLE, DEFAULT_CLIENT_LOCK_LOCAL_INTENT_ENABLE);
+
     /**
      * Instantiates a new Connection proxy.
      *
@@ -246,10 +251,13 @@ public class ConnectionProxy extends AbstractConnectionProxy {
     }
 
     private void processGlobalTransactionCommit() throws SQLException {
+        LockIntentTable.LockIntent lockIntent = acquireLockIntent();
         try {
             register();
         } catch (TransactionException e) {
             recognizeLockKeyConflictException(e, context.buildLockKeys());
+        } finally {
+            bindLockIntent(lockIntent);
         }
         try {
             UndoLogManagerFactory.getUndoLogManager(this.getDbType()).flushUndoLogs(this);
@@ -265,6 +273,25 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         context.reset();
     }
 
+    private LockIntentTable.LockIntent acquireLockIntent() throws SQLException {
+        if (!IS_LOCAL_LOCK_INTENT_ENABLE || !context.hasUndoLog() || !context.hasLockKey()) {
+            return null;
+        }
+        return LockIntentTable.get().acquire(getDataSourceProxy().getResourceId(), context.getXid(),
+            context.buildLockKeys());
+    }
+
+    private void bindLockIntent(LockIntentTable.LockIntent lockIntent) {
+        if (lockIntent == null) {
+            return;
+        }
+        if (context.isBranchRegistered()) {
+            LockIntentTable.get().bind(lockIntent, context.getBranchId());
+        } else {
+            LockIntentTable.get().release(lockIntent);
+        }
+    }
+
     private void register() throws TransactionException {
         if (!context.hasUndoLog() || !context.hasLockKey()) {
             return;
@@ -349,7 +376,7 @@ public class ConnectionProxy extends AbstractConnectionProxy {
         }
 
         protected <T> T doRetryOnLockConflict(Callable<T> callable) throws Exception {
-            LockRetryController lockRetryController = new LockRetryController();
+            LockRetryController lockRetryController = new LockRetryController(connection.getContext().getXid());
             while (true) {
                 try {
                     return callable.call();
@@ -34,6 +34,7 @@ import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
 import io.seata.core.protocol.transaction.GlobalLockQueryResponse;
 import io.seata.core.rpc.netty.RmNettyRemotingClient;
 import io.seata.rm.AbstractResourceManager;
+import io.seata.rm.datasource.exec.LockIntentTable;
 import io.seata.rm.datasource.undo.UndoLogManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -108,6 +109,7 @@ public class DataSourceManager extends AbstractResourceManager {
     @Override
     public BranchStatus branchCommit(BranchType branchType, String xid, long branchId, String resourceId,
                                      String applicationData) throws TransactionException {
+        LockIntentTable.get().release(resourceId, branchId);
         return asyncWorker.branchCommit(xid, branchId, resourceId);
     }
 
@@ -118,6 +120,7 @@ public class DataSourceManager extends AbstractResourceManager {
         if (dataSourceProxy == null) {
             throw new ShouldNeverHappenException(String.format("resource: %s not found",resourceId));
         }
+        LockIntentTable.get().markRollbacking(resourceId, branchId);
         try {
             UndoLogManagerFactory.getUndoLogManager(dataSourceProxy.getDbType()).undo(dataSourceProxy, xid, branchId);
         } catch (TransactionException te) {
@@ -130,6 +133,7 @@ public class DataSourceManager extends AbstractResourceManager {
                 return BranchStatus.PhaseTwo_RollbackFailed_Retryable;
             }
         }
+        LockIntentTable.get().release(resourceId, branchId);
         return BranchStatus.PhaseTwo_Rollbacked;
 
     }
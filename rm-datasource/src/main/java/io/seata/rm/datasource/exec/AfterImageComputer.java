@@ -0,0 +1,370 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.seata.rm.datasource.ColumnUtils;
+import io.seata.rm.datasource.sql.struct.ColumnMeta;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.sqlparser.ParametersHolder;
+import io.seata.sqlparser.SQLParsingException;
+import io.seata.sqlparser.SQLUpdateRecognizer;
+import io.seata.sqlparser.struct.Null;
+import io.seata.sqlparser.util.JdbcConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the after image of an update from its before image and the assigned values, so the rows need not be
+ * selected again after the update.
+ * <p>
+ * An after image is only computed when it is sure to hold what a select would read back: every assigned value is a
+ * literal or a parameter of the class the column is read as and stored unchanged, no primary key is assigned, and
+ * the table has no on update column, generated column or trigger which changes the rows behind the statement.
+ * Otherwise null is returned and the after image is queried as before.
+ *
+ * @author seata
+ */
+final class AfterImageComputer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AfterImageComputer.class);
+
+    private static final long CACHE_SIZE = 100000;
+
+    private static final long EXPIRE_TIME = 900 * 1000;
+
+    private static final Cache<String, Boolean> TABLE_COMPUTABLE_CACHE = Caffeine.newBuilder().maximumSize(CACHE_SIZE)
+            .expireAfterWrite(EXPIRE_TIME, TimeUnit.MILLISECONDS).build();
+
+    private static final Map<String, String> TRIGGER_COUNT_SQL = new HashMap<>();
+
+    private static final Object NOT_COMPUTABLE = new Object();
+
+    /**
+     * The string types the databases store normalized, their after images are queried.
+     */
+    private static final Set<String> NORMALIZED_STRING_TYPES = new HashSet<>(Arrays.asList("JSON", "JSONB", "XML"));
+
+    static {
+        String mysqlSql = "SELECT COUNT(*) FROM information_schema.TRIGGERS WHERE EVENT_OBJECT_SCHEMA = ? AND EVENT_OBJECT_TABLE = ?";
+        TRIGGER_COUNT_SQL.put(JdbcConstants.MYSQL, mysqlSql);
+        TRIGGER_COUNT_SQL.put(JdbcConstants.MARIADB, mysqlSql);
+        TRIGGER_COUNT_SQL.put(JdbcConstants.POSTGRESQL,
+            "SELECT COUNT(*) FROM information_schema.triggers WHERE event_object_schema = ? AND event_object_table = ?");
+        TRIGGER_COUNT_SQL.put(JdbcConstants.ORACLE,
+            "SELECT COUNT(*) FROM ALL_TRIGGERS WHERE TABLE_OWNER = ? AND TABLE_NAME = ?");
+    }
+
+    private AfterImageComputer() {
+    }
+
+    /**
+     * Compute the after image of an update.
+     *
+     * @param recognizer       the update recognizer
+     * @param parametersHolder the parameters of the statement, null if it is not prepared
+     * @param tableMeta        the table meta
+     * @param beforeImage      the before image, not empty
+     * @param connection       the target connection to check the table with
+     * @param resourceId       the resource id
+     * @param dbType           the db type
+     * @return the after image, null if it has to be queried
+     */
+    static TableRecords compute(SQLUpdateRecognizer recognizer, ParametersHolder parametersHolder, TableMeta tableMeta,
+                                TableRecords beforeImage, Connection connection, String resourceId, String dbType) {
+        if (!tableMeta.getOnUpdateColumnsOnlyName().isEmpty()
+            || !isTableComputable(connection, resourceId, tableMeta, dbType)) {
+            return null;
+        }
+        return computeRows(recognizer, parametersHolder, tableMeta, beforeImage, dbType);
+    }
+
+    /**
+     * Compute the after image rows from the before image, without checking the table.
+     *
+     * @param recognizer       the update recognizer
+     * @param parametersHolder the parameters of the statement, null if it is not prepared
+     * @param tableMeta        the table meta
+     * @param beforeImage      the before image, not empty
+     * @param dbType           the db type
+     * @return the after image, null if it has to be queried
+     */
+    static TableRecords computeRows(SQLUpdateRecognizer recognizer, ParametersHolder parametersHolder,
+                                    TableMeta tableMeta, TableRecords beforeImage, String dbType) {
+        List<String> updateColumns = recognizer.getUpdateColumns();
+        List<Object> updateValues;
+        try {
+            updateValues = recognizer.getUpdateValues();
+        } catch (SQLParsingException e) {
+            // the value of a column is an expression, only the database knows what it is
+            return null;
+        }
+        if (updateColumns.size() != updateValues.size()) {
+            return null;
+        }
+
+        Map<String, ColumnMeta> primaryKeyMap = tableMeta.getPrimaryKeyMap();
+        List<Field> firstFields = beforeImage.getRows().get(0).getFields();
+        int[] fieldIndexes = new int[updateColumns.size()];
+        Object[] values = new Object[updateColumns.size()];
+        boolean[] assigned = new boolean[firstFields.size()];
+        int parameterIndex = 0;
+        for (int i = 0; i < updateColumns.size(); i++) {
+            int fieldIndex = indexOfField(firstFields, normalizeColumnName(updateColumns.get(i), dbType));
+            if (fieldIndex < 0 || assigned[fieldIndex]) {
+                return null;
+            }
+            assigned[fieldIndex] = true;
+            Field field = firstFields.get(fieldIndex);
+            ColumnMeta columnMeta = tableMeta.getColumnMeta(field.getName());
+            if (columnMeta == null || primaryKeyMap.containsKey(field.getName())) {
+                return null;
+            }
+
+            Object value = updateValues.get(i);
+            if (isParameterMarker(value)) {
+                value = getParameter(parametersHolder, ++parameterIndex);
+                if (value == NOT_COMPUTABLE) {
+                    return null;
+                }
+            }
+            value = toColumnValue(value, getReadClass(beforeImage, fieldIndex), columnMeta);
+            if (value == NOT_COMPUTABLE) {
+                return null;
+            }
+            fieldIndexes[i] = fieldIndex;
+            values[i] = value;
+        }
+
+        TableRecords afterImage = new TableRecords(tableMeta);
+        for (Row beforeRow : beforeImage.getRows()) {
+            List<Field> fields = new ArrayList<>(beforeRow.getFields().size());
+            for (Field beforeField : beforeRow.getFields()) {
+                Field field = new Field(beforeField.getName(), beforeField.getType(), beforeField.getValue());
+                field.setKeyType(beforeField.getKeyType());
+                fields.add(field);
+            }
+            for (int i = 0; i < fieldIndexes.length; i++) {
+                fields.get(fieldIndexes[i]).setValue(values[i]);
+            }
+            Row row = new Row();
+            row.setFields(fields);
+            afterImage.add(row);
+        }
+        return afterImage;
+    }
+
+    private static boolean isTableComputable(Connection connection, String resourceId, TableMeta tableMeta,
+                                             String dbType) {
+        String key = resourceId + "." + tableMeta.getTableName();
+        return TABLE_COMPUTABLE_CACHE.get(key, k -> checkTable(connection, tableMeta, dbType));
+    }
+
+    /**
+     * Check whether the table changes no row behind an update, by triggers or generated columns.
+     *
+     * @param connection the connection
+     * @param tableMeta  the table meta
+     * @param dbType     the db type
+     * @return true if the after image of the table can be computed
+     */
+    static boolean checkTable(Connection connection, TableMeta tableMeta, String dbType) {
+        String triggerCountSql = TRIGGER_COUNT_SQL.get(dbType);
+        if (triggerCountSql == null || tableMeta.getAllColumns().isEmpty()) {
+            return false;
+        }
+        ColumnMeta anyColumn = tableMeta.getAllColumns().values().iterator().next();
+        String catalog = anyColumn.getTableCat();
+        String schema = anyColumn.getTableSchemaName();
+        String tableName = anyColumn.getTableName();
+        try {
+            DatabaseMetaData dbmd = connection.getMetaData();
+            try (ResultSet rs = dbmd.getColumns(catalog, schema, tableName, "%")) {
+                while (rs.next()) {
+                    if (!"NO".equalsIgnoreCase(rs.getString("IS_GENERATEDCOLUMN"))) {
+                        return false;
+                    }
+                }
+            }
+            boolean mysqlSeries = JdbcConstants.MYSQL.equals(dbType) || JdbcConstants.MARIADB.equals(dbType);
+            try (PreparedStatement ps = connection.prepareStatement(triggerCountSql)) {
+                ps.setString(1, mysqlSeries ? catalog : schema);
+                ps.setString(2, tableName);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() && rs.getInt(1) == 0;
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Failed to check the triggers and generated columns of table[{}], its after images will be queried: {}",
+                tableMeta.getTableName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static String normalizeColumnName(String columnName, String dbType) {
+        String name = ColumnUtils.delEscape(columnName, dbType);
+        int index = name.lastIndexOf('.');
+        return index < 0 ? name : name.substring(index + 1);
+    }
+
+    private static int indexOfField(List<Field> fields, String columnName) {
+        int exact = -1;
+        int ignoreCase = -1;
+        int ignoreCaseCount = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).getName();
+            if (name.equals(columnName)) {
+                exact = i;
+            }
+            if (name.equalsIgnoreCase(columnName)) {
+                ignoreCase = i;
+                ignoreCaseCount++;
+            }
+        }
+        if (exact >= 0) {
+            return exact;
+        }
+        // the database folds the case of an unquoted name, it's ambiguous which of the columns it means
+        return ignoreCaseCount == 1 ? ignoreCase : -1;
+    }
+
+    private static boolean isParameterMarker(Object value) {
+        // the parsers put a marker printed as ? in place of the parameters
+        return value != null && !(value instanceof String) && "?".equals(value.toString());
+    }
+
+    private static Object getParameter(ParametersHolder parametersHolder, int index) {
+        if (parametersHolder == null) {
+            return NOT_COMPUTABLE;
+        }
+        List<Object> parameter = parametersHolder.getParameters().get(index);
+        // more than one value of a parameter is a batch, the rows of which differ
+        if (parameter == null || parameter.size() != 1) {
+            return NOT_COMPUTABLE;
+        }
+        return parameter.get(0);
+    }
+
+    private static Class<?> getReadClass(TableRecords beforeImage, int fieldIndex) {
+        for (Row row : beforeImage.getRows()) {
+            Object value = row.getFields().get(fieldIndex).getValue();
+            if (value != null) {
+                return value.getClass();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Convert an assigned value to what the column is read back as.
+     *
+     * @param value       the assigned value
+     * @param readClass   the class the column is read as, null if unknown
+     * @param columnMeta  the column meta
+     * @return the value, or {@link #NOT_COMPUTABLE} if the database may store it otherwise
+     */
+    private static Object toColumnValue(Object value, Class<?> readClass, ColumnMeta columnMeta) {
+        if (value == null || value instanceof Null) {
+            return columnMeta.getNullAble() == DatabaseMetaData.columnNoNulls ? NOT_COMPUTABLE : null;
+        }
+        if (readClass == null) {
+            return NOT_COMPUTABLE;
+        }
+        if (value instanceof String) {
+            String str = (String)value;
+            // the fixed length types pad the value, oracle stores an empty string as null
+            if (readClass != String.class || str.isEmpty() || str.length() > columnMeta.getColumnSize()
+                || !isVariableLengthString(columnMeta)) {
+                return NOT_COMPUTABLE;
+            }
+            return str;
+        }
+        if (value instanceof Boolean) {
+            return readClass == Boolean.class ? value : NOT_COMPUTABLE;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            long longValue = ((Number)value).longValue();
+            if (!isInRange(longValue, columnMeta)) {
+                return NOT_COMPUTABLE;
+            }
+            if (readClass == Long.class) {
+                return longValue;
+            }
+            if (readClass == Integer.class && longValue == (int)longValue) {
+                return (int)longValue;
+            }
+            if (readClass == Short.class && longValue == (short)longValue) {
+                return (short)longValue;
+            }
+            if (readClass == Byte.class && longValue == (byte)longValue) {
+                return (byte)longValue;
+            }
+        }
+        // decimals, floats and temporals are rounded by the database
+        return NOT_COMPUTABLE;
+    }
+
+    private static boolean isVariableLengthString(ColumnMeta columnMeta) {
+        // the long types take in the json columns of mysql, which are stored normalized rather than as written
+        int dataType = columnMeta.getDataType();
+        if (dataType != Types.VARCHAR && dataType != Types.NVARCHAR) {
+            return false;
+        }
+        String typeName = columnMeta.getDataTypeName();
+        return typeName == null || !NORMALIZED_STRING_TYPES.contains(typeName.toUpperCase(Locale.ROOT));
+    }
+
+    private static boolean isInRange(long value, ColumnMeta columnMeta) {
+        String typeName = columnMeta.getDataTypeName() == null ? ""
+            : columnMeta.getDataTypeName().toUpperCase(Locale.ROOT);
+        boolean unsigned = typeName.contains("UNSIGNED");
+        switch (columnMeta.getDataType()) {
+            case Types.TINYINT:
+                return unsigned ? value >= 0 && value <= 0xFF : value == (byte)value;
+            case Types.SMALLINT:
+                return unsigned ? value >= 0 && value <= 0xFFFF : value == (short)value;
+            case Types.INTEGER:
+                if (typeName.startsWith("MEDIUMINT")) {
+                    return unsigned ? value >= 0 && value <= 0xFFFFFF : value >= -0x800000 && value < 0x800000;
+                }
+                return unsigned ? value >= 0 && value <= 0xFFFFFFFFL : value == (int)value;
+            case Types.BIGINT:
+                return !unsigned || value >= 0;
+            default:
+                return false;
+        }
+    }
+}
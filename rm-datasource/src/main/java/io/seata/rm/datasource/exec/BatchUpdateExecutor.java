@@ -0,0 +1,187 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.seata.common.util.IOUtil;
+import io.seata.common.util.StringUtils;
+import io.seata.rm.datasource.ColumnUtils;
+import io.seata.rm.datasource.StatementProxy;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.sqlparser.ParametersHolder;
+import io.seata.sqlparser.SQLRecognizer;
+import io.seata.sqlparser.SQLUpdateRecognizer;
+
+/**
+ * The executor of a batch of a prepared update, whose parameter sets are added by
+ * {@link java.sql.PreparedStatement#addBatch()}.
+ * <p>
+ * When the where condition picks the rows by their primary keys, such as {@code where id = ?}, the before image of
+ * the whole batch is selected by one query of the distinct primary keys of the parameter sets, which are put in
+ * chunks of IN lists, instead of a condition repeated for each parameter set. Then the batch is executed by the
+ * driver and the after image is queried once, into one undo log and one lock key set of the batch.
+ *
+ * @param <T> the type parameter
+ * @param <S> the type parameter
+ * @author seata
+ */
+public class BatchUpdateExecutor<T, S extends Statement> extends UpdateExecutor<T, S> {
+
+    private static final Pattern AND_PATTERN = Pattern.compile("\\s+and\\s+", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern EQUAL_PARAMETER_PATTERN = Pattern.compile("^\\(?\\s*([^\\s=()]+)\\s*=\\s*\\?\\s*\\)?$");
+
+    /**
+     * Instantiates a new Batch update executor.
+     *
+     * @param statementProxy    the statement proxy
+     * @param statementCallback the statement callback
+     * @param sqlRecognizer     the sql recognizer
+     */
+    public BatchUpdateExecutor(StatementProxy<S> statementProxy, StatementCallback<T, S> statementCallback,
+                               SQLRecognizer sqlRecognizer) {
+        super(statementProxy, statementCallback, sqlRecognizer);
+    }
+
+    /**
+     * Whether the statement holds a batch of parameter sets.
+     *
+     * @param statementProxy the statement proxy
+     * @return true if any parameter has more than one value
+     */
+    public static boolean isBatch(StatementProxy<?> statementProxy) {
+        if (!(statementProxy instanceof ParametersHolder)) {
+            return false;
+        }
+        Map<Integer, ArrayList<Object>> parameters = ((ParametersHolder) statementProxy).getParameters();
+        for (List<Object> values : parameters.values()) {
+            if (values.size() > 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected TableRecords beforeImage() throws SQLException {
+        SQLUpdateRecognizer recognizer = (SQLUpdateRecognizer) sqlRecognizer;
+        ArrayList<List<Object>> paramAppenderList = new ArrayList<>();
+        String whereCondition = recognizer.getWhereCondition((ParametersHolder) statementProxy, paramAppenderList);
+        TableMeta tmeta = getTableMeta();
+        List<String> pkNameList = tmeta.getPrimaryKeyOnlyName();
+        int[] pkParamIndexes = getPkParamIndexes(whereCondition, pkNameList);
+        if (pkParamIndexes == null || paramAppenderList.isEmpty()
+            || StringUtils.isNotBlank(recognizer.getOrderByCondition())
+            || StringUtils.isNotBlank(recognizer.getLimitCondition())) {
+            return super.beforeImage();
+        }
+
+        Set<List<Object>> pkValuesSet = new LinkedHashSet<>();
+        for (List<Object> paramAppender : paramAppenderList) {
+            if (paramAppender.size() != pkParamIndexes.length) {
+                return super.beforeImage();
+            }
+            List<Object> pkValues = new ArrayList<>(pkParamIndexes.length);
+            for (int pkParamIndex : pkParamIndexes) {
+                pkValues.add(paramAppender.get(pkParamIndex));
+            }
+            // a primary key is never equal to null, the parameter set updates nothing
+            if (!pkValues.contains(null)) {
+                pkValuesSet.add(pkValues);
+            }
+        }
+        if (pkValuesSet.isEmpty()) {
+            return TableRecords.empty(tmeta);
+        }
+
+        String selectSQL = buildSelectByPKsSQL(tmeta, pkValuesSet.size()) + " FOR UPDATE";
+        int[] pkDataTypes = new int[pkNameList.size()];
+        for (int i = 0; i < pkDataTypes.length; i++) {
+            pkDataTypes[i] = tmeta.getColumnMeta(pkNameList.get(i)).getDataType();
+        }
+        ResultSet rs = null;
+        try (PreparedStatement ps = statementProxy.getConnection().prepareStatement(selectSQL)) {
+            int paramIndex = 1;
+            for (List<Object> pkValues : pkValuesSet) {
+                for (int i = 0; i < pkValues.size(); i++) {
+                    ps.setObject(paramIndex++, pkValues.get(i), pkDataTypes[i]);
+                }
+            }
+            rs = ps.executeQuery();
+            return TableRecords.buildRecords(tmeta, rs);
+        } finally {
+            IOUtil.close(rs);
+        }
+    }
+
+    /**
+     * Find where the primary keys are in the parameters of a where condition made of the primary keys only.
+     *
+     * @param whereCondition the where condition
+     * @param pkNameList     the primary key names
+     * @return the index of the parameter of each primary key, null if the condition is not like pk1 = ? and pk2 = ?
+     */
+    private int[] getPkParamIndexes(String whereCondition, List<String> pkNameList) {
+        if (StringUtils.isBlank(whereCondition)) {
+            return null;
+        }
+        String[] conditions = AND_PATTERN.split(whereCondition.trim());
+        if (conditions.length != pkNameList.size()) {
+            return null;
+        }
+        int[] pkParamIndexes = new int[pkNameList.size()];
+        boolean[] found = new boolean[pkNameList.size()];
+        for (int paramIndex = 0; paramIndex < conditions.length; paramIndex++) {
+            Matcher matcher = EQUAL_PARAMETER_PATTERN.matcher(conditions[paramIndex].trim());
+            if (!matcher.matches()) {
+                return null;
+            }
+            String columnName = ColumnUtils.delEscape(matcher.group(1), getDbType());
+            int dotIndex = columnName.lastIndexOf('.');
+            if (dotIndex >= 0) {
+                columnName = columnName.substring(dotIndex + 1);
+            }
+            int pkIndex = indexOfIgnoreCase(pkNameList, columnName);
+            if (pkIndex < 0 || found[pkIndex]) {
+                return null;
+            }
+            found[pkIndex] = true;
+            pkParamIndexes[pkIndex] = paramIndex;
+        }
+        return pkParamIndexes;
+    }
+
+    private static int indexOfIgnoreCase(List<String> names, String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
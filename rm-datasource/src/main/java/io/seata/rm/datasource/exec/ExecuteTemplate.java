@@ -94,7 +94,11 @@ public class ExecuteTemplate {
                                     new Object[]{statementProxy, statementCallback, sqlRecognizer});
                         break;
                     case UPDATE:
-                        executor = new UpdateExecutor<>(statementProxy, statementCallback, sqlRecognizer);
+                        if (BatchUpdateExecutor.isBatch(statementProxy)) {
+                            executor = new BatchUpdateExecutor<>(statementProxy, statementCallback, sqlRecognizer);
+                        } else {
+                            executor = new UpdateExecutor<>(statementProxy, statementCallback, sqlRecognizer);
+                        }
                         break;
                     case DELETE:
                         executor = new DeleteExecutor<>(statementProxy, statementCallback, sqlRecognizer);
@@ -0,0 +1,70 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.AbstractGlobalEndRequest;
+import io.seata.core.protocol.transaction.AbstractGlobalEndResponse;
+import io.seata.core.rpc.hook.RpcHook;
+
+/**
+ * Releases the local lock intents of a global transaction as soon as the TC answers its global commit or rollback
+ * with a status in which the global locks are gone, instead of waiting for the phase two of every branch.
+ * <p>
+ * Only the outcome of a global transaction begun in this process passes here, the intents of a branch whose global
+ * transaction is ended by another process are still released by its phase two.
+ */
+public class LockIntentRpcHook implements RpcHook {
+
+    /**
+     * The statuses of a global transaction whose global locks have been released by the TC.
+     */
+    private static final Set<GlobalStatus> LOCK_RELEASED_STATUSES = EnumSet.of(GlobalStatus.Committing,
+        GlobalStatus.AsyncCommitting, GlobalStatus.CommitRetrying, GlobalStatus.Committed, GlobalStatus.Rollbacked,
+        GlobalStatus.TimeoutRollbacked, GlobalStatus.Finished);
+
+    private final LockIntentTable lockIntentTable;
+
+    public LockIntentRpcHook() {
+        this(LockIntentTable.get());
+    }
+
+    LockIntentRpcHook(LockIntentTable lockIntentTable) {
+        this.lockIntentTable = lockIntentTable;
+    }
+
+    @Override
+    public void doBeforeRequest(String remoteAddr, RpcMessage request) {
+    }
+
+    @Override
+    public void doAfterResponse(String remoteAddr, RpcMessage request, Object response) {
+        if (!(request.getBody() instanceof AbstractGlobalEndRequest)
+            || !(response instanceof AbstractGlobalEndResponse)) {
+            return;
+        }
+        AbstractGlobalEndResponse endResponse = (AbstractGlobalEndResponse)response;
+        if (endResponse.getResultCode() == ResultCode.Success
+            && LOCK_RELEASED_STATUSES.contains(endResponse.getGlobalStatus())) {
+            lockIntentTable.releaseGlobal(((AbstractGlobalEndRequest)request.getBody()).getXid());
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.seata.common.DefaultValues;
+import io.seata.common.util.CollectionUtils;
+import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.exception.TransactionExceptionCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The local lock intent table of the AT branches of this process.
+ * <p>
+ * Before a branch is registered its rows are reserved here. A branch whose rows are held by a branch of another
+ * global transaction of this process waits in FIFO order until the holder finishes its phase two on this resource
+ * manager, instead of registering a doomed branch and sleeping blindly. The TC stays the only authority of the global
+ * locks, the intents are just a local pre-check: a wait timeout, or a holder whose phase two is handled by another
+ * process and thus expires here, only falls back to the usual registration and retry.
+ * <p>
+ * The rows of a committed global transaction begun in this process are released as soon as its global commit is
+ * answered, see {@link LockIntentRpcHook}, as the TC drops the global locks there and the branch commit may come much
+ * later.
+ */
+public class LockIntentTable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockIntentTable.class);
+
+    private static final String ROW_KEY_SPLIT = "^^^";
+
+    private static final LockIntentTable INSTANCE = new LockIntentTable(ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.DEFAULT_GLOBAL_TRANSACTION_TIMEOUT, DefaultValues.DEFAULT_GLOBAL_TRANSACTION_TIMEOUT));
+
+    private final long expireMillis;
+
+    private final Map<String, ResourceIntents> resourceIntents = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Lock intent table.
+     *
+     * @param expireMillis the time after which an intent is considered stale
+     */
+    public LockIntentTable(long expireMillis) {
+        this.expireMillis = expireMillis;
+    }
+
+    /**
+     * Get the lock intent table.
+     *
+     * @return the lock intent table
+     */
+    public static LockIntentTable get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wait for the rows and reserve them, the wait is bounded by the lock retry settings.
+     *
+     * @param resourceId the resource id
+     * @param xid        the xid
+     * @param lockKeys   the lock keys, e.g. "t_user:1,2;t_order:3"
+     * @return the intent, null if the wait timed out
+     * @throws LockConflictException if a holder of the rows is being rolled back
+     */
+    public LockIntent acquire(String resourceId, String xid, String lockKeys) throws LockConflictException {
+        LockRetryController lockRetryController = new LockRetryController();
+        long timeoutMillis = (long)lockRetryController.getLockRetryInterval()
+            * Math.max(1, lockRetryController.getLockRetryTimes());
+        return acquire(resourceId, xid, lockKeys, timeoutMillis);
+    }
+
+    /**
+     * Wait for the rows and reserve them.
+     *
+     * @param resourceId    the resource id
+     * @param xid           the xid
+     * @param lockKeys      the lock keys, e.g. "t_user:1,2;t_order:3"
+     * @param timeoutMillis the max time to wait
+     * @return the intent, null if the wait timed out
+     * @throws LockConflictException if a holder of the rows is being rolled back
+     */
+    public LockIntent acquire(String resourceId, String xid, String lockKeys, long timeoutMillis)
+        throws LockConflictException {
+        List<String> rows = parseRows(lockKeys);
+        ResourceIntents intents = CollectionUtils.computeIfAbsent(resourceIntents, resourceId,
+            key -> new ResourceIntents());
+        try {
+            return intents.acquire(resourceId, xid, rows, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Bind the intent to the registered branch, it is held until the phase two of the branch.
+     *
+     * @param intent   the intent
+     * @param branchId the branch id
+     */
+    public void bind(LockIntent intent, long branchId) {
+        ResourceIntents intents = resourceIntents.get(intent.resourceId);
+        if (intents != null) {
+            intents.bind(intent, branchId);
+        }
+    }
+
+    /**
+     * Release the intent of a branch failed to register.
+     *
+     * @param intent the intent
+     */
+    public void release(LockIntent intent) {
+        ResourceIntents intents = resourceIntents.get(intent.resourceId);
+        if (intents != null) {
+            intents.release(intent);
+        }
+    }
+
+    /**
+     * Mark the branch as rollbacking, the waiters for its rows fail fast like the TC does.
+     *
+     * @param resourceId the resource id
+     * @param branchId   the branch id
+     */
+    public void markRollbacking(String resourceId, long branchId) {
+        ResourceIntents intents = resourceIntents.get(resourceId);
+        if (intents != null) {
+            intents.markRollbacking(branchId);
+        }
+    }
+
+    /**
+     * Release the intent of a branch whose phase two is done.
+     *
+     * @param resourceId the resource id
+     * @param branchId   the branch id
+     */
+    public void release(String resourceId, long branchId) {
+        ResourceIntents intents = resourceIntents.get(resourceId);
+        if (intents != null) {
+            intents.release(branchId);
+        }
+    }
+
+    /**
+     * Release the intents of all the branches of a global transaction whose global locks are released by the TC.
+     *
+     * @param xid the xid
+     */
+    public void releaseGlobal(String xid) {
+        for (ResourceIntents intents : resourceIntents.values()) {
+            intents.releaseGlobal(xid);
+        }
+    }
+
+    /**
+     * Gets the count of rows reserved on the resource.
+     *
+     * @param resourceId the resource id
+     * @return the count
+     */
+    public int getReservedRowCount(String resourceId) {
+        ResourceIntents intents = resourceIntents.get(resourceId);
+        return intents == null ? 0 : intents.reservedRowCount();
+    }
+
+    static List<String> parseRows(String lockKeys) {
+        List<String> rows = new ArrayList<>();
+        if (StringUtils.isBlank(lockKeys)) {
+            return rows;
+        }
+        for (String tableLockKeys : lockKeys.split(";")) {
+            int idx = tableLockKeys.indexOf(':');
+            if (idx < 0) {
+                continue;
+            }
+            String tableName = tableLockKeys.substring(0, idx);
+            for (String pk : tableLockKeys.substring(idx + 1).split(",")) {
+                if (StringUtils.isNotBlank(pk)) {
+                    rows.add(tableName + ROW_KEY_SPLIT + pk);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The rows reserved by a branch.
+     */
+    public static final class LockIntent {
+
+        private final String resourceId;
+
+        private final String xid;
+
+        private final long createTime = System.currentTimeMillis();
+
+        private final List<String> rows = new ArrayList<>();
+
+        private Long branchId;
+
+        private boolean rollbacking;
+
+        LockIntent(String resourceId, String xid) {
+            this.resourceId = resourceId;
+            this.xid = xid;
+        }
+    }
+
+    private static final class Waiter {
+
+        private final String xid;
+
+        private final List<String> rows;
+
+        Waiter(String xid, List<String> rows) {
+            this.xid = xid;
+            this.rows = rows;
+        }
+    }
+
+    private final class ResourceIntents {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition changed = lock.newCondition();
+
+        private final Map<String, LockIntent> rowIntents = new HashMap<>();
+
+        private final Map<Long, LockIntent> branchIntents = new HashMap<>();
+
+        /**
+         * all the intents in creation order, so the stale ones are at the head
+         */
+        private final Set<LockIntent> intents = new LinkedHashSet<>();
+
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+        LockIntent acquire(String resourceId, String xid, List<String> rows, long timeoutNanos)
+            throws InterruptedException, LockConflictException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            Waiter waiter = null;
+            lock.lock();
+            try {
+                while (true) {
+                    expire();
+                    LockIntent holder = findHolder(xid, rows);
+                    if (holder != null && holder.rollbacking) {
+                        leave(waiter);
+                        throw new LockConflictException(String.format("the rows are held by the rollbacking branch %s",
+                            holder.branchId), TransactionExceptionCode.LockKeyConflictFailFast);
+                    }
+                    if (holder == null && !hasEarlierWaiter(waiter, xid, rows)) {
+                        leave(waiter);
+                        return reserve(resourceId, xid, rows);
+                    }
+                    if (waiter == null) {
+                        waiter = new Waiter(xid, rows);
+                        waiters.addLast(waiter);
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        leave(waiter);
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Wait for the local lock intents timeout, xid: {}", xid);
+                        }
+                        return null;
+                    }
+                    changed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                leave(waiter);
+                throw e;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private LockIntent findHolder(String xid, List<String> rows) {
+            for (String row : rows) {
+                LockIntent intent = rowIntents.get(row);
+                if (intent != null && !intent.xid.equals(xid)) {
+                    return intent;
+                }
+            }
+            return null;
+        }
+
+        private boolean hasEarlierWaiter(Waiter waiter, String xid, List<String> rows) {
+            for (Waiter earlier : waiters) {
+                if (earlier == waiter) {
+                    return false;
+                }
+                if (!earlier.xid.equals(xid) && overlaps(earlier.rows, rows)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean overlaps(List<String> rows, List<String> others) {
+            for (String row : others) {
+                if (rows.contains(row)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private LockIntent reserve(String resourceId, String xid, List<String> rows) {
+            LockIntent intent = new LockIntent(resourceId, xid);
+            for (String row : rows) {
+                // the rows reserved by another branch of the same global transaction stay with it
+                if (rowIntents.putIfAbsent(row, intent) == null) {
+                    intent.rows.add(row);
+                }
+            }
+            intents.add(intent);
+            return intent;
+        }
+
+        private void leave(Waiter waiter) {
+            if (waiter != null && waiters.remove(waiter)) {
+                changed.signalAll();
+            }
+        }
+
+        void bind(LockIntent intent, long branchId) {
+            lock.lock();
+            try {
+                if (intents.contains(intent)) {
+                    intent.branchId = branchId;
+                    branchIntents.put(branchId, intent);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(LockIntent intent) {
+            lock.lock();
+            try {
+                remove(intent);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void markRollbacking(long branchId) {
+            lock.lock();
+            try {
+                LockIntent intent = branchIntents.get(branchId);
+                if (intent != null) {
+                    intent.rollbacking = true;
+                    changed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long branchId) {
+            lock.lock();
+            try {
+                LockIntent intent = branchIntents.get(branchId);
+                if (intent != null) {
+                    remove(intent);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void releaseGlobal(String xid) {
+            lock.lock();
+            try {
+                List<LockIntent> released = new ArrayList<>();
+                for (LockIntent intent : intents) {
+                    if (intent.xid.equals(xid)) {
+                        released.add(intent);
+                    }
+                }
+                released.forEach(this::remove);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int reservedRowCount() {
+            lock.lock();
+            try {
+                return rowIntents.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(LockIntent intent) {
+            if (!intents.remove(intent)) {
+                return;
+            }
+            for (String row : intent.rows) {
+                rowIntents.remove(row, intent);
+            }
+            if (intent.branchId != null) {
+                branchIntents.remove(intent.branchId);
+            }
+            changed.signalAll();
+        }
+
+        private void expire() {
+            long expireBefore = System.currentTimeMillis() - expireMillis;
+            Iterator<LockIntent> iterator = intents.iterator();
+            while (iterator.hasNext()) {
+                LockIntent intent = iterator.next();
+                if (intent.createTime > expireBefore) {
+                    return;
+                }
+                iterator.remove();
+                for (String row : intent.rows) {
+                    rowIntents.remove(row, intent);
+                }
+                if (intent.branchId != null) {
+                    branchIntents.remove(intent.branchId);
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("The local lock intent of xid {} branchId {} is expired", intent.xid,
+                        intent.branchId);
+                }
+            }
+        }
+    }
+}
@@ -15,6 +15,12 @@
  */
 package io.seata.rm.datasource.exec;
 
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 import io.seata.common.DefaultValues;
 import io.seata.common.util.NumberUtils;
 import io.seata.config.Configuration;
@@ -29,28 +35,80 @@ import io.seata.core.model.GlobalLockConfig;
 
 /**
  * Lock retry controller
+ * <p>
+ * Three retry modes are supported:
+ * <ul>
+ *     <li>fixed: sleep for the retry interval between two retries</li>
+ *     <li>backoff: sleep for an exponential backoff with jitter, starting at the retry interval and capped by the max
+ *     retry interval</li>
+ *     <li>notify: like backoff, but the TC queues the branch on the conflicting rows and wakes it up as soon as they
+ *     are released</li>
+ * </ul>
  *
  * @author sharajava
  */
 public class LockRetryController {
 
+    /**
+     * The fixed retry mode.
+     */
+    public static final String RETRY_MODE_FIXED = "fixed";
+
+    /**
+     * The exponential backoff retry mode.
+     */
+    public static final String RETRY_MODE_BACKOFF = "backoff";
+
+    /**
+     * The wait-notify retry mode.
+     */
+    public static final String RETRY_MODE_NOTIFY = "notify";
+
     private static final GlobalConfig LISTENER = new GlobalConfig();
 
+    private static final ConcurrentMap<String, LockWaiter> WAITERS = new ConcurrentHashMap<>();
+
     static {
         ConfigurationCache.addConfigListener(ConfigurationKeys.CLIENT_LOCK_RETRY_INTERVAL, LISTENER);
         ConfigurationCache.addConfigListener(ConfigurationKeys.CLIENT_LOCK_RETRY_TIMES, LISTENER);
+        ConfigurationCache.addConfigListener(ConfigurationKeys.CLIENT_LOCK_RETRY_MODE, LISTENER);
+        ConfigurationCache.addConfigListener(ConfigurationKeys.CLIENT_LOCK_RETRY_MAX_INTERVAL, LISTENER);
     }
 
     private int lockRetryInterval;
 
     private int lockRetryTimes;
 
+    private final String retryMode;
+
+    private final int lockRetryMaxInterval;
+
+    private final String xid;
+
+    private int attempts;
+
     /**
      * Instantiates a new Lock retry controller.
      */
     public LockRetryController() {
+        this(null);
+    }
+
+    /**
+     * Instantiates a new Lock retry controller.
+     *
+     * @param xid the xid waiting for the global locks, only used by the notify mode
+     */
+    public LockRetryController(String xid) {
+        this(xid, LISTENER.getGlobalLockRetryMode(), LISTENER.getGlobalLockRetryMaxInterval());
+    }
+
+    LockRetryController(String xid, String retryMode, int lockRetryMaxInterval) {
         this.lockRetryInterval = getLockRetryInterval();
         this.lockRetryTimes = getLockRetryTimes();
+        this.xid = xid;
+        this.retryMode = retryMode;
+        this.lockRetryMaxInterval = Math.max(lockRetryMaxInterval, lockRetryInterval);
     }
 
     /**
@@ -67,11 +125,60 @@ public class LockRetryController {
         }
 
         try {
-            Thread.sleep(lockRetryInterval);
+            if (RETRY_MODE_FIXED.equals(retryMode)) {
+                Thread.sleep(lockRetryInterval);
+            } else if (RETRY_MODE_NOTIFY.equals(retryMode) && xid != null) {
+                awaitLockRelease(xid, nextBackoff());
+            } else {
+                Thread.sleep(nextBackoff());
+            }
         } catch (InterruptedException ignore) {
         }
     }
 
+    /**
+     * The next backoff of the exponential backoff with equal jitter, half of the exponential interval plus a random
+     * part of the other half, so that the conflicting branches do not retry in lockstep.
+     *
+     * @return the backoff in milliseconds
+     */
+    long nextBackoff() {
+        int shift = Math.min(attempts++, 30);
+        long exponential = Math.min((long)lockRetryMaxInterval, (long)lockRetryInterval << shift);
+        long half = exponential >> 1;
+        return half + ThreadLocalRandom.current().nextLong(exponential - half + 1);
+    }
+
+    /**
+     * Whether the TC should notify the branches of this client once their conflicting locks are released.
+     *
+     * @return true if the retry mode is notify
+     */
+    public static boolean isLockWaitNotify() {
+        return RETRY_MODE_NOTIFY.equals(LISTENER.getGlobalLockRetryMode());
+    }
+
+    /**
+     * Wake up the retries of the global transaction, called when the TC notifies the lock release.
+     *
+     * @param xid the xid
+     */
+    public static void notifyLockRelease(String xid) {
+        LockWaiter waiter = WAITERS.get(xid);
+        if (waiter != null) {
+            waiter.signal();
+        }
+    }
+
+    static void awaitLockRelease(String xid, long timeoutMills) throws InterruptedException {
+        LockWaiter waiter = WAITERS.compute(xid, (key, current) -> current == null ? new LockWaiter() : current.retain());
+        try {
+            waiter.await(timeoutMills);
+        } finally {
+            WAITERS.computeIfPresent(xid, (key, current) -> current.release() ? null : current);
+        }
+    }
+
     int getLockRetryInterval() {
         // get customized config first
         GlobalLockConfig config = GlobalLockConfigHolder.getCurrentGlobalLockConfig();
@@ -98,19 +205,73 @@ public class LockRetryController {
         return LISTENER.getGlobalLockRetryTimes();
     }
 
+    /**
+     * The monitor the retries of a global transaction wait on, shared by its connections.
+     */
+    static final class LockWaiter {
+
+        private int parties = 1;
+
+        private long generation;
+
+        synchronized LockWaiter retain() {
+            parties++;
+            return this;
+        }
+
+        synchronized boolean release() {
+            return --parties == 0;
+        }
+
+        synchronized void signal() {
+            generation++;
+            notifyAll();
+        }
+
+        synchronized void await(long timeoutMills) throws InterruptedException {
+            long current = generation;
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMills);
+            long remaining;
+            while (current == generation && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+    }
+
     static class GlobalConfig implements ConfigurationChangeListener {
 
         private volatile int globalLockRetryInterval;
 
         private volatile int globalLockRetryTimes;
 
+        private volatile String globalLockRetryMode;
+
+        private volatile int globalLockRetryMaxInterval;
+
         private final int defaultRetryInterval = DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
         private final int defaultRetryTimes = DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_TIMES;
+        private final String defaultRetryMode = DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_MODE;
+        private final int defaultRetryMaxInterval = DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_MAX_INTERVAL;
 
         public GlobalConfig() {
             Configuration configuration = ConfigurationFactory.getInstance();
             globalLockRetryInterval = configuration.getInt(ConfigurationKeys.CLIENT_LOCK_RETRY_INTERVAL, defaultRetryInterval);
             globalLockRetryTimes = configuration.getInt(ConfigurationKeys.CLIENT_LOCK_RETRY_TIMES, defaultRetryTimes);
+            globalLockRetryMode = normalizeRetryMode(configuration.getConfig(ConfigurationKeys.CLIENT_LOCK_RETRY_MODE,
+                defaultRetryMode));
+            globalLockRetryMaxInterval = configuration.getInt(ConfigurationKeys.CLIENT_LOCK_RETRY_MAX_INTERVAL,
+                defaultRetryMaxInterval);
+        }
+
+        private String normalizeRetryMode(String retryMode) {
+            if (retryMode == null) {
+                return defaultRetryMode;
+            }
+            String mode = retryMode.trim().toLowerCase(Locale.ROOT);
+            if (RETRY_MODE_FIXED.equals(mode) || RETRY_MODE_BACKOFF.equals(mode) || RETRY_MODE_NOTIFY.equals(mode)) {
+                return mode;
+            }
+            return defaultRetryMode;
         }
 
         @Override
@@ -123,6 +284,12 @@ public class LockRetryController {
             if (ConfigurationKeys.CLIENT_LOCK_RETRY_TIMES.equals(dataId)) {
                 globalLockRetryTimes = NumberUtils.toInt(newValue, defaultRetryTimes);
             }
+            if (ConfigurationKeys.CLIENT_LOCK_RETRY_MODE.equals(dataId)) {
+                globalLockRetryMode = normalizeRetryMode(newValue);
+            }
+            if (ConfigurationKeys.CLIENT_LOCK_RETRY_MAX_INTERVAL.equals(dataId)) {
+                globalLockRetryMaxInterval = NumberUtils.toInt(newValue, defaultRetryMaxInterval);
+            }
         }
 
         public int getGlobalLockRetryInterval() {
@@ -132,5 +299,13 @@ public class LockRetryController {
         public int getGlobalLockRetryTimes() {
             return globalLockRetryTimes;
         }
+
+        public String getGlobalLockRetryMode() {
+            return globalLockRetryMode;
+        }
+
+        public int getGlobalLockRetryMaxInterval() {
+            return globalLockRetryMaxInterval;
+        }
     }
 }
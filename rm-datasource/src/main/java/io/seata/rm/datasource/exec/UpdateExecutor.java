@@ -30,10 +30,12 @@ import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.common.DefaultValues;
 import io.seata.rm.datasource.ColumnUtils;
+import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.SqlGenerateUtils;
 import io.seata.rm.datasource.StatementProxy;
 import io.seata.rm.datasource.sql.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.sqlparser.ParametersHolder;
 import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLUpdateRecognizer;
 
@@ -51,6 +53,9 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
     private static final boolean ONLY_CARE_UPDATE_COLUMNS = CONFIG.getBoolean(
             ConfigurationKeys.TRANSACTION_UNDO_ONLY_CARE_UPDATE_COLUMNS, DefaultValues.DEFAULT_ONLY_CARE_UPDATE_COLUMNS);
 
+    private static final boolean COMPUTE_AFTER_IMAGE = CONFIG.getBoolean(
+            ConfigurationKeys.TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE, DefaultValues.DEFAULT_TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE);
+
     /**
      * Instantiates a new Update executor.
      *
@@ -118,6 +123,12 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
         if (beforeImage == null || beforeImage.size() == 0) {
             return TableRecords.empty(getTableMeta());
         }
+        if (COMPUTE_AFTER_IMAGE) {
+            TableRecords afterImage = computeAfterImage(tmeta, beforeImage);
+            if (afterImage != null) {
+                return afterImage;
+            }
+        }
         String selectSQL = buildAfterImageSQL(tmeta, beforeImage);
         ResultSet rs = null;
         try (PreparedStatement pst = statementProxy.getConnection().prepareStatement(selectSQL)) {
@@ -129,9 +140,37 @@ public class UpdateExecutor<T, S extends Statement> extends AbstractDMLBaseExecu
         }
     }
 
+    /**
+     * Compute the after image from the before image and the assigned values instead of querying it.
+     *
+     * @param tableMeta   the table meta
+     * @param beforeImage the before image
+     * @return the after image, null if it has to be queried
+     */
+    protected TableRecords computeAfterImage(TableMeta tableMeta, TableRecords beforeImage) {
+        ParametersHolder parametersHolder = statementProxy instanceof ParametersHolder
+            ? (ParametersHolder) statementProxy : null;
+        ConnectionProxy connectionProxy = statementProxy.getConnectionProxy();
+        return AfterImageComputer.compute((SQLUpdateRecognizer) sqlRecognizer, parametersHolder, tableMeta,
+            beforeImage, connectionProxy.getTargetConnection(), connectionProxy.getDataSourceProxy().getResourceId(),
+            getDbType());
+    }
+
     private String buildAfterImageSQL(TableMeta tableMeta, TableRecords beforeImage) throws SQLException {
+        return buildSelectByPKsSQL(tableMeta, beforeImage.pkRows().size());
+    }
+
+    /**
+     * Build the sql selecting the image columns of the rows by their primary keys.
+     *
+     * @param tableMeta the table meta
+     * @param rowSize   the number of the rows
+     * @return the sql
+     * @throws SQLException the sql exception
+     */
+    protected String buildSelectByPKsSQL(TableMeta tableMeta, int rowSize) throws SQLException {
         StringBuilder prefix = new StringBuilder("SELECT ");
-        String whereSql = SqlGenerateUtils.buildWhereConditionByPKs(tableMeta.getPrimaryKeyOnlyName(), beforeImage.pkRows().size(), getDbType());
+        String whereSql = SqlGenerateUtils.buildWhereConditionByPKs(tableMeta.getPrimaryKeyOnlyName(), rowSize, getDbType());
         String suffix = " FROM " + getFromTableInSQL() + " WHERE " + whereSql;
         StringJoiner selectSQLJoiner = new StringJoiner(", ", prefix.toString(), suffix);
         if (ONLY_CARE_UPDATE_COLUMNS) {
@@ -15,6 +15,9 @@
  */
 package io.seata.rm.datasource.sql;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
@@ -22,8 +25,11 @@ import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLRecognizerFactory;
 import io.seata.sqlparser.SqlParserType;
 
+import java.util.Collections;
 import java.util.List;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SQL_PARSER_CACHE_SIZE;
+
 /**
  * @author ggndnn
  */
@@ -33,9 +39,27 @@ public class SQLVisitorFactory {
      */
     private final static SQLRecognizerFactory SQL_RECOGNIZER_FACTORY;
 
+    /**
+     * The cached value of the sql that has no recognizer.
+     */
+    private final static List<SQLRecognizer> NO_RECOGNIZER = Collections.emptyList();
+
+    /**
+     * The parsed recognizers by db type and sql. The recognizers hold no parameter, they are bound on every call, so
+     * the recognizers of a prepared statement are shared by its executions. The cache is weighed by the length of the
+     * sql, so the sql not parameterized can't grow it without bound. The bound is on the total length of the cached
+     * sql, not on the heap: the parsed statements a recognizer holds take several times the length of their sql,
+     * depending on the parser and on the shape of the sql. Null if the cache is disabled.
+     */
+    private final static Cache<RecognizerKey, List<SQLRecognizer>> RECOGNIZER_CACHE;
+
     static {
         String sqlParserType = ConfigurationFactory.getInstance().getConfig(ConfigurationKeys.SQL_PARSER_TYPE, SqlParserType.SQL_PARSER_TYPE_DRUID);
         SQL_RECOGNIZER_FACTORY = EnhancedServiceLoader.load(SQLRecognizerFactory.class, sqlParserType);
+        long cacheSize = ConfigurationFactory.getInstance().getLong(ConfigurationKeys.CLIENT_SQL_PARSER_CACHE_SIZE,
+            DEFAULT_CLIENT_SQL_PARSER_CACHE_SIZE);
+        RECOGNIZER_CACHE = cacheSize > 0 ? Caffeine.newBuilder().maximumWeight(cacheSize)
+            .weigher((RecognizerKey key, List<SQLRecognizer> value) -> key.sql.length()).recordStats().build() : null;
     }
 
     /**
@@ -46,8 +70,51 @@ public class SQLVisitorFactory {
      * @return the sql recognizer
      */
     public static List<SQLRecognizer> get(String sql, String dbType) {
-        return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+        if (RECOGNIZER_CACHE == null) {
+            return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+        }
+        List<SQLRecognizer> recognizers = RECOGNIZER_CACHE.get(new RecognizerKey(dbType, sql), key -> {
+            List<SQLRecognizer> created = SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+            return created == null ? NO_RECOGNIZER : Collections.unmodifiableList(created);
+        });
+        return recognizers == NO_RECOGNIZER ? null : recognizers;
     }
 
+    /**
+     * Gets the hit, miss and eviction statistics of the parsed recognizer cache.
+     *
+     * @return the cache stats, empty if the cache is disabled
+     */
+    public static CacheStats getCacheStats() {
+        return RECOGNIZER_CACHE == null ? CacheStats.empty() : RECOGNIZER_CACHE.stats();
+    }
+
+    private static class RecognizerKey {
+
+        private final String dbType;
 
+        private final String sql;
+
+        RecognizerKey(String dbType, String sql) {
+            this.dbType = dbType;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RecognizerKey)) {
+                return false;
+            }
+            RecognizerKey that = (RecognizerKey)o;
+            return sql.equals(that.sql) && dbType.equalsIgnoreCase(that.dbType);
+        }
+
+        @Override
+        public int hashCode() {
+            return sql.hashCode();
+        }
+    }
 }
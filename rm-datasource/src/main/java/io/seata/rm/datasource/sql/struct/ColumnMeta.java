@@ -115,7 +115,7 @@ public class ColumnMeta {
      *
      * @return table schema name
      */
-    protected String getTableSchemaName() {
+    public String getTableSchemaName() {
         return tableSchemaName;
     }
 
@@ -133,7 +133,7 @@ public class ColumnMeta {
      *
      * @return table name
      */
-    protected String getTableName() {
+    public String getTableName() {
         return tableName;
     }
 
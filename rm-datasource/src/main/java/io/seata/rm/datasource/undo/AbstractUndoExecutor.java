@@ -71,6 +71,11 @@ public abstract class AbstractUndoExecutor {
      */
     private static final String CHECK_SQL_TEMPLATE = "SELECT * FROM %s WHERE %s FOR UPDATE";
 
+    /**
+     * The max number of the rows undone by one statement or one batch
+     */
+    protected static final int UNDO_BATCH_SIZE = 1000;
+
     /**
      * Switch of undo data validation
      */
@@ -119,21 +124,34 @@ public abstract class AbstractUndoExecutor {
         }
         PreparedStatement undoPST = null;
         try {
-            String undoSQL = buildUndoSQL();
-            undoPST = conn.prepareStatement(undoSQL);
             TableRecords undoRows = getUndoRows();
-            for (Row undoRow : undoRows.getRows()) {
-                ArrayList<Field> undoValues = new ArrayList<>();
-                List<Field> pkValueList = getOrderedPkList(undoRows, undoRow, getDbType(conn));
-                for (Field field : undoRow.getFields()) {
-                    if (field.getKeyType() != KeyType.PRIMARY_KEY) {
-                        undoValues.add(field);
-                    }
+            List<Row> rows = undoRows.getRows();
+            String dbType = getDbType(conn);
+            for (int from = 0; from < rows.size(); from += UNDO_BATCH_SIZE) {
+                List<Row> batchRows = rows.subList(from, Math.min(from + UNDO_BATCH_SIZE, rows.size()));
+                String multiRowUndoSQL = buildMultiRowUndoSQL(batchRows.size());
+                if (multiRowUndoSQL != null) {
+                    executeMultiRowUndo(conn, multiRowUndoSQL, undoRows, batchRows, dbType);
+                    continue;
+                }
+
+                if (undoPST == null) {
+                    undoPST = conn.prepareStatement(buildUndoSQL());
                 }
+                for (Row undoRow : batchRows) {
+                    ArrayList<Field> undoValues = new ArrayList<>();
+                    List<Field> pkValueList = getOrderedPkList(undoRows, undoRow, dbType);
+                    for (Field field : undoRow.getFields()) {
+                        if (field.getKeyType() != KeyType.PRIMARY_KEY) {
+                            undoValues.add(field);
+                        }
+                    }
 
-                undoPrepare(undoPST, undoValues, pkValueList);
+                    undoPrepare(undoPST, undoValues, pkValueList);
 
-                undoPST.executeUpdate();
+                    undoPST.addBatch();
+                }
+                undoPST.executeBatch();
             }
 
         } catch (Exception ex) {
@@ -150,6 +168,34 @@ public abstract class AbstractUndoExecutor {
 
     }
 
+    /**
+     * Build the sql undoing a number of rows by one statement, such as deleting the rows by a primary key IN list.
+     *
+     * @param rowSize the number of the rows, no more than {@link #UNDO_BATCH_SIZE}
+     * @return the sql, null if the rows are undone by a batch of the {@link #buildUndoSQL()} statements
+     * @throws SQLException the sql exception
+     */
+    protected String buildMultiRowUndoSQL(int rowSize) throws SQLException {
+        return null;
+    }
+
+    private void executeMultiRowUndo(Connection conn, String multiRowUndoSQL, TableRecords undoRows,
+                                     List<Row> batchRows, String dbType) throws SQLException {
+        PreparedStatement undoPST = null;
+        try {
+            undoPST = conn.prepareStatement(multiRowUndoSQL);
+            int paramIndex = 0;
+            for (Row undoRow : batchRows) {
+                for (Field pkField : getOrderedPkList(undoRows, undoRow, dbType)) {
+                    undoPST.setObject(++paramIndex, pkField.getValue(), pkField.getType());
+                }
+            }
+            undoPST.executeUpdate();
+        } finally {
+            IOUtil.close(undoPST);
+        }
+    }
+
     /**
      * Undo prepare.
      *
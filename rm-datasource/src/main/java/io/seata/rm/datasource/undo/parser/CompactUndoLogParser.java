@@ -0,0 +1,711 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import io.seata.sqlparser.SQLType;
+
+/**
+ * The undo log parser of a compact columnar format.
+ * <p>
+ * The rows of an image share the same columns, so the name, key type and jdbc type of each column are written once
+ * in the header of the image instead of in every field. The values are then written column by column: a null bitmap
+ * of the column, a tag of the value type of the column, and the values in a primitive encoding, such as the var ints
+ * of the numbers. A string column with many repeated values is written as a dictionary and the indexes into it.
+ * An image whose rows do not share the same columns is written row by row.
+ *
+ * @author seata
+ */
+@LoadLevel(name = CompactUndoLogParser.NAME)
+public class CompactUndoLogParser implements UndoLogParser {
+
+    public static final String NAME = "compact";
+
+    private static final byte VERSION = 1;
+
+    private static final byte IMAGE_NULL = 0;
+    private static final byte IMAGE_RECORDS = 1;
+    private static final byte IMAGE_EMPTY = 2;
+
+    private static final byte LAYOUT_COLUMNS = 0;
+    private static final byte LAYOUT_ROWS = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_SHORT = 4;
+    private static final byte TAG_BYTE = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_FLOAT = 7;
+    private static final byte TAG_DOUBLE = 8;
+    private static final byte TAG_BIG_DECIMAL = 9;
+    private static final byte TAG_BIG_INTEGER = 10;
+    private static final byte TAG_TIMESTAMP = 11;
+    private static final byte TAG_DATE = 12;
+    private static final byte TAG_TIME = 13;
+    private static final byte TAG_BYTES = 14;
+    private static final byte TAG_BLOB = 15;
+    private static final byte TAG_CLOB = 16;
+    private static final byte TAG_OBJECT = 17;
+
+    /**
+     * the values of a column are of different types, each value is written with its own tag
+     */
+    private static final byte TAG_MIXED = 18;
+
+    /**
+     * the strings of a column are written as a dictionary and the index of each value in it
+     */
+    private static final byte TAG_STRING_DICT = 19;
+
+    private static final Map<Class<?>, Byte> TAGS = new HashMap<>();
+
+    /**
+     * the packages a value of the object tag may be made of, the undo log is read back from the business database and
+     * must not instantiate anything else
+     */
+    private static final Set<String> OBJECT_ALLOWED_PACKAGES = new HashSet<>(Arrays.asList("java.lang", "java.math",
+        "java.time", "java.sql", "javax.sql.rowset.serial"));
+
+    /**
+     * the classes out of the allowed packages a value of the object tag may be made of
+     */
+    private static final Set<String> OBJECT_ALLOWED_CLASSES = new HashSet<>(Arrays.asList("java.util.Date",
+        "java.util.UUID"));
+
+    static {
+        TAGS.put(String.class, TAG_STRING);
+        TAGS.put(Integer.class, TAG_INT);
+        TAGS.put(Long.class, TAG_LONG);
+        TAGS.put(Short.class, TAG_SHORT);
+        TAGS.put(Byte.class, TAG_BYTE);
+        TAGS.put(Boolean.class, TAG_BOOLEAN);
+        TAGS.put(Float.class, TAG_FLOAT);
+        TAGS.put(Double.class, TAG_DOUBLE);
+        TAGS.put(BigDecimal.class, TAG_BIG_DECIMAL);
+        TAGS.put(BigInteger.class, TAG_BIG_INTEGER);
+        TAGS.put(Timestamp.class, TAG_TIMESTAMP);
+        TAGS.put(java.sql.Date.class, TAG_DATE);
+        TAGS.put(Time.class, TAG_TIME);
+        TAGS.put(byte[].class, TAG_BYTES);
+        TAGS.put(SerialBlob.class, TAG_BLOB);
+        TAGS.put(SerialClob.class, TAG_CLOB);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] getDefaultContent() {
+        return encode(new BranchUndoLog());
+    }
+
+    @Override
+    public byte[] encode(BranchUndoLog branchUndoLog) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, branchUndoLog.getXid());
+            writeVarLong(out, branchUndoLog.getBranchId());
+            List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
+            writeVarInt(out, sqlUndoLogs == null ? 0 : sqlUndoLogs.size() + 1);
+            if (sqlUndoLogs != null) {
+                for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+                    writeString(out, sqlUndoLog.getSqlType() == null ? null : sqlUndoLog.getSqlType().name());
+                    writeString(out, sqlUndoLog.getTableName());
+                    writeImage(out, sqlUndoLog.getBeforeImage());
+                    writeImage(out, sqlUndoLog.getAfterImage());
+                }
+            }
+        } catch (IOException | SQLException e) {
+            throw new IllegalArgumentException("encode undo log failed, xid: " + branchUndoLog.getXid(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public BranchUndoLog decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported compact undo log version: " + version);
+            }
+            BranchUndoLog branchUndoLog = new BranchUndoLog();
+            branchUndoLog.setXid(readString(in));
+            branchUndoLog.setBranchId(readVarLong(in));
+            int size = readVarInt(in) - 1;
+            if (size >= 0) {
+                List<SQLUndoLog> sqlUndoLogs = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    SQLUndoLog sqlUndoLog = new SQLUndoLog();
+                    String sqlType = readString(in);
+                    sqlUndoLog.setSqlType(sqlType == null ? null : SQLType.valueOf(sqlType));
+                    sqlUndoLog.setTableName(readString(in));
+                    sqlUndoLog.setBeforeImage(readImage(in));
+                    sqlUndoLog.setAfterImage(readImage(in));
+                    sqlUndoLogs.add(sqlUndoLog);
+                }
+                branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+            }
+            return branchUndoLog;
+        } catch (IOException | SQLException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("decode undo log failed", e);
+        }
+    }
+
+    private static void writeImage(DataOutputStream out, TableRecords image) throws IOException, SQLException {
+        if (image == null) {
+            out.writeByte(IMAGE_NULL);
+            return;
+        }
+        out.writeByte(image instanceof TableRecords.EmptyTableRecords ? IMAGE_EMPTY : IMAGE_RECORDS);
+        writeString(out, image.getTableName());
+        List<Row> rows = image.getRows();
+        writeVarInt(out, rows == null ? 0 : rows.size() + 1);
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+        if (!isColumnar(rows)) {
+            out.writeByte(LAYOUT_ROWS);
+            for (Row row : rows) {
+                List<Field> fields = row.getFields();
+                writeVarInt(out, fields.size());
+                for (Field field : fields) {
+                    writeColumn(out, field);
+                    writeTaggedValue(out, field.getValue());
+                }
+            }
+            return;
+        }
+
+        out.writeByte(LAYOUT_COLUMNS);
+        List<Field> header = rows.get(0).getFields();
+        writeVarInt(out, header.size());
+        for (Field field : header) {
+            writeColumn(out, field);
+        }
+        Object[] values = new Object[rows.size()];
+        for (int column = 0; column < header.size(); column++) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rows.get(i).getFields().get(column).getValue();
+            }
+            writeColumnValues(out, values);
+        }
+    }
+
+    private static TableRecords readImage(DataInputStream in) throws IOException, SQLException, ClassNotFoundException {
+        byte kind = in.readByte();
+        if (kind == IMAGE_NULL) {
+            return null;
+        }
+        TableRecords image = kind == IMAGE_EMPTY ? new TableRecords.EmptyTableRecords() : new TableRecords();
+        image.setTableName(readString(in));
+        int rowSize = readVarInt(in) - 1;
+        if (rowSize < 0) {
+            image.setRows(null);
+            return image;
+        }
+        List<Row> rows = new ArrayList<>(rowSize);
+        image.setRows(rows);
+        if (rowSize == 0) {
+            return image;
+        }
+        if (in.readByte() == LAYOUT_ROWS) {
+            for (int i = 0; i < rowSize; i++) {
+                Row row = new Row();
+                int fieldSize = readVarInt(in);
+                for (int j = 0; j < fieldSize; j++) {
+                    Field field = readColumn(in);
+                    field.setValue(readTaggedValue(in));
+                    row.add(field);
+                }
+                rows.add(row);
+            }
+            return image;
+        }
+
+        int columnSize = readVarInt(in);
+        List<Field> header = new ArrayList<>(columnSize);
+        for (int column = 0; column < columnSize; column++) {
+            header.add(readColumn(in));
+        }
+        for (int i = 0; i < rowSize; i++) {
+            rows.add(new Row());
+        }
+        Object[] values = new Object[rowSize];
+        for (Field column : header) {
+            readColumnValues(in, values);
+            for (int i = 0; i < rowSize; i++) {
+                Field field = new Field(column.getName(), column.getType(), values[i]);
+                field.setKeyType(column.getKeyType());
+                rows.get(i).add(field);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Whether all the rows have the same columns as the first row, so they can share one header.
+     */
+    private static boolean isColumnar(List<Row> rows) {
+        List<Field> header = rows.get(0).getFields();
+        for (int i = 1; i < rows.size(); i++) {
+            List<Field> fields = rows.get(i).getFields();
+            if (fields.size() != header.size()) {
+                return false;
+            }
+            for (int column = 0; column < header.size(); column++) {
+                Field expected = header.get(column);
+                Field field = fields.get(column);
+                if (!Objects.equals(expected.getName(), field.getName())
+                    || expected.getKeyType() != field.getKeyType() || expected.getType() != field.getType()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void writeColumn(DataOutputStream out, Field field) throws IOException {
+        writeString(out, field.getName());
+        writeString(out, field.getKeyType() == null ? null : field.getKeyType().name());
+        writeVarInt(out, zigZag(field.getType()));
+    }
+
+    private static Field readColumn(DataInputStream in) throws IOException {
+        Field field = new Field();
+        field.setName(readString(in));
+        String keyType = readString(in);
+        field.setKeyType(keyType == null ? null : KeyType.valueOf(keyType));
+        field.setType(unZigZag(readVarInt(in)));
+        return field;
+    }
+
+    private static void writeColumnValues(DataOutputStream out, Object[] values) throws IOException, SQLException {
+        int nonNullSize = 0;
+        byte tag = TAG_NULL;
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            nonNullSize++;
+            byte valueTag = tagOf(value);
+            if (tag == TAG_NULL) {
+                tag = valueTag;
+            } else if (tag != valueTag) {
+                tag = TAG_MIXED;
+            }
+        }
+
+        Map<Object, Integer> dictionary = null;
+        if (tag == TAG_STRING) {
+            dictionary = new HashMap<>();
+            for (Object value : values) {
+                if (value != null) {
+                    dictionary.putIfAbsent(value, dictionary.size());
+                }
+            }
+            // the indexes only pay off when the strings repeat
+            if (dictionary.size() * 2 <= nonNullSize) {
+                tag = TAG_STRING_DICT;
+            } else {
+                dictionary = null;
+            }
+        }
+
+        out.writeByte(tag);
+        if (tag == TAG_NULL) {
+            return;
+        }
+        if (nonNullSize < values.length) {
+            out.writeBoolean(true);
+            byte[] nullBitmap = new byte[(values.length + 7) >>> 3];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    nullBitmap[i >>> 3] |= 1 << (i & 7);
+                }
+            }
+            out.write(nullBitmap);
+        } else {
+            out.writeBoolean(false);
+        }
+
+        if (dictionary != null) {
+            writeVarInt(out, dictionary.size());
+            Object[] entries = new Object[dictionary.size()];
+            for (Map.Entry<Object, Integer> entry : dictionary.entrySet()) {
+                entries[entry.getValue()] = entry.getKey();
+            }
+            for (Object entry : entries) {
+                writeString(out, (String) entry);
+            }
+        }
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (dictionary != null) {
+                writeVarInt(out, dictionary.get(value));
+            } else if (tag == TAG_MIXED) {
+                writeTaggedValue(out, value);
+            } else {
+                writeValue(out, tag, value);
+            }
+        }
+    }
+
+    private static void readColumnValues(DataInputStream in, Object[] values)
+        throws IOException, SQLException, ClassNotFoundException {
+        byte tag = in.readByte();
+        if (tag == TAG_NULL) {
+            Arrays.fill(values, null);
+            return;
+        }
+        byte[] nullBitmap = null;
+        if (in.readBoolean()) {
+            nullBitmap = new byte[(values.length + 7) >>> 3];
+            in.readFully(nullBitmap);
+        }
+        String[] dictionary = null;
+        if (tag == TAG_STRING_DICT) {
+            // every entry takes a byte at least
+            dictionary = new String[checkLength(in, readVarInt(in))];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(in);
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (nullBitmap != null && (nullBitmap[i >>> 3] & (1 << (i & 7))) != 0) {
+                values[i] = null;
+            } else if (dictionary != null) {
+                values[i] = dictionary[readVarInt(in)];
+            } else if (tag == TAG_MIXED) {
+                values[i] = readTaggedValue(in);
+            } else {
+                values[i] = readValue(in, tag);
+            }
+        }
+    }
+
+    private static byte tagOf(Object value) {
+        Byte tag = TAGS.get(value.getClass());
+        return tag == null ? TAG_OBJECT : tag;
+    }
+
+    private static void writeTaggedValue(DataOutputStream out, Object value) throws IOException, SQLException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+        byte tag = tagOf(value);
+        out.writeByte(tag);
+        writeValue(out, tag, value);
+    }
+
+    private static Object readTaggedValue(DataInputStream in) throws IOException, SQLException, ClassNotFoundException {
+        byte tag = in.readByte();
+        return tag == TAG_NULL ? null : readValue(in, tag);
+    }
+
+    private static void writeValue(DataOutputStream out, byte tag, Object value) throws IOException, SQLException {
+        switch (tag) {
+            case TAG_STRING:
+                writeString(out, (String) value);
+                break;
+            case TAG_INT:
+                writeVarInt(out, zigZag((Integer) value));
+                break;
+            case TAG_LONG:
+                writeVarLong(out, (Long) value);
+                break;
+            case TAG_SHORT:
+                out.writeShort((Short) value);
+                break;
+            case TAG_BYTE:
+                out.writeByte((Byte) value);
+                break;
+            case TAG_BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            case TAG_FLOAT:
+                out.writeFloat((Float) value);
+                break;
+            case TAG_DOUBLE:
+                out.writeDouble((Double) value);
+                break;
+            case TAG_BIG_DECIMAL:
+                BigDecimal decimal = (BigDecimal) value;
+                writeVarInt(out, zigZag(decimal.scale()));
+                writeBytes(out, decimal.unscaledValue().toByteArray());
+                break;
+            case TAG_BIG_INTEGER:
+                writeBytes(out, ((BigInteger) value).toByteArray());
+                break;
+            case TAG_TIMESTAMP:
+                Timestamp timestamp = (Timestamp) value;
+                writeVarLong(out, timestamp.getTime());
+                writeVarInt(out, timestamp.getNanos());
+                break;
+            case TAG_DATE:
+            case TAG_TIME:
+                writeVarLong(out, ((java.util.Date) value).getTime());
+                break;
+            case TAG_BYTES:
+                writeBytes(out, (byte[]) value);
+                break;
+            case TAG_BLOB:
+                SerialBlob blob = (SerialBlob) value;
+                writeBytes(out, blob.getBytes(1, (int) blob.length()));
+                break;
+            case TAG_CLOB:
+                SerialClob clob = (SerialClob) value;
+                writeString(out, clob.getSubString(1, (int) clob.length()));
+                break;
+            default:
+                if (!(value instanceof Serializable)) {
+                    throw new IllegalArgumentException("unsupported value type: " + value.getClass().getName());
+                }
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                    objectOut.writeObject((Serializable) value);
+                }
+                writeBytes(out, bytes.toByteArray());
+                break;
+        }
+    }
+
+    private static Object readValue(DataInputStream in, byte tag)
+        throws IOException, SQLException, ClassNotFoundException {
+        switch (tag) {
+            case TAG_STRING:
+                return readString(in);
+            case TAG_INT:
+                return unZigZag(readVarInt(in));
+            case TAG_LONG:
+                return readVarLong(in);
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BIG_DECIMAL:
+                int scale = unZigZag(readVarInt(in));
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case TAG_TIMESTAMP:
+                Timestamp timestamp = new Timestamp(readVarLong(in));
+                timestamp.setNanos(readVarInt(in));
+                return timestamp;
+            case TAG_DATE:
+                return new java.sql.Date(readVarLong(in));
+            case TAG_TIME:
+                return new Time(readVarLong(in));
+            case TAG_BYTES:
+                return readBytes(in);
+            case TAG_BLOB:
+                return new SerialBlob(readBytes(in));
+            case TAG_CLOB:
+                return new SerialClob(readString(in).toCharArray());
+            case TAG_OBJECT:
+                try (ObjectInputStream objectIn = new ValueObjectInputStream(readBytes(in))) {
+                    return objectIn.readObject();
+                }
+            default:
+                throw new IllegalArgumentException("unknown value tag: " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int lengthPlusOne = readVarInt(in);
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[checkLength(in, lengthPlusOne - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[checkLength(in, readVarInt(in))];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Check a length read from the input against the bytes left, so a corrupted length fails to decode instead of
+     * allocating a huge array.
+     */
+    private static int checkLength(DataInputStream in, int length) throws IOException {
+        if (length < 0 || length > in.available()) {
+            throw new IOException("malformed length: " + length + ", remaining: " + in.available());
+        }
+        return length;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed var int");
+    }
+
+    /**
+     * Write a long as a zig zag var long, so the small negative numbers are short as well.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("malformed var long");
+    }
+
+    /**
+     * The object input stream of the object tag values, it resolves only the allowed classes.
+     */
+    private static final class ValueObjectInputStream extends ObjectInputStream {
+
+        ValueObjectInputStream(byte[] bytes) throws IOException {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "not allowed in a compact undo log");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("proxy", "not allowed in a compact undo log");
+        }
+
+        private static boolean isAllowed(String className) {
+            String name = className;
+            int dimensions = 0;
+            while (dimensions < name.length() && name.charAt(dimensions) == '[') {
+                dimensions++;
+            }
+            if (dimensions > 0) {
+                name = name.substring(dimensions);
+                if (name.length() == 1) {
+                    // an array of a primitive type
+                    return true;
+                }
+                if (name.startsWith("L") && name.endsWith(";")) {
+                    name = name.substring(1, name.length() - 1);
+                }
+            }
+            int index = name.lastIndexOf('.');
+            return OBJECT_ALLOWED_CLASSES.contains(name)
+                || index > 0 && OBJECT_ALLOWED_PACKAGES.contains(name.substring(0, index));
+        }
+    }
+}
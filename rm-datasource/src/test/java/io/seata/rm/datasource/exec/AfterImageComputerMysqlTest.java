@@ -0,0 +1,176 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.math.BigInteger;
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.rm.datasource.sql.SQLVisitorFactory;
+import io.seata.rm.datasource.sql.struct.ColumnMeta;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.IndexMeta;
+import io.seata.rm.datasource.sql.struct.IndexType;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.sqlparser.ParametersHolder;
+import io.seata.sqlparser.SQLUpdateRecognizer;
+import io.seata.sqlparser.util.JdbcConstants;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the computed after images of the mysql dialect. The table meta and the before image are what mysql
+ * connector/j reports for the columns, and the expected values are what mysql reads back after the update: an
+ * unsigned int is read as a long, a tinyint(1) as a boolean, a json column is stored normalized.
+ */
+public class AfterImageComputerMysqlTest {
+
+    private static final String TABLE = "t_after_image";
+
+    @Test
+    public void testMysqlSyntax() {
+        // an alias, escaped and qualified columns, and the mysql only clauses of an update
+        assertComputed("UPDATE t_after_image t SET t.name = ? WHERE t.id = 1", "name", "x", "x");
+        assertComputed("UPDATE `t_after_image` SET `t_after_image`.`name` = ? WHERE `id` = 1", "name", "x", "x");
+        assertComputed("UPDATE LOW_PRIORITY IGNORE t_after_image SET name = 'lit' WHERE id = 1 ORDER BY id LIMIT 1",
+            "name", null, "lit");
+        // mysql resolves the case of a column name, so both assign the same column
+        assertNotComputable("UPDATE t_after_image SET name = ?, NAME = ? WHERE id = 1", "x", "y");
+    }
+
+    @Test
+    public void testMysqlTypeCoercion() {
+        assertComputed("UPDATE t_after_image SET tiny_u = ? WHERE id = 1", "tiny_u", 255, 255);
+        assertNotComputable("UPDATE t_after_image SET tiny_u = ? WHERE id = 1", 256);
+        assertNotComputable("UPDATE t_after_image SET tiny_u = ? WHERE id = 1", -1);
+
+        assertComputed("UPDATE t_after_image SET medium = ? WHERE id = 1", "medium", 8388607, 8388607);
+        assertNotComputable("UPDATE t_after_image SET medium = ? WHERE id = 1", 8388608);
+
+        // an unsigned int is read as a long
+        assertComputed("UPDATE t_after_image SET int_u = ? WHERE id = 1", "int_u", 7, 7L);
+        assertComputed("UPDATE t_after_image SET int_u = ? WHERE id = 1", "int_u", 4294967295L, 4294967295L);
+        assertNotComputable("UPDATE t_after_image SET int_u = ? WHERE id = 1", 4294967296L);
+        // an unsigned bigint is read as a big integer
+        assertNotComputable("UPDATE t_after_image SET big_u = ? WHERE id = 1", 5L);
+
+        // a tinyint(1) is read as a boolean, mysql stores any number in it
+        assertComputed("UPDATE t_after_image SET flag = ? WHERE id = 1", "flag", true, true);
+        assertNotComputable("UPDATE t_after_image SET flag = ? WHERE id = 1", 2);
+
+        // mysql pads a char and normalizes a json
+        assertNotComputable("UPDATE t_after_image SET code = ? WHERE id = 1", "x");
+        assertNotComputable("UPDATE t_after_image SET doc = ? WHERE id = 1", "{\"a\":  1}");
+        assertNotComputable("UPDATE t_after_image SET name = ? WHERE id = 1", "too long value");
+    }
+
+    private static void assertComputed(String sql, String column, Object param, Object expected) {
+        TableMeta tableMeta = buildTableMeta();
+        TableRecords beforeImage = buildBeforeImage(tableMeta);
+        TableRecords computed = AfterImageComputer.computeRows(recognize(sql),
+            param == null ? null : holder(param), tableMeta, beforeImage, JdbcConstants.MYSQL);
+        Assertions.assertNotNull(computed, sql);
+        List<Field> beforeFields = beforeImage.getRows().get(0).getFields();
+        List<Field> fields = computed.getRows().get(0).getFields();
+        Assertions.assertEquals(beforeFields.size(), fields.size(), sql);
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            Assertions.assertEquals(beforeFields.get(i).getName(), field.getName(), sql);
+            Assertions.assertEquals(beforeFields.get(i).getKeyType(), field.getKeyType(), sql);
+            Object value = column.equals(field.getName()) ? expected : beforeFields.get(i).getValue();
+            Assertions.assertEquals(value, field.getValue(), sql);
+            Assertions.assertEquals(value.getClass(), field.getValue().getClass(), sql);
+        }
+    }
+
+    private static void assertNotComputable(String sql, Object... params) {
+        TableMeta tableMeta = buildTableMeta();
+        Assertions.assertNull(AfterImageComputer.computeRows(recognize(sql), holder(params), tableMeta,
+            buildBeforeImage(tableMeta), JdbcConstants.MYSQL), sql);
+    }
+
+    private static SQLUpdateRecognizer recognize(String sql) {
+        return (SQLUpdateRecognizer) SQLVisitorFactory.get(sql, JdbcConstants.MYSQL).get(0);
+    }
+
+    private static ParametersHolder holder(Object... params) {
+        Map<Integer, ArrayList<Object>> parameters = new HashMap<>();
+        for (int i = 0; i < params.length; i++) {
+            parameters.put(i + 1, new ArrayList<>(Arrays.asList(params[i])));
+        }
+        return () -> parameters;
+    }
+
+    private static TableMeta buildTableMeta() {
+        TableMeta meta = new TableMeta();
+        meta.setTableName(TABLE);
+        addColumn(meta, "id", Types.INTEGER, "INT", 10);
+        addColumn(meta, "name", Types.VARCHAR, "VARCHAR", 8);
+        addColumn(meta, "tiny_u", Types.TINYINT, "TINYINT UNSIGNED", 3);
+        addColumn(meta, "medium", Types.INTEGER, "MEDIUMINT", 7);
+        addColumn(meta, "int_u", Types.INTEGER, "INT UNSIGNED", 10);
+        addColumn(meta, "big_u", Types.BIGINT, "BIGINT UNSIGNED", 20);
+        addColumn(meta, "flag", Types.BIT, "BIT", 1);
+        addColumn(meta, "code", Types.CHAR, "CHAR", 4);
+        addColumn(meta, "doc", Types.LONGVARCHAR, "JSON", 1073741824);
+        IndexMeta primary = new IndexMeta();
+        primary.setIndexName("PRIMARY");
+        primary.setIndextype(IndexType.PRIMARY);
+        primary.getValues().add(meta.getColumnMeta("id"));
+        meta.getAllIndexes().put("PRIMARY", primary);
+        return meta;
+    }
+
+    private static void addColumn(TableMeta meta, String name, int dataType, String typeName, int size) {
+        ColumnMeta col = new ColumnMeta();
+        col.setTableCat("seata");
+        col.setTableName(TABLE);
+        col.setColumnName(name);
+        col.setDataType(dataType);
+        col.setDataTypeName(typeName);
+        col.setColumnSize(size);
+        col.setNullAble(DatabaseMetaData.columnNullable);
+        meta.getAllColumns().put(name, col);
+    }
+
+    private static TableRecords buildBeforeImage(TableMeta tableMeta) {
+        List<Field> fields = new ArrayList<>();
+        Field id = new Field("id", Types.INTEGER, 1);
+        id.setKeyType(KeyType.PRIMARY_KEY);
+        fields.add(id);
+        fields.add(new Field("name", Types.VARCHAR, "a"));
+        fields.add(new Field("tiny_u", Types.TINYINT, 1));
+        fields.add(new Field("medium", Types.INTEGER, 1));
+        fields.add(new Field("int_u", Types.INTEGER, 1L));
+        fields.add(new Field("big_u", Types.BIGINT, BigInteger.ONE));
+        fields.add(new Field("flag", Types.BIT, false));
+        fields.add(new Field("code", Types.CHAR, "c"));
+        fields.add(new Field("doc", Types.LONGVARCHAR, "{\"a\": 0}"));
+        Row row = new Row();
+        row.setFields(fields);
+        TableRecords beforeImage = new TableRecords(tableMeta);
+        beforeImage.add(row);
+        return beforeImage;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.rm.datasource.DataCompareUtils;
+import io.seata.rm.datasource.sql.SQLVisitorFactory;
+import io.seata.rm.datasource.sql.struct.ColumnMeta;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.IndexMeta;
+import io.seata.rm.datasource.sql.struct.IndexType;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.sqlparser.ParametersHolder;
+import io.seata.sqlparser.SQLUpdateRecognizer;
+import io.seata.sqlparser.struct.Null;
+import io.seata.sqlparser.util.JdbcConstants;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the computed after images against the rows queried after running the updates on h2.
+ */
+public class AfterImageComputerTest {
+
+    private static final String TABLE = "t_after_image";
+
+    private static Connection connection;
+
+    private static TableMeta tableMeta;
+
+    @BeforeAll
+    public static void init() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:after_image;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        execute("CREATE TABLE " + TABLE + " (id INT PRIMARY KEY, name VARCHAR(8), amount INT, total BIGINT, "
+            + "small SMALLINT, tiny TINYINT, flag BOOLEAN, price DECIMAL(10,2), code CHAR(4), note VARCHAR(8) NOT NULL)");
+        tableMeta = buildTableMeta();
+    }
+
+    @AfterAll
+    public static void destroy() throws SQLException {
+        execute("DROP TABLE " + TABLE);
+        connection.close();
+    }
+
+    @BeforeEach
+    public void resetRows() throws SQLException {
+        execute("DELETE FROM " + TABLE);
+        execute("INSERT INTO " + TABLE + " VALUES (1, 'a', 1, 1, 1, 1, TRUE, 1.00, 'c', 'n')");
+        execute("INSERT INTO " + TABLE + " VALUES (2, 'b', 2, 2, 2, 2, FALSE, 2.00, 'd', 'm')");
+    }
+
+    @Test
+    public void testComputedEqualsQueried() throws SQLException {
+        assertComputedEqualsQueried("UPDATE t_after_image SET name = ?, amount = ? WHERE id IN (1, 2)", "xy", 7);
+        assertComputedEqualsQueried("UPDATE t_after_image SET total = ?, small = ?, tiny = ? WHERE id = 1", 5, 300, -7);
+        assertComputedEqualsQueried("UPDATE t_after_image SET name = 'lit', flag = ? WHERE id = 2", true);
+        assertComputedEqualsQueried("UPDATE t_after_image SET amount = 3, total = 9 WHERE id = 1");
+        assertComputedEqualsQueried("UPDATE t_after_image SET name = ? WHERE id IN (1, 2)", Null.get());
+        assertComputedEqualsQueried("UPDATE t_after_image SET `NAME` = ? WHERE id = 2", "escaped");
+    }
+
+    @Test
+    public void testNotComputable() throws SQLException {
+        // expressions, rounded or padded values, and the values out of range are left to the database
+        assertNotComputable("UPDATE t_after_image SET amount = amount + 1 WHERE id = 1");
+        assertNotComputable("UPDATE t_after_image SET price = ? WHERE id = 1", new BigDecimal("1.234"));
+        assertNotComputable("UPDATE t_after_image SET code = ? WHERE id = 1", "x");
+        assertNotComputable("UPDATE t_after_image SET name = ? WHERE id = 1", "too long value");
+        assertNotComputable("UPDATE t_after_image SET name = ? WHERE id = 1", "");
+        assertNotComputable("UPDATE t_after_image SET tiny = ? WHERE id = 1", 300);
+        assertNotComputable("UPDATE t_after_image SET amount = ? WHERE id = 1", "5");
+        assertNotComputable("UPDATE t_after_image SET flag = ? WHERE id = 1", 1);
+        assertNotComputable("UPDATE t_after_image SET id = ? WHERE id = 1", 3);
+        assertNotComputable("UPDATE t_after_image SET note = ? WHERE id = 1", Null.get());
+
+        SQLUpdateRecognizer recognizer = recognize("UPDATE t_after_image SET name = ? WHERE id = 1");
+        TableRecords beforeImage = query("SELECT * FROM t_after_image WHERE id = 1");
+        Assertions.assertNull(AfterImageComputer.computeRows(recognizer, null, tableMeta, beforeImage,
+            JdbcConstants.MYSQL));
+        Map<Integer, ArrayList<Object>> batch = new HashMap<>();
+        batch.put(1, new ArrayList<>(Arrays.asList("x", "y")));
+        Assertions.assertNull(AfterImageComputer.computeRows(recognizer, () -> batch, tableMeta, beforeImage,
+            JdbcConstants.MYSQL));
+    }
+
+    @Test
+    public void testCheckTable() {
+        // the db types without a known way to find the triggers are always queried
+        Assertions.assertFalse(AfterImageComputer.checkTable(connection, tableMeta, JdbcConstants.H2));
+        Assertions.assertNull(AfterImageComputer.compute(recognize("UPDATE t_after_image SET name = 'x' WHERE id = 1"),
+            null, tableMeta, new TableRecords(tableMeta), connection, "jdbc:h2:mem:after_image", JdbcConstants.H2));
+    }
+
+    private static void assertComputedEqualsQueried(String sql, Object... params) throws SQLException {
+        String selectSQL = "SELECT * FROM t_after_image" + sql.substring(sql.indexOf(" WHERE "));
+        TableRecords beforeImage = query(selectSQL);
+        TableRecords computed = AfterImageComputer.computeRows(recognize(sql), holder(params), tableMeta,
+            beforeImage, JdbcConstants.MYSQL);
+        executeUpdate(sql, params);
+        TableRecords queried = query(selectSQL);
+
+        Assertions.assertNotNull(computed, sql);
+        Assertions.assertTrue(DataCompareUtils.isRecordsEquals(queried, computed).getResult(), sql);
+        for (int i = 0; i < queried.size(); i++) {
+            List<Field> queriedFields = queried.getRows().get(i).getFields();
+            List<Field> computedFields = computed.getRows().get(i).getFields();
+            for (int j = 0; j < queriedFields.size(); j++) {
+                Field queriedField = queriedFields.get(j);
+                Field computedField = computedFields.get(j);
+                Assertions.assertEquals(queriedField.getName(), computedField.getName(), sql);
+                Assertions.assertEquals(queriedField.getKeyType(), computedField.getKeyType(), sql);
+                Assertions.assertEquals(queriedField.getValue() == null ? null : queriedField.getValue().getClass(),
+                    computedField.getValue() == null ? null : computedField.getValue().getClass(), sql);
+            }
+        }
+        resetRowsQuietly();
+    }
+
+    private static void assertNotComputable(String sql, Object... params) throws SQLException {
+        String selectSQL = "SELECT * FROM t_after_image" + sql.substring(sql.indexOf(" WHERE "));
+        Assertions.assertNull(AfterImageComputer.computeRows(recognize(sql), holder(params), tableMeta,
+            query(selectSQL), JdbcConstants.MYSQL), sql);
+    }
+
+    private static void resetRowsQuietly() throws SQLException {
+        new AfterImageComputerTest().resetRows();
+    }
+
+    private static SQLUpdateRecognizer recognize(String sql) {
+        return (SQLUpdateRecognizer) SQLVisitorFactory.get(sql, JdbcConstants.MYSQL).get(0);
+    }
+
+    private static ParametersHolder holder(Object... params) {
+        Map<Integer, ArrayList<Object>> parameters = new HashMap<>();
+        for (int i = 0; i < params.length; i++) {
+            parameters.put(i + 1, new ArrayList<>(Arrays.asList(params[i])));
+        }
+        return () -> parameters;
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void executeUpdate(String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] instanceof Null) {
+                    ps.setNull(i + 1, Types.VARCHAR);
+                } else {
+                    ps.setObject(i + 1, params[i]);
+                }
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private static TableRecords query(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return TableRecords.buildRecords(tableMeta, rs);
+        }
+    }
+
+    private static TableMeta buildTableMeta() throws SQLException {
+        TableMeta meta = new TableMeta();
+        meta.setTableName(TABLE.toUpperCase());
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, TABLE.toUpperCase(), "%")) {
+            while (rs.next()) {
+                ColumnMeta col = new ColumnMeta();
+                col.setTableCat(rs.getString("TABLE_CAT"));
+                col.setTableSchemaName(rs.getString("TABLE_SCHEM"));
+                col.setTableName(rs.getString("TABLE_NAME"));
+                col.setColumnName(rs.getString("COLUMN_NAME"));
+                col.setDataType(rs.getInt("DATA_TYPE"));
+                col.setDataTypeName(rs.getString("TYPE_NAME"));
+                col.setColumnSize(rs.getInt("COLUMN_SIZE"));
+                col.setNullAble(rs.getInt("NULLABLE"));
+                meta.getAllColumns().put(col.getColumnName(), col);
+            }
+        }
+        IndexMeta primary = new IndexMeta();
+        primary.setIndexName("PRIMARY");
+        primary.setIndextype(IndexType.PRIMARY);
+        primary.getValues().add(meta.getColumnMeta("ID"));
+        meta.getAllIndexes().put("PRIMARY", primary);
+        return meta;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.sql.SQLUtils;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.util.JdbcConstants;
+import com.google.common.collect.Lists;
+import io.seata.rm.datasource.ConnectionProxy;
+import io.seata.rm.datasource.DataSourceProxy;
+import io.seata.rm.datasource.PreparedStatementProxy;
+import io.seata.rm.datasource.mock.MockConnection;
+import io.seata.rm.datasource.mock.MockDriver;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.sqlparser.druid.mysql.MySQLUpdateRecognizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Batch update executor test.
+ */
+public class BatchUpdateExecutorTest {
+
+    private static MockDriver mockDriver;
+
+    private static ConnectionProxy connectionProxy;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        List<String> returnValueColumnLabels = Lists.newArrayList("id", "name");
+        Object[][] returnValue = new Object[][] {
+            new Object[] {1, "Tom"},
+            new Object[] {2, "Jack"},
+        };
+        Object[][] columnMetas = new Object[][] {
+            new Object[] {"", "", "table_batch_update_executor_test", "id", Types.INTEGER, "INTEGER", 64, 0, 10, 1, "", "", 0, 0, 64, 1, "NO", "YES"},
+            new Object[] {"", "", "table_batch_update_executor_test", "name", Types.VARCHAR, "VARCHAR", 64, 0, 10, 0, "", "", 0, 0, 64, 2, "YES", "NO"},
+        };
+        Object[][] indexMetas = new Object[][] {
+            new Object[] {"PRIMARY", "id", false, "", 3, 1, "A", 34},
+        };
+
+        mockDriver = new MockDriver(returnValueColumnLabels, returnValue, columnMetas, indexMetas);
+        DruidDataSource dataSource = new DruidDataSource();
+        dataSource.setUrl("jdbc:mock:xxx");
+        dataSource.setDriver(mockDriver);
+
+        DataSourceProxy dataSourceProxy = new DataSourceProxy(dataSource);
+        Field field = dataSourceProxy.getClass().getDeclaredField("dbType");
+        field.setAccessible(true);
+        field.set(dataSourceProxy, "mysql");
+        connectionProxy = new ConnectionProxy(dataSourceProxy, dataSource.getConnection().getConnection());
+    }
+
+    @Test
+    public void testBeforeImageByDistinctPks() throws SQLException {
+        PreparedStatementProxy statementProxy = prepare(
+            "update table_batch_update_executor_test set name = ? where id = ?");
+        addBatch(statementProxy, "a", 1);
+        addBatch(statementProxy, "b", 2);
+        addBatch(statementProxy, "c", 1);
+        Assertions.assertTrue(BatchUpdateExecutor.isBatch(statementProxy));
+
+        List<Integer> rowSizes = new ArrayList<>();
+        BatchUpdateExecutor<?, ?> executor = newExecutor(statementProxy, rowSizes);
+        TableRecords beforeImage = executor.beforeImage();
+        Assertions.assertEquals(2, beforeImage.size());
+        Assertions.assertEquals(Lists.newArrayList(2), rowSizes);
+
+        // the after image is selected by the primary keys of the before image as well
+        Assertions.assertEquals(2, executor.afterImage(beforeImage).size());
+        Assertions.assertEquals(Lists.newArrayList(2, 2), rowSizes);
+    }
+
+    @Test
+    public void testBeforeImageByOtherCondition() throws SQLException {
+        PreparedStatementProxy statementProxy = prepare(
+            "update table_batch_update_executor_test set name = ? where name = ?");
+        addBatch(statementProxy, "a", "x");
+        addBatch(statementProxy, "b", "y");
+
+        List<Integer> rowSizes = new ArrayList<>();
+        Assertions.assertNotNull(newExecutor(statementProxy, rowSizes).beforeImage());
+        Assertions.assertTrue(rowSizes.isEmpty());
+    }
+
+    @Test
+    public void testParametersClearedAfterBatch() throws SQLException {
+        PreparedStatementProxy statementProxy = prepare(
+            "update table_batch_update_executor_test set name = ? where id = ?");
+        addBatch(statementProxy, "a", 1);
+        addBatch(statementProxy, "b", 2);
+        statementProxy.executeBatch();
+        Assertions.assertTrue(statementProxy.getParameters().isEmpty());
+        Assertions.assertFalse(BatchUpdateExecutor.isBatch(statementProxy));
+
+        addBatch(statementProxy, "c", 3);
+        statementProxy.clearBatch();
+        Assertions.assertTrue(statementProxy.getParameters().isEmpty());
+        Assertions.assertNotNull(statementProxy.getTargetSQL());
+    }
+
+    private static PreparedStatementProxy prepare(String sql) throws SQLException {
+        PreparedStatement preparedStatement = mockDriver.createSeataMockPreparedStatement(
+            (MockConnection) connectionProxy.getTargetConnection(), sql);
+        return new PreparedStatementProxy(connectionProxy, preparedStatement, sql);
+    }
+
+    private static void addBatch(PreparedStatementProxy statementProxy, Object name, Object condition)
+        throws SQLException {
+        statementProxy.setObject(1, name);
+        statementProxy.setObject(2, condition);
+        statementProxy.addBatch();
+    }
+
+    private static BatchUpdateExecutor<?, ?> newExecutor(PreparedStatementProxy statementProxy,
+                                                        List<Integer> rowSizes) {
+        String sql = statementProxy.getTargetSQL();
+        List<SQLStatement> asts = SQLUtils.parseStatements(sql, JdbcConstants.MYSQL);
+        MySQLUpdateRecognizer recognizer = new MySQLUpdateRecognizer(sql, asts.get(0));
+        return new BatchUpdateExecutor<Object, PreparedStatement>(statementProxy, (statement, args) -> null,
+            recognizer) {
+            @Override
+            protected String buildSelectByPKsSQL(TableMeta tableMeta, int rowSize) throws SQLException {
+                rowSizes.add(rowSize);
+                return super.buildSelectByPKsSQL(tableMeta, rowSize);
+            }
+        };
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.exec;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalCommitRequest;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Lock intent table test.
+ */
+public class LockIntentTableTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    @Test
+    public void testParseRows() {
+        Assertions.assertEquals(3, LockIntentTable.parseRows("t_user:1,2;t_order:3_a").size());
+        Assertions.assertTrue(LockIntentTable.parseRows(null).isEmpty());
+    }
+
+    @Test
+    public void testSameGlobalTransactionNotBlocked() throws Exception {
+        LockIntentTable table = new LockIntentTable(60000);
+        LockIntentTable.LockIntent intent = table.acquire(RESOURCE_ID, "xid1", "t:1,2", 0);
+        table.bind(intent, 1L);
+        Assertions.assertNotNull(table.acquire(RESOURCE_ID, "xid1", "t:2,3", 0));
+        Assertions.assertEquals(3, table.getReservedRowCount(RESOURCE_ID));
+        Assertions.assertNull(table.acquire(RESOURCE_ID, "xid2", "t:1", 10));
+    }
+
+    @Test
+    public void testWaitersWokenInFifoOrder() throws Exception {
+        LockIntentTable table = new LockIntentTable(60000);
+        table.bind(table.acquire(RESOURCE_ID, "xid1", "t:1", 0), 1L);
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> acquireAndRelease(table, "xid2", order));
+        waitForWaiter();
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> acquireAndRelease(table, "xid3", order));
+        waitForWaiter();
+        Assertions.assertTrue(order.isEmpty());
+
+        table.release(RESOURCE_ID, 1L);
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("xid2", order.get(0));
+        Assertions.assertEquals("xid3", order.get(1));
+        Assertions.assertEquals(0, table.getReservedRowCount(RESOURCE_ID));
+    }
+
+    @Test
+    public void testRollbackingHolderFailFast() throws Exception {
+        LockIntentTable table = new LockIntentTable(60000);
+        table.bind(table.acquire(RESOURCE_ID, "xid1", "t:1", 0), 1L);
+        table.markRollbacking(RESOURCE_ID, 1L);
+        LockConflictException e = Assertions.assertThrows(LockConflictException.class,
+            () -> table.acquire(RESOURCE_ID, "xid2", "t:1", 1000));
+        Assertions.assertEquals(TransactionExceptionCode.LockKeyConflictFailFast, e.getCode());
+    }
+
+    @Test
+    public void testUnregisteredIntentReleased() throws Exception {
+        LockIntentTable table = new LockIntentTable(60000);
+        LockIntentTable.LockIntent intent = table.acquire(RESOURCE_ID, "xid1", "t:1", 0);
+        table.release(intent);
+        Assertions.assertNotNull(table.acquire(RESOURCE_ID, "xid2", "t:1", 0));
+    }
+
+    @Test
+    public void testStaleIntentExpired() throws Exception {
+        LockIntentTable table = new LockIntentTable(0);
+        table.bind(table.acquire(RESOURCE_ID, "xid1", "t:1", 0), 1L);
+        TimeUnit.MILLISECONDS.sleep(5);
+        Assertions.assertNotNull(table.acquire(RESOURCE_ID, "xid2", "t:1", 0));
+    }
+
+    @Test
+    public void testWaiterAfterGlobalCommitNotBlocked() throws Exception {
+        LockIntentTable table = new LockIntentTable(60000);
+        table.bind(table.acquire(RESOURCE_ID, "xid1", "t:1,2", 0), 1L);
+        table.bind(table.acquire(RESOURCE_ID, "xid1", "t:3", 0), 2L);
+        LockIntentRpcHook hook = new LockIntentRpcHook(table);
+
+        // a failed global commit keeps the global locks
+        hook.doAfterResponse("127.0.0.1:8091", globalCommitRequest("xid1"),
+            globalCommitResponse(ResultCode.Failed, GlobalStatus.Begin));
+        Assertions.assertNull(table.acquire(RESOURCE_ID, "xid2", "t:1", 10));
+
+        // the branch commits are still to come, but the TC has dropped the global locks
+        hook.doAfterResponse("127.0.0.1:8091", globalCommitRequest("xid1"),
+            globalCommitResponse(ResultCode.Success, GlobalStatus.AsyncCommitting));
+        Assertions.assertEquals(0, table.getReservedRowCount(RESOURCE_ID));
+        Assertions.assertNotNull(table.acquire(RESOURCE_ID, "xid2", "t:1,3", 0));
+
+        // the late branch commit of the former holder does not release the rows of the new one
+        table.release(RESOURCE_ID, 1L);
+        Assertions.assertEquals(2, table.getReservedRowCount(RESOURCE_ID));
+    }
+
+    private static RpcMessage globalCommitRequest(String xid) {
+        GlobalCommitRequest request = new GlobalCommitRequest();
+        request.setXid(xid);
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setBody(request);
+        return rpcMessage;
+    }
+
+    private static GlobalCommitResponse globalCommitResponse(ResultCode resultCode, GlobalStatus globalStatus) {
+        GlobalCommitResponse response = new GlobalCommitResponse();
+        response.setResultCode(resultCode);
+        response.setGlobalStatus(globalStatus);
+        return response;
+    }
+
+    private static void acquireAndRelease(LockIntentTable table, String xid, List<String> order) {
+        try {
+            LockIntentTable.LockIntent intent = table.acquire(RESOURCE_ID, xid, "t:1", 5000);
+            Assertions.assertNotNull(intent);
+            order.add(xid);
+            table.release(intent);
+        } catch (LockConflictException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void waitForWaiter() throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(200);
+    }
+}
@@ -105,6 +105,48 @@ public class LockRetryControllerTest {
         assertEquals(defaultRetryTimes, config.getGlobalLockRetryTimes(), message4);
     }
 
+    @Test
+    void testBackoffGrowsWithinBounds() {
+        LockRetryController controller = new LockRetryController(null, LockRetryController.RETRY_MODE_BACKOFF, 80);
+        long[] expected = {10, 20, 40, 80, 80};
+        for (long exponential : expected) {
+            long backoff = controller.nextBackoff();
+            assertTrue(backoff >= exponential / 2 && backoff <= exponential,
+                "backoff " + backoff + " should be within [" + exponential / 2 + ", " + exponential + "]");
+        }
+    }
+
+    @Test
+    void testNotifyWakesUpRetry() throws Exception {
+        String xid = "127.0.0.1:8091:123456";
+        Thread notifier = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException ignore) {
+            }
+            LockRetryController.notifyLockRelease(xid);
+        });
+        notifier.start();
+        long begin = System.currentTimeMillis();
+        LockRetryController.awaitLockRelease(xid, 10000);
+        assertTrue(System.currentTimeMillis() - begin < 5000, "the retry should be woken up by the notify");
+        notifier.join();
+    }
+
+    @Test
+    void testRetryModeListener() {
+        LockRetryController.GlobalConfig config = new LockRetryController.GlobalConfig();
+        ConfigurationChangeEvent event = new ConfigurationChangeEvent();
+        event.setDataId(ConfigurationKeys.CLIENT_LOCK_RETRY_MODE);
+        event.setNewValue("Notify");
+        config.onChangeEvent(event);
+        assertEquals(LockRetryController.RETRY_MODE_NOTIFY, config.getGlobalLockRetryMode());
+
+        event.setNewValue("unknown");
+        config.onChangeEvent(event);
+        assertEquals(DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_MODE, config.getGlobalLockRetryMode());
+    }
+
     @AfterEach
     void tearDown() {
         GlobalLockConfigHolder.remove();
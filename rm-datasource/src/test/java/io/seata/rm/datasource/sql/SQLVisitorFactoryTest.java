@@ -18,6 +18,7 @@ package io.seata.rm.datasource.sql;
 import io.seata.common.loader.EnhancedServiceNotFoundException;
 import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLType;
+import io.seata.sqlparser.SQLUpdateRecognizer;
 import io.seata.sqlparser.druid.mysql.MySQLDeleteRecognizer;
 import io.seata.sqlparser.druid.mysql.MySQLInsertRecognizer;
 import io.seata.sqlparser.druid.mysql.MySQLSelectForUpdateRecognizer;
@@ -30,7 +31,11 @@ import io.seata.sqlparser.util.JdbcConstants;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The type Sql visitor factory test.
@@ -191,4 +196,27 @@ public class SQLVisitorFactoryTest {
         Assertions.assertEquals(SQLType.UPDATE, recognizer.getSQLType());
         Assertions.assertEquals("t1", recognizer.getTableName());
     }
+
+    @Test
+    public void testParsedRecognizersCached() {
+        String sql = "update t_cached set name = ? where id = ?";
+        long hitCount = SQLVisitorFactory.getCacheStats().hitCount();
+        List<SQLRecognizer> recognizers = SQLVisitorFactory.get(sql, JdbcConstants.MYSQL);
+        Assertions.assertSame(recognizers, SQLVisitorFactory.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertEquals(hitCount + 1, SQLVisitorFactory.getCacheStats().hitCount());
+        Assertions.assertNotSame(recognizers, SQLVisitorFactory.get(sql, JdbcConstants.ORACLE));
+        Assertions.assertNull(SQLVisitorFactory.get("select * from t_cached", JdbcConstants.MYSQL));
+        Assertions.assertNull(SQLVisitorFactory.get("select * from t_cached", JdbcConstants.MYSQL));
+
+        // the parameters are bound on every call of the shared recognizer
+        SQLUpdateRecognizer recognizer = (SQLUpdateRecognizer) recognizers.get(0);
+        for (int id = 1; id <= 2; id++) {
+            Map<Integer, ArrayList<Object>> parameters = new HashMap<>();
+            parameters.put(1, new ArrayList<>(Collections.singletonList("name")));
+            parameters.put(2, new ArrayList<>(Collections.singletonList(id)));
+            ArrayList<List<Object>> paramAppenderList = new ArrayList<>();
+            Assertions.assertEquals("id = ?", recognizer.getWhereCondition(() -> parameters, paramAppenderList));
+            Assertions.assertEquals(Collections.singletonList(Collections.singletonList(id)), paramAppenderList);
+        }
+    }
 }
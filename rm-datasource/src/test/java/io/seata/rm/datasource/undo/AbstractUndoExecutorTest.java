@@ -21,11 +21,14 @@ import io.seata.rm.datasource.sql.struct.Field;
 import io.seata.rm.datasource.sql.struct.Row;
 import io.seata.rm.datasource.sql.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.mysql.MySQLUndoInsertExecutor;
+import io.seata.rm.datasource.undo.mysql.MySQLUndoUpdateExecutor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
 
 /**
@@ -157,6 +160,46 @@ public class AbstractUndoExecutorTest extends BaseH2Test {
         Assertions.assertFalse(spy.dataValidationAndGoOn(connection));
     }
 
+    @Test
+    public void testBulkUndo() throws SQLException {
+        execSQL("INSERT INTO table_name(id, name) VALUES (12345,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12346,'aaa');");
+        execSQL("INSERT INTO table_name(id, name) VALUES (12347,'aaa');");
+        TableRecords beforeImage = buildRecords("aaa", 12345, 12346);
+
+        // the updated rows are restored by a batch
+        execSQL("update table_name set name = 'bbb' where id in (12345, 12346);");
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableMeta(tableMeta);
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(buildRecords("bbb", 12345, 12346));
+        new MySQLUndoUpdateExecutor(sqlUndoLog).executeOn(connection);
+        Assertions.assertEquals(3, execQuery(tableMeta, "SELECT * FROM table_name WHERE name = 'aaa';").size());
+
+        // the inserted rows are deleted by one statement
+        sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.INSERT);
+        sqlUndoLog.setTableMeta(tableMeta);
+        sqlUndoLog.setTableName("table_name");
+        sqlUndoLog.setBeforeImage(TableRecords.empty(tableMeta));
+        sqlUndoLog.setAfterImage(buildRecords("aaa", 12345, 12346, 12347));
+        new MySQLUndoInsertExecutor(sqlUndoLog).executeOn(connection);
+        Assertions.assertEquals(0, execQuery(tableMeta, "SELECT * FROM table_name;").size());
+    }
+
+    private static TableRecords buildRecords(String name, int... ids) {
+        TableRecords records = new TableRecords(tableMeta);
+        for (int id : ids) {
+            Row row = new Row();
+            addField(row, "ID", Types.INTEGER, id);
+            addField(row, "NAME", Types.VARCHAR, name);
+            records.add(row);
+        }
+        return records;
+    }
+
     @Test
     public void testParsePK() {
         TableMeta tableMeta = Mockito.mock(TableMeta.class);
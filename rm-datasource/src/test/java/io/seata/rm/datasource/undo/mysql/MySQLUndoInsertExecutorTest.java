@@ -26,6 +26,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -89,6 +90,12 @@ public class MySQLUndoInsertExecutorTest extends BaseExecutorTest {
         Assertions.assertTrue(sql.contains("id"));
     }
 
+    @Test
+    public void buildMultiRowUndoSQL() throws SQLException {
+        String sql = executor.buildMultiRowUndoSQL(2).toLowerCase();
+        Assertions.assertTrue(sql.startsWith("delete from table_name where (id) in ( (?),(?) )"));
+    }
+
     @Test
     public void getUndoRows() {
         Assertions.assertEquals(executor.getUndoRows(), executor.getSqlUndoLog().getAfterImage());
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +36,13 @@ import java.util.List;
  */
 public class OracleUndoInsertExecutorTest extends BaseExecutorTest {
 
+    @Test
+    public void buildMultiRowUndoSQL() throws SQLException {
+        OracleUndoInsertExecutor executor = upperCase();
+        String sql = executor.buildMultiRowUndoSQL(2);
+        Assertions.assertTrue(sql.startsWith("DELETE FROM TABLE_NAME WHERE (ID) in ( (?),(?) )"));
+    }
+
     @Test
     public void buildUndoSQL() {
         OracleUndoInsertExecutor executor = upperCase();
@@ -0,0 +1,203 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo.parser;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.rm.datasource.DataCompareUtils;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BaseUndoLogParserTest;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import io.seata.sqlparser.SQLType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author seata
+ */
+public class CompactUndoLogParserTest extends BaseUndoLogParserTest {
+
+    CompactUndoLogParser parser = (CompactUndoLogParser) EnhancedServiceLoader.load(UndoLogParser.class, CompactUndoLogParser.NAME);
+
+    @Override
+    public UndoLogParser getParser() {
+        return parser;
+    }
+
+    @Test
+    public void testValueTypes() throws SQLException {
+        TableRecords beforeImage = new TableRecords();
+        beforeImage.setTableName("t_compact");
+        for (int i = 0; i < 4; i++) {
+            Row row = new Row();
+            row.add(pk(i % 2 == 0 ? (Object) i : (Object) (-i * 1000000L)));
+            row.add(new Field("name", Types.VARCHAR, i == 1 ? null : "status"));
+            row.add(new Field("amount", Types.DECIMAL, new BigDecimal("-12345678901234567890.0" + i)));
+            row.add(new Field("gmt", Types.TIMESTAMP, timestamp(i)));
+            row.add(new Field("blob", Types.BLOB, new SerialBlob(new byte[] {1, 2, (byte) i})));
+            row.add(new Field("clob", Types.CLOB, new SerialClob(("clob" + i).toCharArray())));
+            row.add(new Field("local", Types.TIMESTAMP, LocalDateTime.of(2020, 1, 1, 0, 0, i)));
+            row.add(new Field("flag", Types.BIT, i % 2 == 0));
+            row.add(new Field("rate", Types.DOUBLE, i * 0.5d));
+            row.add(new Field("bytes", Types.BINARY, new byte[] {(byte) i}));
+            row.add(new Field("empty", Types.VARCHAR, null));
+            beforeImage.add(row);
+        }
+        // the rows do not share the same columns
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableName("t_compact");
+        Row row = new Row();
+        row.add(pk(1));
+        row.add(new Field("name", Types.VARCHAR, "single"));
+        afterImage.add(row);
+        row = new Row();
+        row.add(pk(2));
+        afterImage.add(row);
+
+        BranchUndoLog decoded = parser.decode(parser.encode(branchUndoLog(beforeImage, afterImage)));
+        SQLUndoLog sqlUndoLog = decoded.getSqlUndoLogs().get(0);
+        Assertions.assertEquals(SQLType.UPDATE, sqlUndoLog.getSqlType());
+        Assertions.assertEquals("t_compact", sqlUndoLog.getTableName());
+        assertRecordsEquals(beforeImage, sqlUndoLog.getBeforeImage());
+        assertRecordsEquals(afterImage, sqlUndoLog.getAfterImage());
+        Assertions.assertEquals(KeyType.PRIMARY_KEY,
+            sqlUndoLog.getBeforeImage().getRows().get(0).getFields().get(0).getKeyType());
+
+        BranchUndoLog empty = branchUndoLog(TableRecords.empty(new TableMeta()), null);
+        sqlUndoLog = parser.decode(parser.encode(empty)).getSqlUndoLogs().get(0);
+        Assertions.assertTrue(sqlUndoLog.getBeforeImage() instanceof TableRecords.EmptyTableRecords);
+        Assertions.assertNull(sqlUndoLog.getAfterImage());
+    }
+
+    @Test
+    public void testSmallerThanJackson() {
+        TableRecords image = new TableRecords();
+        image.setTableName("t_compact");
+        for (int i = 0; i < 100; i++) {
+            Row row = new Row();
+            row.add(pk(i));
+            row.add(new Field("status", Types.VARCHAR, i % 3 == 0 ? "PAID" : "UNPAID"));
+            row.add(new Field("user_id", Types.BIGINT, 10000L + i));
+            row.add(new Field("gmt_modified", Types.TIMESTAMP, timestamp(i)));
+            row.add(new Field("remark", Types.VARCHAR, i % 2 == 0 ? null : "remark" + i));
+            image.add(row);
+        }
+        BranchUndoLog branchUndoLog = branchUndoLog(image, image);
+        UndoLogParser jackson = EnhancedServiceLoader.load(UndoLogParser.class, JacksonUndoLogParser.NAME);
+
+        byte[] compact = parser.encode(branchUndoLog);
+        Assertions.assertTrue(compact.length * 5 < jackson.encode(branchUndoLog).length);
+        assertRecordsEquals(image, parser.decode(compact).getSqlUndoLogs().get(0).getAfterImage());
+    }
+
+    @Test
+    public void testObjectValueTypes() {
+        TableRecords image = new TableRecords();
+        image.setTableName("t_compact");
+        Row row = new Row();
+        row.add(pk(1));
+        row.add(new Field("other", Types.OTHER, new Object()));
+        image.add(row);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.encode(branchUndoLog(image, image)));
+
+        // a serializable value out of the allowed packages is written, but not read back
+        row.getFields().get(1).setValue(new ArrayList<>(Collections.singletonList("value")));
+        byte[] bytes = parser.encode(branchUndoLog(image, image));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.decode(bytes));
+    }
+
+    @Test
+    public void testMalformedLength() {
+        // the length of the xid is negative, beyond the input, and far beyond it
+        byte[][] malformed = {
+            {1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+            {1, 0x7F, 'x', 'i', 'd'},
+            {1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}
+        };
+        for (byte[] bytes : malformed) {
+            IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> parser.decode(bytes));
+            Assertions.assertTrue(e.getCause().getMessage().startsWith("malformed length"));
+        }
+    }
+
+    private static Field pk(Object value) {
+        Field field = new Field("id", Types.BIGINT, value);
+        field.setKeyType(KeyType.PRIMARY_KEY);
+        return field;
+    }
+
+    private static Timestamp timestamp(int i) {
+        Timestamp timestamp = new Timestamp(1600000000000L + i * 1000L);
+        timestamp.setNanos(123456789);
+        return timestamp;
+    }
+
+    private static BranchUndoLog branchUndoLog(TableRecords beforeImage, TableRecords afterImage) {
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("t_compact");
+        sqlUndoLog.setBeforeImage(beforeImage);
+        sqlUndoLog.setAfterImage(afterImage);
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("192.168.0.1:8091:123456");
+        branchUndoLog.setBranchId(123457L);
+        List<SQLUndoLog> sqlUndoLogs = new ArrayList<>(Collections.singletonList(sqlUndoLog));
+        branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+        return branchUndoLog;
+    }
+
+    private static void assertRecordsEquals(TableRecords expected, TableRecords actual) {
+        Assertions.assertEquals(expected.getTableName(), actual.getTableName());
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            List<Field> expectedFields = expected.getRows().get(i).getFields();
+            List<Field> actualFields = actual.getRows().get(i).getFields();
+            Assertions.assertEquals(expectedFields.size(), actualFields.size());
+            for (int j = 0; j < expectedFields.size(); j++) {
+                Field expectedField = expectedFields.get(j);
+                Field actualField = actualFields.get(j);
+                Assertions.assertEquals(expectedField.getName(), actualField.getName());
+                Assertions.assertEquals(expectedField.getKeyType(), actualField.getKeyType());
+                Assertions.assertEquals(expectedField.getType(), actualField.getType());
+                Object expectedValue = expectedField.getValue();
+                Object actualValue = actualField.getValue();
+                if (expectedValue instanceof byte[]) {
+                    Assertions.assertArrayEquals((byte[]) expectedValue, (byte[]) actualValue);
+                } else {
+                    Assertions.assertEquals(expectedValue, actualValue);
+                }
+                Assertions.assertTrue(DataCompareUtils.isFieldEquals(expectedField, actualField).getResult());
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import io.seata.core.protocol.transaction.BranchCommitResponse;
 import io.seata.core.protocol.transaction.BranchRollbackRequest;
 import io.seata.core.protocol.transaction.BranchRollbackResponse;
 import io.seata.core.protocol.transaction.RMInboundHandler;
+import io.seata.core.protocol.transaction.LockReleaseNotifyRequest;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 import io.seata.core.rpc.RpcContext;
 import io.seata.core.rpc.TransactionMessageHandler;
@@ -79,6 +80,14 @@ public abstract class AbstractRMHandler extends AbstractExceptionHandler
         // https://github.com/seata/seata/issues/2226
     }
 
+    /**
+     * lock release notify, only the branch types holding global locks care about it
+     * @param request the request
+     */
+    @Override
+    public void handle(LockReleaseNotifyRequest request) {
+    }
+
     /**
      * Do branch commit.
      *
@@ -38,6 +38,7 @@ import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND;
 import static io.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
 
 /**
@@ -57,6 +58,7 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private boolean rmReportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
     private boolean sagaBranchRegisterEnable = DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
+    private boolean sagaStateLogWriteBehind = DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND;
 
 
     public DbStateMachineConfig() {
@@ -72,6 +74,8 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
                     DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE));
                 setSagaCompensatePersistModeUpdate(configuration.getBoolean(ConfigurationKeys.CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE,
                     DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE));
+                this.sagaStateLogWriteBehind = configuration.getBoolean(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_WRITE_BEHIND,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND);
             }
         } catch (Exception e) {
             LOGGER.warn("Load SEATA configuration failed, use default configuration instead.", e);
@@ -97,6 +101,7 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
             dbStateLogStore.setDbType(dbType);
             dbStateLogStore.setDefaultTenantId(getDefaultTenantId());
             dbStateLogStore.setSeqGenerator(getSeqGenerator());
+            dbStateLogStore.setWriteBehindEnable(sagaStateLogWriteBehind);
 
             if (StringUtils.hasLength(getSagaJsonParser())) {
                 ParamsSerializer paramsSerializer = new ParamsSerializer();
@@ -133,6 +138,9 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
 
     @Override
     public void destroy() throws Exception {
+        if (getStateLogStore() instanceof DbAndReportTcStateLogStore) {
+            ((DbAndReportTcStateLogStore) getStateLogStore()).destroy();
+        }
         if ((sagaTransactionalTemplate != null) && (sagaTransactionalTemplate instanceof DisposableBean)) {
             ((DisposableBean) sagaTransactionalTemplate).destroy();
         }
@@ -197,4 +205,12 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     public void setRmReportSuccessEnable(boolean rmReportSuccessEnable) {
         this.rmReportSuccessEnable = rmReportSuccessEnable;
     }
+
+    public boolean isSagaStateLogWriteBehind() {
+        return sagaStateLogWriteBehind;
+    }
+
+    public void setSagaStateLogWriteBehind(boolean sagaStateLogWriteBehind) {
+        this.sagaStateLogWriteBehind = sagaStateLogWriteBehind;
+    }
 }
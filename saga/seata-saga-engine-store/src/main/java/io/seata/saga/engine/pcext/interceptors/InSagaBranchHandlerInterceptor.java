@@ -85,6 +85,21 @@ public class InSagaBranchHandlerInterceptor implements StateHandlerInterceptor {
         }
     }
 
+    @Override
+    public void suspend(ProcessContext context) {
+        RootContext.unbind();
+        RootContext.unbindBranchType();
+    }
+
+    @Override
+    public void resume(ProcessContext context) {
+        String xid = this.getXidFromProcessContext(context);
+        if (StringUtils.isNotBlank(xid)) {
+            RootContext.bind(xid);
+            RootContext.bindBranchType(BranchType.SAGA);
+        }
+    }
+
     /**
      * Gets xid from saga process context.
      *
@@ -154,6 +154,34 @@ public class AbstractStore {
         }
     }
 
+    protected <T> int[] executeBatch(String sql, ObjectToStatement<T> objectToStatement, List<T> list) {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        try {
+            connection = dataSource.getConnection();
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Preparing SQL: {}, batch size: {}", sql, list.size());
+            }
+
+            stmt = connection.prepareStatement(sql);
+            for (T o : list) {
+                objectToStatement.toStatement(o, stmt);
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            return counts;
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            closeSilent(stmt);
+            closeSilent(connection);
+        }
+    }
+
     protected int executeUpdate(String sql, Object... args) {
         Connection connection = null;
         PreparedStatement stmt = null;
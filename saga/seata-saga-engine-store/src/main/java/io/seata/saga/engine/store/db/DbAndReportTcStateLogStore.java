@@ -81,12 +81,14 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     private static final StateInstanceToStatementForUpdate        STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE
                                                                                                = new StateInstanceToStatementForUpdate();
     private static final ResultSetToStateInstance                 RESULT_SET_TO_STATE_INSTANCE = new ResultSetToStateInstance();
+    private static final int                                      WRITE_BEHIND_REPORT_THREADS  = 4;
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private Serializer<Object, String>    paramsSerializer    = new ParamsSerializer();
     private Serializer<Exception, byte[]> exceptionSerializer = new ExceptionSerializer();
     private StateLogStoreSqls stateLogStoreSqls;
     private String            defaultTenantId;
     private SeqGenerator      seqGenerator;
+    private StateLogWriteBehindBuffer writeBehindBuffer;
 
     @Override
     public void recordStateMachineStarted(StateMachineInstance machineInstance, ProcessContext context) {
@@ -161,6 +163,9 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     public void recordStateMachineFinished(StateMachineInstance machineInstance, ProcessContext context) {
         if (machineInstance != null) {
             try {
+                // the states and their branch reports go before the machine instance and the global report
+                flushWriteBehind(machineInstance.getId());
+
                 // save to db
                 Map<String, Object> endParams = machineInstance.getEndParams();
                 if (endParams != null) {
@@ -244,6 +249,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
     public void recordStateMachineRestarted(StateMachineInstance machineInstance, ProcessContext context) {
 
         if (machineInstance != null) {
+            flushWriteBehind(machineInstance.getId());
+
             //save to db
             Date gmtUpdated = new Date();
             int effect = executeUpdate(stateLogStoreSqls.getUpdateStateMachineRunningStatusSql(dbType), machineInstance.isRunning(), new Timestamp(gmtUpdated.getTime()),
@@ -287,6 +294,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
                 executeUpdate(stateLogStoreSqls.getRecordStateStartedSql(dbType),
                     STATE_INSTANCE_TO_STATEMENT_FOR_INSERT, stateInstance);
             } else {
+                // the finished state being updated may still be buffered
+                flushWriteBehind(stateInstance.getMachineInstanceId());
                 // if this retry/compensate state do not need persist, just update last inst
                 executeUpdate(stateLogStoreSqls.getUpdateStateExecutionStatusSql(dbType),
                     stateInstance.getStatus().name(), new Timestamp(System.currentTimeMillis()),
@@ -459,21 +468,43 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             stateInstance.setSerializedOutputParams(paramsSerializer.serialize(stateInstance.getOutputParams()));
             stateInstance.setSerializedException(exceptionSerializer.serialize(stateInstance.getException()));
-            executeUpdate(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
-                    stateInstance);
 
             //A switch to skip branch report on branch success, in order to optimize performance
             StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
                     DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
-            if (!(stateMachineConfig instanceof DbStateMachineConfig
+            boolean needReport = !(stateMachineConfig instanceof DbStateMachineConfig
                     && !((DbStateMachineConfig)stateMachineConfig).isRmReportSuccessEnable()
-                    && ExecutionStatus.SU.equals(stateInstance.getStatus()))) {
+                    && ExecutionStatus.SU.equals(stateInstance.getStatus()));
+
+            if (writeBehindBuffer != null) {
+                Runnable branchReport = needReport ? prepareBranchReport(stateInstance, context) : null;
+                writeBehindBuffer.add(copyForUpdate(stateInstance), branchReport);
+                return;
+            }
+
+            executeUpdate(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
+                    stateInstance);
+            if (needReport) {
                 branchReport(stateInstance, context);
             }
         }
     }
 
     protected void branchReport(StateInstance stateInstance, ProcessContext context) {
+        Runnable branchReport = prepareBranchReport(stateInstance, context);
+        if (branchReport != null) {
+            branchReport.run();
+        }
+    }
+
+    /**
+     * Resolve the branch to report and its status from the current states, the report itself may be sent later.
+     *
+     * @param stateInstance the finished state instance
+     * @param context the process context
+     * @return the branch report, null if nothing is to be reported
+     */
+    protected Runnable prepareBranchReport(StateInstance stateInstance, ProcessContext context) {
         if (sagaTransactionalTemplate != null) {
             StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
                     DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
@@ -483,7 +514,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("sagaBranchRegisterEnable = false, skip branch report. state[" + stateInstance.getName() + "]");
                 }
-                return;
+                return null;
             }
 
             BranchStatus branchStatus = null;
@@ -546,34 +577,66 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
                     throw new EngineExecutionException("Global transaction is not exists", FrameworkErrorCode.ObjectNotExists);
                 }
 
-                sagaTransactionalTemplate.branchReport(globalTransaction.getXid(), Long.parseLong(originalStateInst.getId()), branchStatus,
-                        null);
+                String xid = globalTransaction.getXid();
+                long branchId = Long.parseLong(originalStateInst.getId());
+                StateInstance reportedStateInst = originalStateInst;
+                BranchStatus reportedStatus = branchStatus;
+                return () -> {
+                    try {
+                        sagaTransactionalTemplate.branchReport(xid, branchId, reportedStatus, null);
+                    } catch (TransactionException e) {
+                        logBranchReportError(e.getCode(), reportedStateInst, reportedStatus, e);
+                    }
+                };
             } catch (TransactionException e) {
-                LOGGER.error(
-                        "Report branch status to server error: {}, StateMachine:{}, StateName:{}, XID: {}, branchId: {}, branchStatus:{},"
-                                + " Reason:{} "
-                        , e.getCode()
-                        , originalStateInst.getStateMachineInstance().getStateMachine().getName()
-                        , originalStateInst.getName()
-                        , originalStateInst.getStateMachineInstance().getId()
-                        , originalStateInst.getId()
-                        , branchStatus
-                        , e.getMessage()
-                        , e);
+                logBranchReportError(e.getCode(), originalStateInst, branchStatus, e);
             } catch (ExecutionException e) {
-                LOGGER.error(
-                        "Report branch status to server error: {}, StateMachine:{}, StateName:{}, XID: {}, branchId: {}, branchStatus:{},"
-                                + " Reason:{} "
-                        , e.getCode()
-                        , originalStateInst.getStateMachineInstance().getStateMachine().getName()
-                        , originalStateInst.getName()
-                        , originalStateInst.getStateMachineInstance().getId()
-                        , originalStateInst.getId()
-                        , branchStatus
-                        , e.getMessage()
-                        , e);
+                logBranchReportError(e.getCode(), originalStateInst, branchStatus, e);
             }
         }
+        return null;
+    }
+
+    private void logBranchReportError(Object code, StateInstance originalStateInst, BranchStatus branchStatus,
+                                      Exception e) {
+        LOGGER.error(
+                "Report branch status to server error: {}, StateMachine:{}, StateName:{}, XID: {}, branchId: {}, branchStatus:{},"
+                        + " Reason:{} "
+                , code
+                , originalStateInst.getStateMachineInstance().getStateMachine().getName()
+                , originalStateInst.getName()
+                , originalStateInst.getStateMachineInstance().getId()
+                , originalStateInst.getId()
+                , branchStatus
+                , e.getMessage()
+                , e);
+    }
+
+    /**
+     * Copy the columns of the state log updated when the state finished, so the buffered update doesn't see the later
+     * changes of the state instance.
+     */
+    private static StateInstance copyForUpdate(StateInstance stateInstance) {
+        StateInstanceImpl copy = new StateInstanceImpl();
+        copy.setId(stateInstance.getId());
+        copy.setMachineInstanceId(stateInstance.getMachineInstanceId());
+        copy.setGmtEnd(stateInstance.getGmtEnd());
+        copy.setStatus(stateInstance.getStatus());
+        copy.setException(stateInstance.getException());
+        copy.setSerializedException(stateInstance.getSerializedException());
+        copy.setSerializedOutputParams(stateInstance.getSerializedOutputParams());
+        return copy;
+    }
+
+    private void writeStateFinishedBatch(List<StateInstance> stateInstances) {
+        executeBatch(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
+            stateInstances);
+    }
+
+    private void flushWriteBehind(String machineInstanceId) {
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.flush(machineInstanceId);
+        }
     }
 
     private StateInstance findOutOriginalStateInstanceOfRetryState(StateInstance stateInstance) {
@@ -658,6 +721,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     @Override
     public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
+        flushWriteBehind(machineInstId);
         StateInstance stateInstance = selectOne(
                 stateLogStoreSqls.getGetStateInstanceByIdAndMachineInstanceIdSql(dbType), RESULT_SET_TO_STATE_INSTANCE,
                 machineInstId, stateInstanceId);
@@ -684,6 +748,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
     @Override
     public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
+        flushWriteBehind(stateMachineInstanceId);
         List<StateInstance> stateInstanceList = selectList(
                 stateLogStoreSqls.getQueryStateInstancesByMachineInstanceIdSql(dbType), RESULT_SET_TO_STATE_INSTANCE,
                 stateMachineInstanceId);
@@ -781,6 +846,31 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         this.seqGenerator = seqGenerator;
     }
 
+    /**
+     * Write the finished states behind, in batches, and report their branches to the TC asynchronously.
+     *
+     * @param writeBehindEnable whether to write the finished states behind
+     */
+    public synchronized void setWriteBehindEnable(boolean writeBehindEnable) {
+        if (writeBehindEnable && writeBehindBuffer == null) {
+            writeBehindBuffer = new StateLogWriteBehindBuffer(this::writeStateFinishedBatch, WRITE_BEHIND_REPORT_THREADS);
+        } else if (!writeBehindEnable && writeBehindBuffer != null) {
+            writeBehindBuffer.shutdown();
+            writeBehindBuffer = null;
+        }
+    }
+
+    public boolean isWriteBehindEnable() {
+        return writeBehindBuffer != null;
+    }
+
+    /**
+     * Write the buffered states and release the threads of the write-behind mode.
+     */
+    public void destroy() {
+        setWriteBehindEnable(false);
+    }
+
     @Override
     public void setTablePrefix(String tablePrefix) {
         super.setTablePrefix(tablePrefix);
@@ -0,0 +1,257 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.saga.statelang.domain.StateInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The write-behind buffer of the finished states of the state log.
+ * <p>
+ * A single flusher thread takes all the states queued while it was writing the previous batch, writes them as one jdbc
+ * batch, then sends their branch reports to the TC concurrently so that the client merges them into merged messages.
+ * Only the updates of finished states are buffered: the insert of a started state is written before its service is
+ * invoked, and a state whose update is lost stays running in the state log, which is compensated as an unknown state.
+ * So a compensation always finds the state records of the services it may have to compensate.
+ * <p>
+ * The queue is bounded: when the database falls behind, the threads finishing states wait in {@link #add} instead of
+ * piling updates up in memory. A failed batch is kept against its machine instances until a flush of one of them
+ * rethrows it, so the machine instance isn't finished as if its states were written.
+ *
+ * @author seata
+ */
+class StateLogWriteBehindBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateLogWriteBehindBuffer.class);
+
+    private static final int MAX_BATCH_SIZE = 200;
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private final BlockingQueue<Entry> queue;
+
+    /**
+     * The last queued entry of every state machine instance, the entries are written in order so waiting for the last
+     * one is waiting for all of them.
+     */
+    private final ConcurrentMap<String, Entry> lastEntries = new ConcurrentHashMap<>();
+
+    /**
+     * The first write failure of every state machine instance not rethrown by a flush yet.
+     */
+    private final ConcurrentMap<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    private final Consumer<List<StateInstance>> batchWriter;
+
+    private final ExecutorService reportExecutor;
+
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    /**
+     * Instantiates a new State log write behind buffer.
+     *
+     * @param batchWriter   writes the updates of the finished states in one batch, throws on failure
+     * @param reportThreads the number of threads sending the branch reports
+     */
+    StateLogWriteBehindBuffer(Consumer<List<StateInstance>> batchWriter, int reportThreads) {
+        this(batchWriter, reportThreads, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Instantiates a new State log write behind buffer.
+     *
+     * @param batchWriter   writes the updates of the finished states in one batch, throws on failure
+     * @param reportThreads the number of threads sending the branch reports
+     * @param queueCapacity the max number of the queued states, adding more waits for the flusher
+     */
+    StateLogWriteBehindBuffer(Consumer<List<StateInstance>> batchWriter, int reportThreads, int queueCapacity) {
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchWriter = batchWriter;
+        this.reportExecutor = new ThreadPoolExecutor(reportThreads, reportThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("sagaBranchReport", reportThreads));
+        this.flusher = new NamedThreadFactory("sagaStateLogFlusher", 1).newThread(this::flushLoop);
+        this.flusher.start();
+    }
+
+    /**
+     * Queue the update of a finished state.
+     *
+     * @param stateInstance the finished state, it must not be changed afterwards
+     * @param branchReport  the report of the branch to the TC, null if there is nothing to report
+     * @throws StoreException if interrupted while waiting for room in the queue
+     */
+    void add(StateInstance stateInstance, Runnable branchReport) {
+        String machineInstanceId = stateInstance.getMachineInstanceId();
+        Entry entry = new Entry(stateInstance, branchReport);
+        // the last entry of a machine instance must be the last queued one of it
+        synchronized (queue) {
+            Entry previous = lastEntries.put(machineInstanceId, entry);
+            try {
+                queue.put(entry);
+            } catch (InterruptedException e) {
+                if (previous != null && !previous.done.isDone()) {
+                    lastEntries.replace(machineInstanceId, entry, previous);
+                } else {
+                    lastEntries.remove(machineInstanceId, entry);
+                }
+                Thread.currentThread().interrupt();
+                throw new StoreException(e, "Interrupted while queueing the state log of " + machineInstanceId);
+            }
+        }
+    }
+
+    /**
+     * Wait until the states of the machine instance queued so far are written and reported.
+     *
+     * @param machineInstanceId the machine instance id
+     * @throws StoreException if a batch of them failed to be written since the last flush
+     */
+    void flush(String machineInstanceId) {
+        if (machineInstanceId == null) {
+            return;
+        }
+        Entry entry = lastEntries.get(machineInstanceId);
+        if (entry != null) {
+            try {
+                entry.done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StoreException(e, "Interrupted while flushing the state log of " + machineInstanceId);
+            } catch (ExecutionException e) {
+                // the failure is recorded in the failures before the entry is done
+            }
+        }
+        Throwable failure = failures.remove(machineInstanceId);
+        if (failure != null) {
+            throw new StoreException(failure, "Write state log of " + machineInstanceId + " failed",
+                FrameworkErrorCode.OperationDenied);
+        }
+    }
+
+    /**
+     * Write the queued states and stop the flusher.
+     */
+    void shutdown() {
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reportExecutor.shutdown();
+    }
+
+    private void flushLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            Entry first;
+            try {
+                first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            try {
+                writeBatch(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        List<StateInstance> stateInstances = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            stateInstances.add(entry.stateInstance);
+        }
+        Throwable failure = null;
+        try {
+            batchWriter.accept(stateInstances);
+        } catch (Throwable t) {
+            LOGGER.error("Write {} finished states to the state log failed: {}", batch.size(), t.getMessage(), t);
+            failure = t;
+        }
+
+        if (failure == null) {
+            List<CompletableFuture<Void>> reports = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                if (entry.branchReport != null) {
+                    reports.add(CompletableFuture.runAsync(entry.branchReport, reportExecutor));
+                }
+            }
+            for (CompletableFuture<Void> report : reports) {
+                try {
+                    report.join();
+                } catch (Exception e) {
+                    LOGGER.error("Report branch status to server error: {}", e.getMessage(), e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            for (Entry entry : batch) {
+                failures.putIfAbsent(entry.stateInstance.getMachineInstanceId(), failure);
+            }
+        }
+        for (Entry entry : batch) {
+            if (failure == null) {
+                entry.done.complete(null);
+            } else {
+                entry.done.completeExceptionally(failure);
+            }
+            lastEntries.remove(entry.stateInstance.getMachineInstanceId(), entry);
+        }
+    }
+
+    private static class Entry {
+
+        private final StateInstance stateInstance;
+
+        private final Runnable branchReport;
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Entry(StateInstance stateInstance, Runnable branchReport) {
+            this.stateInstance = stateInstance;
+            this.branchReport = branchReport;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.exception.StoreException;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type State log write behind buffer test.
+ */
+public class StateLogWriteBehindBufferTest {
+
+    @Test
+    public void testBatchAndFlush() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        StateLogWriteBehindBuffer buffer = new StateLogWriteBehindBuffer(stateInstances -> {
+            List<String> ids = new ArrayList<>();
+            stateInstances.forEach(stateInstance -> ids.add(stateInstance.getId()));
+            batches.add(ids);
+            firstBatchStarted.countDown();
+            await(releaseFirstBatch);
+        }, 2);
+        try {
+            List<String> reported = new CopyOnWriteArrayList<>();
+            buffer.add(newState("m1", "s0"), () -> reported.add("s0"));
+            Assertions.assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+            // queued while the first batch is written, so written together
+            for (int i = 1; i <= 10; i++) {
+                String id = "s" + i;
+                buffer.add(newState(i % 2 == 0 ? "m1" : "m2", id), i % 3 == 0 ? null : () -> reported.add(id));
+            }
+            releaseFirstBatch.countDown();
+            buffer.flush("m1");
+            buffer.flush("m2");
+            buffer.flush("unknown");
+
+            Assertions.assertEquals(2, batches.size());
+            Assertions.assertEquals(1, batches.get(0).size());
+            Assertions.assertEquals(10, batches.get(1).size());
+            for (int i = 1; i <= 10; i++) {
+                Assertions.assertEquals("s" + i, batches.get(1).get(i - 1));
+            }
+            Assertions.assertEquals(8, reported.size());
+            Assertions.assertFalse(reported.contains("s3"));
+        } finally {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedBatch() {
+        AtomicInteger reports = new AtomicInteger();
+        StateLogWriteBehindBuffer buffer = new StateLogWriteBehindBuffer(stateInstances -> {
+            throw new StoreException("mock failure");
+        }, 1);
+        try {
+            buffer.add(newState("m1", "s1"), reports::incrementAndGet);
+            Assertions.assertThrows(StoreException.class, () -> buffer.flush("m1"));
+            Assertions.assertEquals(0, reports.get());
+        } finally {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureKeptUntilFlushed() {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        StateLogWriteBehindBuffer buffer = new StateLogWriteBehindBuffer(stateInstances -> {
+            firstBatchStarted.countDown();
+            if (batches.incrementAndGet() == 1) {
+                throw new StoreException("mock failure");
+            }
+        }, 1);
+        try {
+            buffer.add(newState("m1", "s1"), null);
+            await(firstBatchStarted);
+            // written after the failed batch, so the failed one is done once this one is flushed
+            buffer.add(newState("m2", "s2"), null);
+            buffer.flush("m2");
+
+            Assertions.assertThrows(StoreException.class, () -> buffer.flush("m1"));
+            // rethrown once only
+            buffer.flush("m1");
+        } finally {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    public void testAddWaitsForRoomInQueue() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        StateLogWriteBehindBuffer buffer = new StateLogWriteBehindBuffer(stateInstances -> {
+            firstBatchStarted.countDown();
+            await(releaseFirstBatch);
+            stateInstances.forEach(stateInstance -> written.add(stateInstance.getId()));
+        }, 1, 1);
+        try {
+            buffer.add(newState("m1", "s0"), null);
+            Assertions.assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+            buffer.add(newState("m1", "s1"), null);
+            Thread adder = new Thread(() -> buffer.add(newState("m1", "s2"), null));
+            adder.start();
+            adder.join(200);
+            Assertions.assertTrue(adder.isAlive());
+
+            releaseFirstBatch.countDown();
+            adder.join(5000);
+            Assertions.assertFalse(adder.isAlive());
+            buffer.flush("m1");
+            Assertions.assertEquals(3, written.size());
+        } finally {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownWritesQueued() {
+        List<String> written = new CopyOnWriteArrayList<>();
+        StateLogWriteBehindBuffer buffer = new StateLogWriteBehindBuffer(
+            stateInstances -> stateInstances.forEach(stateInstance -> written.add(stateInstance.getId())), 1);
+        for (int i = 0; i < 100; i++) {
+            buffer.add(newState("m1", "s" + i), null);
+        }
+        buffer.shutdown();
+        Assertions.assertEquals(100, written.size());
+    }
+
+    private static StateInstance newState(String machineInstanceId, String id) {
+        StateInstanceImpl stateInstance = new StateInstanceImpl();
+        stateInstance.setMachineInstanceId(machineInstanceId);
+        stateInstance.setId(id);
+        return stateInstance;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -143,6 +143,14 @@ public interface StateMachineConfig {
      */
     boolean isEnableAsync();
 
+    /**
+     * Is enable non-blocking async boolean, the async executions then run on virtual threads where the JDK has them,
+     * and a service returning a CompletionStage leaves its state pending instead of blocking the thread.
+     *
+     * @return the boolean
+     */
+    boolean isEnableNonBlockingAsync();
+
     /**
      * get ServiceInvokerManager
      *
@@ -24,6 +24,8 @@ import org.springframework.expression.AccessException;
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -35,7 +37,12 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  */
 public class SpringELExpressionFactory implements ExpressionFactory, ApplicationContextAware {
 
-    ExpressionParser parser = new SpelExpressionParser();
+    /**
+     * The expressions are compiled to bytecode once they ran a few times, a compiled expression meeting a type it was
+     * not compiled for falls back to the interpreter, as the expressions of the state machines are not typed.
+     */
+    ExpressionParser parser = new SpelExpressionParser(
+        new SpelParserConfiguration(SpelCompilerMode.MIXED, SpringELExpressionFactory.class.getClassLoader()));
     ApplicationContext applicationContext;
 
     @Override
@@ -19,6 +19,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import javax.script.ScriptEngineManager;
 
@@ -104,6 +107,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
     private ApplicationContext applicationContext;
     private ThreadPoolExecutor threadPoolExecutor;
     private boolean enableAsync = false;
+    private boolean enableNonBlockingAsync = false;
     private ServiceInvokerManager serviceInvokerManager;
 
     private boolean autoRegisterResources = true;
@@ -151,6 +155,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             stateMachineRepository.setStateLangStore(stateLangStore);
             stateMachineRepository.setDefaultTenantId(defaultTenantId);
             stateMachineRepository.setJsonParserName(sagaJsonParser);
+            stateMachineRepository.setExpressionFactoryManager(expressionFactoryManager);
             this.stateMachineRepository = stateMachineRepository;
         }
         //stateMachineRepository may be overridden, so move `stateMachineRepository.registryByResources()` here.
@@ -198,7 +203,17 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             processCtrlEventConsumer.setProcessController(processorController);
 
             AsyncEventBus asyncEventBus = new AsyncEventBus();
-            asyncEventBus.setThreadPoolExecutor(getThreadPoolExecutor());
+            Executor asyncExecutor = getThreadPoolExecutor();
+            if (enableNonBlockingAsync) {
+                ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+                if (virtualThreadExecutor != null) {
+                    asyncExecutor = virtualThreadExecutor;
+                } else {
+                    LOGGER.info("Virtual threads are not supported by the JDK, async executions run on the thread pool, "
+                        + "the services returning a CompletionStage don't block it.");
+                }
+            }
+            asyncEventBus.setExecutor(asyncExecutor);
             asyncEventPublisher.setEventBus(asyncEventBus);
 
             asyncEventBus.registerEventConsumer(processCtrlEventConsumer);
@@ -418,6 +433,31 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
         this.enableAsync = enableAsync;
     }
 
+    @Override
+    public boolean isEnableNonBlockingAsync() {
+        return enableNonBlockingAsync;
+    }
+
+    public void setEnableNonBlockingAsync(boolean enableNonBlockingAsync) {
+        this.enableNonBlockingAsync = enableNonBlockingAsync;
+    }
+
+    /**
+     * Create a virtual-thread-per-task executor, looked up reflectively as it is only available since JDK 21.
+     *
+     * @return the executor, null if the JDK doesn't support virtual threads
+     */
+    protected ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Create virtual thread executor failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public StateLogRepository getStateLogRepository() {
         return stateLogRepository;
@@ -15,6 +15,9 @@
  */
 package io.seata.saga.engine.invoker.impl;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -24,6 +27,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -56,6 +61,7 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
     private ApplicationContext applicationContext;
     private ThreadPoolExecutor threadPoolExecutor;
     private String sagaJsonParser;
+    private final Map<Method, Optional<MethodHandle>> methodHandleCache = new ConcurrentHashMap<>();
 
     @Override
     public Object invoke(ServiceTaskState serviceTaskState, Object... input) throws Throwable {
@@ -274,6 +280,10 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
     }
 
     protected Object invokeMethod(Object serviceBean, Method method, Object... input) throws Throwable {
+        MethodHandle methodHandle = getMethodHandle(method);
+        if (methodHandle != null && input.length == method.getParameterCount()) {
+            return (Object)methodHandle.invokeExact(serviceBean, input);
+        }
         try {
             return method.invoke(serviceBean, input);
         } catch (InvocationTargetException e) {
@@ -286,6 +296,31 @@ public class SpringBeanServiceInvoker implements ServiceInvoker, ApplicationCont
         }
     }
 
+    /**
+     * Gets the method handle bound once for the method, taking the bean and the arguments array, which skips the
+     * access checks and the arguments copy of the reflection on every invocation.
+     *
+     * @param method the service method
+     * @return the method handle, null if the method is not accessible to a handle and is invoked by reflection
+     */
+    protected MethodHandle getMethodHandle(Method method) {
+        Optional<MethodHandle> methodHandle = methodHandleCache.get(method);
+        if (methodHandle == null) {
+            methodHandle = CollectionUtils.computeIfAbsent(methodHandleCache, method, key -> {
+                try {
+                    return Optional.of(MethodHandles.publicLookup().unreflect(key).asFixedArity()
+                        .asSpreader(Object[].class, key.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class)));
+                } catch (IllegalAccessException e) {
+                    LOGGER.warn("Method[{}] is not accessible to a method handle, it will be invoked by reflection",
+                        key);
+                    return Optional.empty();
+                }
+            });
+        }
+        return methodHandle.orElse(null);
+    }
+
     protected Object toJavaObject(Object value, Class paramType) {
         if (value == null) {
             return value;
@@ -29,5 +29,22 @@ public interface StateHandlerInterceptor {
 
     void postProcess(ProcessContext context, Exception e) throws EngineExecutionException;
 
+    /**
+     * Called on the thread that ran preProcess when the handler left its work pending, to release what is bound to
+     * the thread, as postProcess runs on the thread that finishes the work.
+     *
+     * @param context the process context
+     */
+    default void suspend(ProcessContext context) {
+    }
+
+    /**
+     * Called on the thread that finished the pending work of the handler, before postProcess.
+     *
+     * @param context the process context
+     */
+    default void resume(ProcessContext context) {
+    }
+
     boolean match(Class<? extends InterceptableStateHandler> clazz);
 }
\ No newline at end of file
@@ -18,10 +18,14 @@ package io.seata.saga.engine.pcext;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 
+import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.common.util.CollectionUtils;
+import io.seata.saga.engine.StateMachineConfig;
 import io.seata.saga.engine.pcext.handlers.ChoiceStateHandler;
 import io.seata.saga.engine.pcext.handlers.CompensationTriggerStateHandler;
 import io.seata.saga.engine.pcext.handlers.FailEndStateHandler;
@@ -30,10 +34,14 @@ import io.seata.saga.engine.pcext.handlers.ScriptTaskStateHandler;
 import io.seata.saga.engine.pcext.handlers.ServiceTaskStateHandler;
 import io.seata.saga.engine.pcext.handlers.SubStateMachineHandler;
 import io.seata.saga.engine.pcext.handlers.SucceedEndStateHandler;
+import io.seata.saga.engine.pcext.utils.EngineUtils;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.proctrl.handler.ProcessHandler;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.State;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * StateMachine ProcessHandler
@@ -43,6 +51,8 @@ import io.seata.saga.statelang.domain.State;
  */
 public class StateMachineProcessHandler implements ProcessHandler {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateMachineProcessHandler.class);
+
     private final Map<String, StateHandler> stateHandlers = new ConcurrentHashMap<>();
 
     @Override
@@ -59,6 +69,7 @@ public class StateMachineProcessHandler implements ProcessHandler {
 
         List<StateHandlerInterceptor> executedInterceptors = null;
         Exception exception = null;
+        boolean pending = false;
         try {
             if (CollectionUtils.isNotEmpty(interceptors)) {
                 executedInterceptors = new ArrayList<>(interceptors.size());
@@ -70,15 +81,77 @@ public class StateMachineProcessHandler implements ProcessHandler {
 
             stateHandler.process(context);
 
+            pending = postProcessAfterPending(context, executedInterceptors);
         } catch (Exception e) {
             exception = e;
             throw e;
         } finally {
-            if (CollectionUtils.isNotEmpty(executedInterceptors)) {
-                for (int i = executedInterceptors.size() - 1; i >= 0; i--) {
-                    StateHandlerInterceptor interceptor = executedInterceptors.get(i);
-                    interceptor.postProcess(context, exception);
+            if (!pending) {
+                postProcess(context, executedInterceptors, exception);
+            }
+        }
+    }
+
+    /**
+     * If the handler left its work pending, run the post processing of the interceptors on the async thread pool once
+     * the work is done, so the context is routed after them. A failure of the post processing fails the state machine
+     * instance, since no caller is left to throw it to, and completes the pending process exceptionally.
+     *
+     * @return true if the handler left its work pending
+     */
+    private boolean postProcessAfterPending(ProcessContext context,
+                                            List<StateHandlerInterceptor> executedInterceptors) {
+        Object pendingProcess = context.getVariable(ProcessContext.VAR_NAME_PENDING_PROCESS);
+        if (!(pendingProcess instanceof CompletionStage)) {
+            return false;
+        }
+        if (CollectionUtils.isNotEmpty(executedInterceptors)) {
+            for (int i = executedInterceptors.size() - 1; i >= 0; i--) {
+                executedInterceptors.get(i).suspend(context);
+            }
+        }
+        StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        context.setVariable(ProcessContext.VAR_NAME_PENDING_PROCESS,
+            ((CompletionStage<?>)pendingProcess).whenCompleteAsync((result, e) -> {
+                if (CollectionUtils.isNotEmpty(executedInterceptors)) {
+                    for (StateHandlerInterceptor interceptor : executedInterceptors) {
+                        interceptor.resume(context);
+                    }
                 }
+                Exception exception = null;
+                if (e != null) {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    exception = cause instanceof Exception ? (Exception)cause
+                        : new FrameworkException(cause, "Pending process failed", FrameworkErrorCode.UnknownAppError);
+                }
+                try {
+                    postProcess(context, executedInterceptors, exception);
+                } catch (Exception ex) {
+                    LOGGER.error("Post process of the pending state failed, context = {}", context, ex);
+                    failStateMachineIfRunning(context, ex);
+                    // the context is not routed further, the same as a failure thrown on the synchronous path
+                    throw ex;
+                }
+            }, stateMachineConfig.getThreadPoolExecutor()));
+        return true;
+    }
+
+    private void failStateMachineIfRunning(ProcessContext context, Exception exception) {
+        // the interceptors fail the state machine themselves before throwing the exceptions they know
+        StateMachineInstance stateMachineInstance = (StateMachineInstance)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_INST);
+        if (stateMachineInstance != null && stateMachineInstance.isRunning()) {
+            EngineUtils.failStateMachine(context, exception);
+        }
+    }
+
+    private void postProcess(ProcessContext context, List<StateHandlerInterceptor> executedInterceptors,
+                             Exception exception) {
+        if (CollectionUtils.isNotEmpty(executedInterceptors)) {
+            for (int i = executedInterceptors.size() - 1; i >= 0; i--) {
+                StateHandlerInterceptor interceptor = executedInterceptors.get(i);
+                interceptor.postProcess(context, exception);
             }
         }
     }
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.util.CollectionUtils;
@@ -100,29 +102,55 @@ public class ServiceTaskStateHandler implements StateHandler, InterceptableState
                 }
 
                 result = serviceInvoker.invoke(state, input.toArray());
-            }
 
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("<<<<<<<<<<<<<<<<<<<<<< State[{}], ServiceName[{}], Method[{}] Execute finish. result: {}",
-                        state.getName(), serviceName, methodName, result);
+                if (result instanceof CompletionStage && stateMachineConfig.isEnableNonBlockingAsync()
+                        && Boolean.TRUE.equals(context.getVariable(DomainConstants.VAR_NAME_IS_ASYNC_EXECUTION))) {
+                    //Leave the state pending, it finishes when the service does instead of blocking the thread
+                    ((HierarchicalProcessContext) context).setVariableLocally(ProcessContext.VAR_NAME_PENDING_PROCESS,
+                            ((CompletionStage<?>) result).handle((output, e) -> {
+                                if (e == null) {
+                                    onServiceFinished(context, state, stateInstance, output);
+                                } else {
+                                    onServiceFailed(context, state,
+                                            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                                }
+                                return null;
+                            }));
+                    return;
+                }
             }
 
-            if (result != null) {
-                stateInstance.setOutputParams(result);
-                ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_OUTPUT_PARAMS,
-                        result);
-            }
+            onServiceFinished(context, state, stateInstance, result);
 
         } catch (Throwable e) {
 
-            LOGGER.error("<<<<<<<<<<<<<<<<<<<<<< State[{}], ServiceName[{}], Method[{}] Execute failed.",
-                    state.getName(), serviceName, methodName, e);
+            onServiceFailed(context, state, e);
+        }
 
-            ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION, e);
+    }
 
-            EngineUtils.handleException(context, state, e);
+    private void onServiceFinished(ProcessContext context, ServiceTaskStateImpl state, StateInstance stateInstance,
+                                   Object result) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("<<<<<<<<<<<<<<<<<<<<<< State[{}], ServiceName[{}], Method[{}] Execute finish. result: {}",
+                    state.getName(), state.getServiceName(), state.getServiceMethod(), result);
         }
 
+        if (result != null) {
+            stateInstance.setOutputParams(result);
+            ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_OUTPUT_PARAMS,
+                    result);
+        }
+    }
+
+    private void onServiceFailed(ProcessContext context, ServiceTaskStateImpl state, Throwable e) {
+
+        LOGGER.error("<<<<<<<<<<<<<<<<<<<<<< State[{}], ServiceName[{}], Method[{}] Execute failed.",
+                state.getName(), state.getServiceName(), state.getServiceMethod(), e);
+
+        ((HierarchicalProcessContext) context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION, e);
+
+        EngineUtils.handleException(context, state, e);
     }
 
     private Object compensateSubStateMachine(ProcessContext context, ServiceTaskState state, Object input,
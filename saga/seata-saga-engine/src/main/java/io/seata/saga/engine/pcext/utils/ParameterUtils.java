@@ -46,19 +46,7 @@ public class ParameterUtils {
             return new ArrayList<>(0);
         }
 
-        List<Object> inputExpressions = serviceTaskState.getInputExpressions();
-        if (inputExpressions == null) {
-            synchronized (serviceTaskState) {
-                inputExpressions = serviceTaskState.getInputExpressions();
-                if (inputExpressions == null) {
-                    inputExpressions = new ArrayList<>(inputAssignments.size());
-                    for (Object inputAssignment : inputAssignments) {
-                        inputExpressions.add(createValueExpression(expressionFactoryManager, inputAssignment));
-                    }
-                }
-                serviceTaskState.setInputExpressions(inputExpressions);
-            }
-        }
+        List<Object> inputExpressions = getInputExpressions(expressionFactoryManager, serviceTaskState);
         List<Object> inputValues = new ArrayList<>(inputExpressions.size());
         for (Object valueExpression : inputExpressions) {
             Object value = getValue(valueExpression, variablesFrom, stateInstance);
@@ -75,11 +63,58 @@ public class ParameterUtils {
             return new LinkedHashMap<>(0);
         }
 
+        Map<String, Object> outputExpressions = getOutputExpressions(expressionFactoryManager, serviceTaskState);
+        Map<String, Object> outputValues = new LinkedHashMap<>(outputExpressions.size());
+        for (String paramName : outputExpressions.keySet()) {
+            outputValues.put(paramName, getValue(outputExpressions.get(paramName), variablesFrom, null));
+        }
+        return outputValues;
+    }
+
+    /**
+     * Create the expressions of the input and output assignments of the task state, if they are not yet, so that a
+     * state machine can have them parsed when it is registered instead of when its states first run.
+     *
+     * @param expressionFactoryManager the expression factory manager
+     * @param serviceTaskState the task state
+     */
+    public static void prepareExpressions(ExpressionFactoryManager expressionFactoryManager,
+                                          AbstractTaskState serviceTaskState) {
+        if (CollectionUtils.isNotEmpty(serviceTaskState.getInput())) {
+            getInputExpressions(expressionFactoryManager, serviceTaskState);
+        }
+        if (CollectionUtils.isNotEmpty(serviceTaskState.getOutput())) {
+            getOutputExpressions(expressionFactoryManager, serviceTaskState);
+        }
+    }
+
+    private static List<Object> getInputExpressions(ExpressionFactoryManager expressionFactoryManager,
+                                                    AbstractTaskState serviceTaskState) {
+        List<Object> inputExpressions = serviceTaskState.getInputExpressions();
+        if (inputExpressions == null) {
+            synchronized (serviceTaskState) {
+                inputExpressions = serviceTaskState.getInputExpressions();
+                if (inputExpressions == null) {
+                    List<Object> inputAssignments = serviceTaskState.getInput();
+                    inputExpressions = new ArrayList<>(inputAssignments.size());
+                    for (Object inputAssignment : inputAssignments) {
+                        inputExpressions.add(createValueExpression(expressionFactoryManager, inputAssignment));
+                    }
+                }
+                serviceTaskState.setInputExpressions(inputExpressions);
+            }
+        }
+        return inputExpressions;
+    }
+
+    private static Map<String, Object> getOutputExpressions(ExpressionFactoryManager expressionFactoryManager,
+                                                            AbstractTaskState serviceTaskState) {
         Map<String, Object> outputExpressions = serviceTaskState.getOutputExpressions();
         if (outputExpressions == null) {
             synchronized (serviceTaskState) {
                 outputExpressions = serviceTaskState.getOutputExpressions();
                 if (outputExpressions == null) {
+                    Map<String, Object> outputAssignments = serviceTaskState.getOutput();
                     outputExpressions = new LinkedHashMap<>(outputAssignments.size());
                     for (Map.Entry<String, Object> entry : outputAssignments.entrySet()) {
                         outputExpressions.put(entry.getKey(),
@@ -89,11 +124,7 @@ public class ParameterUtils {
                 serviceTaskState.setOutputExpressions(outputExpressions);
             }
         }
-        Map<String, Object> outputValues = new LinkedHashMap<>(outputExpressions.size());
-        for (String paramName : outputExpressions.keySet()) {
-            outputValues.put(paramName, getValue(outputExpressions.get(paramName), variablesFrom, null));
-        }
-        return outputValues;
+        return outputExpressions;
     }
 
     public static Object getValue(Object valueExpression, Object variablesFrom, StateInstance stateInstance) {
@@ -25,12 +25,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.pcext.utils.ParameterUtils;
 import io.seata.saga.engine.repo.StateMachineRepository;
 import io.seata.saga.engine.sequence.SeqGenerator;
 import io.seata.saga.engine.sequence.SpringJvmUUIDSeqGenerator;
 import io.seata.saga.engine.store.StateLangStore;
 import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.State;
 import io.seata.saga.statelang.domain.StateMachine;
+import io.seata.saga.statelang.domain.impl.AbstractTaskState;
 import io.seata.saga.statelang.parser.StateMachineParserFactory;
 import io.seata.saga.statelang.parser.utils.IOUtils;
 import org.slf4j.Logger;
@@ -52,6 +56,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
     private String charset = "UTF-8";
     private String defaultTenantId;
     private String jsonParserName = DomainConstants.DEFAULT_JSON_PARSER;
+    private ExpressionFactoryManager expressionFactoryManager;
 
     @Override
     public StateMachine getStateMachineById(String stateMachineId) {
@@ -71,6 +76,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
                         }
                         stateMachine.setStartState(parsedStatMachine.getStartState());
                         stateMachine.getStates().putAll(parsedStatMachine.getStates());
+                        prepareExpressions(stateMachine);
                         item.setValue(stateMachine);
                         stateMachineMapById.put(stateMachine.getName() + "_" + stateMachine.getTenantId(),
                             item);
@@ -99,6 +105,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
                         }
                         stateMachine.setStartState(parsedStatMachine.getStartState());
                         stateMachine.getStates().putAll(parsedStatMachine.getStates());
+                        prepareExpressions(stateMachine);
                         item.setValue(stateMachine);
                         stateMachineMapById.put(stateMachine.getId(), item);
                     }
@@ -139,6 +146,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
 
                     stateMachine.setId(oldStateMachine.getId());
                     stateMachine.setGmtCreate(oldStateMachine.getGmtCreate());
+                    prepareExpressions(stateMachine);
 
                     Item item = new Item(stateMachine);
                     stateMachineMapByNameAndTenant.put(stateMachineName + "_" + tenantId, item);
@@ -156,6 +164,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         if (StringUtils.isBlank(stateMachine.getId())) {
             stateMachine.setId(seqGenerator.generate(DomainConstants.SEQ_ENTITY_STATE_MACHINE));
         }
+        prepareExpressions(stateMachine);
 
         Item item = new Item(stateMachine);
         stateMachineMapByNameAndTenant.put(stateMachineName + "_" + tenantId, item);
@@ -186,6 +195,27 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         }
     }
 
+    /**
+     * Parse the expressions of the task states once, when the state machine is registered or loaded.
+     *
+     * @param stateMachine the state machine
+     */
+    private void prepareExpressions(StateMachine stateMachine) {
+        if (expressionFactoryManager == null || stateMachine.getStates() == null) {
+            return;
+        }
+        for (State state : stateMachine.getStates().values()) {
+            if (state instanceof AbstractTaskState) {
+                try {
+                    ParameterUtils.prepareExpressions(expressionFactoryManager, (AbstractTaskState)state);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Prepare expressions of State[{}] in StateMachine[{}] failed, they will be created when "
+                        + "the state runs. Reason: {}", state.getName(), stateMachine.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
     public void setStateLangStore(StateLangStore stateLangStore) {
         this.stateLangStore = stateLangStore;
     }
@@ -210,6 +240,14 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         this.defaultTenantId = defaultTenantId;
     }
 
+    public ExpressionFactoryManager getExpressionFactoryManager() {
+        return expressionFactoryManager;
+    }
+
+    public void setExpressionFactoryManager(ExpressionFactoryManager expressionFactoryManager) {
+        this.expressionFactoryManager = expressionFactoryManager;
+    }
+
     public String getJsonParserName() {
         return jsonParserName;
     }
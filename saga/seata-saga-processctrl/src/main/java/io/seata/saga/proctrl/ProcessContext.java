@@ -27,6 +27,12 @@ public interface ProcessContext {
 
     String VAR_NAME_PROCESS_TYPE = "_ProcessType_";
 
+    /**
+     * A processor that returns before its work is done puts a CompletionStage of the work under this name, the
+     * context is routed once the stage completes instead of blocking the thread.
+     */
+    String VAR_NAME_PENDING_PROCESS = "_PendingProcess_";
+
     /**
      * Gets get variable.
      *
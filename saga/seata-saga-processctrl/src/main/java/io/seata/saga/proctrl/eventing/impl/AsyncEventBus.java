@@ -16,6 +16,7 @@
 package io.seata.saga.proctrl.eventing.impl;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import io.seata.common.exception.FrameworkException;
@@ -34,7 +35,7 @@ public class AsyncEventBus extends AbstractEventBus<ProcessContext> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AsyncEventBus.class);
 
-    private ThreadPoolExecutor threadPoolExecutor;
+    private Executor executor;
 
     @Override
     public boolean offer(ProcessContext context) throws FrameworkException {
@@ -47,12 +48,21 @@ public class AsyncEventBus extends AbstractEventBus<ProcessContext> {
         }
 
         for (EventConsumer eventConsumer : eventConsumers) {
-            threadPoolExecutor.execute(() -> eventConsumer.process(context));
+            executor.execute(() -> eventConsumer.process(context));
         }
         return true;
     }
 
     public void setThreadPoolExecutor(ThreadPoolExecutor threadPoolExecutor) {
-        this.threadPoolExecutor = threadPoolExecutor;
+        this.executor = threadPoolExecutor;
+    }
+
+    /**
+     * Sets the executor the events are consumed on, such as a virtual-thread-per-task executor.
+     *
+     * @param executor the executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
     }
 }
\ No newline at end of file
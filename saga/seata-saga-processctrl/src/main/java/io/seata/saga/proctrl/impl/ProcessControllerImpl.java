@@ -15,6 +15,8 @@
  */
 package io.seata.saga.proctrl.impl;
 
+import java.util.concurrent.CompletionStage;
+
 import io.seata.common.exception.FrameworkErrorCode;
 import io.seata.common.exception.FrameworkException;
 import io.seata.saga.proctrl.ProcessContext;
@@ -42,6 +44,13 @@ public class ProcessControllerImpl implements ProcessController {
 
             businessProcessor.process(context);
 
+            Object pendingProcess = context.removeVariable(ProcessContext.VAR_NAME_PENDING_PROCESS);
+            if (pendingProcess instanceof CompletionStage) {
+                // the business processor completes the pending process on its own executor, the routing follows it
+                ((CompletionStage<?>)pendingProcess).whenComplete((result, e) -> routeAfterPending(context, e));
+                return;
+            }
+
             businessProcessor.route(context);
 
         } catch (FrameworkException fex) {
@@ -52,6 +61,19 @@ public class ProcessControllerImpl implements ProcessController {
         }
     }
 
+    private void routeAfterPending(ProcessContext context, Throwable pendingException) {
+        if (pendingException != null) {
+            // the business processor has handled the failure of the pending process, it is not routed any further
+            LOGGER.error("Pending process failed, context = {}", context, pendingException);
+            return;
+        }
+        try {
+            businessProcessor.route(context);
+        } catch (Exception ex) {
+            LOGGER.error("Unknown exception occurred, context = {}", context, ex);
+        }
+    }
+
     public void setBusinessProcessor(BusinessProcessor businessProcessor) {
         this.businessProcessor = businessProcessor;
     }
@@ -18,7 +18,10 @@ package io.seata.spring.boot.autoconfigure.properties.client;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_LOCAL_INTENT_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_MAX_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_MODE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_LOCK_RETRY_TIMES;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.LOCK_PREFIX;
@@ -32,6 +35,9 @@ public class LockProperties {
     private int retryInterval = DEFAULT_CLIENT_LOCK_RETRY_INTERVAL;
     private int retryTimes = DEFAULT_CLIENT_LOCK_RETRY_TIMES;
     private boolean retryPolicyBranchRollbackOnConflict = DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT;
+    private boolean localIntentEnable = DEFAULT_CLIENT_LOCK_LOCAL_INTENT_ENABLE;
+    private String retryMode = DEFAULT_CLIENT_LOCK_RETRY_MODE;
+    private int retryMaxInterval = DEFAULT_CLIENT_LOCK_RETRY_MAX_INTERVAL;
 
     public int getRetryInterval() {
         return retryInterval;
@@ -59,4 +65,31 @@ public class LockProperties {
         this.retryPolicyBranchRollbackOnConflict = retryPolicyBranchRollbackOnConflict;
         return this;
     }
+
+    public boolean isLocalIntentEnable() {
+        return localIntentEnable;
+    }
+
+    public LockProperties setLocalIntentEnable(boolean localIntentEnable) {
+        this.localIntentEnable = localIntentEnable;
+        return this;
+    }
+
+    public String getRetryMode() {
+        return retryMode;
+    }
+
+    public LockProperties setRetryMode(String retryMode) {
+        this.retryMode = retryMode;
+        return this;
+    }
+
+    public int getRetryMaxInterval() {
+        return retryMaxInterval;
+    }
+
+    public LockProperties setRetryMaxInterval(int retryMaxInterval) {
+        this.retryMaxInterval = retryMaxInterval;
+        return this;
+    }
 }
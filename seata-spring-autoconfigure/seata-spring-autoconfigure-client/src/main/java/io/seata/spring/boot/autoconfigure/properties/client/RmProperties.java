@@ -24,6 +24,8 @@ import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SQL_PARSER_CACHE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
@@ -48,10 +50,12 @@ public class RmProperties {
     private String sagaJsonParser = DEFAULT_SAGA_JSON_PARSER;
     private boolean sagaRetryPersistModeUpdate = DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
     private boolean sagaCompensatePersistModeUpdate = DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
+    private boolean sagaStateLogWriteBehind = DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND;
     private int tccActionInterceptorOrder = TCC_ACTION_INTERCEPTOR_ORDER;
     private int branchExecutionTimeoutXA = DEFAULT_XA_BRANCH_EXECUTION_TIMEOUT;
     private int connectionTwoPhaseHoldTimeoutXA = DEFAULT_XA_CONNECTION_TWO_PHASE_HOLD_TIMEOUT;
     private String sqlParserType = SqlParserType.SQL_PARSER_TYPE_DRUID;
+    private long sqlParserCacheSize = DEFAULT_CLIENT_SQL_PARSER_CACHE_SIZE;
 
     public int getAsyncCommitBufferLimit() {
         return asyncCommitBufferLimit;
@@ -130,6 +134,14 @@ public class RmProperties {
         this.sagaCompensatePersistModeUpdate = sagaCompensatePersistModeUpdate;
     }
 
+    public boolean isSagaStateLogWriteBehind() {
+        return sagaStateLogWriteBehind;
+    }
+
+    public void setSagaStateLogWriteBehind(boolean sagaStateLogWriteBehind) {
+        this.sagaStateLogWriteBehind = sagaStateLogWriteBehind;
+    }
+
     public int getTccActionInterceptorOrder() {
         return tccActionInterceptorOrder;
     }
@@ -148,6 +160,15 @@ public class RmProperties {
         return this;
     }
 
+    public long getSqlParserCacheSize() {
+        return sqlParserCacheSize;
+    }
+
+    public RmProperties setSqlParserCacheSize(long sqlParserCacheSize) {
+        this.sqlParserCacheSize = sqlParserCacheSize;
+        return this;
+    }
+
     public int getBranchExecutionTimeoutXA() {
         return branchExecutionTimeoutXA;
     }
@@ -19,6 +19,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import static io.seata.common.DefaultValues.DEFAULT_ONLY_CARE_UPDATE_COLUMNS;
+import static io.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_DATA_VALIDATION;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSACTION_UNDO_LOG_TABLE;
@@ -34,6 +35,7 @@ public class UndoProperties {
     private String logSerialization = DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION;
     private String logTable = DEFAULT_TRANSACTION_UNDO_LOG_TABLE;
     private boolean onlyCareUpdateColumns = DEFAULT_ONLY_CARE_UPDATE_COLUMNS;
+    private boolean computeAfterImage = DEFAULT_TRANSACTION_UNDO_COMPUTE_AFTER_IMAGE;
 
     public boolean isDataValidation() {
         return dataValidation;
@@ -70,4 +72,13 @@ public class UndoProperties {
         this.onlyCareUpdateColumns = onlyCareUpdateColumns;
         return this;
     }
+
+    public boolean isComputeAfterImage() {
+        return computeAfterImage;
+    }
+
+    public UndoProperties setComputeAfterImage(boolean computeAfterImage) {
+        this.computeAfterImage = computeAfterImage;
+        return this;
+    }
 }
@@ -78,6 +78,8 @@ public class ClientPropertiesTest {
         assertEquals(60000L,context.getBean(RmProperties.class).getTableMetaCheckerInterval());
         assertFalse(context.getBean(RmProperties.class).isSagaRetryPersistModeUpdate());
         assertFalse(context.getBean(RmProperties.class).isSagaCompensatePersistModeUpdate());
+        assertFalse(context.getBean(RmProperties.class).isSagaStateLogWriteBehind());
+        assertEquals(262144L, context.getBean(RmProperties.class).getSqlParserCacheSize());
     }
 
     @Test
@@ -104,6 +106,7 @@ public class ClientPropertiesTest {
         assertTrue(context.getBean(UndoProperties.class).isDataValidation());
         assertEquals("jackson", context.getBean(UndoProperties.class).getLogSerialization());
         assertEquals(DEFAULT_TRANSACTION_UNDO_LOG_TABLE, context.getBean(UndoProperties.class).getLogTable());
+        assertFalse(context.getBean(UndoProperties.class).isComputeAfterImage());
     }
 
     @Test
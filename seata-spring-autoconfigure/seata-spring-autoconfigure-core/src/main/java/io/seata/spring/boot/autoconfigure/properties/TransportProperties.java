@@ -18,6 +18,9 @@ package io.seata.spring.boot.autoconfigure.properties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_LINGER_MICROS;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_BATCH_SEND_QUEUE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST;
 import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
@@ -25,6 +28,7 @@ import static io.seata.common.DefaultValues.DEFAULT_ENABLE_TM_CLIENT_BATCH_SEND_
 import static io.seata.common.DefaultValues.DEFAULT_RPC_RM_REQUEST_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TC_REQUEST_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_RPC_TM_REQUEST_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_ADMISSION_QUEUE_TIMEOUT;
 import static io.seata.common.DefaultValues.DEFAULT_TRANSPORT_HEARTBEAT;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.TRANSPORT_PREFIX;
 
@@ -70,11 +74,31 @@ public class TransportProperties {
      */
     private boolean enableRmClientBatchSendRequest = DEFAULT_ENABLE_RM_CLIENT_BATCH_SEND_REQUEST;
 
+    /**
+     * the capacity of the batch send queue of a server address
+     */
+    private int clientBatchSendQueueSize = DEFAULT_CLIENT_BATCH_SEND_QUEUE_SIZE;
+
+    /**
+     * the max number of requests merged into one batch
+     */
+    private int clientBatchSendMaxSize = DEFAULT_CLIENT_BATCH_SEND_MAX_SIZE;
+
+    /**
+     * the time a batch waits to fill up before it is sent
+     */
+    private long clientBatchSendLingerMicros = DEFAULT_CLIENT_BATCH_SEND_LINGER_MICROS;
+
     /**
      * enable TC server batch send response
      */
     private boolean enableTcServerBatchSendResponse = DEFAULT_ENABLE_TC_SERVER_BATCH_SEND_RESPONSE;
 
+    /**
+     * the max time a request waits in the queue of the TC before it is answered with a retryable failure, 0 to disable
+     */
+    private long serverAdmissionQueueTimeout = DEFAULT_SERVER_ADMISSION_QUEUE_TIMEOUT;
+
     /**
      * rpcRmRequestTimeout
      */
@@ -163,6 +187,33 @@ public class TransportProperties {
         return this;
     }
 
+    public int getClientBatchSendQueueSize() {
+        return clientBatchSendQueueSize;
+    }
+
+    public TransportProperties setClientBatchSendQueueSize(int clientBatchSendQueueSize) {
+        this.clientBatchSendQueueSize = clientBatchSendQueueSize;
+        return this;
+    }
+
+    public int getClientBatchSendMaxSize() {
+        return clientBatchSendMaxSize;
+    }
+
+    public TransportProperties setClientBatchSendMaxSize(int clientBatchSendMaxSize) {
+        this.clientBatchSendMaxSize = clientBatchSendMaxSize;
+        return this;
+    }
+
+    public long getClientBatchSendLingerMicros() {
+        return clientBatchSendLingerMicros;
+    }
+
+    public TransportProperties setClientBatchSendLingerMicros(long clientBatchSendLingerMicros) {
+        this.clientBatchSendLingerMicros = clientBatchSendLingerMicros;
+        return this;
+    }
+
     public boolean isEnableTcServerBatchSendResponse() {
         return enableTcServerBatchSendResponse;
     }
@@ -171,6 +222,15 @@ public class TransportProperties {
         this.enableTcServerBatchSendResponse = enableTcServerBatchSendResponse;
     }
 
+    public long getServerAdmissionQueueTimeout() {
+        return serverAdmissionQueueTimeout;
+    }
+
+    public TransportProperties setServerAdmissionQueueTimeout(long serverAdmissionQueueTimeout) {
+        this.serverAdmissionQueueTimeout = serverAdmissionQueueTimeout;
+        return this;
+    }
+
     public long getRpcRmRequestTimeout() {
         return rpcRmRequestTimeout;
     }
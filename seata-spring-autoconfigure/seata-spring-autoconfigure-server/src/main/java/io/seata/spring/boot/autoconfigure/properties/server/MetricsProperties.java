@@ -18,6 +18,8 @@ package io.seata.spring.boot.autoconfigure.properties.server;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_METRICS_HISTOGRAM_PERCENTILES;
+import static io.seata.common.DefaultValues.DEFAULT_METRICS_HISTOGRAM_PRECISION;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.METRICS_PREFIX;
 
 /**
@@ -30,6 +32,8 @@ public class MetricsProperties {
     private String registryType = "compact";
     private String exporterList = "prometheus";
     private Integer exporterPrometheusPort = 9898;
+    private Integer histogramPrecision = DEFAULT_METRICS_HISTOGRAM_PRECISION;
+    private String histogramPercentiles = DEFAULT_METRICS_HISTOGRAM_PERCENTILES;
 
 
     public Boolean getEnabled() {
@@ -67,4 +71,22 @@ public class MetricsProperties {
         this.exporterPrometheusPort = exporterPrometheusPort;
         return this;
     }
+
+    public Integer getHistogramPrecision() {
+        return histogramPrecision;
+    }
+
+    public MetricsProperties setHistogramPrecision(Integer histogramPrecision) {
+        this.histogramPrecision = histogramPrecision;
+        return this;
+    }
+
+    public String getHistogramPercentiles() {
+        return histogramPercentiles;
+    }
+
+    public MetricsProperties setHistogramPercentiles(String histogramPercentiles) {
+        this.histogramPercentiles = histogramPercentiles;
+        return this;
+    }
 }
@@ -37,6 +37,8 @@ public class ServerProperties {
     private Integer retryDeadThreshold = 130000;
     private Integer servicePort;
     private Integer xaerNotaRetryTimeout = 60000;
+    private Boolean enableParallelBranchDispatch = false;
+    private Long parallelBranchDispatchTimeout = 30000L;
 
     public Duration getMaxCommitRetryTimeout() {
         return maxCommitRetryTimeout;
@@ -107,4 +109,20 @@ public class ServerProperties {
     public void setEnableParallelRequestHandle(Boolean enableParallelRequestHandle) {
         this.enableParallelRequestHandle = enableParallelRequestHandle;
     }
+
+    public Boolean getEnableParallelBranchDispatch() {
+        return enableParallelBranchDispatch;
+    }
+
+    public void setEnableParallelBranchDispatch(Boolean enableParallelBranchDispatch) {
+        this.enableParallelBranchDispatch = enableParallelBranchDispatch;
+    }
+
+    public Long getParallelBranchDispatchTimeout() {
+        return parallelBranchDispatchTimeout;
+    }
+
+    public void setParallelBranchDispatchTimeout(Long parallelBranchDispatchTimeout) {
+        this.parallelBranchDispatchTimeout = parallelBranchDispatchTimeout;
+    }
 }
@@ -18,6 +18,11 @@ package io.seata.spring.boot.autoconfigure.properties.server;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_RECOVERY_SHARDED_SCHEDULE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_MAX_CONCURRENCY_PER_RESOURCE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_THREADS;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.SERVER_RECOVERY_PREFIX;
 
 /**
@@ -29,6 +34,18 @@ public class ServerRecoveryProperties {
 
     private Integer handleAllSessionPeriod = 1000;
 
+    private Long timeoutScanPeriod = 60000L;
+
+    private Boolean enableShardedSchedule = DEFAULT_ENABLE_RECOVERY_SHARDED_SCHEDULE;
+
+    private Integer shardCount = DEFAULT_RECOVERY_SHARD_COUNT;
+
+    private Integer shardThreads = DEFAULT_RECOVERY_SHARD_THREADS;
+
+    private Integer shardQueueSize = DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+
+    private Integer maxConcurrencyPerResource = DEFAULT_RECOVERY_MAX_CONCURRENCY_PER_RESOURCE;
+
     public Integer getHandleAllSessionPeriod() {
         return handleAllSessionPeriod;
     }
@@ -38,4 +55,58 @@ public class ServerRecoveryProperties {
         return this;
     }
 
+    public Long getTimeoutScanPeriod() {
+        return timeoutScanPeriod;
+    }
+
+    public ServerRecoveryProperties setTimeoutScanPeriod(Long timeoutScanPeriod) {
+        this.timeoutScanPeriod = timeoutScanPeriod;
+        return this;
+    }
+
+    public Boolean getEnableShardedSchedule() {
+        return enableShardedSchedule;
+    }
+
+    public ServerRecoveryProperties setEnableShardedSchedule(Boolean enableShardedSchedule) {
+        this.enableShardedSchedule = enableShardedSchedule;
+        return this;
+    }
+
+    public Integer getShardCount() {
+        return shardCount;
+    }
+
+    public ServerRecoveryProperties setShardCount(Integer shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public Integer getShardThreads() {
+        return shardThreads;
+    }
+
+    public ServerRecoveryProperties setShardThreads(Integer shardThreads) {
+        this.shardThreads = shardThreads;
+        return this;
+    }
+
+    public Integer getShardQueueSize() {
+        return shardQueueSize;
+    }
+
+    public ServerRecoveryProperties setShardQueueSize(Integer shardQueueSize) {
+        this.shardQueueSize = shardQueueSize;
+        return this;
+    }
+
+    public Integer getMaxConcurrencyPerResource() {
+        return maxConcurrencyPerResource;
+    }
+
+    public ServerRecoveryProperties setMaxConcurrencyPerResource(Integer maxConcurrencyPerResource) {
+        this.maxConcurrencyPerResource = maxConcurrencyPerResource;
+        return this;
+    }
+
 }
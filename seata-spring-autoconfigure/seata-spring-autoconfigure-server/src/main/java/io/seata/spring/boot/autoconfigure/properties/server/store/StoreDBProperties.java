@@ -40,6 +40,8 @@ public class StoreDBProperties {
     private String distributedLockTable = "distributed_lock";
     private Integer queryLimit = 100;
     private Integer maxWait = 5000;
+    private Integer lockBatchInsertSize = 1;
+    private String lockConflictDetectMode = "query";
 
     public String getDatasource() {
         return datasource;
@@ -165,4 +167,22 @@ public class StoreDBProperties {
         this.maxWait = maxWait;
         return this;
     }
+
+    public Integer getLockBatchInsertSize() {
+        return lockBatchInsertSize;
+    }
+
+    public StoreDBProperties setLockBatchInsertSize(Integer lockBatchInsertSize) {
+        this.lockBatchInsertSize = lockBatchInsertSize;
+        return this;
+    }
+
+    public String getLockConflictDetectMode() {
+        return lockConflictDetectMode;
+    }
+
+    public StoreDBProperties setLockConflictDetectMode(String lockConflictDetectMode) {
+        this.lockConflictDetectMode = lockConflictDetectMode;
+        return this;
+    }
 }
@@ -32,6 +32,11 @@ public class StoreFileProperties {
     private Integer fileWriteBufferCacheSize = 16384;
     private Integer sessionReloadReadSize = 100;
     private String flushDiskMode = "async";
+    private Boolean groupCommitEnabled = false;
+    private Integer groupCommitMaxBatchSize = 256;
+    private Long groupCommitLingerMicros = 0L;
+    private Boolean segmentedLogEnabled = false;
+    private Integer segmentSize = 67108864;
 
     public String getDir() {
         return dir;
@@ -86,4 +91,49 @@ public class StoreFileProperties {
         this.flushDiskMode = flushDiskMode;
         return this;
     }
+
+    public Boolean getGroupCommitEnabled() {
+        return groupCommitEnabled;
+    }
+
+    public StoreFileProperties setGroupCommitEnabled(Boolean groupCommitEnabled) {
+        this.groupCommitEnabled = groupCommitEnabled;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxBatchSize() {
+        return groupCommitMaxBatchSize;
+    }
+
+    public StoreFileProperties setGroupCommitMaxBatchSize(Integer groupCommitMaxBatchSize) {
+        this.groupCommitMaxBatchSize = groupCommitMaxBatchSize;
+        return this;
+    }
+
+    public Long getGroupCommitLingerMicros() {
+        return groupCommitLingerMicros;
+    }
+
+    public StoreFileProperties setGroupCommitLingerMicros(Long groupCommitLingerMicros) {
+        this.groupCommitLingerMicros = groupCommitLingerMicros;
+        return this;
+    }
+
+    public Boolean getSegmentedLogEnabled() {
+        return segmentedLogEnabled;
+    }
+
+    public StoreFileProperties setSegmentedLogEnabled(Boolean segmentedLogEnabled) {
+        this.segmentedLogEnabled = segmentedLogEnabled;
+        return this;
+    }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public StoreFileProperties setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
 }
@@ -18,6 +18,9 @@ package io.seata.serializer.hessian;
 import com.caucho.hessian.io.Hessian2Input;
 import com.caucho.hessian.io.Hessian2Output;
 import com.caucho.hessian.io.SerializerFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.seata.common.loader.LoadLevel;
 import io.seata.core.serializer.Serializer;
 import org.slf4j.Logger;
@@ -51,6 +54,35 @@ public class HessianSerializer implements Serializer {
         return stream;
     }
 
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
+        SerializerFactory hessian = HessianSerializerFactory.getInstance();
+        int writerIndex = out.writerIndex();
+        try {
+            com.caucho.hessian.io.Serializer serializer = hessian.getSerializer(t.getClass());
+            Hessian2Output output = new Hessian2Output(new ByteBufOutputStream(out));
+            serializer.writeObject(t, output);
+            output.close();
+        } catch (IOException e) {
+            out.writerIndex(writerIndex);
+            LOGGER.error("Hessian encode error:{}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, int length) {
+        T obj = null;
+        ByteBuf body = in.readSlice(length);
+        try (ByteBufInputStream is = new ByteBufInputStream(body)) {
+            Hessian2Input input = new Hessian2Input(is);
+            obj = (T) input.readObject();
+            input.close();
+        } catch (IOException e) {
+            LOGGER.error("Hessian decode error:{}", e.getMessage(), e);
+        }
+        return obj;
+    }
+
     @Override
     public <T> T deserialize(byte[] bytes) {
         T obj = null;
@@ -18,6 +18,9 @@ package io.seata.serializer.kryo;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -28,6 +31,15 @@ import java.util.Objects;
  */
 public class KryoInnerSerializer {
 
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * the buffers reused by the ByteBuf path, the codecs run on the few netty io threads
+     */
+    private static final ThreadLocal<Output> BUFFER_OUTPUT = ThreadLocal.withInitial(() -> new Output(BUFFER_SIZE, -1));
+
+    private static final ThreadLocal<Input> BUFFER_INPUT = ThreadLocal.withInitial(() -> new Input(BUFFER_SIZE));
+
     private final Kryo kryo;
 
     public KryoInnerSerializer(Kryo kryo) {
@@ -46,6 +58,27 @@ public class KryoInnerSerializer {
         return baos.toByteArray();
     }
 
+    public <T> void serialize(T t, ByteBuf out) {
+        Output output = BUFFER_OUTPUT.get();
+        output.setOutputStream(new ByteBufOutputStream(out));
+        try {
+            kryo.writeClassAndObject(output, t);
+            output.flush();
+        } finally {
+            output.setOutputStream(null);
+        }
+    }
+
+    public <T> T deserialize(ByteBuf in) {
+        Input input = BUFFER_INPUT.get();
+        input.setInputStream(new ByteBufInputStream(in));
+        try {
+            return (T) kryo.readClassAndObject(input);
+        } finally {
+            input.setInputStream(null);
+        }
+    }
+
     public <T> T deserialize(byte[] bytes) {
         ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
         Input input = new Input(bais);
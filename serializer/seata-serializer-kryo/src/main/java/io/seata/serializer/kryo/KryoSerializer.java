@@ -15,6 +15,7 @@
  */
 package io.seata.serializer.kryo;
 
+import io.netty.buffer.ByteBuf;
 import io.seata.common.loader.LoadLevel;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.protocol.AbstractMessage;
@@ -38,6 +39,32 @@ public class KryoSerializer implements Serializer {
         }
     }
 
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
+        if (!(t instanceof AbstractMessage)) {
+            throw new IllegalArgumentException("message is illegal");
+        }
+        KryoInnerSerializer kryoSerializer = KryoSerializerFactory.getInstance().get();
+        try {
+            kryoSerializer.serialize(t, out);
+        } finally {
+            KryoSerializerFactory.getInstance().returnKryo(kryoSerializer);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("bytes is null");
+        }
+        KryoInnerSerializer kryoSerializer = KryoSerializerFactory.getInstance().get();
+        try {
+            return kryoSerializer.deserialize(in.readSlice(length));
+        } finally {
+            KryoSerializerFactory.getInstance().returnKryo(kryoSerializer);
+        }
+    }
+
     @Override
     public <T> T deserialize(byte[] bytes) {
         if (bytes == null || bytes.length == 0) {
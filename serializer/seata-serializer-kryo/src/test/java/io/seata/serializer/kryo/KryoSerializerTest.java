@@ -15,6 +15,8 @@
  */
 package io.seata.serializer.kryo;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
@@ -82,4 +84,27 @@ public class KryoSerializerTest {
 
     }
 
+
+    @Test
+    public void testBranchCommitRequestByteBuf() {
+
+        BranchCommitRequest branchCommitRequest = new BranchCommitRequest();
+        branchCommitRequest.setBranchType(BranchType.AT);
+        branchCommitRequest.setXid("xid");
+        branchCommitRequest.setResourceId("resourceId");
+        branchCommitRequest.setBranchId(20190809);
+        branchCommitRequest.setApplicationData("app");
+
+        ByteBuf out = Unpooled.buffer();
+        kryoCodec.serialize(branchCommitRequest, out);
+        out.writeByte(1);
+        BranchCommitRequest t = kryoCodec.deserialize(out, out.readableBytes() - 1);
+
+        assertThat(out.readableBytes()).isEqualTo(1);
+        assertThat(t.getBranchType()).isEqualTo(branchCommitRequest.getBranchType());
+        assertThat(t.getXid()).isEqualTo(branchCommitRequest.getXid());
+        assertThat(t.getResourceId()).isEqualTo(branchCommitRequest.getResourceId());
+        assertThat(t.getBranchId()).isEqualTo(branchCommitRequest.getBranchId());
+        assertThat(t.getApplicationData()).isEqualTo(branchCommitRequest.getApplicationData());
+    }
 }
@@ -59,6 +59,40 @@ public class SeataSerializer implements Serializer {
         return content;
     }
 
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
+        if (t == null || !(t instanceof AbstractMessage)) {
+            throw new IllegalArgumentException("AbstractMessage isn't available.");
+        }
+        AbstractMessage abstractMessage = (AbstractMessage)t;
+        //typecode
+        short typecode = abstractMessage.getTypeCode();
+        //msg codec
+        MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
+        //typecode + body
+        out.writeShort(typecode);
+        messageCodec.encode(t, out);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, int length) {
+        if (length < 2) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        //typecode
+        short typecode = in.readShort();
+        //msg body, a view of the buffer without copy
+        ByteBuffer body = in.nioBuffer(in.readerIndex(), length - 2);
+        in.skipBytes(length - 2);
+        //new Messgae
+        AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
+        //get messageCodec
+        MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
+        //decode
+        messageCodec.decode(abstractMessage, body);
+        return (T)abstractMessage;
+    }
+
     @Override
     public <T> T deserialize(byte[] bytes) {
         if (bytes == null || bytes.length == 0) {
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.nio.ByteBuffer;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.LockReleaseNotifyRequest;
+
+/**
+ * The type Lock release notify request codec.
+ */
+public class LockReleaseNotifyRequestCodec extends AbstractTransactionRequestToRMCodec {
+
+    @Override
+    public Class<?> getMessageClassType() {
+        return LockReleaseNotifyRequest.class;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        LockReleaseNotifyRequest lockReleaseNotifyRequest = (LockReleaseNotifyRequest)t;
+        BranchType branchType = lockReleaseNotifyRequest.getBranchType();
+
+        // 1. Branch Type
+        out.writeByte((byte)branchType.ordinal());
+
+        // 2. Xid
+        writeString(lockReleaseNotifyRequest.getXid(), out);
+
+        // 3. Resource Id
+        writeString(lockReleaseNotifyRequest.getResourceId(), out);
+    }
+
+    private void writeString(String value, ByteBuf out) {
+        if (value != null) {
+            byte[] bs = value.getBytes(UTF8);
+            out.writeShort((short)bs.length);
+            if (bs.length > 0) {
+                out.writeBytes(bs);
+            }
+        } else {
+            out.writeShort((short)0);
+        }
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuffer in) {
+        LockReleaseNotifyRequest lockReleaseNotifyRequest = (LockReleaseNotifyRequest)t;
+
+        if (in.remaining() < 1) {
+            return;
+        }
+        lockReleaseNotifyRequest.setBranchType(BranchType.get(in.get()));
+
+        lockReleaseNotifyRequest.setXid(readString(in));
+        lockReleaseNotifyRequest.setResourceId(readString(in));
+    }
+
+    private String readString(ByteBuffer in) {
+        if (in.remaining() < 2) {
+            return null;
+        }
+        int len = in.getShort();
+        if (len <= 0 || in.remaining() < len) {
+            return null;
+        }
+        byte[] bs = new byte[len];
+        in.get(bs);
+        return new String(bs, UTF8);
+    }
+
+}
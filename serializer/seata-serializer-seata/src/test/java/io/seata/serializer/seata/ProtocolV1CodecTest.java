@@ -0,0 +1,66 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.SerializerType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Protocol v1 codec test.
+ */
+public class ProtocolV1CodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid("127.0.0.1:8091:2000042948");
+        request.setBranchType(BranchType.AT);
+        request.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+        request.setLockKey("t_order:1,2");
+
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(7);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+        rpcMessage.setCodec(SerializerType.SEATA.getCode());
+        rpcMessage.setCompressor(CompressorType.NONE.getCode());
+        rpcMessage.getHeadMap().put("k", "v");
+        rpcMessage.setBody(request);
+
+        ByteBuf frame = Unpooled.buffer();
+        new ProtocolV1Encoder().encode(null, rpcMessage, frame);
+        assertThat(frame.getInt(3)).isEqualTo(frame.readableBytes());
+
+        RpcMessage decoded = (RpcMessage)new ProtocolV1Decoder().decodeFrame(frame);
+        assertThat(frame.readableBytes()).isZero();
+        assertThat(decoded.getId()).isEqualTo(7);
+        assertThat(decoded.getHeadMap()).containsEntry("k", "v");
+        BranchRegisterRequest body = (BranchRegisterRequest)decoded.getBody();
+        assertThat(body.getXid()).isEqualTo(request.getXid());
+        assertThat(body.getResourceId()).isEqualTo(request.getResourceId());
+        assertThat(body.getLockKey()).isEqualTo(request.getLockKey());
+    }
+}
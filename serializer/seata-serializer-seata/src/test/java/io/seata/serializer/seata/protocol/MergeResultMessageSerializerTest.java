@@ -15,12 +15,17 @@
  */
 package io.seata.serializer.seata.protocol;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.seata.serializer.seata.SeataSerializer;
 import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.GlobalBeginResponse;
+import io.seata.core.protocol.transaction.GlobalCommitResponse;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -72,6 +77,38 @@ public class MergeResultMessageSerializerTest {
 
     }
 
+    /**
+     * Test codec of several messages into a buffer already holding the frame head.
+     */
+    @Test
+    public void test_codecAfterFrameHead() {
+        BranchRegisterResponse branchRegisterResponse = new BranchRegisterResponse();
+        branchRegisterResponse.setBranchId(12345L);
+        branchRegisterResponse.setResultCode(ResultCode.Success);
+        GlobalCommitResponse globalCommitResponse = new GlobalCommitResponse();
+        globalCommitResponse.setGlobalStatus(GlobalStatus.Committed);
+        globalCommitResponse.setResultCode(ResultCode.Success);
+        MergeResultMessage mergeResultMessage = new MergeResultMessage();
+        mergeResultMessage.setMsgs(new AbstractResultMessage[] {buildGlobalBeginResponse("a1"),
+            branchRegisterResponse, globalCommitResponse, buildGlobalBeginResponse("a2")});
+
+        ByteBuf buffer = Unpooled.buffer();
+        buffer.writeBytes(new byte[16]);
+        seataSerializer.serialize(mergeResultMessage, buffer);
+        buffer.skipBytes(16);
+
+        MergeResultMessage mergeResultMessage2 = seataSerializer.deserialize(buffer, buffer.readableBytes());
+        assertThat(mergeResultMessage2.msgs.length).isEqualTo(4);
+        assertThat(((GlobalBeginResponse) mergeResultMessage2.msgs[0]).getXid()).isEqualTo("a1");
+        assertThat(((BranchRegisterResponse) mergeResultMessage2.msgs[1]).getBranchId()).isEqualTo(12345L);
+        assertThat(((GlobalCommitResponse) mergeResultMessage2.msgs[2]).getGlobalStatus())
+            .isEqualTo(GlobalStatus.Committed);
+        GlobalBeginResponse globalBeginResponse = (GlobalBeginResponse) mergeResultMessage2.msgs[3];
+        assertThat(globalBeginResponse.getXid()).isEqualTo("a2");
+        assertThat(globalBeginResponse.getResultCode()).isEqualTo(ResultCode.Failed);
+        assertThat(globalBeginResponse.getMsg()).isEqualTo("success");
+    }
+
     private GlobalBeginResponse buildGlobalBeginResponse(String xid) {
         final GlobalBeginResponse globalBeginResponse = new GlobalBeginResponse();
         globalBeginResponse.setXid(xid);
@@ -0,0 +1,54 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import io.seata.serializer.seata.SeataSerializer;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.transaction.LockReleaseNotifyRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Lock release notify request codec test.
+ */
+public class LockReleaseNotifyRequestSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * Test codec.
+     */
+    @Test
+    public void test_codec() {
+        LockReleaseNotifyRequest notifyRequest1 = new LockReleaseNotifyRequest();
+        notifyRequest1.setBranchType(BranchType.AT);
+        notifyRequest1.setXid("127.0.0.1:8091:2000042948");
+        notifyRequest1.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+
+        byte[] bytes = seataSerializer.serialize(notifyRequest1);
+
+        LockReleaseNotifyRequest notifyRequest2 = seataSerializer.deserialize(bytes);
+
+        assertThat(notifyRequest2.getBranchType()).isEqualTo(notifyRequest1.getBranchType());
+        assertThat(notifyRequest2.getXid()).isEqualTo(notifyRequest1.getXid());
+        assertThat(notifyRequest2.getResourceId()).isEqualTo(notifyRequest1.getResourceId());
+    }
+
+}
@@ -15,18 +15,16 @@
  */
 package io.seata.server;
 
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import io.seata.common.XID;
-import io.seata.common.thread.NamedThreadFactory;
 import io.seata.common.util.NetUtil;
 import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.rpc.netty.NettyRemotingServer;
 import io.seata.core.rpc.netty.NettyServerConfig;
+import io.seata.core.rpc.netty.ServerMessageExecutor;
 import io.seata.server.coordinator.DefaultCoordinator;
 import io.seata.server.lock.LockerManagerFactory;
 import io.seata.server.metrics.MetricsManager;
@@ -62,12 +60,14 @@ public class Server {
 
         System.setProperty(ConfigurationKeys.STORE_MODE, parameterParser.getStoreMode());
 
-        ThreadPoolExecutor workingThreads = new ThreadPoolExecutor(NettyServerConfig.getMinServerPoolSize(),
-                NettyServerConfig.getMaxServerPoolSize(), NettyServerConfig.getKeepAliveTime(), TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(NettyServerConfig.getMaxTaskQueueSize()),
-                new NamedThreadFactory("ServerHandlerThread", NettyServerConfig.getMaxServerPoolSize()), new ThreadPoolExecutor.CallerRunsPolicy());
+        ThreadPoolExecutor workingThreads = new ServerMessageExecutor("ServerHandlerThread",
+                NettyServerConfig.getMinServerPoolSize(), NettyServerConfig.getMaxServerPoolSize(),
+                NettyServerConfig.getKeepAliveTime(), NettyServerConfig.getMaxTaskQueueSize(),
+                NettyServerConfig.getServerAdmissionQueueTimeout());
 
         NettyRemotingServer nettyRemotingServer = new NettyRemotingServer(workingThreads);
+        MetricsManager.get().registerRemoting(nettyRemotingServer);
+        nettyRemotingServer.getServerMessageExecutors().forEach(MetricsManager.get()::registerExecutor);
         UUIDGenerator.init(parameterParser.getServerNode());
         //log store mode : file, db, redis
         SessionHolder.init(parameterParser.getSessionStoreMode());
@@ -16,6 +16,8 @@
 package io.seata.server.coordinator;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 import io.seata.core.context.RootContext;
@@ -156,17 +158,10 @@ public abstract class AbstractCore implements Core {
     @Override
     public BranchStatus branchCommit(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchCommitRequest request = new BranchCommitRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
+            BranchCommitRequest request = buildBranchCommitRequest(branchSession);
             return branchCommitSend(request, globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
-            throw new BranchTransactionException(FailedToSendBranchCommitRequest,
-                    String.format("Send branch commit failed, xid = %s branchId = %s", branchSession.getXid(),
-                            branchSession.getBranchId()), e);
+            throw newSendFailure(FailedToSendBranchCommitRequest, "commit", branchSession, e);
         }
     }
 
@@ -180,17 +175,10 @@ public abstract class AbstractCore implements Core {
     @Override
     public BranchStatus branchRollback(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
         try {
-            BranchRollbackRequest request = new BranchRollbackRequest();
-            request.setXid(branchSession.getXid());
-            request.setBranchId(branchSession.getBranchId());
-            request.setResourceId(branchSession.getResourceId());
-            request.setApplicationData(branchSession.getApplicationData());
-            request.setBranchType(branchSession.getBranchType());
+            BranchRollbackRequest request = buildBranchRollbackRequest(branchSession);
             return branchRollbackSend(request, globalSession, branchSession);
         } catch (IOException | TimeoutException e) {
-            throw new BranchTransactionException(FailedToSendBranchRollbackRequest,
-                    String.format("Send branch rollback failed, xid = %s branchId = %s",
-                            branchSession.getXid(), branchSession.getBranchId()), e);
+            throw newSendFailure(FailedToSendBranchRollbackRequest, "rollback", branchSession, e);
         }
     }
 
@@ -201,6 +189,82 @@ public abstract class AbstractCore implements Core {
         return response.getBranchStatus();
     }
 
+    /**
+     * Send the branch commit request without waiting for the response.
+     * A failure to send completes the future the same way {@link #branchCommit} throws it.
+     *
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    public CompletableFuture<BranchStatus> branchCommitAsync(BranchSession branchSession) {
+        BranchCommitRequest request = buildBranchCommitRequest(branchSession);
+        return branchCommitSendAsync(request, branchSession).exceptionally(e -> {
+            throw asSendFailure(FailedToSendBranchCommitRequest, "commit", branchSession, e);
+        });
+    }
+
+    protected CompletableFuture<BranchStatus> branchCommitSendAsync(BranchCommitRequest request,
+                                                                    BranchSession branchSession) {
+        return remotingServer.sendAsyncRequest(branchSession.getResourceId(), branchSession.getClientId(), request)
+            .thenApply(response -> ((BranchCommitResponse) response).getBranchStatus());
+    }
+
+    /**
+     * Send the branch rollback request without waiting for the response.
+     * A failure to send completes the future the same way {@link #branchRollback} throws it.
+     *
+     * @param branchSession the branch session
+     * @return the future of the branch status
+     */
+    public CompletableFuture<BranchStatus> branchRollbackAsync(BranchSession branchSession) {
+        BranchRollbackRequest request = buildBranchRollbackRequest(branchSession);
+        return branchRollbackSendAsync(request, branchSession).exceptionally(e -> {
+            throw asSendFailure(FailedToSendBranchRollbackRequest, "rollback", branchSession, e);
+        });
+    }
+
+    protected CompletableFuture<BranchStatus> branchRollbackSendAsync(BranchRollbackRequest request,
+                                                                      BranchSession branchSession) {
+        return remotingServer.sendAsyncRequest(branchSession.getResourceId(), branchSession.getClientId(), request)
+            .thenApply(response -> ((BranchRollbackResponse) response).getBranchStatus());
+    }
+
+    private static CompletionException asSendFailure(TransactionExceptionCode code, String action,
+                                                     BranchSession branchSession, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure;
+        if (cause instanceof IOException || cause instanceof TimeoutException) {
+            return new CompletionException(newSendFailure(code, action, branchSession, cause));
+        }
+        return failure instanceof CompletionException ? (CompletionException)failure : new CompletionException(cause);
+    }
+
+    private static BranchTransactionException newSendFailure(TransactionExceptionCode code, String action,
+                                                             BranchSession branchSession, Throwable cause) {
+        return new BranchTransactionException(code, String.format("Send branch %s failed, xid = %s branchId = %s",
+            action, branchSession.getXid(), branchSession.getBranchId()), cause);
+    }
+
+    private BranchCommitRequest buildBranchCommitRequest(BranchSession branchSession) {
+        BranchCommitRequest request = new BranchCommitRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
+    private BranchRollbackRequest buildBranchRollbackRequest(BranchSession branchSession) {
+        BranchRollbackRequest request = new BranchRollbackRequest();
+        request.setXid(branchSession.getXid());
+        request.setBranchId(branchSession.getBranchId());
+        request.setResourceId(branchSession.getResourceId());
+        request.setApplicationData(branchSession.getApplicationData());
+        request.setBranchType(branchSession.getBranchType());
+        return request;
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
             throws TransactionException {
@@ -18,6 +18,7 @@ package io.seata.server.coordinator;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -52,6 +53,7 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.LockReleaseNotifyRequest;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 import io.seata.core.rpc.Disposable;
 import io.seata.core.rpc.RemotingServer;
@@ -60,9 +62,12 @@ import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.netty.ChannelManager;
 import io.seata.core.rpc.netty.NettyRemotingServer;
 import io.seata.server.AbstractTCInboundHandler;
+import io.seata.server.lock.LockWaitQueue;
+import io.seata.server.lock.LockerManagerFactory;
 import io.seata.server.metrics.MetricsPublisher;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
 import io.seata.server.session.SessionCondition;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
@@ -75,6 +80,12 @@ import static io.seata.common.Constants.RETRY_COMMITTING;
 import static io.seata.common.Constants.RETRY_ROLLBACKING;
 import static io.seata.common.Constants.TX_TIMEOUT_CHECK;
 import static io.seata.common.Constants.UNDOLOG_DELETE;
+import static io.seata.common.DefaultValues.DEFAULT_ENABLE_RECOVERY_SHARDED_SCHEDULE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_MAX_CONCURRENCY_PER_RESOURCE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_COUNT;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_QUEUE_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_THREADS;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_SCAN_PERIOD;
 
 /**
  * The type Default coordinator.
@@ -108,6 +119,12 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      */
     protected static final long TIMEOUT_RETRY_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD, 1000L);
 
+    /**
+     * The constant TIMEOUT_SCAN_PERIOD.
+     */
+    protected static final long TIMEOUT_SCAN_PERIOD = CONFIG.getLong(ConfigurationKeys.TIMEOUT_SCAN_PERIOD,
+        DEFAULT_TIMEOUT_SCAN_PERIOD);
+
     /**
      * The Transaction undo log delete period.
      */
@@ -140,6 +157,9 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private static final boolean ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE = ConfigurationFactory.getInstance().getBoolean(
             ConfigurationKeys.ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE, false);
 
+    private static final boolean ENABLE_RECOVERY_SHARDED_SCHEDULE = CONFIG.getBoolean(
+            ConfigurationKeys.ENABLE_RECOVERY_SHARDED_SCHEDULE, DEFAULT_ENABLE_RECOVERY_SHARDED_SCHEDULE);
+
     private final ScheduledThreadPoolExecutor retryRollbacking =
         new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(RETRY_ROLLBACKING, 1));
 
@@ -168,6 +188,12 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             ), new NamedThreadFactory("branchSessionRemove", BRANCH_ASYNC_POOL_SIZE),
             new ThreadPoolExecutor.CallerRunsPolicy());
 
+    private final PartitionedSessionScheduler retryRollbackingScheduler;
+
+    private final PartitionedSessionScheduler retryCommittingScheduler;
+
+    private final PartitionedSessionScheduler asyncCommittingScheduler;
+
     private RemotingServer remotingServer;
 
     private final DefaultCore core;
@@ -185,6 +211,24 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         }
         this.remotingServer = remotingServer;
         this.core = new DefaultCore(remotingServer);
+        if (ENABLE_RECOVERY_SHARDED_SCHEDULE) {
+            this.retryRollbackingScheduler = newSessionScheduler(RETRY_ROLLBACKING);
+            this.retryCommittingScheduler = newSessionScheduler(RETRY_COMMITTING);
+            this.asyncCommittingScheduler = newSessionScheduler(ASYNC_COMMITTING);
+        } else {
+            this.retryRollbackingScheduler = null;
+            this.retryCommittingScheduler = null;
+            this.asyncCommittingScheduler = null;
+        }
+    }
+
+    private static PartitionedSessionScheduler newSessionScheduler(String name) {
+        return new PartitionedSessionScheduler(name,
+            CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_COUNT, DEFAULT_RECOVERY_SHARD_COUNT),
+            CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_THREADS, DEFAULT_RECOVERY_SHARD_THREADS),
+            CONFIG.getInt(ConfigurationKeys.RECOVERY_SHARD_QUEUE_SIZE, DEFAULT_RECOVERY_SHARD_QUEUE_SIZE),
+            CONFIG.getInt(ConfigurationKeys.RECOVERY_MAX_CONCURRENCY_PER_RESOURCE,
+                DEFAULT_RECOVERY_MAX_CONCURRENCY_PER_RESOURCE));
     }
 
     public static DefaultCoordinator getInstance(RemotingServer remotingServer) {
@@ -296,9 +340,28 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     }
 
     /**
-     * Timeout check.
+     * Timeout check, only the global sessions whose deadline has passed in the timeout wheel are visited. It runs on
+     * every server without the distributed lock, a session is rolled back by the first server finding it still begun.
      */
     protected void timeoutCheck() {
+        List<GlobalSession> expiredGlobalSessions = SessionHolder.getTimeoutWheel().advance(System.currentTimeMillis());
+        if (CollectionUtils.isEmpty(expiredGlobalSessions)) {
+            return;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout check begin, size: {}", expiredGlobalSessions.size());
+        }
+        SessionHelper.forEach(expiredGlobalSessions, this::handleTimeout);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Global transaction timeout check end. ");
+        }
+    }
+
+    /**
+     * Timeout scan, the begun global sessions in the store are tracked by the timeout wheel, so that the sessions
+     * of a restart or begun on the other servers also time out.
+     */
+    protected void timeoutScan() {
         SessionCondition sessionCondition = new SessionCondition(GlobalStatus.Begin);
         sessionCondition.setLazyLoadBranch(true);
         Collection<GlobalSession> beginGlobalsessions =
@@ -306,42 +369,49 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (CollectionUtils.isEmpty(beginGlobalsessions)) {
             return;
         }
-        if (!beginGlobalsessions.isEmpty() && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check begin, size: {}", beginGlobalsessions.size());
+        for (GlobalSession globalSession : beginGlobalsessions) {
+            if (globalSession.getStatus() == GlobalStatus.Begin) {
+                SessionHolder.getTimeoutWheel().add(globalSession);
+            }
         }
-        SessionHelper.forEach(beginGlobalsessions, globalSession -> {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(
-                        globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
-                                + globalSession.getTimeout());
+    }
+
+    private void handleTimeout(GlobalSession expiredGlobalSession) throws TransactionException {
+        // the session may have ended on another server, read it again from the store
+        GlobalSession globalSession = SessionHolder.findGlobalSession(expiredGlobalSession.getXid(), false);
+        if (globalSession == null || globalSession.getStatus() != GlobalStatus.Begin) {
+            return;
+        }
+        if (!globalSession.isTimeout()) {
+            SessionHolder.getTimeoutWheel().add(globalSession);
+            return;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                    globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
+                            + globalSession.getTimeout());
+        }
+        SessionHolder.lockAndExecute(globalSession, () -> {
+            if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
+                return false;
             }
-            SessionHolder.lockAndExecute(globalSession, () -> {
-                if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
-                    return false;
-                }
 
-                LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
+            LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                globalSession.close();
-                globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            globalSession.close();
+            globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
-                SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
+            SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
 
-                // transaction timeout and start rollbacking event
-                MetricsPublisher.postSessionDoingEvent(globalSession, GlobalStatus.TimeoutRollbacking.name(), false, false);
+            // transaction timeout and start rollbacking event
+            MetricsPublisher.postSessionDoingEvent(globalSession, GlobalStatus.TimeoutRollbacking.name(), false, false);
 
-                return true;
-            });
+            return true;
         });
-        if (!beginGlobalsessions.isEmpty() && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check end. ");
-        }
-
     }
 
-
     /**
      * Handle retry rollbacking.
      */
@@ -354,7 +424,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(rollbackingSessions, rollbackingSession -> {
+        forEach(retryRollbackingScheduler, rollbackingSessions, rollbackingSession -> {
             try {
                 // prevent repeated rollback
                 if (rollbackingSession.getStatus().equals(GlobalStatus.Rollbacking)
@@ -398,7 +468,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             return;
         }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(committingSessions, committingSession -> {
+        forEach(retryCommittingScheduler, committingSessions, committingSession -> {
             try {
                 // prevent repeated commit
                 if (committingSession.getStatus().equals(GlobalStatus.Committing)
@@ -435,7 +505,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
             return;
         }
-        SessionHelper.forEach(asyncCommittingSessions, asyncCommittingSession -> {
+        forEach(asyncCommittingScheduler, asyncCommittingSessions, asyncCommittingSession -> {
             try {
                 asyncCommittingSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
                 core.doGlobalCommit(asyncCommittingSession, true);
@@ -471,6 +541,45 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         }
     }
 
+    /**
+     * Notify the waiter that the row locks it waits for have been released.
+     *
+     * @param waiter the lock waiter
+     */
+    protected void notifyLockRelease(LockWaitQueue.LockWaiter waiter) {
+        Channel channel = ChannelManager.getChannel(waiter.getResourceId(), waiter.getClientId());
+        if (channel == null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("no active rm channel to notify lock release, xid = {}", waiter.getXid());
+            }
+            return;
+        }
+        LockReleaseNotifyRequest notifyRequest = new LockReleaseNotifyRequest();
+        notifyRequest.setXid(waiter.getXid());
+        notifyRequest.setResourceId(waiter.getResourceId());
+        try {
+            remotingServer.sendAsyncRequest(channel, notifyRequest);
+        } catch (Exception e) {
+            LOGGER.error("Failed to notify lock release xid = {}, exception: {}", waiter.getXid(), e.getMessage());
+        }
+    }
+
+    /**
+     * Handle the sessions by the partitioned scheduler if it is enabled, otherwise handle them in this round.
+     *
+     * @param scheduler the partitioned scheduler, null if disabled
+     * @param sessions  the global sessions
+     * @param handler   the handler
+     */
+    private void forEach(PartitionedSessionScheduler scheduler, Collection<GlobalSession> sessions,
+                         GlobalSessionHandler handler) {
+        if (scheduler != null) {
+            scheduler.dispatch(sessions, handler);
+        } else {
+            SessionHelper.forEach(sessions, handler);
+        }
+    }
+
     private boolean isRetryTimeout(long now, long timeout, long beginTime) {
         return timeout >= ALWAYS_RETRY_BOUNDARY && now - beginTime > timeout;
     }
@@ -492,12 +601,22 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
             ASYNC_COMMITTING_RETRY_PERIOD, TimeUnit.MILLISECONDS);
 
         timeoutCheck.scheduleAtFixedRate(
-            () -> SessionHolder.distributedLockAndExecute(TX_TIMEOUT_CHECK, this::timeoutCheck), 0,
-            TIMEOUT_RETRY_PERIOD, TimeUnit.MILLISECONDS);
+            () -> SessionHolder.distributedLockAndExecute(TX_TIMEOUT_CHECK, this::timeoutScan), 0,
+            TIMEOUT_SCAN_PERIOD, TimeUnit.MILLISECONDS);
+
+        timeoutCheck.scheduleAtFixedRate(() -> {
+            try {
+                timeoutCheck();
+            } catch (Exception e) {
+                LOGGER.error("Failed to check the global transaction timeout: {}", e.getMessage(), e);
+            }
+        }, 0, TIMEOUT_RETRY_PERIOD, TimeUnit.MILLISECONDS);
 
         undoLogDelete.scheduleAtFixedRate(
             () -> SessionHolder.distributedLockAndExecute(UNDOLOG_DELETE, this::undoLogDelete),
             UNDO_LOG_DELAY_DELETE_PERIOD, UNDO_LOG_DELETE_PERIOD, TimeUnit.MILLISECONDS);
+
+        LockerManagerFactory.getLockManager().getLockWaitQueue().setNotifier(this::notifyLockRelease);
     }
 
     @Override
@@ -528,6 +647,11 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         timeoutCheck.shutdown();
         undoLogDelete.shutdown();
         branchRemoveExecutor.shutdown();
+        if (ENABLE_RECOVERY_SHARDED_SCHEDULE) {
+            retryRollbackingScheduler.destroy();
+            retryCommittingScheduler.destroy();
+            asyncCommittingScheduler.destroy();
+        }
         try {
             retryRollbacking.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             retryCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
@@ -15,9 +15,14 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import io.seata.common.DefaultValues;
 import io.seata.common.exception.NotSupportYetException;
@@ -25,6 +30,7 @@ import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.util.CollectionUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.context.RootContext;
+import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.logger.StackTraceLogger;
 import io.seata.core.model.BranchStatus;
@@ -40,7 +46,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import static io.seata.core.constants.ConfigurationKeys.ENABLE_PARALLEL_BRANCH_DISPATCH;
+import static io.seata.core.constants.ConfigurationKeys.PARALLEL_BRANCH_DISPATCH_TIMEOUT;
 import static io.seata.core.constants.ConfigurationKeys.XAER_NOTA_RETRY_TIMEOUT;
+import static io.seata.core.exception.TransactionExceptionCode.FailedToSendBranchRollbackRequest;
 import static io.seata.server.session.BranchSessionHandler.CONTINUE;
 
 /**
@@ -55,6 +64,12 @@ public class DefaultCore implements Core {
     private static final int RETRY_XAER_NOTA_TIMEOUT = ConfigurationFactory.getInstance().getInt(XAER_NOTA_RETRY_TIMEOUT,
             DefaultValues.DEFAULT_XAER_NOTA_RETRY_TIMEOUT);
 
+    private static final boolean PARALLEL_BRANCH_DISPATCH = ConfigurationFactory.getInstance().getBoolean(
+            ENABLE_PARALLEL_BRANCH_DISPATCH, DefaultValues.DEFAULT_ENABLE_PARALLEL_BRANCH_DISPATCH);
+
+    private static final long PARALLEL_BRANCH_DISPATCH_TIMEOUT_MILLS = ConfigurationFactory.getInstance().getLong(
+            PARALLEL_BRANCH_DISPATCH_TIMEOUT, DefaultValues.DEFAULT_PARALLEL_BRANCH_DISPATCH_TIMEOUT);
+
     private static Map<BranchType, AbstractCore> coreMap = new ConcurrentHashMap<>();
 
     /**
@@ -189,7 +204,11 @@ public class DefaultCore implements Core {
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying);
         } else {
-            Boolean result = SessionHelper.forEach(globalSession.getSortedBranches(), branchSession -> {
+            List<BranchSession> branchSessions = globalSession.getSortedBranches();
+            Map<Long, CompletableFuture<BranchStatus>> dispatchedBranches =
+                PARALLEL_BRANCH_DISPATCH ? dispatchBranchCommit(globalSession, branchSessions, retrying) : null;
+            long deadline = System.currentTimeMillis() + PARALLEL_BRANCH_DISPATCH_TIMEOUT_MILLS;
+            Boolean result = SessionHelper.forEach(branchSessions, branchSession -> {
                 // if not retrying, skip the canBeCommittedAsync branches
                 if (!retrying && branchSession.canBeCommittedAsync()) {
                     return CONTINUE;
@@ -201,7 +220,9 @@ public class DefaultCore implements Core {
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+                    BranchStatus branchStatus = dispatchedBranches != null
+                        ? awaitBranchStatus(dispatchedBranches.get(branchSession.getBranchId()), deadline)
+                        : getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
                     if (isXaerNotaTimeout(globalSession,branchStatus)) {
                         LOGGER.info("Commit branch XAER_NOTA retry timeout, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
                         branchStatus = BranchStatus.PhaseTwo_Committed;
@@ -298,14 +319,20 @@ public class DefaultCore implements Core {
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying);
         } else {
-            Boolean result = SessionHelper.forEach(globalSession.getReverseSortedBranches(), branchSession -> {
+            List<BranchSession> branchSessions = globalSession.getReverseSortedBranches();
+            Map<Long, CompletableFuture<BranchStatus>> dispatchedBranches =
+                PARALLEL_BRANCH_DISPATCH ? dispatchBranchRollback(globalSession, branchSessions) : null;
+            long deadline = System.currentTimeMillis() + PARALLEL_BRANCH_DISPATCH_TIMEOUT_MILLS;
+            Boolean result = SessionHelper.forEach(branchSessions, branchSession -> {
                 BranchStatus currentBranchStatus = branchSession.getStatus();
                 if (currentBranchStatus == BranchStatus.PhaseOne_Failed) {
                     SessionHelper.removeBranch(globalSession, branchSession, !retrying);
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = branchRollback(globalSession, branchSession);
+                    BranchStatus branchStatus = dispatchedBranches != null
+                        ? awaitBranchStatus(dispatchedBranches.get(branchSession.getBranchId()), deadline)
+                        : branchRollback(globalSession, branchSession);
                     if (isXaerNotaTimeout(globalSession, branchStatus)) {
                         LOGGER.info("Rollback branch XAER_NOTA retry timeout, xid = {} branchId = {}", globalSession.getXid(), branchSession.getBranchId());
                         branchStatus = BranchStatus.PhaseTwo_Rollbacked;
@@ -379,6 +406,86 @@ public class DefaultCore implements Core {
         }
     }
 
+    /**
+     * Send the commit requests of all branches to be committed concurrently.
+     * The results are examined in the original order, so the status decision is the same as committing one by one.
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the sorted branch sessions
+     * @param retrying       the retrying
+     * @return the future of branch status by branch id
+     */
+    private Map<Long, CompletableFuture<BranchStatus>> dispatchBranchCommit(GlobalSession globalSession,
+                                                                           List<BranchSession> branchSessions,
+                                                                           boolean retrying) {
+        Map<Long, CompletableFuture<BranchStatus>> dispatchedBranches = new HashMap<>(branchSessions.size());
+        for (BranchSession branchSession : branchSessions) {
+            if ((!retrying && branchSession.canBeCommittedAsync())
+                || branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
+                continue;
+            }
+            dispatchedBranches.put(branchSession.getBranchId(),
+                dispatch(() -> getCore(branchSession.getBranchType()).branchCommitAsync(branchSession)));
+        }
+        return dispatchedBranches;
+    }
+
+    /**
+     * Send the rollback requests of all branches concurrently.
+     * The branches of the same resource are still rolled back one by one in the reverse order,
+     * because the undo of a later branch may be the precondition of the undo of an earlier one.
+     *
+     * @param globalSession  the global session
+     * @param branchSessions the reverse sorted branch sessions
+     * @return the future of branch status by branch id
+     */
+    private Map<Long, CompletableFuture<BranchStatus>> dispatchBranchRollback(GlobalSession globalSession,
+                                                                             List<BranchSession> branchSessions) {
+        Map<Long, CompletableFuture<BranchStatus>> dispatchedBranches = new HashMap<>(branchSessions.size());
+        Map<String, CompletableFuture<BranchStatus>> lastOfResource = new HashMap<>();
+        for (BranchSession branchSession : branchSessions) {
+            if (branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
+                continue;
+            }
+            Supplier<CompletableFuture<BranchStatus>> sender =
+                () -> getCore(branchSession.getBranchType()).branchRollbackAsync(branchSession);
+            CompletableFuture<BranchStatus> previous = lastOfResource.get(branchSession.getResourceId());
+            CompletableFuture<BranchStatus> future = previous == null ? dispatch(sender)
+                : previous.thenCompose(status -> {
+                    if (status == BranchStatus.PhaseTwo_Rollbacked) {
+                        return dispatch(sender);
+                    }
+                    CompletableFuture<BranchStatus> skipped = new CompletableFuture<>();
+                    skipped.completeExceptionally(new BranchTransactionException(FailedToSendBranchRollbackRequest,
+                        String.format("Previous branch of resource %s is not rollbacked, xid = %s branchId = %s",
+                            branchSession.getResourceId(), branchSession.getXid(), branchSession.getBranchId())));
+                    return skipped;
+                });
+            lastOfResource.put(branchSession.getResourceId(), future);
+            dispatchedBranches.put(branchSession.getBranchId(), future);
+        }
+        return dispatchedBranches;
+    }
+
+    private CompletableFuture<BranchStatus> dispatch(Supplier<CompletableFuture<BranchStatus>> sender) {
+        try {
+            return sender.get();
+        } catch (Exception ex) {
+            CompletableFuture<BranchStatus> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+    }
+
+    private BranchStatus awaitBranchStatus(CompletableFuture<BranchStatus> future, long deadline) throws Exception {
+        try {
+            return future.get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
     private boolean isXaerNotaTimeout(GlobalSession globalSession, BranchStatus branchStatus) {
         if (BranchStatus.PhaseTwo_CommitFailed_XAER_NOTA_Retryable.equals(branchStatus) ||
                 BranchStatus.PhaseTwo_RollbackFailed_XAER_NOTA_Retryable.equals(branchStatus)) {
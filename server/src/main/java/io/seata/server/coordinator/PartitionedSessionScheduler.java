@@ -0,0 +1,252 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CollectionUtils;
+import io.seata.core.context.RootContext;
+import io.seata.core.rpc.Disposable;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MetricsManager;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * The partitioned scheduler of the phase two recovery tasks.
+ * <p>
+ * Sessions are hashed onto a fixed number of shards by xid. Every shard owns its worker threads, a bounded work
+ * queue and a permit pool per resource, so a slow resource manager can only occupy its own permits instead of
+ * blocking the whole recovery round. Sessions that can not be accepted right now are left to the next round.
+ * The shards proceed independently of the rounds: a round only hands its sessions over, and a session still in
+ * flight from an earlier round is skipped instead of being handled twice.
+ */
+public class PartitionedSessionScheduler implements Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedSessionScheduler.class);
+
+    private static final int SHUTDOWN_MAX_WAIT_MILLS = 5000;
+
+    private final String name;
+
+    private final Shard[] shards;
+
+    private final int maxConcurrencyPerResource;
+
+    private final AtomicLong drainedCount = new AtomicLong();
+
+    private final AtomicLong deferredCount = new AtomicLong();
+
+    /**
+     * Instantiates a new Partitioned session scheduler.
+     *
+     * @param name                      the name, used as thread prefix and metrics tag
+     * @param shardCount                the shard count
+     * @param shardThreads              the worker threads of every shard
+     * @param shardQueueSize            the bounded queue size of every shard
+     * @param maxConcurrencyPerResource the max sessions of a shard handled concurrently for the same resource
+     */
+    public PartitionedSessionScheduler(String name, int shardCount, int shardThreads, int shardQueueSize,
+                                       int maxConcurrencyPerResource) {
+        if (shardCount <= 0 || shardThreads <= 0 || shardQueueSize <= 0 || maxConcurrencyPerResource <= 0) {
+            throw new IllegalArgumentException("the shard settings of " + name + " must be positive");
+        }
+        this.name = name;
+        this.maxConcurrencyPerResource = maxConcurrencyPerResource;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(name + "Shard" + i, shardThreads, shardQueueSize);
+        }
+        registerMetrics();
+    }
+
+    /**
+     * Dispatch the sessions to their shards without waiting for them to be handled, the sessions still in flight
+     * are skipped.
+     *
+     * @param sessions the global sessions
+     * @param handler  the handler
+     */
+    public void dispatch(Collection<GlobalSession> sessions, GlobalSessionHandler handler) {
+        if (CollectionUtils.isEmpty(sessions)) {
+            return;
+        }
+        for (GlobalSession globalSession : sessions) {
+            shardOf(globalSession.getXid()).submit(globalSession, handler);
+        }
+    }
+
+    /**
+     * Gets the sessions waiting in the queues of all shards.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Shard shard : shards) {
+            depth += shard.executor.getQueue().size();
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the count of handled sessions.
+     *
+     * @return the drained count
+     */
+    public long getDrainedCount() {
+        return drainedCount.get();
+    }
+
+    /**
+     * Gets the count of sessions left to the next round because of a full queue or a busy resource.
+     *
+     * @return the deferred count
+     */
+    public long getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    Shard shardOf(String xid) {
+        return shards[(xid.hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
+    private void registerMetrics() {
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry == null) {
+            return;
+        }
+        registry.getGauge(newId(IdConstants.METER_VALUE_GAUGE, IdConstants.STATISTIC_VALUE_QUEUE_DEPTH),
+            this::getQueueDepth);
+        registry.getGauge(newId(IdConstants.METER_VALUE_GAUGE, IdConstants.STATISTIC_VALUE_DRAINED),
+            this::getDrainedCount);
+        registry.getGauge(newId(IdConstants.METER_VALUE_GAUGE, IdConstants.STATISTIC_VALUE_DEFERRED),
+            this::getDeferredCount);
+    }
+
+    private Id newId(String meter, String statistic) {
+        return new Id(IdConstants.SEATA_RECOVERY)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.NAME_KEY, name)
+            .withTag(IdConstants.METER_KEY, meter)
+            .withTag(IdConstants.STATISTIC_KEY, statistic);
+    }
+
+    @Override
+    public void destroy() {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        try {
+            for (Shard shard : shards) {
+                shard.executor.awaitTermination(SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A shard of the scheduler
+     */
+    final class Shard {
+
+        private final ThreadPoolExecutor executor;
+
+        private final Set<String> inflightXids = ConcurrentHashMap.newKeySet();
+
+        private final Map<String, Semaphore> resourcePermits = new ConcurrentHashMap<>();
+
+        Shard(String threadPrefix, int threads, int queueSize) {
+            this.executor = new ThreadPoolExecutor(threads, threads, Integer.MAX_VALUE, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new NamedThreadFactory(threadPrefix, threads),
+                new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        void submit(GlobalSession globalSession, GlobalSessionHandler handler) {
+            String xid = globalSession.getXid();
+            if (!inflightXids.add(xid)) {
+                return;
+            }
+            try {
+                executor.execute(() -> handle(globalSession, handler));
+            } catch (RejectedExecutionException e) {
+                inflightXids.remove(xid);
+                deferredCount.incrementAndGet();
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("The queue of {} is full, global session {} is deferred to the next round", name, xid);
+                }
+            }
+        }
+
+        private void handle(GlobalSession globalSession, GlobalSessionHandler handler) {
+            List<Semaphore> acquiredPermits = new ArrayList<>();
+            try {
+                MDC.put(RootContext.MDC_KEY_XID, globalSession.getXid());
+                for (String resourceId : resourceIdsOf(globalSession)) {
+                    Semaphore permits = CollectionUtils.computeIfAbsent(resourcePermits, resourceId,
+                        key -> new Semaphore(maxConcurrencyPerResource));
+                    if (!permits.tryAcquire()) {
+                        deferredCount.incrementAndGet();
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("The resource {} is busy, global session {} is deferred to the next round",
+                                resourceId, globalSession.getXid());
+                        }
+                        return;
+                    }
+                    acquiredPermits.add(permits);
+                }
+                handler.handle(globalSession);
+                drainedCount.incrementAndGet();
+            } catch (Exception e) {
+                LOGGER.error("handle global session failed: {}", globalSession.getXid(), e);
+            } finally {
+                acquiredPermits.forEach(Semaphore::release);
+                inflightXids.remove(globalSession.getXid());
+                MDC.remove(RootContext.MDC_KEY_XID);
+            }
+        }
+
+        private Set<String> resourceIdsOf(GlobalSession globalSession) {
+            Set<String> resourceIds = new LinkedHashSet<>();
+            for (BranchSession branchSession : globalSession.getSortedBranches()) {
+                if (branchSession.getResourceId() != null) {
+                    resourceIds.add(branchSession.getResourceId());
+                }
+            }
+            return resourceIds;
+        }
+    }
+}
@@ -41,6 +41,8 @@ public abstract class AbstractLockManager implements LockManager {
      */
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractLockManager.class);
 
+    private final LockWaitQueue lockWaitQueue = new LockWaitQueue();
+
     @Override
     public boolean acquireLock(BranchSession branchSession) throws TransactionException {
         return acquireLock(branchSession, true, false);
@@ -189,6 +191,11 @@ public abstract class AbstractLockManager implements LockManager {
         return locks;
     }
     
+    @Override
+    public LockWaitQueue getLockWaitQueue() {
+        return lockWaitQueue;
+    }
+
     @Override
     public void updateLockStatus(String xid, LockStatus lockStatus) {
         this.getLocker().updateLockStatus(xid, lockStatus);
@@ -103,4 +103,11 @@ public interface LockManager {
      */
     void updateLockStatus(String xid, LockStatus lockStatus) throws TransactionException;
 
+
+    /**
+     * Gets the wait queue of the row locks.
+     *
+     * @return the lock wait queue
+     */
+    LockWaitQueue getLockWaitQueue();
 }
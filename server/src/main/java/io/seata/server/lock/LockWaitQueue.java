@@ -0,0 +1,262 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.seata.common.util.StringUtils;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The wait queue of the row locks.
+ * <p>
+ * A branch failing to acquire its global locks may ask to wait for them. It is queued on every row of its lock key,
+ * and once any of those rows is released the branch is notified a single time, so that it retries at once instead of
+ * sleeping for the retry interval. A waiter is dropped after it has been notified or expired, the client falls back to
+ * its own retry interval if the notification never comes.
+ */
+public class LockWaitQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockWaitQueue.class);
+
+    private static final String ROW_KEY_SPLIT_CHAR = "^^^";
+
+    /**
+     * the default max time a waiter is kept
+     */
+    public static final long DEFAULT_WAIT_EXPIRE_MILLS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final int SWEEP_REGISTER_THRESHOLD = 1024;
+
+    private final Map<String, Deque<LockWaiter>> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger registersSinceSweep = new AtomicInteger();
+
+    private final long waitExpireMills;
+
+    private volatile long lastSweepTime = System.currentTimeMillis();
+
+    private volatile Consumer<LockWaiter> notifier;
+
+    /**
+     * Instantiates a new Lock wait queue.
+     */
+    public LockWaitQueue() {
+        this(DEFAULT_WAIT_EXPIRE_MILLS);
+    }
+
+    /**
+     * Instantiates a new Lock wait queue.
+     *
+     * @param waitExpireMills the max time a waiter is kept
+     */
+    public LockWaitQueue(long waitExpireMills) {
+        this.waitExpireMills = waitExpireMills;
+    }
+
+    /**
+     * Sets the notifier, which sends the notification to the client of the waiter.
+     *
+     * @param notifier the notifier
+     */
+    public void setNotifier(Consumer<LockWaiter> notifier) {
+        this.notifier = notifier;
+    }
+
+    /**
+     * Queue the branch on all the rows of its lock key.
+     *
+     * @param branchSession the branch session failing to acquire its locks
+     */
+    public void register(BranchSession branchSession) {
+        List<String> rowKeys = rowKeysOf(branchSession.getResourceId(), branchSession.getLockKey());
+        if (rowKeys.isEmpty()) {
+            return;
+        }
+        LockWaiter waiter = new LockWaiter(branchSession.getXid(), branchSession.getResourceId(),
+            branchSession.getClientId(), System.currentTimeMillis());
+        for (String rowKey : rowKeys) {
+            queues.compute(rowKey, (key, queue) -> {
+                if (queue == null) {
+                    queue = new ArrayDeque<>(2);
+                }
+                queue.offer(waiter);
+                return queue;
+            });
+        }
+        if (registersSinceSweep.incrementAndGet() >= SWEEP_REGISTER_THRESHOLD
+            || waiter.createTime - lastSweepTime >= waitExpireMills) {
+            sweep(waiter.createTime);
+        }
+    }
+
+    /**
+     * Notify the waiters of the rows held by the global session, after they have been released.
+     *
+     * @param globalSession the global session
+     */
+    public void signal(GlobalSession globalSession) {
+        if (queues.isEmpty()) {
+            return;
+        }
+        List<String> rowKeys = new ArrayList<>();
+        for (BranchSession branchSession : globalSession.getBranchSessions()) {
+            rowKeys.addAll(rowKeysOf(branchSession.getResourceId(), branchSession.getLockKey()));
+        }
+        signal(rowKeys);
+    }
+
+    /**
+     * Notify the waiters of the rows held by the branch session, after they have been released.
+     *
+     * @param branchSession the branch session
+     */
+    public void signal(BranchSession branchSession) {
+        if (queues.isEmpty()) {
+            return;
+        }
+        signal(rowKeysOf(branchSession.getResourceId(), branchSession.getLockKey()));
+    }
+
+    private void signal(List<String> rowKeys) {
+        long now = System.currentTimeMillis();
+        Set<LockWaiter> woken = new HashSet<>();
+        for (String rowKey : rowKeys) {
+            Deque<LockWaiter> queue = queues.remove(rowKey);
+            if (queue == null) {
+                continue;
+            }
+            for (LockWaiter waiter : queue) {
+                if (!isExpired(waiter, now) && waiter.notified.compareAndSet(false, true)) {
+                    woken.add(waiter);
+                }
+            }
+        }
+        Consumer<LockWaiter> current = notifier;
+        if (current == null) {
+            return;
+        }
+        for (LockWaiter waiter : woken) {
+            try {
+                current.accept(waiter);
+            } catch (Exception e) {
+                LOGGER.warn("failed to notify the lock waiter of xid {}: {}", waiter.xid, e.getMessage());
+            }
+        }
+    }
+
+    private void sweep(long now) {
+        registersSinceSweep.set(0);
+        lastSweepTime = now;
+        for (String rowKey : queues.keySet()) {
+            queues.computeIfPresent(rowKey, (key, queue) -> {
+                Iterator<LockWaiter> iterator = queue.iterator();
+                while (iterator.hasNext()) {
+                    LockWaiter waiter = iterator.next();
+                    if (waiter.notified.get() || isExpired(waiter, now)) {
+                        iterator.remove();
+                    }
+                }
+                return queue.isEmpty() ? null : queue;
+            });
+        }
+    }
+
+    private boolean isExpired(LockWaiter waiter, long now) {
+        return now - waiter.createTime > waitExpireMills;
+    }
+
+    /**
+     * Gets the count of the rows having waiters.
+     *
+     * @return the count
+     */
+    public int size() {
+        return queues.size();
+    }
+
+    static List<String> rowKeysOf(String resourceId, String lockKey) {
+        if (StringUtils.isBlank(lockKey)) {
+            return Collections.emptyList();
+        }
+        List<String> rowKeys = new ArrayList<>();
+        for (String tableGroupedLockKey : lockKey.split(";")) {
+            int idx = tableGroupedLockKey.indexOf(":");
+            if (idx < 0) {
+                continue;
+            }
+            String prefix = resourceId + ROW_KEY_SPLIT_CHAR + tableGroupedLockKey.substring(0, idx)
+                + ROW_KEY_SPLIT_CHAR;
+            for (String pk : tableGroupedLockKey.substring(idx + 1).split(",")) {
+                if (StringUtils.isNotBlank(pk)) {
+                    rowKeys.add(prefix + pk);
+                }
+            }
+        }
+        return rowKeys;
+    }
+
+    /**
+     * The branch waiting for the row locks.
+     */
+    public static final class LockWaiter {
+
+        private final String xid;
+
+        private final String resourceId;
+
+        private final String clientId;
+
+        private final long createTime;
+
+        private final AtomicBoolean notified = new AtomicBoolean();
+
+        LockWaiter(String xid, String resourceId, String clientId, long createTime) {
+            this.xid = xid;
+            this.resourceId = resourceId;
+            this.clientId = clientId;
+            this.createTime = createTime;
+        }
+
+        public String getXid() {
+            return xid;
+        }
+
+        public String getResourceId() {
+            return resourceId;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+    }
+}
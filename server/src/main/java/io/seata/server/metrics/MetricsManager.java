@@ -16,9 +16,15 @@
 package io.seata.server.metrics;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.rpc.netty.AbstractNettyRemoting;
+import io.seata.core.rpc.netty.ServerMessageExecutor;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Timer;
 import io.seata.metrics.exporter.Exporter;
 import io.seata.metrics.exporter.ExporterFactory;
 import io.seata.metrics.registry.Registry;
@@ -60,4 +66,45 @@ public class MetricsManager {
             }
         }
     }
+
+    /**
+     * Register the gauges of the expired futures and of the late responses of the remoting.
+     *
+     * @param remoting the remoting
+     */
+    public void registerRemoting(AbstractNettyRemoting remoting) {
+        if (registry == null) {
+            return;
+        }
+        registry.getGauge(newRpcId(IdConstants.STATISTIC_VALUE_EXPIRED), remoting::getExpiredFutureCount);
+        registry.getGauge(newRpcId(IdConstants.STATISTIC_VALUE_LATE), remoting::getLateResponseCount);
+    }
+
+    /**
+     * Register the queue time timer and the gauges of the queue depth and of the rejected requests of a pool.
+     *
+     * @param executor the pool
+     */
+    public void registerExecutor(ServerMessageExecutor executor) {
+        if (registry == null) {
+            return;
+        }
+        Timer queueTime = registry.getTimer(new Id(IdConstants.SEATA_RPC)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.NAME_KEY, executor.getName())
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_TIMER)
+            .withTag(IdConstants.TYPE_KEY, IdConstants.TYPE_VALUE_QUEUE_TIME));
+        executor.setQueueTimeListener(nanos -> queueTime.record(nanos, TimeUnit.NANOSECONDS));
+        registry.getGauge(newRpcId(IdConstants.STATISTIC_VALUE_QUEUE_DEPTH)
+            .withTag(IdConstants.NAME_KEY, executor.getName()), () -> executor.getQueue().size());
+        registry.getGauge(newRpcId(IdConstants.STATISTIC_VALUE_REJECTED)
+            .withTag(IdConstants.NAME_KEY, executor.getName()), executor::getRejectedCount);
+    }
+
+    private Id newRpcId(String statistic) {
+        return new Id(IdConstants.SEATA_RPC)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.METER_KEY, IdConstants.METER_VALUE_GAUGE)
+            .withTag(IdConstants.STATISTIC_KEY, statistic);
+    }
 }
@@ -17,12 +17,19 @@ package io.seata.server.metrics;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import com.google.common.eventbus.Subscribe;
+import io.seata.common.util.CollectionUtils;
 import io.seata.core.event.GlobalTransactionEvent;
 import io.seata.core.model.GlobalStatus;
+import io.seata.metrics.Counter;
+import io.seata.metrics.Id;
+import io.seata.metrics.Summary;
+import io.seata.metrics.Timer;
 import io.seata.metrics.registry.Registry;
 import io.seata.server.event.EventBusManager;
 import org.slf4j.Logger;
@@ -45,6 +52,11 @@ public class MetricsSubscriber {
 
     private final Map<String, Consumer<GlobalTransactionEvent>> consumers;
 
+    /**
+     * The interned meters, by application id then by group.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, GroupMeters>> meterHandles = new ConcurrentHashMap<>();
+
     public MetricsSubscriber(Registry registry) {
         this.registry = registry;
         consumers = new HashMap<>();
@@ -71,132 +83,123 @@ public class MetricsSubscriber {
                 LOGGER.debug("subscribe:{},threadName:{}", object.toString(), Thread.currentThread().getName());
             }
         }
-        registry.getCounter(MeterIdConstants.COUNTER_ACTIVE.withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup())).increase(1);
+        getGroupMeters(event).active.increase(1);
     }
 
     private void processGlobalStatusCommitted(GlobalTransactionEvent event) {
         if (event.isRetryGlobal()) {
             return;
         }
-        decreaseActive(event);
-        registry.getCounter(MeterIdConstants.COUNTER_COMMITTED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getSummary(MeterIdConstants.SUMMARY_COMMITTED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getTimer(MeterIdConstants.TIMER_COMMITTED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup()))
-                .record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
+        GroupMeters meters = getGroupMeters(event);
+        meters.active.decrease(1);
+        meters.committed.increase(1);
+        meters.committedSummary.increase(1);
+        meters.committedTimer.record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
     private void processGlobalStatusRollbacked(GlobalTransactionEvent event) {
         if (event.isRetryGlobal()) {
             return;
         }
-        decreaseActive(event);
-        registry.getCounter(MeterIdConstants.COUNTER_ROLLBACKED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getSummary(MeterIdConstants.SUMMARY_ROLLBACKED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getTimer(MeterIdConstants.TIMER_ROLLBACK
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup()))
-                .record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
+        GroupMeters meters = getGroupMeters(event);
+        meters.active.decrease(1);
+        meters.rollbacked.increase(1);
+        meters.rollbackedSummary.increase(1);
+        meters.rollbackTimer.record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
     private void processAfterGlobalRollbacked(GlobalTransactionEvent event) {
+        GroupMeters meters = getGroupMeters(event);
         if (event.isRetryGlobal() && event.isRetryBranch()) {
-            decreaseActive(event);
+            meters.active.decrease(1);
         }
-        registry.getCounter(MeterIdConstants.COUNTER_AFTER_ROLLBACKED
-            .withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getSummary(MeterIdConstants.SUMMARY_AFTER_ROLLBACKED
-            .withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getTimer(MeterIdConstants.TIMER_AFTER_ROLLBACKED
-            .withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup()))
-            .record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
+        meters.afterRollbacked.increase(1);
+        meters.afterRollbackedSummary.increase(1);
+        meters.afterRollbackedTimer.record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
     private void processAfterGlobalCommitted(GlobalTransactionEvent event) {
+        GroupMeters meters = getGroupMeters(event);
         if (event.isRetryGlobal() && event.isRetryBranch()) {
-            decreaseActive(event);
+            meters.active.decrease(1);
         }
-        registry.getCounter(MeterIdConstants.COUNTER_AFTER_COMMITTED
-            .withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getSummary(MeterIdConstants.SUMMARY_AFTER_COMMITTED
-            .withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getTimer(MeterIdConstants.TIMER_AFTER_COMMITTED
-            .withTag(APP_ID_KEY, event.getApplicationId())
-            .withTag(GROUP_KEY, event.getGroup()))
-            .record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
+        meters.afterCommitted.increase(1);
+        meters.afterCommittedSummary.increase(1);
+        meters.afterCommittedTimer.record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
     private void processGlobalStatusCommitFailed(GlobalTransactionEvent event) {
-        decreaseActive(event);
-        reportFailed(event);
+        GroupMeters meters = getGroupMeters(event);
+        meters.active.decrease(1);
+        reportFailed(meters, event);
     }
 
     private void processGlobalStatusRollbackFailed(GlobalTransactionEvent event) {
-        decreaseActive(event);
-        reportFailed(event);
+        GroupMeters meters = getGroupMeters(event);
+        meters.active.decrease(1);
+        reportFailed(meters, event);
     }
 
     private void processGlobalStatusTimeoutRollbacked(GlobalTransactionEvent event) {
-        decreaseActive(event);
+        getGroupMeters(event).active.decrease(1);
     }
 
     private void processGlobalStatusTimeoutRollbackFailed(GlobalTransactionEvent event) {
-        decreaseActive(event);
-        reportTwoPhaseTimeout(event);
+        GroupMeters meters = getGroupMeters(event);
+        meters.active.decrease(1);
+        meters.twoPhaseTimeoutSummary.increase(1);
     }
 
     private void processGlobalStatusCommitRetryTimeout(GlobalTransactionEvent event) {
-        decreaseActive(event);
-        reportTwoPhaseTimeout(event);
+        GroupMeters meters = getGroupMeters(event);
+        meters.active.decrease(1);
+        meters.twoPhaseTimeoutSummary.increase(1);
     }
 
     private void processGlobalStatusTimeoutRollbackRetryTimeout(GlobalTransactionEvent event) {
-        decreaseActive(event);
+        getGroupMeters(event).active.decrease(1);
     }
 
-    private void decreaseActive(GlobalTransactionEvent event) {
-        registry.getCounter(MeterIdConstants.COUNTER_ACTIVE
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).decrease(1);
+    private void reportFailed(GroupMeters meters, GlobalTransactionEvent event) {
+        meters.failedSummary.increase(1);
+        meters.failedTimer.record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
     }
 
-    private void reportFailed(GlobalTransactionEvent event) {
-        registry.getSummary(MeterIdConstants.SUMMARY_FAILED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).increase(1);
-        registry.getTimer(MeterIdConstants.TIMER_FAILED
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup()))
-                .record(event.getEndTime() - event.getBeginTime(), TimeUnit.MILLISECONDS);
+    /**
+     * Get the meters of the application and group of the event, they are resolved from the registry on the first
+     * event of the pair only, so the lookup of the following events is two map reads without allocation.
+     *
+     * @param event the event
+     * @return the group meters
+     */
+    GroupMeters getGroupMeters(GlobalTransactionEvent event) {
+        String applicationId = event.getApplicationId();
+        String group = event.getGroup();
+        ConcurrentMap<String, GroupMeters> groups = meterHandles.get(nullToEmpty(applicationId));
+        if (groups == null) {
+            groups = CollectionUtils.computeIfAbsent(meterHandles, nullToEmpty(applicationId),
+                key -> new ConcurrentHashMap<>());
+        }
+        GroupMeters meters = groups.get(nullToEmpty(group));
+        if (meters == null) {
+            meters = CollectionUtils.computeIfAbsent(groups, nullToEmpty(group),
+                key -> new GroupMeters(registry, applicationId, group));
+        }
+        return meters;
     }
 
-    private void reportTwoPhaseTimeout(GlobalTransactionEvent event) {
-        registry.getSummary(MeterIdConstants.SUMMARY_TWO_PHASE_TIMEOUT
-                .withTag(APP_ID_KEY, event.getApplicationId())
-                .withTag(GROUP_KEY, event.getGroup())).increase(1);
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
     }
 
-
-
     @Subscribe
     public void recordGlobalTransactionEventForMetrics(GlobalTransactionEvent event) {
-        if (registry != null && consumers.containsKey(event.getStatus())) {
-            consumers.get(event.getStatus()).accept(event);
+        if (registry == null) {
+            return;
+        }
+        Consumer<GlobalTransactionEvent> consumer = consumers.get(event.getStatus());
+        if (consumer != null) {
+            consumer.accept(event);
         }
     }
 
@@ -214,4 +217,63 @@ public class MetricsSubscriber {
     public int hashCode() {
         return super.hashCode();
     }
+
+    /**
+     * The meters of an application and group, every one of them is tagged with both.
+     */
+    static class GroupMeters {
+
+        final Counter active;
+        final Counter committed;
+        final Counter rollbacked;
+        final Counter afterCommitted;
+        final Counter afterRollbacked;
+        final Summary committedSummary;
+        final Summary rollbackedSummary;
+        final Summary failedSummary;
+        final Summary twoPhaseTimeoutSummary;
+        final Summary afterCommittedSummary;
+        final Summary afterRollbackedSummary;
+        final Timer committedTimer;
+        final Timer rollbackTimer;
+        final Timer failedTimer;
+        final Timer afterCommittedTimer;
+        final Timer afterRollbackedTimer;
+
+        GroupMeters(Registry registry, String applicationId, String group) {
+            active = registry.getCounter(newId(MeterIdConstants.COUNTER_ACTIVE, applicationId, group));
+            committed = registry.getCounter(newId(MeterIdConstants.COUNTER_COMMITTED, applicationId, group));
+            rollbacked = registry.getCounter(newId(MeterIdConstants.COUNTER_ROLLBACKED, applicationId, group));
+            afterCommitted = registry.getCounter(
+                newId(MeterIdConstants.COUNTER_AFTER_COMMITTED, applicationId, group));
+            afterRollbacked = registry.getCounter(
+                newId(MeterIdConstants.COUNTER_AFTER_ROLLBACKED, applicationId, group));
+            committedSummary = registry.getSummary(newId(MeterIdConstants.SUMMARY_COMMITTED, applicationId, group));
+            rollbackedSummary = registry.getSummary(
+                newId(MeterIdConstants.SUMMARY_ROLLBACKED, applicationId, group));
+            failedSummary = registry.getSummary(newId(MeterIdConstants.SUMMARY_FAILED, applicationId, group));
+            twoPhaseTimeoutSummary = registry.getSummary(
+                newId(MeterIdConstants.SUMMARY_TWO_PHASE_TIMEOUT, applicationId, group));
+            afterCommittedSummary = registry.getSummary(
+                newId(MeterIdConstants.SUMMARY_AFTER_COMMITTED, applicationId, group));
+            afterRollbackedSummary = registry.getSummary(
+                newId(MeterIdConstants.SUMMARY_AFTER_ROLLBACKED, applicationId, group));
+            committedTimer = registry.getTimer(newId(MeterIdConstants.TIMER_COMMITTED, applicationId, group));
+            rollbackTimer = registry.getTimer(newId(MeterIdConstants.TIMER_ROLLBACK, applicationId, group));
+            failedTimer = registry.getTimer(newId(MeterIdConstants.TIMER_FAILED, applicationId, group));
+            afterCommittedTimer = registry.getTimer(
+                newId(MeterIdConstants.TIMER_AFTER_COMMITTED, applicationId, group));
+            afterRollbackedTimer = registry.getTimer(
+                newId(MeterIdConstants.TIMER_AFTER_ROLLBACKED, applicationId, group));
+        }
+
+        /**
+         * The templates of MeterIdConstants are shared, a meter gets its own copy of the tags.
+         */
+        private static Id newId(Id template, String applicationId, String group) {
+            return new Id(template.getName()).withTag(template.getTags())
+                .withTag(APP_ID_KEY, applicationId)
+                .withTag(GROUP_KEY, group);
+        }
+    }
 }
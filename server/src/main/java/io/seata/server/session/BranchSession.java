@@ -17,16 +17,14 @@ package io.seata.server.session;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import io.seata.common.util.CompressUtil;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.LockStatus;
+import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerManagerFactory;
-import io.seata.server.storage.file.lock.FileLocker;
+import io.seata.server.storage.file.lock.RowLockHolder;
 import io.seata.server.store.SessionStorable;
 import io.seata.server.store.StoreConfig;
 import org.slf4j.Logger;
@@ -71,8 +69,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private LockStatus lockStatus = Locked;
 
-    private ConcurrentMap<FileLocker.BucketLockMap, Set<String>> lockHolder
-        = new ConcurrentHashMap<>();
+    private final RowLockHolder lockHolder = new RowLockHolder();
 
     /**
      * Gets application data.
@@ -273,7 +270,7 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
      *
      * @return the lock holder
      */
-    public ConcurrentMap<FileLocker.BucketLockMap, Set<String>> getLockHolder() {
+    public RowLockHolder getLockHolder() {
         return lockHolder;
     }
 
@@ -292,7 +289,12 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
     @Override
     public boolean unlock() throws TransactionException {
         if (this.getBranchType() == BranchType.AT) {
-            return LockerManagerFactory.getLockManager().releaseLock(this);
+            LockManager lockManager = LockerManagerFactory.getLockManager();
+            if (lockManager.releaseLock(this)) {
+                lockManager.getLockWaitQueue().signal(this);
+                return true;
+            }
+            return false;
         }
         return true;
     }
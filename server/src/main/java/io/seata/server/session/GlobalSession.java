@@ -40,6 +40,7 @@ import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.model.LockStatus;
 import io.seata.server.UUIDGenerator;
+import io.seata.server.lock.LockManager;
 import io.seata.server.lock.LockerManagerFactory;
 import io.seata.server.store.SessionStorable;
 import io.seata.server.store.StoreConfig;
@@ -195,6 +196,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onBegin(this);
         }
+        SessionHolder.getTimeoutWheel().add(this);
     }
 
     @Override
@@ -206,6 +208,9 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onStatusChange(this, status);
         }
+        if (GlobalStatus.Begin != status) {
+            SessionHolder.getTimeoutWheel().remove(xid);
+        }
     }
 
     @Override
@@ -233,6 +238,7 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     @Override
     public void end() throws TransactionException {
+        SessionHolder.getTimeoutWheel().remove(xid);
         if (isSuccessEnd()) {
             // Clean locks first
             clean();
@@ -255,9 +261,11 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
     }
 
     public void clean() throws TransactionException {
-        if (!LockerManagerFactory.getLockManager().releaseGlobalSessionLock(this)) {
+        LockManager lockManager = LockerManagerFactory.getLockManager();
+        if (!lockManager.releaseGlobalSessionLock(this)) {
             throw new TransactionException("UnLock globalSession error, xid = " + this.xid);
         }
+        lockManager.getLockWaitQueue().signal(this);
     }
 
     /**
@@ -89,6 +89,9 @@ public class SessionHolder {
 
     private static DistributedLocker DISTRIBUTED_LOCKER;
 
+    private static final SessionTimeoutWheel TIMEOUT_WHEEL = new SessionTimeoutWheel(
+        CONFIG.getLong(ConfigurationKeys.TIMEOUT_RETRY_PERIOD, 1000L));
+
     /**
      * Init.
      *
@@ -411,10 +414,20 @@ public class SessionHolder {
         return lock;
     }
 
+    /**
+     * Gets the timeout wheel of the begun global sessions.
+     *
+     * @return the timeout wheel
+     */
+    public static SessionTimeoutWheel getTimeoutWheel() {
+        return TIMEOUT_WHEEL;
+    }
+
     public static void destroy() {
         if (ROOT_SESSION_MANAGER != null) {
             ROOT_SESSION_MANAGER.destroy();
         }
+        TIMEOUT_WHEEL.clear();
     }
 
     @FunctionalInterface
@@ -0,0 +1,297 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A hierarchical timing wheel of the deadlines of the begun global sessions.
+ * <p>
+ * The level 0 has a bucket per tick, every upper level has a bucket per turn of the level below it, so a session is
+ * placed in O(1) whatever its timeout and only the sessions whose deadline has come are visited on {@link
+ * #advance(long)}. A bucket of an upper level is cascaded into the lower levels when the wheel reaches it.
+ * <p>
+ * {@link #add(GlobalSession)} and {@link #remove(String)} are called on every transaction begin and end, they do not
+ * lock, they only queue the change which the ticker thread applies to the buckets on its next {@link #advance(long)}.
+ *
+ * @author seata
+ */
+public class SessionTimeoutWheel {
+
+    /**
+     * The default number of buckets of every level.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 64;
+
+    private final long tickMills;
+
+    private final int wheelSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The added and removed entries not applied to the buckets yet.
+     */
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+    private final List<Bucket[]> levels = new ArrayList<>();
+
+    /**
+     * The sessions whose deadline falls in a tick the wheel has already reached.
+     */
+    private final Bucket due = new Bucket();
+
+    private long currentTick = -1;
+
+    /**
+     * Instantiates a new Session timeout wheel.
+     *
+     * @param tickMills the duration of a tick in milliseconds
+     */
+    public SessionTimeoutWheel(long tickMills) {
+        this(tickMills, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Instantiates a new Session timeout wheel.
+     *
+     * @param tickMills the duration of a tick in milliseconds
+     * @param wheelSize the number of buckets of every level
+     */
+    public SessionTimeoutWheel(long tickMills, int wheelSize) {
+        if (tickMills <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMills must be positive and wheelSize greater than 1");
+        }
+        this.tickMills = tickMills;
+        this.wheelSize = wheelSize;
+    }
+
+    /**
+     * Track the deadline of a global session, a session already tracked is kept at its deadline.
+     *
+     * @param globalSession the global session
+     */
+    public void add(GlobalSession globalSession) {
+        Entry entry = new Entry(globalSession, globalSession.getBeginTime() + globalSession.getTimeout());
+        if (entries.putIfAbsent(globalSession.getXid(), entry) == null) {
+            pending.offer(entry);
+        }
+    }
+
+    /**
+     * Stop tracking the global session of the xid.
+     *
+     * @param xid the xid
+     */
+    public void remove(String xid) {
+        Entry entry = entries.remove(xid);
+        if (entry != null) {
+            entry.removed = true;
+            pending.offer(entry);
+        }
+    }
+
+    /**
+     * Move the wheel to the time and take the global sessions whose deadline has passed, they are no longer tracked.
+     *
+     * @param now the current time in milliseconds
+     * @return the timed out global sessions
+     */
+    public synchronized List<GlobalSession> advance(long now) {
+        applyPending();
+        long targetTick = now / tickMills;
+        if (currentTick < 0 || entries.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.size() - 1; level > 0; level--) {
+                long span = span(level);
+                if (currentTick % span == 0) {
+                    Bucket bucket = levels.get(level)[(int)((currentTick / span) % wheelSize)];
+                    for (Entry entry = bucket.poll(); entry != null; entry = bucket.poll()) {
+                        schedule(entry);
+                    }
+                }
+            }
+            if (!levels.isEmpty()) {
+                Bucket bucket = levels.get(0)[(int)(currentTick % wheelSize)];
+                for (Entry entry = bucket.poll(); entry != null; entry = bucket.poll()) {
+                    if (!entry.removed) {
+                        due.link(entry);
+                    }
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<GlobalSession> expired = new ArrayList<>();
+        for (Entry entry = due.head.next, next; entry != due.head; entry = next) {
+            next = entry.next;
+            if (entry.deadline < now) {
+                due.unlink(entry);
+                if (entries.remove(entry.session.getXid(), entry)) {
+                    expired.add(entry.session);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * The number of the tracked global sessions.
+     *
+     * @return the size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stop tracking all the global sessions.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        pending.clear();
+        levels.clear();
+        due.clear();
+        currentTick = -1;
+    }
+
+    private void applyPending() {
+        for (Entry entry = pending.poll(); entry != null; entry = pending.poll()) {
+            if (entry.removed) {
+                if (entry.bucket != null) {
+                    entry.bucket.unlink(entry);
+                }
+            } else if (entry.bucket == null) {
+                if (currentTick < 0) {
+                    currentTick = System.currentTimeMillis() / tickMills;
+                }
+                schedule(entry);
+            }
+        }
+    }
+
+    private void schedule(Entry entry) {
+        if (entry.removed) {
+            return;
+        }
+        long tick = Math.floorDiv(entry.deadline, tickMills);
+        if (tick <= currentTick) {
+            due.link(entry);
+            return;
+        }
+        // the bucket of the current slot of a level is left empty, it is the one cascaded or drained on this tick
+        for (int level = 0; ; level++) {
+            long span = span(level);
+            long slot = tick / span;
+            if (slot < currentTick / span + wheelSize) {
+                bucket(level, slot).link(entry);
+                return;
+            }
+        }
+    }
+
+    private long span(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+
+    private Bucket bucket(int level, long slot) {
+        while (levels.size() <= level) {
+            Bucket[] buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            levels.add(buckets);
+        }
+        return levels.get(level)[(int)(slot % wheelSize)];
+    }
+
+    private static class Entry {
+
+        private final GlobalSession session;
+
+        private final long deadline;
+
+        private volatile boolean removed;
+
+        private Bucket bucket;
+
+        private Entry prev;
+
+        private Entry next;
+
+        Entry(GlobalSession session, long deadline) {
+            this.session = session;
+            this.deadline = deadline;
+        }
+    }
+
+    private static class Bucket {
+
+        private final Entry head = new Entry(null, 0);
+
+        Bucket() {
+            clear();
+        }
+
+        boolean isEmpty() {
+            return head.next == head;
+        }
+
+        void clear() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void link(Entry entry) {
+            entry.bucket = this;
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+        }
+
+        void unlink(Entry entry) {
+            entry.prev.next = entry.next;
+            entry.next.prev = entry.prev;
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+
+        Entry poll() {
+            Entry entry = head.next;
+            if (entry == head) {
+                return null;
+            }
+            unlink(entry);
+            return entry;
+        }
+    }
+}
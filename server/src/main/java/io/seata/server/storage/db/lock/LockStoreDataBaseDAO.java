@@ -19,6 +19,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -39,11 +40,14 @@ import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.model.LockStatus;
 import io.seata.core.store.LockDO;
 import io.seata.core.store.LockStore;
+import io.seata.core.store.db.sql.lock.LockStoreSql;
 import io.seata.core.store.db.sql.lock.LockStoreSqlFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
+import static io.seata.common.DefaultValues.DEFAULT_LOCK_BATCH_INSERT_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_LOCK_CONFLICT_DETECT_MODE;
 import static io.seata.common.DefaultValues.DEFAULT_LOCK_DB_TABLE;
 import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflictFailFast;
 
@@ -56,6 +60,11 @@ public class LockStoreDataBaseDAO implements LockStore {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LockStoreDataBaseDAO.class);
 
+    /**
+     * The lock conflict detect mode which inserts first and only queries the lock table for the existing rows.
+     */
+    public static final String LOCK_CONFLICT_DETECT_MODE_INSERT_IGNORE = "insertIgnore";
+
     /**
      * The constant CONFIG.
      */
@@ -76,6 +85,16 @@ public class LockStoreDataBaseDAO implements LockStore {
      */
     protected String dbType;
 
+    /**
+     * The max rows of a multi-row insert, 1 means the locks are inserted by jdbc batch.
+     */
+    protected int lockBatchInsertSize;
+
+    /**
+     * The lock conflict detect mode, query or insertIgnore.
+     */
+    protected String lockConflictDetectMode;
+
     /**
      * Instantiates a new Data base lock store dao.
      *
@@ -85,6 +104,10 @@ public class LockStoreDataBaseDAO implements LockStore {
         this.lockStoreDataSource = lockStoreDataSource;
         lockTable = CONFIG.getConfig(ConfigurationKeys.LOCK_DB_TABLE, DEFAULT_LOCK_DB_TABLE);
         dbType = CONFIG.getConfig(ConfigurationKeys.STORE_DB_TYPE);
+        lockBatchInsertSize = Math.max(1, CONFIG.getInt(ConfigurationKeys.STORE_DB_LOCK_BATCH_INSERT_SIZE,
+            DEFAULT_LOCK_BATCH_INSERT_SIZE));
+        lockConflictDetectMode = CONFIG.getConfig(ConfigurationKeys.STORE_DB_LOCK_CONFLICT_DETECT_MODE,
+            DEFAULT_LOCK_CONFLICT_DETECT_MODE);
         if (StringUtils.isBlank(dbType)) {
             throw new StoreException("there must be db type.");
         }
@@ -106,8 +129,6 @@ public class LockStoreDataBaseDAO implements LockStore {
     @Override
     public boolean acquireLock(List<LockDO> lockDOs, boolean autoCommit, boolean skipCheckLock) {
         Connection conn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
         Set<String> dbExistedRowKeys = new HashSet<>();
         boolean originalAutoCommit = true;
         if (lockDOs.size() > 1) {
@@ -120,45 +141,21 @@ public class LockStoreDataBaseDAO implements LockStore {
             }
             List<LockDO> unrepeatedLockDOs = lockDOs;
 
-            //check lock
-            if (!skipCheckLock) {
-
-                boolean canLock = true;
-                //query
-                String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, lockDOs.size());
-                ps = conn.prepareStatement(checkLockSQL);
-                for (int i = 0; i < lockDOs.size(); i++) {
-                    ps.setString(i + 1, lockDOs.get(i).getRowKey());
+            if (!skipCheckLock && isInsertIgnoreMode()) {
+                if (LockStoreSqlFactory.getLogStoreSql(dbType).getInsertIgnoreLockSql(lockTable, 1) != null) {
+                    return acquireLockByInsertIgnore(conn, lockDOs, autoCommit);
                 }
-                rs = ps.executeQuery();
-                String currentXID = lockDOs.get(0).getXid();
-                boolean failFast = false;
-                while (rs.next()) {
-                    String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
-                    if (!StringUtils.equals(dbXID, currentXID)) {
-                        if (LOGGER.isInfoEnabled()) {
-                            String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
-                            String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
-                            long dbBranchId = rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID);
-                            LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}", dbTableName, dbPk, dbXID, dbBranchId);
-                        }
-                        if (!autoCommit) {
-                            int status = rs.getInt(ServerTableColumnsName.LOCK_TABLE_STATUS);
-                            if (status == LockStatus.Rollbacking.getCode()) {
-                                failFast = true;
-                            }
-                        }
-                        canLock = false;
-                        break;
-                    }
-
-                    dbExistedRowKeys.add(rs.getString(ServerTableColumnsName.LOCK_TABLE_ROW_KEY));
+                if (insertLocksUnlessDuplicated(conn, lockDOs)) {
+                    conn.commit();
+                    return true;
                 }
-                if (!canLock) {
+                // some row keys exist already, the query below tells the reentrant rows from the conflicting ones
+            }
+
+            //check lock
+            if (!skipCheckLock) {
+                if (checkLockConflict(conn, lockDOs, autoCommit, dbExistedRowKeys)) {
                     conn.rollback();
-                    if (failFast) {
-                        throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
-                    }
                     return false;
                 }
                 // If the lock has been exists in db, remove it from the lockDOs
@@ -197,7 +194,6 @@ public class LockStoreDataBaseDAO implements LockStore {
         } catch (SQLException e) {
             throw new StoreException(e);
         } finally {
-            IOUtil.close(rs, ps);
             if (conn != null) {
                 try {
                     if (originalAutoCommit) {
@@ -311,6 +307,152 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    /**
+     * Check whether any of the rows is locked by another global transaction, the rows locked by the same one are
+     * collected into dbExistedRowKeys.
+     *
+     * @param conn             the conn
+     * @param lockDOs          the lock do list
+     * @param autoCommit       the auto commit
+     * @param dbExistedRowKeys the row keys already locked by the same global transaction
+     * @return true if there is a conflict
+     * @throws SQLException the sql exception
+     */
+    protected boolean checkLockConflict(Connection conn, List<LockDO> lockDOs, boolean autoCommit,
+                                        Set<String> dbExistedRowKeys) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        boolean failFast = false;
+        try {
+            //query
+            String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, lockDOs.size());
+            ps = conn.prepareStatement(checkLockSQL);
+            for (int i = 0; i < lockDOs.size(); i++) {
+                ps.setString(i + 1, lockDOs.get(i).getRowKey());
+            }
+            rs = ps.executeQuery();
+            String currentXID = lockDOs.get(0).getXid();
+            while (rs.next()) {
+                String dbXID = rs.getString(ServerTableColumnsName.LOCK_TABLE_XID);
+                if (!StringUtils.equals(dbXID, currentXID)) {
+                    if (LOGGER.isInfoEnabled()) {
+                        String dbPk = rs.getString(ServerTableColumnsName.LOCK_TABLE_PK);
+                        String dbTableName = rs.getString(ServerTableColumnsName.LOCK_TABLE_TABLE_NAME);
+                        long dbBranchId = rs.getLong(ServerTableColumnsName.LOCK_TABLE_BRANCH_ID);
+                        LOGGER.info("Global lock on [{}:{}] is holding by xid {} branchId {}", dbTableName, dbPk, dbXID, dbBranchId);
+                    }
+                    if (!autoCommit) {
+                        int status = rs.getInt(ServerTableColumnsName.LOCK_TABLE_STATUS);
+                        if (status == LockStatus.Rollbacking.getCode()) {
+                            failFast = true;
+                        }
+                    }
+                    return true;
+                }
+                dbExistedRowKeys.add(rs.getString(ServerTableColumnsName.LOCK_TABLE_ROW_KEY));
+            }
+            return false;
+        } finally {
+            IOUtil.close(rs, ps);
+            if (failFast) {
+                conn.rollback();
+                throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
+            }
+        }
+    }
+
+    /**
+     * Acquire the locks by inserting all of them while skipping the existing row keys, the lock table is only queried
+     * when some rows were skipped, and the locks are only granted if every requested row key is then found held by
+     * the current global transaction.
+     *
+     * @param conn       the conn
+     * @param lockDOs    the lock do list
+     * @param autoCommit the auto commit
+     * @return the boolean
+     * @throws SQLException the sql exception
+     */
+    protected boolean acquireLockByInsertIgnore(Connection conn, List<LockDO> lockDOs, boolean autoCommit)
+        throws SQLException {
+        LockStoreSql lockStoreSql = LockStoreSqlFactory.getLogStoreSql(dbType);
+        int inserted = 0;
+        for (int from = 0; from < lockDOs.size(); from += lockBatchInsertSize) {
+            List<LockDO> chunk = lockDOs.subList(from, Math.min(from + lockBatchInsertSize, lockDOs.size()));
+            try (PreparedStatement ps = conn.prepareStatement(
+                lockStoreSql.getInsertIgnoreLockSql(lockTable, chunk.size()))) {
+                setBatchInsertParameters(ps, chunk);
+                inserted += ps.executeUpdate();
+            }
+        }
+        if (inserted < lockDOs.size()) {
+            // the skipped rows are only safe to grant if they are still held by the current global transaction,
+            // a holder which released them after the insert leaves no lock_table row behind for this branch
+            Set<String> heldRowKeys = new HashSet<>();
+            if (checkLockConflict(conn, lockDOs, autoCommit, heldRowKeys)) {
+                conn.rollback();
+                return false;
+            }
+            for (LockDO lockDO : lockDOs) {
+                if (!heldRowKeys.contains(lockDO.getRowKey())) {
+                    if (LOGGER.isInfoEnabled()) {
+                        LOGGER.info("Global lock on [{}:{}] was skipped but is not held by xid {} branchId {}",
+                            lockDO.getTableName(), lockDO.getPk(), lockDO.getXid(), lockDO.getBranchId());
+                    }
+                    conn.rollback();
+                    return false;
+                }
+            }
+        }
+        conn.commit();
+        return true;
+    }
+
+    /**
+     * Insert all the locks by plain inserts, for the dialects without an insert skipping only the duplicate keys. A
+     * duplicate key rolls the inserts back, any other error is thrown.
+     *
+     * @param conn    the conn
+     * @param lockDOs the lock do list
+     * @return false if a row key exists already
+     * @throws SQLException the sql exception
+     */
+    protected boolean insertLocksUnlessDuplicated(Connection conn, List<LockDO> lockDOs) throws SQLException {
+        LockStoreSql lockStoreSql = LockStoreSqlFactory.getLogStoreSql(dbType);
+        try {
+            if (lockBatchInsertSize == 1) {
+                try (PreparedStatement ps = conn.prepareStatement(lockStoreSql.getInsertLockSQL(lockTable))) {
+                    for (LockDO lockDO : lockDOs) {
+                        setBatchInsertParameters(ps, Collections.singletonList(lockDO));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return true;
+            }
+            for (int from = 0; from < lockDOs.size(); from += lockBatchInsertSize) {
+                List<LockDO> chunk = lockDOs.subList(from, Math.min(from + lockBatchInsertSize, lockDOs.size()));
+                try (PreparedStatement ps = conn.prepareStatement(
+                    lockStoreSql.getBatchInsertLockSql(lockTable, chunk.size()))) {
+                    setBatchInsertParameters(ps, chunk);
+                    ps.executeUpdate();
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            conn.rollback();
+            return false;
+        }
+    }
+
+    private static boolean isDuplicateKey(SQLException e) {
+        // a violation other than a duplicate key fails again in the insert of the query mode, and is reported there
+        return e instanceof SQLIntegrityConstraintViolationException
+            || (e.getSQLState() != null && e.getSQLState().startsWith("23"));
+    }
+
     /**
      * Do acquire lock boolean.
      *
@@ -348,6 +490,10 @@ public class LockStoreDataBaseDAO implements LockStore {
      * @return the boolean
      */
     protected boolean doAcquireLocks(Connection conn, List<LockDO> lockDOs) {
+        if (lockBatchInsertSize > 1
+            && LockStoreSqlFactory.getLogStoreSql(dbType).getBatchInsertLockSql(lockTable, 1) != null) {
+            return doAcquireLocksByMultiRowInsert(conn, lockDOs);
+        }
         PreparedStatement ps = null;
         try {
             //insert
@@ -374,6 +520,63 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    /**
+     * Do acquire locks by multi-row inserts of at most lockBatchInsertSize rows each.
+     *
+     * @param conn    the conn
+     * @param lockDOs the lock do list
+     * @return the boolean
+     */
+    protected boolean doAcquireLocksByMultiRowInsert(Connection conn, List<LockDO> lockDOs) {
+        LockStoreSql lockStoreSql = LockStoreSqlFactory.getLogStoreSql(dbType);
+        try {
+            for (int from = 0; from < lockDOs.size(); from += lockBatchInsertSize) {
+                List<LockDO> chunk = lockDOs.subList(from, Math.min(from + lockBatchInsertSize, lockDOs.size()));
+                try (PreparedStatement ps = conn.prepareStatement(
+                    lockStoreSql.getBatchInsertLockSql(lockTable, chunk.size()))) {
+                    setBatchInsertParameters(ps, chunk);
+                    if (ps.executeUpdate() != chunk.size()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.error("Global lock batch acquire error: {}", e.getMessage(), e);
+            //return false,let the caller go to conn.rollabck()
+            return false;
+        }
+    }
+
+    private void setBatchInsertParameters(PreparedStatement ps, List<LockDO> lockDOs) throws SQLException {
+        int index = 0;
+        for (LockDO lockDO : lockDOs) {
+            ps.setString(++index, lockDO.getXid());
+            ps.setLong(++index, lockDO.getTransactionId());
+            ps.setLong(++index, lockDO.getBranchId());
+            ps.setString(++index, lockDO.getResourceId());
+            ps.setString(++index, lockDO.getTableName());
+            ps.setString(++index, lockDO.getPk());
+            ps.setString(++index, lockDO.getRowKey());
+            ps.setInt(++index, lockDO.getStatus());
+        }
+    }
+
+    private boolean isInsertIgnoreMode() {
+        if (!LOCK_CONFLICT_DETECT_MODE_INSERT_IGNORE.equalsIgnoreCase(lockConflictDetectMode)) {
+            return false;
+        }
+        LockStoreSql lockStoreSql = LockStoreSqlFactory.getLogStoreSql(dbType);
+        if (lockStoreSql.getInsertIgnoreLockSql(lockTable, 1) == null
+            && lockStoreSql.getBatchInsertLockSql(lockTable, 1) == null) {
+            LOGGER.warn("The db type {} does not support the lock conflict detect mode {}, query mode is used",
+                dbType, lockConflictDetectMode);
+            lockConflictDetectMode = DEFAULT_LOCK_CONFLICT_DETECT_MODE;
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Check lock boolean.
      *
@@ -424,6 +627,24 @@ public class LockStoreDataBaseDAO implements LockStore {
         this.dbType = dbType;
     }
 
+    /**
+     * Sets the max rows of a multi-row insert.
+     *
+     * @param lockBatchInsertSize the lock batch insert size
+     */
+    public void setLockBatchInsertSize(int lockBatchInsertSize) {
+        this.lockBatchInsertSize = Math.max(1, lockBatchInsertSize);
+    }
+
+    /**
+     * Sets lock conflict detect mode.
+     *
+     * @param lockConflictDetectMode the lock conflict detect mode
+     */
+    public void setLockConflictDetectMode(String lockConflictDetectMode) {
+        this.lockConflictDetectMode = lockConflictDetectMode;
+    }
+
     /**
      * Sets log store data source.
      *
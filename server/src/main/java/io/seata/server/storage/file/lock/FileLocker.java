@@ -16,16 +16,12 @@
 package io.seata.server.storage.file.lock;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
-import io.seata.common.exception.FrameworkException;
 import io.seata.common.exception.StoreException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.core.exception.BranchTransactionException;
-import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.AbstractLocker;
 import io.seata.core.lock.RowLock;
 import io.seata.core.model.LockStatus;
@@ -41,11 +37,16 @@ import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflictFa
  */
 public class FileLocker extends AbstractLocker {
 
-    private static final int BUCKET_PER_TABLE = 128;
+    private static final int LOCK_TABLE_STRIPES = 128;
 
-    private static final ConcurrentMap<String/* resourceId */, ConcurrentMap<String/* tableName */,
-        ConcurrentMap<Integer/* bucketId */, BucketLockMap>>>
-        LOCK_MAP = new ConcurrentHashMap<>();
+    private static final int LOCK_TABLE_STRIPE_CAPACITY = 64;
+
+    private static final RowLockTable LOCK_TABLE = new RowLockTable(LOCK_TABLE_STRIPES, LOCK_TABLE_STRIPE_CAPACITY);
+
+    /**
+     * The branches holding locks, looked up by branch id to check the lock status of a conflicting branch.
+     */
+    private static final ConcurrentMap<Long/* branchId */, BranchSession> LOCKING_BRANCHES = new ConcurrentHashMap<>();
 
     /**
      * The Branch session.
@@ -73,55 +74,32 @@ public class FileLocker extends AbstractLocker {
             return true;
         }
         String resourceId = branchSession.getResourceId();
-        long transactionId = branchSession.getTransactionId();
-
-        ConcurrentMap<BucketLockMap, Set<String>> bucketHolder = branchSession.getLockHolder();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = CollectionUtils.computeIfAbsent(
-            LOCK_MAP, resourceId, key -> new ConcurrentHashMap<>());
-        boolean failFast = false;
-        boolean canLock = true;
-        for (RowLock lock : rowLocks) {
-            String tableName = lock.getTableName();
-            String pk = lock.getPk();
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = CollectionUtils.computeIfAbsent(dbLockMap, tableName,
-                key -> new ConcurrentHashMap<>());
-
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = CollectionUtils.computeIfAbsent(tableLockMap, bucketId,
-                key -> new BucketLockMap());
-            BranchSession previousLockBranchSession = bucketLockMap.get().putIfAbsent(pk, branchSession);
-            if (previousLockBranchSession == null) {
-                // No existing lock, and now locked by myself
-                Set<String> keysInHolder = CollectionUtils.computeIfAbsent(bucketHolder, bucketLockMap,
-                    key -> ConcurrentHashMap.newKeySet());
-                keysInHolder.add(pk);
-            } else if (previousLockBranchSession.getTransactionId() == transactionId) {
-                // Locked by me before
-                continue;
-            } else {
-                LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + previousLockBranchSession.getBranchId());
-                try {
-                    // Release all acquired locks.
-                    branchSession.unlock();
-                } catch (TransactionException e) {
-                    throw new FrameworkException(e);
-                }
-                if (!autoCommit && previousLockBranchSession.getLockStatus() == LockStatus.Rollbacking) {
-                    failFast = true;
-                    break;
-                }
-                if (canLock) {
-                    canLock = false;
-                    if (autoCommit) {
-                        break;
-                    }
+        long[] keys = new long[rowLocks.size()];
+        for (int i = 0; i < keys.length; i++) {
+            RowLock lock = rowLocks.get(i);
+            keys[i] = RowLockTable.keyOf(resourceId, lock.getTableName(), lock.getPk());
+        }
+        LOCKING_BRANCHES.put(branchSession.getBranchId(), branchSession);
+        long[] conflictBranchIds = LOCK_TABLE.acquire(branchSession.getTransactionId(), branchSession.getBranchId(),
+            keys, branchSession.getLockHolder());
+        if (conflictBranchIds.length == 0) {
+            return true;
+        }
+        if (LOGGER.isInfoEnabled()) {
+            logConflict(rowLocks, keys, conflictBranchIds[0]);
+        }
+        // Release all acquired locks, the lock waiters are not signaled since the acquisition is all or nothing and
+        // the conflicting rows were only requested, never held by this branch.
+        release();
+        if (!autoCommit) {
+            for (long conflictBranchId : conflictBranchIds) {
+                BranchSession conflictBranchSession = LOCKING_BRANCHES.get(conflictBranchId);
+                if (conflictBranchSession != null && conflictBranchSession.getLockStatus() == LockStatus.Rollbacking) {
+                    throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
                 }
             }
         }
-        if (failFast) {
-            throw new StoreException(new BranchTransactionException(LockKeyConflictFailFast));
-        }
-        return canLock;
+        return false;
     }
 
     @Override
@@ -130,20 +108,28 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        ConcurrentMap<BucketLockMap, Set<String>> lockHolder = branchSession.getLockHolder();
-        if (CollectionUtils.isEmpty(lockHolder)) {
-            return true;
-        }
-        for (Map.Entry<BucketLockMap, Set<String>> entry : lockHolder.entrySet()) {
-            BucketLockMap bucket = entry.getKey();
-            Set<String> keys = entry.getValue();
-            for (String key : keys) {
-                // remove lock only if it locked by myself
-                bucket.get().remove(key, branchSession);
+        release();
+        return true;
+    }
+
+    private void logConflict(List<RowLock> rowLocks, long[] keys, long conflictBranchId) {
+        for (int i = 0; i < keys.length; i++) {
+            long lockingTransactionId = LOCK_TABLE.getTransactionId(keys[i]);
+            if (lockingTransactionId != 0 && lockingTransactionId != branchSession.getTransactionId()) {
+                RowLock rowLock = rowLocks.get(i);
+                LOGGER.info("Global lock on [" + rowLock.getTableName() + ":" + rowLock.getPk() + "] is holding by "
+                    + lockingTransactionId);
+                return;
             }
         }
-        lockHolder.clear();
-        return true;
+        // the conflicting branch has released its rows in the meantime
+        LOGGER.info("Global lock on [" + branchSession.getResourceId() + "] is holding by " + conflictBranchId);
+    }
+
+    private void release() {
+        // remove lock only if it locked by myself
+        LOCK_TABLE.release(branchSession.getBranchId(), branchSession.getLockHolder().drain());
+        LOCKING_BRANCHES.remove(branchSession.getBranchId(), branchSession);
     }
 
     @Override
@@ -152,31 +138,13 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
-        Long transactionId = rowLocks.get(0).getTransactionId();
+        long transactionId = rowLocks.get(0).getTransactionId();
         String resourceId = rowLocks.get(0).getResourceId();
-        ConcurrentMap<String, ConcurrentMap<Integer, BucketLockMap>> dbLockMap = LOCK_MAP.get(resourceId);
-        if (dbLockMap == null) {
-            return true;
-        }
         for (RowLock rowLock : rowLocks) {
             String tableName = rowLock.getTableName();
             String pk = rowLock.getPk();
-
-            ConcurrentMap<Integer, BucketLockMap> tableLockMap = dbLockMap.get(tableName);
-            if (tableLockMap == null) {
-                continue;
-            }
-            int bucketId = pk.hashCode() % BUCKET_PER_TABLE;
-            BucketLockMap bucketLockMap = tableLockMap.get(bucketId);
-            if (bucketLockMap == null) {
-                continue;
-            }
-            BranchSession branchSession = bucketLockMap.get().get(pk);
-            Long lockingTransactionId = branchSession != null ? branchSession.getTransactionId() : null;
-            if (lockingTransactionId == null || lockingTransactionId.longValue() == transactionId) {
-                // Locked by me
-                continue;
-            } else {
+            long lockingTransactionId = LOCK_TABLE.getTransactionId(RowLockTable.keyOf(resourceId, tableName, pk));
+            if (lockingTransactionId != 0 && lockingTransactionId != transactionId) {
                 LOGGER.info("Global lock on [" + tableName + ":" + pk + "] is holding by " + lockingTransactionId);
                 return false;
             }
@@ -191,31 +159,7 @@ public class FileLocker extends AbstractLocker {
 
     @Override
     public void cleanAllLocks() {
-        LOCK_MAP.clear();
-    }
-
-    /**
-     * Because bucket lock map will be key of HashMap(lockHolder), however {@link ConcurrentHashMap} overwrites
-     * {@link Object##hashCode()} and {@link Object##equals(Object)}, that leads to hash key conflict in lockHolder.
-     * We define a {@link BucketLockMap} to hold the ConcurrentHashMap(bucketLockMap) and replace it as key of
-     * HashMap(lockHolder).
-     */
-    public static class BucketLockMap {
-        private final ConcurrentHashMap<String/* pk */, BranchSession/* branchSession */> bucketLockMap
-            = new ConcurrentHashMap<>();
-
-        ConcurrentHashMap<String, BranchSession> get() {
-            return bucketLockMap;
-        }
-
-        @Override
-        public int hashCode() {
-            return super.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            return super.equals(o);
-        }
+        LOCK_TABLE.clear();
+        LOCKING_BRANCHES.clear();
     }
 }
@@ -0,0 +1,72 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.Arrays;
+
+/**
+ * The keys of {@link RowLockTable} acquired by a branch.
+ */
+public final class RowLockHolder {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] keys = new long[0];
+
+    private int size;
+
+    /**
+     * Add a newly acquired key.
+     *
+     * @param key the key
+     */
+    synchronized void add(long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(INITIAL_CAPACITY, size << 1));
+        }
+        keys[size++] = key;
+    }
+
+    /**
+     * Take all the keys away, leaving the holder empty.
+     *
+     * @return the keys
+     */
+    public synchronized long[] drain() {
+        long[] drained = Arrays.copyOf(keys, size);
+        keys = new long[0];
+        size = 0;
+        return drained;
+    }
+
+    /**
+     * Gets the count of held keys.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Whether the holder is empty.
+     *
+     * @return true if no key is held
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The row lock table of the file lock mode.
+ * <p>
+ * A row is keyed by the 64-bit hash of resourceId, table name and pk, and mapped onto the transaction id and branch
+ * id holding it, all stored as primitive longs in striped open-addressing arrays. Two rows sharing a hash are treated
+ * as the same row, which may make a branch wait on a lock it does not really need but never lets two branches hold
+ * the same row.
+ */
+public final class RowLockTable {
+
+    private static final long[] EMPTY = new long[0];
+
+    private static final long FREE = 0L;
+
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Stripe[] stripes;
+
+    private final int stripeMask;
+
+    /**
+     * Instantiates a new Row lock table.
+     *
+     * @param stripeCount     the stripe count, rounded up to a power of two
+     * @param stripeCapacity  the initial capacity of every stripe, rounded up to a power of two
+     */
+    public RowLockTable(int stripeCount, int stripeCapacity) {
+        int count = powerOfTwo(stripeCount);
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(powerOfTwo(stripeCapacity));
+        }
+    }
+
+    /**
+     * The key of a row.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @param pk         the pk
+     * @return the key, never 0
+     */
+    public static long keyOf(String resourceId, String tableName, String pk) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, resourceId);
+        hash = mix(hash, tableName);
+        hash = mix(hash, pk);
+        // finalizer of murmur3, spreads the bits over both the stripe and the slot index
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == FREE ? 1L : hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // separator, so that ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0xffff) * FNV_PRIME;
+    }
+
+    /**
+     * Acquire all the keys for the branch, or none of them.
+     *
+     * @param transactionId the transaction id of the branch
+     * @param branchId      the branch id
+     * @param keys          the keys
+     * @param holder        the holder of the branch, the newly acquired keys are added into it
+     * @return the distinct branch ids holding the conflicting keys, empty if all the keys have been acquired
+     */
+    public long[] acquire(long transactionId, long branchId, long[] keys, RowLockHolder holder) {
+        int[] stripeIndexes = sortedStripes(keys);
+        for (int stripeIndex : stripeIndexes) {
+            stripes[stripeIndex].lock.lock();
+        }
+        try {
+            long[] conflicts = EMPTY;
+            for (long key : keys) {
+                Stripe stripe = stripes[stripeOf(key)];
+                int slot = stripe.find(key);
+                if (slot >= 0 && stripe.transactionIds[slot] != transactionId) {
+                    conflicts = addDistinct(conflicts, stripe.branchIds[slot]);
+                }
+            }
+            if (conflicts.length > 0) {
+                return conflicts;
+            }
+            for (long key : keys) {
+                if (stripes[stripeOf(key)].putIfAbsent(key, transactionId, branchId)) {
+                    holder.add(key);
+                }
+            }
+            return EMPTY;
+        } finally {
+            for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Release the keys held by the branch, the keys held by others are left untouched.
+     *
+     * @param branchId the branch id
+     * @param keys     the keys
+     */
+    public void release(long branchId, long[] keys) {
+        if (keys.length == 0) {
+            return;
+        }
+        // group the keys by stripe with a counting sort, so every stripe is locked only once
+        int[] offsets = new int[stripes.length + 1];
+        for (long key : keys) {
+            offsets[stripeOf(key) + 1]++;
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        long[] grouped = new long[keys.length];
+        int[] positions = Arrays.copyOf(offsets, stripes.length);
+        for (long key : keys) {
+            grouped[positions[stripeOf(key)]++] = key;
+        }
+        for (int stripeIndex = 0; stripeIndex < stripes.length; stripeIndex++) {
+            if (offsets[stripeIndex] == offsets[stripeIndex + 1]) {
+                continue;
+            }
+            Stripe stripe = stripes[stripeIndex];
+            stripe.lock.lock();
+            try {
+                for (int i = offsets[stripeIndex]; i < offsets[stripeIndex + 1]; i++) {
+                    stripe.remove(grouped[i], branchId);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the transaction id holding the key.
+     *
+     * @param key the key
+     * @return the transaction id, 0 if the key is free
+     */
+    public long getTransactionId(long key) {
+        Stripe stripe = stripes[stripeOf(key)];
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(key);
+            return slot >= 0 ? stripe.transactionIds[slot] : FREE;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the count of held keys.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Release all the keys.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private int stripeOf(long key) {
+        return (int)(key >>> 40) & stripeMask;
+    }
+
+    private int[] sortedStripes(long[] keys) {
+        boolean[] touched = new boolean[stripes.length];
+        int count = 0;
+        for (long key : keys) {
+            int stripeIndex = stripeOf(key);
+            if (!touched[stripeIndex]) {
+                touched[stripeIndex] = true;
+                count++;
+            }
+        }
+        int[] stripeIndexes = new int[count];
+        for (int i = 0, j = 0; i < touched.length; i++) {
+            if (touched[i]) {
+                stripeIndexes[j++] = i;
+            }
+        }
+        return stripeIndexes;
+    }
+
+    private static long[] addDistinct(long[] values, long value) {
+        for (long v : values) {
+            if (v == value) {
+                return values;
+            }
+        }
+        long[] added = Arrays.copyOf(values, values.length + 1);
+        added[values.length] = value;
+        return added;
+    }
+
+    private static int powerOfTwo(int value) {
+        int n = Math.max(value, 2) - 1;
+        return Integer.highestOneBit(n) << 1;
+    }
+
+    /**
+     * A stripe, a linear probing hash table guarded by its own lock.
+     */
+    static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private long[] keys;
+
+        private long[] transactionIds;
+
+        private long[] branchIds;
+
+        private int size;
+
+        private int threshold;
+
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            transactionIds = new long[capacity];
+            branchIds = new long[capacity];
+            threshold = (int)(capacity * LOAD_FACTOR);
+        }
+
+        private int slotOf(long key) {
+            return (int)key & (keys.length - 1);
+        }
+
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+                long current = keys[slot];
+                if (current == key) {
+                    return slot;
+                }
+                if (current == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        boolean putIfAbsent(long key, long transactionId, long branchId) {
+            int mask = keys.length - 1;
+            int slot = slotOf(key);
+            for (; keys[slot] != FREE; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return false;
+                }
+            }
+            keys[slot] = key;
+            transactionIds[slot] = transactionId;
+            branchIds[slot] = branchId;
+            if (++size > threshold) {
+                resize();
+            }
+            return true;
+        }
+
+        void remove(long key, long branchId) {
+            int slot = find(key);
+            if (slot < 0 || branchIds[slot] != branchId) {
+                return;
+            }
+            // backward shift deletion, keeps the probe sequences intact without tombstones
+            int mask = keys.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+                int home = slotOf(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    transactionIds[hole] = transactionIds[next];
+                    branchIds[hole] = branchIds[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = FREE;
+            transactionIds[hole] = FREE;
+            branchIds[hole] = FREE;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldTransactionIds = transactionIds;
+            long[] oldBranchIds = branchIds;
+            allocate(oldKeys.length << 1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    putIfAbsent(oldKeys[i], oldTransactionIds[i], oldBranchIds[i]);
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(keys, FREE);
+            Arrays.fill(transactionIds, FREE);
+            Arrays.fill(branchIds, FREE);
+            size = 0;
+        }
+    }
+}
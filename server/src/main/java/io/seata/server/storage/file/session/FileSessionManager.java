@@ -45,8 +45,10 @@ import io.seata.server.session.SessionCondition;
 import io.seata.server.storage.file.ReloadableStore;
 import io.seata.server.storage.file.TransactionWriteStore;
 import io.seata.server.storage.file.store.FileTransactionStoreManager;
+import io.seata.server.storage.file.store.SegmentedTransactionStoreManager;
 import io.seata.server.store.AbstractTransactionStoreManager;
 import io.seata.server.store.SessionStorable;
+import io.seata.server.store.StoreConfig;
 import io.seata.server.store.TransactionStoreManager;
 
 
@@ -75,8 +77,14 @@ public class FileSessionManager extends AbstractSessionManager implements Reload
     public FileSessionManager(String name, String sessionStoreFilePath) throws IOException {
         super(name);
         if (StringUtils.isNotBlank(sessionStoreFilePath)) {
-            transactionStoreManager = new FileTransactionStoreManager(
-                sessionStoreFilePath + File.separator + name, this);
+            if (StoreConfig.isSegmentedLogEnabled()) {
+                transactionStoreManager = new SegmentedTransactionStoreManager(
+                    sessionStoreFilePath + File.separator + name, this, StoreConfig.getSegmentSize(),
+                    StoreConfig.isGroupCommitEnabled());
+            } else {
+                transactionStoreManager = new FileTransactionStoreManager(
+                    sessionStoreFilePath + File.separator + name, this);
+            }
         } else {
             transactionStoreManager = new AbstractTransactionStoreManager() {
                 @Override
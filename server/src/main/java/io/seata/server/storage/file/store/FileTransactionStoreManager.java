@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
@@ -111,6 +112,8 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private WriteDataFileRunnable writeDataFileRunnable;
 
+    private GroupCommitJournal<byte[]> groupCommitJournal;
+
     private ReentrantLock writeSessionLock = new ReentrantLock();
 
     private volatile long lastModifiedTime;
@@ -135,12 +138,30 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
      * @throws IOException the io exception
      */
     public FileTransactionStoreManager(String fullFileName, SessionManager sessionManager) throws IOException {
+        this(fullFileName, sessionManager, StoreConfig.isGroupCommitEnabled());
+    }
+
+    /**
+     * Instantiates a new File transaction store manager.
+     *
+     * @param fullFileName       the dir path
+     * @param sessionManager     the session manager
+     * @param groupCommitEnabled whether to write the sessions through the group commit journal
+     * @throws IOException the io exception
+     */
+    public FileTransactionStoreManager(String fullFileName, SessionManager sessionManager, boolean groupCommitEnabled)
+        throws IOException {
         initFile(fullFileName);
         fileWriteExecutor = new ThreadPoolExecutor(MAX_THREAD_WRITE, MAX_THREAD_WRITE, Integer.MAX_VALUE,
             TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
             new NamedThreadFactory("fileTransactionStore", MAX_THREAD_WRITE, true));
         writeDataFileRunnable = new WriteDataFileRunnable();
         fileWriteExecutor.submit(writeDataFileRunnable);
+        if (groupCommitEnabled) {
+            groupCommitJournal = new GroupCommitJournal<>("fileGroupCommit", StoreConfig.getGroupCommitMaxBatchSize(),
+                StoreConfig.getGroupCommitLingerMicros(), FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL,
+                new GroupCommitBatchWriter());
+        }
         this.sessionManager = sessionManager;
     }
 
@@ -171,6 +192,9 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        if (groupCommitJournal != null) {
+            return writeSessionByGroupCommit(logOperation, session);
+        }
         long curFileTrxNum;
         writeSessionLock.lock();
         try {
@@ -193,6 +217,20 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         return true;
     }
 
+    private boolean writeSessionByGroupCommit(LogOperation logOperation, SessionStorable session) {
+        byte[] data;
+        try {
+            data = new TransactionWriteStore(session, logOperation).encode();
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        }
+        if (data == null || data.length >= Integer.MAX_VALUE - 3) {
+            return false;
+        }
+        return groupCommitJournal.append(data, MAX_WAIT_FOR_FLUSH_TIME_MILLS);
+    }
+
     private void flushDisk(long curFileNum, FileChannel currFileChannel) {
 
         if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
@@ -319,6 +357,9 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     @Override
     public void shutdown() {
+        if (groupCommitJournal != null) {
+            groupCommitJournal.shutdown();
+        }
         if (fileWriteExecutor != null) {
             fileWriteExecutor.shutdown();
             stopping = true;
@@ -477,6 +518,70 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         return false;
     }
 
+    /**
+     * Writes the batches of the group commit journal, the frames of a batch share one buffer flush and one force.
+     */
+    class GroupCommitBatchWriter implements GroupCommitJournal.BatchWriter<byte[]> {
+
+        /**
+         * the channel the last batch was written to, taken under the write lock so that a rollover of the data file
+         * before the force can not make the force miss the batch
+         */
+        private FileChannel batchChannel;
+
+        @Override
+        public boolean write(List<byte[]> frames) {
+            long curFileTrxNum;
+            FileChannel channel;
+            writeSessionLock.lock();
+            try {
+                for (byte[] frame : frames) {
+                    if (!writeDataFrame(frame)) {
+                        return false;
+                    }
+                }
+                if (!flushWriteBuffer(writeBuffer)) {
+                    return false;
+                }
+                channel = currFileChannel;
+                batchChannel = channel;
+                lastModifiedTime = System.currentTimeMillis();
+                curFileTrxNum = FILE_TRX_NUM.addAndGet(frames.size());
+                if (curFileTrxNum / PER_FILE_BLOCK_SIZE != (curFileTrxNum - frames.size()) / PER_FILE_BLOCK_SIZE
+                    && (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
+                    return saveHistory();
+                }
+            } catch (Exception exx) {
+                LOGGER.error("write batch error, {}", exx.getMessage(), exx);
+                return false;
+            } finally {
+                writeSessionLock.unlock();
+            }
+            if (FLUSH_DISK_MODE != FlushDiskMode.SYNC_MODEL) {
+                writeDataFileRunnable.putRequest(new AsyncFlushRequest(curFileTrxNum, channel));
+            }
+            return true;
+        }
+
+        @Override
+        public void force() throws IOException {
+            FileChannel channel = batchChannel;
+            if (channel == null) {
+                return;
+            }
+            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // the data file has been rolled over since the batch, it is forced before it is closed
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("the data file of the batch has been closed and forced by the rollover");
+                }
+            }
+            FILE_FLUSH_NUM.addAndGet(diff);
+        }
+    }
+
     interface StoreRequest {
 
     }
@@ -0,0 +1,364 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.metrics.Id;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.Summary;
+import io.seata.metrics.registry.Registry;
+import io.seata.server.metrics.MetricsManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The group commit journal.
+ * <p>
+ * Callers append their entries into a lock-free queue and wait. A single writer thread drains up to
+ * {@code maxBatchSize} entries, optionally lingering a little for more, writes them in one go and forces the file
+ * once for the whole batch before acknowledging every waiter of it.
+ *
+ * @param <E> the type of the entries, usually the encoded frames
+ */
+public class GroupCommitJournal<E> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitJournal.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final int MAX_SHUTDOWN_WAIT_MILLS = 3 * 1000;
+
+    private static final int PENDING = 0;
+
+    private static final int TAKEN = 1;
+
+    private static final int CANCELLED = 2;
+
+    private final String name;
+
+    private final int maxBatchSize;
+
+    private final long lingerNanos;
+
+    private final boolean forceEachBatch;
+
+    private final BatchWriter<E> batchWriter;
+
+    private final Queue<AppendRequest<E>> requests = new ConcurrentLinkedQueue<>();
+
+    private final Thread writerThread;
+
+    private volatile boolean writerParked = false;
+
+    private volatile boolean stopping = false;
+
+    private final AtomicLong fsyncCount = new AtomicLong();
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong entryCount = new AtomicLong();
+
+    /**
+     * the batch count of every power of two bucket, bucket i holds the batches of size (2^(i-1), 2^i]
+     */
+    private final AtomicLongArray batchSizeBuckets;
+
+    private Summary fsyncSummary;
+
+    private Summary batchSizeSummary;
+
+    /**
+     * Instantiates a new Group commit journal.
+     *
+     * @param name           the name, used as thread prefix and metrics tag
+     * @param maxBatchSize   the max entries of a batch
+     * @param lingerMicros   the max time the writer waits for more entries before flushing a partial batch
+     * @param forceEachBatch whether to force the file after every batch
+     * @param batchWriter    the batch writer
+     */
+    public GroupCommitJournal(String name, int maxBatchSize, long lingerMicros, boolean forceEachBatch,
+                              BatchWriter<E> batchWriter) {
+        if (maxBatchSize <= 0 || lingerMicros < 0) {
+            throw new IllegalArgumentException("the group commit settings of " + name + " are illegal");
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+        this.forceEachBatch = forceEachBatch;
+        this.batchWriter = batchWriter;
+        this.batchSizeBuckets = new AtomicLongArray(bucketOf(maxBatchSize) + 1);
+        registerMetrics();
+        this.writerThread = new NamedThreadFactory(name, 1, true).newThread(this::runWriter);
+        this.writerThread.start();
+    }
+
+    /**
+     * Append the entry and wait until the batch containing it has been written.
+     *
+     * @param entry         the entry
+     * @param timeoutMills  the max time to wait for the entry to be taken by the writer
+     * @return true if the entry has been written, false otherwise
+     */
+    public boolean append(E entry, long timeoutMills) {
+        if (stopping) {
+            return false;
+        }
+        AppendRequest<E> request = new AppendRequest<>(entry);
+        requests.offer(request);
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+        try {
+            if (request.await(timeoutMills)) {
+                return request.success;
+            }
+            if (request.state.compareAndSet(PENDING, CANCELLED)) {
+                LOGGER.error("group commit of {} timeout, the entry is abandoned", name);
+                return false;
+            }
+            // already taken by the writer, the result comes soon
+            request.await();
+            return request.success;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.state.compareAndSet(PENDING, CANCELLED);
+            return false;
+        }
+    }
+
+    private void runWriter() {
+        List<AppendRequest<E>> batch = new ArrayList<>(maxBatchSize);
+        while (!stopping || !requests.isEmpty()) {
+            try {
+                if (!collect(batch)) {
+                    park(IDLE_PARK_NANOS);
+                    continue;
+                }
+                commit(batch);
+            } catch (Throwable th) {
+                LOGGER.error("group commit of {} error: {}", name, th.getMessage(), th);
+                complete(batch, false);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean collect(List<AppendRequest<E>> batch) {
+        drain(batch);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        if (lingerNanos > 0 && batch.size() < maxBatchSize) {
+            long deadline = System.nanoTime() + lingerNanos;
+            long remaining;
+            while (batch.size() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                if (requests.isEmpty()) {
+                    park(remaining);
+                }
+                drain(batch);
+            }
+        }
+        return true;
+    }
+
+    private void drain(List<AppendRequest<E>> batch) {
+        AppendRequest<E> request;
+        while (batch.size() < maxBatchSize && (request = requests.poll()) != null) {
+            if (request.state.compareAndSet(PENDING, TAKEN)) {
+                batch.add(request);
+            }
+        }
+    }
+
+    private void park(long nanos) {
+        writerParked = true;
+        try {
+            if (requests.isEmpty() && !stopping) {
+                LockSupport.parkNanos(this, nanos);
+            }
+        } finally {
+            writerParked = false;
+        }
+    }
+
+    private void commit(List<AppendRequest<E>> batch) throws IOException {
+        List<E> entries = new ArrayList<>(batch.size());
+        for (AppendRequest<E> request : batch) {
+            entries.add(request.entry);
+        }
+        boolean success = batchWriter.write(entries);
+        if (success && forceEachBatch) {
+            batchWriter.force();
+            fsyncCount.incrementAndGet();
+            if (fsyncSummary != null) {
+                fsyncSummary.increase();
+            }
+        }
+        batchCount.incrementAndGet();
+        entryCount.addAndGet(batch.size());
+        batchSizeBuckets.incrementAndGet(bucketOf(batch.size()));
+        if (batchSizeSummary != null) {
+            batchSizeSummary.increase(batch.size());
+        }
+        complete(batch, success);
+    }
+
+    private void complete(List<AppendRequest<E>> batch, boolean success) {
+        for (AppendRequest<E> request : batch) {
+            request.success = success;
+            request.done.countDown();
+        }
+    }
+
+    static int bucketOf(int batchSize) {
+        return batchSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(batchSize - 1);
+    }
+
+    /**
+     * Gets the count of file forces.
+     *
+     * @return the fsync count
+     */
+    public long getFsyncCount() {
+        return fsyncCount.get();
+    }
+
+    /**
+     * Gets the count of committed batches.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Gets the count of committed entries.
+     *
+     * @return the entry count
+     */
+    public long getEntryCount() {
+        return entryCount.get();
+    }
+
+    /**
+     * Gets the batch size distribution, element i is the count of batches of size (2^(i-1), 2^i].
+     *
+     * @return the batch size distribution
+     */
+    public long[] getBatchSizeDistribution() {
+        long[] distribution = new long[batchSizeBuckets.length()];
+        for (int i = 0; i < distribution.length; i++) {
+            distribution[i] = batchSizeBuckets.get(i);
+        }
+        return distribution;
+    }
+
+    private void registerMetrics() {
+        Registry registry = MetricsManager.get().getRegistry();
+        if (registry == null) {
+            return;
+        }
+        fsyncSummary = registry.getSummary(newId(IdConstants.TYPE_VALUE_FSYNC, IdConstants.METER_VALUE_SUMMARY));
+        batchSizeSummary = registry.getSummary(newId(IdConstants.TYPE_VALUE_BATCH_SIZE,
+            IdConstants.METER_VALUE_SUMMARY));
+        for (int i = 0; i < batchSizeBuckets.length(); i++) {
+            final int bucket = i;
+            registry.getGauge(newId(IdConstants.TYPE_VALUE_BATCH_SIZE, IdConstants.METER_VALUE_GAUGE)
+                .withTag(IdConstants.BUCKET_KEY, String.valueOf(1 << bucket)), () -> batchSizeBuckets.get(bucket));
+        }
+    }
+
+    private Id newId(String type, String meter) {
+        return new Id(IdConstants.SEATA_STORE)
+            .withTag(IdConstants.ROLE_KEY, IdConstants.ROLE_VALUE_TC)
+            .withTag(IdConstants.NAME_KEY, name)
+            .withTag(IdConstants.TYPE_KEY, type)
+            .withTag(IdConstants.METER_KEY, meter);
+    }
+
+    /**
+     * Stop accepting entries, commit the queued ones and stop the writer.
+     */
+    public void shutdown() {
+        stopping = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(MAX_SHUTDOWN_WAIT_MILLS);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The writer of the batches, only called by the writer thread.
+     *
+     * @param <E> the type of the entries
+     */
+    public interface BatchWriter<E> {
+
+        /**
+         * Write the entries of a batch.
+         *
+         * @param entries the entries
+         * @return true if all the entries have been written
+         */
+        boolean write(List<E> entries);
+
+        /**
+         * Force the written entries to the disk.
+         *
+         * @throws IOException the io exception
+         */
+        void force() throws IOException;
+    }
+
+    static final class AppendRequest<E> {
+
+        private final E entry;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile boolean success;
+
+        AppendRequest(E entry) {
+            this.entry = entry;
+        }
+
+        boolean await(long timeoutMills) throws InterruptedException {
+            return done.await(timeoutMills, TimeUnit.MILLISECONDS);
+        }
+
+        void await() throws InterruptedException {
+            done.await();
+        }
+    }
+}
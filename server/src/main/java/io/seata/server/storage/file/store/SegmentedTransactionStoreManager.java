@@ -0,0 +1,814 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionCondition;
+import io.seata.server.session.SessionManager;
+import io.seata.server.storage.file.FlushDiskMode;
+import io.seata.server.storage.file.ReloadableStore;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.store.AbstractTransactionStoreManager;
+import io.seata.server.store.SessionStorable;
+import io.seata.server.store.StoreConfig;
+import io.seata.server.store.TransactionStoreManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The segmented file transaction store manager.
+ * <p>
+ * The log is split into fixed size segment files, the active one is memory mapped while being written. Every segment
+ * keeps a sparse index holding the offset where each xid shows up first in it, persisted when the segment is sealed.
+ * A checkpoint file records the position the replay has to start from, and the sealed segments at the head of the log
+ * are deleted as soon as none of their transactions is alive any more, instead of being rewritten into a history file.
+ * Once the log grows beyond {@link #COMPACT_SEGMENT_COUNT} segments, the frames of the live transactions in the two
+ * segments at the head are merged into one, so a long-lived transaction can not pin the whole log behind it.
+ * <p>
+ * A frame is laid out as its body length, the CRC32 of its body and the body. The length is written last, and the
+ * replay stops at the first frame whose checksum does not match, as the mapped pages may reach the disk in any order.
+ */
+public class SegmentedTransactionStoreManager extends AbstractTransactionStoreManager
+    implements TransactionStoreManager, ReloadableStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedTransactionStoreManager.class);
+
+    private static final String SEGMENT_FILE_POSTFIX = ".seg";
+
+    private static final String INDEX_FILE_POSTFIX = ".idx";
+
+    private static final String CHECKPOINT_FILE_POSTFIX = ".checkpoint";
+
+    private static final String TEMP_FILE_POSTFIX = ".tmp";
+
+    private static final String SEGMENT_ID_FORMAT = "%020d";
+
+    private static final int MARK_SIZE = 4;
+
+    private static final int CRC_SIZE = 4;
+
+    private static final int FRAME_HEAD_SIZE = MARK_SIZE + CRC_SIZE;
+
+    /**
+     * The segments kept before the two segments at the head are merged.
+     */
+    public static final int COMPACT_SEGMENT_COUNT = 3;
+
+    /**
+     * Min 1mb.
+     */
+    public static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final int MAINTAIN_INTERVAL_MILLS = 1000;
+
+    private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
+
+    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
+
+    private final File dir;
+
+    private final String filePrefix;
+
+    private final File checkpointFile;
+
+    private final int segmentSize;
+
+    private final SessionManager sessionManager;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final Set<String> liveXids = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Segment activeSegment;
+
+    private GroupCommitJournal<Frame> groupCommitJournal;
+
+    private final ScheduledExecutorService maintainExecutor;
+
+    private volatile boolean recovered = false;
+
+    private long lastCheckpointSegmentId = -1;
+
+    private int lastCheckpointOffset = -1;
+
+    private Segment readSegment;
+
+    private ByteBuffer readBuffer;
+
+    private int readOffset;
+
+    /**
+     * Instantiates a new Segmented transaction store manager.
+     *
+     * @param fullFileName       the file name prefix of the segments
+     * @param sessionManager     the session manager
+     * @param segmentSize        the size of every segment
+     * @param groupCommitEnabled whether to write the sessions through the group commit journal
+     * @throws IOException the io exception
+     */
+    public SegmentedTransactionStoreManager(String fullFileName, SessionManager sessionManager, int segmentSize,
+                                            boolean groupCommitEnabled) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("the segment size must not be less than " + MIN_SEGMENT_SIZE);
+        }
+        File baseFile = new File(fullFileName).getAbsoluteFile();
+        this.dir = baseFile.getParentFile();
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        this.filePrefix = baseFile.getName() + ".";
+        this.checkpointFile = new File(dir, baseFile.getName() + CHECKPOINT_FILE_POSTFIX);
+        this.segmentSize = segmentSize;
+        this.sessionManager = sessionManager;
+        loadSegments();
+        if (groupCommitEnabled) {
+            groupCommitJournal = new GroupCommitJournal<>("segmentGroupCommit",
+                StoreConfig.getGroupCommitMaxBatchSize(), StoreConfig.getGroupCommitLingerMicros(),
+                FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL, new GroupCommitBatchWriter());
+        }
+        maintainExecutor = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("segmentedTransactionStore", 1, true));
+        maintainExecutor.scheduleAtFixedRate(this::maintain, MAINTAIN_INTERVAL_MILLS, MAINTAIN_INTERVAL_MILLS,
+            TimeUnit.MILLISECONDS);
+    }
+
+    private void loadSegments() throws IOException {
+        long[] checkpoint = readCheckpoint();
+        File[] files = dir.listFiles((d, name) -> name.startsWith(filePrefix) && name.endsWith(SEGMENT_FILE_POSTFIX));
+        List<Long> ids = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    ids.add(Long.parseLong(
+                        name.substring(filePrefix.length(), name.length() - SEGMENT_FILE_POSTFIX.length())));
+                } catch (NumberFormatException ignore) {
+                    // not a segment of this log
+                }
+            }
+        }
+        ids.sort(Long::compareTo);
+        for (Long id : ids) {
+            Segment segment = new Segment(id);
+            if (checkpoint != null && id < checkpoint[0]) {
+                // all the transactions of the segments before the checkpoint have been finished
+                segment.delete();
+                continue;
+            }
+            segment.loadIndex();
+            segment.sealed = true;
+            segments.put(id, segment);
+        }
+        if (segments.isEmpty()) {
+            activeSegment = createSegment(checkpoint != null ? checkpoint[0] : 0L);
+        } else {
+            activeSegment = segments.lastEntry().getValue();
+            activeSegment.open();
+        }
+        readSegment = segments.firstEntry().getValue();
+        if (checkpoint != null && checkpoint[0] == readSegment.id) {
+            readOffset = (int)checkpoint[1];
+        }
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = new Segment(id);
+        try (RandomAccessFile raf = new RandomAccessFile(segment.file, "rw")) {
+            raf.setLength(segmentSize);
+        }
+        segment.open();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    @Override
+    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        Frame frame;
+        try {
+            frame = new Frame(xidOf(session), new TransactionWriteStore(session, logOperation).encode());
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        }
+        if (frame.data == null) {
+            return false;
+        }
+        if (logOperation == LogOperation.GLOBAL_ADD && frame.xid != null) {
+            liveXids.add(frame.xid);
+        }
+        boolean success;
+        if (groupCommitJournal != null) {
+            success = groupCommitJournal.append(frame, MAX_WAIT_FOR_FLUSH_TIME_MILLS);
+        } else {
+            writeLock.lock();
+            try {
+                success = appendFrame(frame);
+            } finally {
+                writeLock.unlock();
+            }
+            if (success && FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+                force();
+            }
+        }
+        if (frame.xid != null && (success ? logOperation == LogOperation.GLOBAL_REMOVE
+            : logOperation == LogOperation.GLOBAL_ADD)) {
+            liveXids.remove(frame.xid);
+        }
+        return success;
+    }
+
+    private boolean appendFrame(Frame frame) {
+        int frameSize = FRAME_HEAD_SIZE + frame.data.length;
+        if (frameSize > segmentSize) {
+            LOGGER.error("the frame size {} is larger than the segment size {}", frameSize, segmentSize);
+            return false;
+        }
+        try {
+            Segment segment = activeSegment;
+            if (segment.writePosition + frameSize > segment.size) {
+                segment = roll();
+            }
+            int position = segment.writePosition;
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(position + FRAME_HEAD_SIZE);
+            buffer.put(frame.data);
+            segment.buffer.putInt(position + MARK_SIZE, crcOf(frame.data));
+            if (position + frameSize + MARK_SIZE <= segment.size) {
+                // clear the stale length behind, so the scan on restart stops right after this frame
+                segment.buffer.putInt(position + frameSize, 0);
+            }
+            // the length goes last, a torn frame reads as the end of the segment
+            segment.buffer.putInt(position, frame.data.length);
+            segment.writePosition = position + frameSize;
+            if (frame.xid != null) {
+                segment.index.putIfAbsent(frame.xid, position);
+            }
+            return true;
+        } catch (Exception exx) {
+            LOGGER.error("append segment error, {}", exx.getMessage(), exx);
+            return false;
+        }
+    }
+
+    private Segment roll() throws IOException {
+        Segment sealed = activeSegment;
+        sealed.buffer.force();
+        sealed.writeIndex();
+        sealed.seal();
+        Segment next = createSegment(sealed.id + 1);
+        activeSegment = next;
+        return next;
+    }
+
+    private void force() {
+        MappedByteBuffer buffer = activeSegment.buffer;
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    private void maintain() {
+        try {
+            if (FLUSH_DISK_MODE != FlushDiskMode.SYNC_MODEL) {
+                force();
+            }
+            if (recovered) {
+                deleteFinishedSegments();
+                compactHeadSegments();
+                writeCheckpoint();
+            }
+        } catch (Throwable th) {
+            LOGGER.error("maintain segments error: {}", th.getMessage(), th);
+        }
+    }
+
+    private void deleteFinishedSegments() {
+        for (Segment segment : segments.values()) {
+            if (!segment.sealed || segment.hasLiveXid()) {
+                return;
+            }
+            segments.remove(segment.id);
+            segment.delete();
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("segment {} is deleted, all of its transactions have been finished", segment.file.getName());
+            }
+        }
+    }
+
+    /**
+     * Merge the two sealed segments at the head of the log into one, once the log holds more than
+     * {@link #COMPACT_SEGMENT_COUNT} segments. Only the frames of the transactions still alive are kept and they keep
+     * their order, so the merged segment replays into the same sessions as both segments did. The merged segment takes
+     * the place of the second one before the head is deleted, a crash in between replays the kept frames of the head
+     * twice, which ends in the same state.
+     */
+    private void compactHeadSegments() throws IOException {
+        if (segments.size() <= COMPACT_SEGMENT_COUNT) {
+            return;
+        }
+        Segment head = segments.firstEntry().getValue();
+        Map.Entry<Long, Segment> nextEntry = segments.higherEntry(head.id);
+        if (nextEntry == null || !head.sealed || !nextEntry.getValue().sealed) {
+            return;
+        }
+        Segment next = nextEntry.getValue();
+        List<ByteBuffer> frames = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        int size = collectLiveFrames(head, frames, index, 0);
+        if (size >= 0) {
+            size = collectLiveFrames(next, frames, index, size);
+        }
+        if (size < 0 || size > segmentSize) {
+            return;
+        }
+        File tempFile = new File(dir, next.file.getName() + TEMP_FILE_POSTFIX);
+        try (RandomAccessFile raf = new RandomAccessFile(tempFile, "rw")) {
+            raf.setLength(0);
+            FileChannel channel = raf.getChannel();
+            for (ByteBuffer frame : frames) {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile.toPath(), next.file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        next.index.clear();
+        next.index.putAll(index);
+        next.writeIndex();
+        segments.remove(head.id);
+        head.delete();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("segment {} is merged into segment {}, {} bytes of live frames are kept", head.file.getName(),
+                next.file.getName(), size);
+        }
+    }
+
+    /**
+     * Collect the frames of the live transactions in the segment.
+     *
+     * @return the offset behind the collected frames, -1 if a frame of the segment is corrupted
+     */
+    private int collectLiveFrames(Segment segment, List<ByteBuffer> frames, Map<String, Integer> index, int offset)
+        throws IOException {
+        ByteBuffer buffer = segment.mapForRead();
+        int position = 0;
+        int end;
+        while ((end = frameEnd(buffer, position)) > 0) {
+            String xid = xidOfFrame(buffer, position, end);
+            if (xid != null && liveXids.contains(xid)) {
+                ByteBuffer frame = buffer.duplicate();
+                frame.limit(end);
+                frame.position(position);
+                frames.add(frame);
+                index.putIfAbsent(xid, offset);
+                offset += end - position;
+            }
+            position = end;
+        }
+        if (end < 0) {
+            LOGGER.error("the checksum of the frame at {} of segment {} does not match, the segment is not compacted",
+                position, segment.file.getName());
+            return -1;
+        }
+        return offset;
+    }
+
+    private static String xidOfFrame(ByteBuffer buffer, int position, int end) {
+        byte[] body = new byte[end - position - FRAME_HEAD_SIZE];
+        ByteBuffer bodyBuffer = buffer.duplicate();
+        bodyBuffer.position(position + FRAME_HEAD_SIZE);
+        bodyBuffer.get(body);
+        try {
+            TransactionWriteStore writeStore = new TransactionWriteStore();
+            writeStore.decode(body);
+            return xidOf(writeStore.getSessionRequest());
+        } catch (Exception exx) {
+            // the replay skips the frames it can not decode as well
+            return null;
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Segment head = segments.firstEntry().getValue();
+        // read the write position before the index, a transaction indexed later can not start before it
+        int offset = head.writePosition;
+        for (Map.Entry<String, Integer> entry : head.index.entrySet()) {
+            if (entry.getValue() < offset && liveXids.contains(entry.getKey())) {
+                offset = entry.getValue();
+            }
+        }
+        if (head.id == lastCheckpointSegmentId && offset == lastCheckpointOffset) {
+            return;
+        }
+        File tempFile = new File(dir, checkpointFile.getName() + TEMP_FILE_POSTFIX);
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(tempFile))) {
+            output.writeLong(head.id);
+            output.writeInt(offset);
+            output.writeLong(System.currentTimeMillis());
+        }
+        Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        lastCheckpointSegmentId = head.id;
+        lastCheckpointOffset = offset;
+    }
+
+    private long[] readCheckpoint() {
+        if (!checkpointFile.exists()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new FileInputStream(checkpointFile))) {
+            return new long[] {input.readLong(), input.readInt()};
+        } catch (IOException exx) {
+            LOGGER.error("read checkpoint error, replay from the first segment: {}", exx.getMessage(), exx);
+            return null;
+        }
+    }
+
+    @Override
+    public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(readSize);
+        if (isHistory) {
+            return transactionWriteStores;
+        }
+        while (transactionWriteStores.size() < readSize && nextFrame()) {
+            int framePosition = readOffset;
+            int bodySize = readBuffer.getInt(framePosition);
+            byte[] body = new byte[bodySize];
+            ByteBuffer buffer = readBuffer.duplicate();
+            buffer.position(framePosition + FRAME_HEAD_SIZE);
+            buffer.get(body);
+            readOffset = framePosition + FRAME_HEAD_SIZE + bodySize;
+            try {
+                TransactionWriteStore writeStore = new TransactionWriteStore();
+                writeStore.decode(body);
+                transactionWriteStores.add(writeStore);
+                String xid = xidOf(writeStore.getSessionRequest());
+                if (xid != null && !readSegment.indexLoaded) {
+                    readSegment.index.putIfAbsent(xid, framePosition);
+                }
+            } catch (Exception ex) {
+                LOGGER.error("decode segment {} error:{}", readSegment.file.getName(), ex.getMessage(), ex);
+            }
+        }
+        return transactionWriteStores;
+    }
+
+    @Override
+    public boolean hasRemaining(boolean isHistory) {
+        if (isHistory) {
+            return false;
+        }
+        if (nextFrame()) {
+            return true;
+        }
+        finishRecovery();
+        return false;
+    }
+
+    /**
+     * Move the read cursor onto the next complete frame, crossing the segment boundaries.
+     */
+    private boolean nextFrame() {
+        while (readSegment != null) {
+            try {
+                if (readBuffer == null) {
+                    readBuffer = readSegment.mapForRead();
+                }
+            } catch (IOException exx) {
+                LOGGER.error("map segment {} error:{}", readSegment.file.getName(), exx.getMessage(), exx);
+                readBuffer = ByteBuffer.allocate(0);
+            }
+            int frameEnd = frameEnd(readBuffer, readOffset);
+            if (frameEnd > 0) {
+                return true;
+            }
+            if (frameEnd < 0) {
+                LOGGER.error("the checksum of the frame at {} of segment {} does not match, the replay stops there",
+                    readOffset, readSegment.file.getName());
+                return false;
+            }
+            if (readSegment == activeSegment) {
+                return false;
+            }
+            Map.Entry<Long, Segment> next = segments.higherEntry(readSegment.id);
+            if (next == null) {
+                return false;
+            }
+            readSegment = next.getValue();
+            readBuffer = null;
+            readOffset = 0;
+        }
+        return false;
+    }
+
+    private void finishRecovery() {
+        if (recovered) {
+            return;
+        }
+        readSegment = null;
+        readBuffer = null;
+        if (sessionManager != null) {
+            for (GlobalSession globalSession : sessionManager.allSessions()) {
+                liveXids.add(globalSession.getXid());
+            }
+        }
+        for (Segment segment : segments.values()) {
+            if (segment.sealed && !segment.indexLoaded) {
+                try {
+                    segment.writeIndex();
+                } catch (IOException exx) {
+                    LOGGER.error("write index of segment {} error:{}", segment.file.getName(), exx.getMessage(), exx);
+                }
+            }
+        }
+        recovered = true;
+    }
+
+    @Override
+    public GlobalSession readSession(String xid) {
+        throw new StoreException("unsupport for read from file, xid:" + xid);
+    }
+
+    @Override
+    public List<GlobalSession> readSession(SessionCondition sessionCondition) {
+        throw new StoreException("unsupport for read from file");
+    }
+
+    @Override
+    public void shutdown() {
+        if (groupCommitJournal != null) {
+            groupCommitJournal.shutdown();
+        }
+        maintainExecutor.shutdown();
+        try {
+            maintainExecutor.awaitTermination(MAINTAIN_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            force();
+            if (recovered) {
+                writeCheckpoint();
+            }
+        } catch (IOException exx) {
+            LOGGER.error("write checkpoint error: {}", exx.getMessage(), exx);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the ids of the segments on the disk.
+     *
+     * @return the segment ids
+     */
+    public List<Long> getSegmentIds() {
+        return new ArrayList<>(segments.keySet());
+    }
+
+    private static String xidOf(SessionStorable session) {
+        if (session instanceof GlobalSession) {
+            return ((GlobalSession)session).getXid();
+        }
+        if (session instanceof BranchSession) {
+            return ((BranchSession)session).getXid();
+        }
+        return null;
+    }
+
+    static final class Frame {
+
+        private final String xid;
+
+        private final byte[] data;
+
+        Frame(String xid, byte[] data) {
+            this.xid = xid;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Writes the batches of the group commit journal into the active segment.
+     */
+    class GroupCommitBatchWriter implements GroupCommitJournal.BatchWriter<Frame> {
+
+        @Override
+        public boolean write(List<Frame> frames) {
+            writeLock.lock();
+            try {
+                for (Frame frame : frames) {
+                    if (!appendFrame(frame)) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public void force() {
+            SegmentedTransactionStoreManager.this.force();
+        }
+    }
+
+    /**
+     * A segment of the log
+     */
+    final class Segment {
+
+        private final long id;
+
+        private final File file;
+
+        private final File indexFile;
+
+        /**
+         * the sparse index, the offset of the first frame of every xid in this segment
+         */
+        private final Map<String, Integer> index = new ConcurrentHashMap<>();
+
+        private volatile MappedByteBuffer buffer;
+
+        private volatile int writePosition;
+
+        private volatile boolean sealed;
+
+        private boolean indexLoaded;
+
+        private int size;
+
+        Segment(long id) {
+            this.id = id;
+            String name = filePrefix + String.format(SEGMENT_ID_FORMAT, id);
+            this.file = new File(dir, name + SEGMENT_FILE_POSTFIX);
+            this.indexFile = new File(dir, name + INDEX_FILE_POSTFIX);
+        }
+
+        void open() throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                size = (int)raf.length();
+                buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+            writePosition = scanEnd(buffer);
+            sealed = false;
+        }
+
+        void seal() {
+            buffer = null;
+            sealed = true;
+        }
+
+        ByteBuffer mapForRead() throws IOException {
+            MappedByteBuffer activeBuffer = buffer;
+            if (activeBuffer != null) {
+                ByteBuffer readBuffer = activeBuffer.duplicate();
+                readBuffer.limit(writePosition);
+                return readBuffer;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                return raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            }
+        }
+
+        boolean hasLiveXid() {
+            for (String xid : index.keySet()) {
+                if (liveXids.contains(xid)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void writeIndex() throws IOException {
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+                output.writeInt(index.size());
+                for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeInt(entry.getValue());
+                }
+            }
+            indexLoaded = true;
+        }
+
+        void loadIndex() {
+            if (!indexFile.exists()) {
+                return;
+            }
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(indexFile)))) {
+                int count = input.readInt();
+                for (int i = 0; i < count; i++) {
+                    index.put(input.readUTF(), input.readInt());
+                }
+                indexLoaded = true;
+            } catch (IOException exx) {
+                index.clear();
+                LOGGER.error("load index {} error, rebuild it by replay: {}", indexFile.getName(), exx.getMessage(),
+                    exx);
+            }
+        }
+
+        void delete() {
+            buffer = null;
+            for (File f : Arrays.asList(file, indexFile)) {
+                if (f.exists() && !f.delete()) {
+                    LOGGER.warn("delete file {} failed", f.getName());
+                }
+            }
+        }
+    }
+
+    static int scanEnd(ByteBuffer buffer) {
+        int position = 0;
+        int end;
+        while ((end = frameEnd(buffer, position)) > 0) {
+            position = end;
+        }
+        return position;
+    }
+
+    /**
+     * Check the frame at the position.
+     *
+     * @return the end of the frame, 0 if there is no complete frame, -1 if the checksum does not match
+     */
+    static int frameEnd(ByteBuffer buffer, int position) {
+        int limit = buffer.limit();
+        if (position + FRAME_HEAD_SIZE > limit) {
+            return 0;
+        }
+        int bodySize = buffer.getInt(position);
+        if (bodySize <= 0 || bodySize > limit - position - FRAME_HEAD_SIZE) {
+            return 0;
+        }
+        ByteBuffer body = buffer.duplicate();
+        body.limit(position + FRAME_HEAD_SIZE + bodySize);
+        body.position(position + FRAME_HEAD_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if ((int)crc.getValue() != buffer.getInt(position + MARK_SIZE)) {
+            return -1;
+        }
+        return position + FRAME_HEAD_SIZE + bodySize;
+    }
+
+    static int crcOf(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int)crc.getValue();
+    }
+}
@@ -45,6 +45,21 @@ public class StoreConfig {
      */
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    /**
+     * Default 256 frames.
+     */
+    private static final int DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Default no linger, a batch is what queued up during the previous flush.
+     */
+    private static final long DEFAULT_GROUP_COMMIT_LINGER_MICROS = 0L;
+
+    /**
+     * Default 64mb.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 64;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "maxBranchSessionSize", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -60,4 +75,25 @@ public class StoreConfig {
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flushDiskMode"));
     }
+
+    public static boolean isGroupCommitEnabled() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "groupCommitEnabled", false);
+    }
+
+    public static int getGroupCommitMaxBatchSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxBatchSize",
+            DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE);
+    }
+
+    public static long getGroupCommitLingerMicros() {
+        return CONFIGURATION.getLong(STORE_FILE_PREFIX + "groupCommitLingerMicros", DEFAULT_GROUP_COMMIT_LINGER_MICROS);
+    }
+
+    public static boolean isSegmentedLogEnabled() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "segmentedLogEnabled", false);
+    }
+
+    public static int getSegmentSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "segmentSize", DEFAULT_SEGMENT_SIZE);
+    }
 }
@@ -31,6 +31,7 @@ import io.seata.server.session.GlobalSession;
 
 
 import static io.seata.common.Constants.AUTO_COMMIT;
+import static io.seata.common.Constants.LOCK_WAIT_NOTIFY;
 import static io.seata.common.Constants.SKIP_CHECK_LOCK;
 import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflict;
 
@@ -58,6 +59,7 @@ public class ATCore extends AbstractCore {
         String applicationData = branchSession.getApplicationData();
         boolean autoCommit = true;
         boolean skipCheckLock = false;
+        boolean lockWaitNotify = false;
         if (StringUtils.isNotBlank(applicationData)) {
             if (objectMapper == null) {
                 objectMapper = new ObjectMapper();
@@ -72,12 +74,16 @@ public class ATCore extends AbstractCore {
                 if (clientSkipCheckLock instanceof Boolean) {
                     skipCheckLock = (boolean)clientSkipCheckLock;
                 }
+                Object clientLockWaitNotify = data.get(LOCK_WAIT_NOTIFY);
+                if (clientLockWaitNotify instanceof Boolean) {
+                    lockWaitNotify = (boolean)clientLockWaitNotify;
+                }
             } catch (IOException e) {
                 LOGGER.error("failed to get application data: {}", e.getMessage(), e);
             }
         }
         try {
-            if (!branchSession.lock(autoCommit, skipCheckLock)) {
+            if (!lockOrWait(branchSession, autoCommit, skipCheckLock, lockWaitNotify)) {
                 throw new BranchTransactionException(LockKeyConflict,
                     String.format("Global lock acquire failed xid = %s branchId = %s", globalSession.getXid(),
                         branchSession.getBranchId()));
@@ -92,6 +98,29 @@ public class ATCore extends AbstractCore {
         }
     }
 
+    /**
+     * Acquire the locks of the branch, a branch asking to wait is queued on a conflict and tries once more, as the
+     * holder may have released the rows and signaled the queue before the branch was in it.
+     */
+    private boolean lockOrWait(BranchSession branchSession, boolean autoCommit, boolean skipCheckLock,
+        boolean lockWaitNotify) throws TransactionException {
+        try {
+            if (branchSession.lock(autoCommit, skipCheckLock)) {
+                return true;
+            }
+        } catch (StoreException e) {
+            if (!lockWaitNotify || !(e.getCause() instanceof BranchTransactionException)
+                || ((BranchTransactionException)e.getCause()).getCode() != LockKeyConflict) {
+                throw e;
+            }
+        }
+        if (!lockWaitNotify) {
+            return false;
+        }
+        lockManager.getLockWaitQueue().register(branchSession);
+        return branchSession.lock(autoCommit, skipCheckLock);
+    }
+
     @Override
     protected void branchSessionUnlock(BranchSession branchSession) throws TransactionException {
         branchSession.unlock();
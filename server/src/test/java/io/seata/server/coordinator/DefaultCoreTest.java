@@ -16,9 +16,13 @@
 package io.seata.server.coordinator;
 
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Stream;
 
+import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
@@ -27,6 +31,7 @@ import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.transaction.at.ATCore;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -232,6 +237,53 @@ public class DefaultCoreTest {
         Assertions.assertEquals(globalSession.getStatus(), GlobalStatus.CommitRetrying);
     }
 
+    /**
+     * Branch commit async test.
+     *
+     * @param xid the xid
+     * @throws Exception the exception
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void branchCommitAsyncTest(String xid) throws Exception {
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, resourceId,
+            applicationData, "t1:1", clientId);
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Committed,
+            core.getCore(BranchType.AT).branchCommitAsync(branchSession).get());
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked,
+            core.getCore(BranchType.AT).branchRollbackAsync(branchSession).get());
+    }
+
+    /**
+     * Branch commit async send failure test.
+     *
+     * @param xid the xid
+     */
+    @ParameterizedTest
+    @MethodSource("xidProvider")
+    public void branchCommitAsyncSendFailureTest(String xid) {
+        globalSession = SessionHolder.findGlobalSession(xid);
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT, resourceId,
+            applicationData, "t1:1", clientId);
+        ATCore atCore = new ATCore(new DefaultCoordinatorTest.MockServerMessageSender() {
+            @Override
+            public Object sendSyncRequest(String resourceId, String clientId, Object message)
+                throws TimeoutException {
+                throw new TimeoutException("mock timeout");
+            }
+        });
+        ExecutionException commitFailure = Assertions.assertThrows(ExecutionException.class,
+            () -> atCore.branchCommitAsync(branchSession).get());
+        Assertions.assertTrue(commitFailure.getCause() instanceof BranchTransactionException);
+        Assertions.assertEquals(TransactionExceptionCode.FailedToSendBranchCommitRequest,
+            ((BranchTransactionException) commitFailure.getCause()).getCode());
+        ExecutionException rollbackFailure = Assertions.assertThrows(ExecutionException.class,
+            () -> atCore.branchRollbackAsync(branchSession).get());
+        Assertions.assertEquals(TransactionExceptionCode.FailedToSendBranchRollbackRequest,
+            ((BranchTransactionException) rollbackFailure.getCause()).getCode());
+    }
+
     /**
      * Roll back test.
      *
@@ -0,0 +1,150 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.seata.common.DefaultValues.DEFAULT_TX_GROUP;
+
+/**
+ * The type Partitioned session scheduler test.
+ */
+public class PartitionedSessionSchedulerTest {
+
+    private PartitionedSessionScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new PartitionedSessionScheduler("Test", 4, 2, 100, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    public void testDispatchWithoutBarrier() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        GlobalSession slowSession = newGlobalSession("jdbc:mysql://127.0.0.1:3306/slow");
+        scheduler.dispatch(Collections.singletonList(slowSession), blockingHandler(new CountDownLatch(1), release));
+
+        // the next round is neither held back by the slow session nor waits for its own sessions
+        List<GlobalSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sessions.add(newGlobalSession("jdbc:mysql://127.0.0.1:3306/db" + i));
+        }
+        Set<String> handled = ConcurrentHashMap.newKeySet();
+        CountDownLatch allHandled = new CountDownLatch(sessions.size());
+        scheduler.dispatch(sessions, globalSession -> {
+            handled.add(globalSession.getXid());
+            allHandled.countDown();
+        });
+        Assertions.assertTrue(allHandled.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(sessions.size(), handled.size());
+        Assertions.assertEquals(1, release.getCount());
+        release.countDown();
+        waitUntil(() -> scheduler.getDrainedCount() == sessions.size() + 1);
+        Assertions.assertEquals(0, scheduler.getDeferredCount());
+    }
+
+    @Test
+    public void testInflightSessionNotDispatchedTwice() throws InterruptedException {
+        GlobalSession globalSession = newGlobalSession("jdbc:mysql://127.0.0.1:3306/db");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.dispatch(Collections.singletonList(globalSession), blockingHandler(started, release));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        AtomicBoolean handledTwice = new AtomicBoolean();
+        scheduler.dispatch(Collections.singletonList(globalSession), session -> handledTwice.set(true));
+        release.countDown();
+        waitUntil(() -> scheduler.getDrainedCount() == 1);
+        Assertions.assertFalse(handledTwice.get());
+        Assertions.assertEquals(0, scheduler.getDeferredCount());
+
+        // handled again on the next round once it is no longer in flight
+        waitUntil(() -> {
+            scheduler.dispatch(Collections.singletonList(globalSession), session -> handledTwice.set(true));
+            return handledTwice.get();
+        });
+    }
+
+    @Test
+    public void testBusyResourceDeferred() throws InterruptedException {
+        String resourceId = "jdbc:mysql://127.0.0.1:3306/slow";
+        GlobalSession slowSession = newGlobalSession(resourceId);
+        GlobalSession otherSession = newGlobalSession(resourceId);
+        while (scheduler.shardOf(otherSession.getXid()) != scheduler.shardOf(slowSession.getXid())) {
+            otherSession = newGlobalSession(resourceId);
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.dispatch(Collections.singletonList(slowSession), blockingHandler(started, release));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        AtomicBoolean handledBusy = new AtomicBoolean();
+        scheduler.dispatch(Collections.singletonList(otherSession), session -> handledBusy.set(true));
+        waitUntil(() -> scheduler.getDeferredCount() == 1);
+        Assertions.assertFalse(handledBusy.get());
+        release.countDown();
+        waitUntil(() -> scheduler.getDrainedCount() == 1);
+    }
+
+    private static GlobalSessionHandler blockingHandler(CountDownLatch started, CountDownLatch release) {
+        return globalSession -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "timeout waiting for the condition");
+            Thread.sleep(10);
+        }
+    }
+
+    private GlobalSession newGlobalSession(String resourceId) {
+        GlobalSession globalSession = new GlobalSession("demo-app", DEFAULT_TX_GROUP, "test", 6000);
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(globalSession.getXid());
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setResourceId(resourceId);
+        globalSession.add(branchSession);
+        return globalSession;
+    }
+}
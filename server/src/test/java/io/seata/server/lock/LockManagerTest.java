@@ -203,13 +203,13 @@ public class LockManagerTest {
     public void duplicatePkBranchSessionHolderTest(BranchSession branchSession1, BranchSession branchSession2) throws Exception {
         LockManager lockManager = new FileLockManagerForTest();
         Assertions.assertTrue(lockManager.acquireLock(branchSession1));
-        Assertions.assertEquals(4, (long) branchSession1.getLockHolder().values().size());
+        Assertions.assertEquals(4, (long) branchSession1.getLockHolder().size());
         Assertions.assertTrue(lockManager.releaseLock(branchSession1));
-        Assertions.assertEquals(0, (long) branchSession1.getLockHolder().values().size());
+        Assertions.assertEquals(0, (long) branchSession1.getLockHolder().size());
         Assertions.assertTrue(lockManager.acquireLock(branchSession2));
-        Assertions.assertEquals(4, (long) branchSession2.getLockHolder().values().size());
+        Assertions.assertEquals(4, (long) branchSession2.getLockHolder().size());
         Assertions.assertTrue(lockManager.releaseLock(branchSession2));
-        Assertions.assertEquals(0, (long) branchSession2.getLockHolder().values().size());
+        Assertions.assertEquals(0, (long) branchSession2.getLockHolder().size());
     }
 
     @ParameterizedTest
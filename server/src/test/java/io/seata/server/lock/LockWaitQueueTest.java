@@ -0,0 +1,92 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Lock wait queue test.
+ */
+public class LockWaitQueueTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    @Test
+    public void testRowKeys() {
+        Assertions.assertEquals(3, LockWaitQueue.rowKeysOf(RESOURCE_ID, "t_user:1,2;t_order:3").size());
+        Assertions.assertTrue(LockWaitQueue.rowKeysOf(RESOURCE_ID, null).isEmpty());
+    }
+
+    @Test
+    public void testWaiterNotifiedOnce() {
+        LockWaitQueue queue = new LockWaitQueue();
+        List<String> notified = new CopyOnWriteArrayList<>();
+        queue.setNotifier(waiter -> notified.add(waiter.getXid()));
+
+        queue.register(newBranchSession("xid2", "t:1,2"));
+        queue.register(newBranchSession("xid3", "t:2"));
+        Assertions.assertEquals(2, queue.size());
+
+        queue.signal(newBranchSession("xid1", "t:1,2,3"));
+        Assertions.assertEquals(2, notified.size());
+        Assertions.assertTrue(notified.contains("xid2"));
+        Assertions.assertTrue(notified.contains("xid3"));
+        Assertions.assertEquals(0, queue.size());
+
+        queue.signal(newBranchSession("xid1", "t:1,2"));
+        Assertions.assertEquals(2, notified.size());
+    }
+
+    @Test
+    public void testOtherRowsNotNotified() {
+        LockWaitQueue queue = new LockWaitQueue();
+        List<String> notified = new CopyOnWriteArrayList<>();
+        queue.setNotifier(waiter -> notified.add(waiter.getXid()));
+
+        queue.register(newBranchSession("xid2", "t:1"));
+        queue.signal(newBranchSession("xid1", "t:2"));
+        Assertions.assertTrue(notified.isEmpty());
+        Assertions.assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void testExpiredWaiterDropped() throws InterruptedException {
+        LockWaitQueue queue = new LockWaitQueue(0);
+        List<String> notified = new CopyOnWriteArrayList<>();
+        queue.setNotifier(waiter -> notified.add(waiter.getXid()));
+
+        queue.register(newBranchSession("xid2", "t:1"));
+        Thread.sleep(5);
+        queue.signal(newBranchSession("xid1", "t:1"));
+        Assertions.assertTrue(notified.isEmpty());
+    }
+
+    private static BranchSession newBranchSession(String xid, String lockKey) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(xid);
+        branchSession.setResourceId(RESOURCE_ID);
+        branchSession.setClientId("storage-service:127.0.0.1:20334");
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setLockKey(lockKey);
+        return branchSession;
+    }
+}
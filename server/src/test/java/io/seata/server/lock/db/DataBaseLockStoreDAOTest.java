@@ -20,8 +20,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import io.seata.common.DefaultValues;
+import io.seata.common.exception.StoreException;
 import io.seata.common.util.IOUtil;
 import io.seata.core.store.LockDO;
 import io.seata.server.storage.db.lock.LockStoreDataBaseDAO;
@@ -274,6 +277,78 @@ public class DataBaseLockStoreDAOTest {
 
     }
 
+    @Test
+    public void test_acquireLocksByMultiRowInsert() throws SQLException {
+        dataBaseLockStoreDAO.setLockBatchInsertSize(2);
+        try {
+            List<LockDO> lockDOs = newLockDOs("abc-789:123", 789L, "batch-", 5);
+            Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+            Assertions.assertEquals(5, countLocks("abc-789:123"));
+
+            // all or nothing, the non conflicting row batch-5 must not be locked
+            List<LockDO> conflictLockDOs = newLockDOs("abc-789:456", 456L, "batch-", 6);
+            Assertions.assertFalse(dataBaseLockStoreDAO.acquireLock(conflictLockDOs, true, true));
+            Assertions.assertEquals(0, countLocks("abc-789:456"));
+
+            Assertions.assertTrue(dataBaseLockStoreDAO.unLock(789L));
+            Assertions.assertEquals(0, countLocks("abc-789:123"));
+        } finally {
+            dataBaseLockStoreDAO.setLockBatchInsertSize(1);
+        }
+    }
+
+    @Test
+    public void test_acquireLocksByInsertFirst() throws SQLException {
+        dataBaseLockStoreDAO.setLockConflictDetectMode(LockStoreDataBaseDAO.LOCK_CONFLICT_DETECT_MODE_INSERT_IGNORE);
+        try {
+            List<LockDO> lockDOs = newLockDOs("abc-321:123", 321L, "first-", 3);
+            Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(lockDOs));
+            Assertions.assertEquals(3, countLocks("abc-321:123"));
+
+            // the duplicated row keys held by the same xid are reentrant
+            Assertions.assertTrue(dataBaseLockStoreDAO.acquireLock(newLockDOs("abc-321:123", 321L, "first-", 4)));
+            Assertions.assertEquals(4, countLocks("abc-321:123"));
+
+            Assertions.assertFalse(dataBaseLockStoreDAO.acquireLock(newLockDOs("abc-321:456", 456L, "first-", 5)));
+            Assertions.assertEquals(0, countLocks("abc-321:456"));
+
+            // an error other than a duplicate key is not taken for a held lock
+            char[] tooLong = new char[200];
+            Arrays.fill(tooLong, 'x');
+            List<LockDO> invalidLockDOs = newLockDOs("abc-321:789", 789L, new String(tooLong), 1);
+            Assertions.assertThrows(StoreException.class, () -> dataBaseLockStoreDAO.acquireLock(invalidLockDOs));
+            Assertions.assertEquals(0, countLocks("abc-321:789"));
+
+            Assertions.assertTrue(dataBaseLockStoreDAO.unLock(321L));
+        } finally {
+            dataBaseLockStoreDAO.setLockConflictDetectMode(DefaultValues.DEFAULT_LOCK_CONFLICT_DETECT_MODE);
+        }
+    }
+
+    private static List<LockDO> newLockDOs(String xid, long branchId, String rowKeyPrefix, int size) {
+        List<LockDO> lockDOs = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LockDO lock = new LockDO();
+            lock.setResourceId("abc");
+            lock.setXid(xid);
+            lock.setTransactionId(branchId);
+            lock.setBranchId(branchId);
+            lock.setRowKey(rowKeyPrefix + i);
+            lock.setPk(String.valueOf(i));
+            lock.setTableName("t");
+            lockDOs.add(lock);
+        }
+        return lockDOs;
+    }
+
+    private static int countLocks(String xid) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             ResultSet rs = conn.createStatement().executeQuery("select count(1) from lock_table where xid = '" + xid + "'")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
     @AfterAll
     public static void clearStoreDB(){
         FileUtils.deleteRecursive("db_store", true);
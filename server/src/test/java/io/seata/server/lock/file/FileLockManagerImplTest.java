@@ -15,12 +15,16 @@
  */
 package io.seata.server.lock.file;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import io.seata.common.XID;
 import io.seata.core.model.BranchType;
 import io.seata.server.UUIDGenerator;
 import io.seata.server.lock.LockManager;
+import io.seata.server.lock.LockWaitQueue;
+import io.seata.server.lock.LockerManagerFactory;
 import io.seata.server.session.BranchSession;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -82,6 +86,45 @@ public class FileLockManagerImplTest {
         Assertions.assertTrue(resultOne);
     }
 
+    /**
+     * A failed acquisition releases its partial locks without waking the waiters of the rows it only requested.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void failedAcquireNotSignalTest() throws Exception {
+        BranchSession holder = newBranchSession(UUIDGenerator.generateUUID(), 2L, "tb_1:31");
+        BranchSession contender = newBranchSession(UUIDGenerator.generateUUID(), 3L, "tb_1:31,32");
+        BranchSession waiter = newBranchSession(UUIDGenerator.generateUUID(), 4L, "tb_1:32");
+        LockWaitQueue lockWaitQueue = LockerManagerFactory.getLockManager().getLockWaitQueue();
+        List<String> notified = new CopyOnWriteArrayList<>();
+        lockWaitQueue.setNotifier(lockWaiter -> notified.add(lockWaiter.getXid()));
+        try {
+            Assertions.assertTrue(lockManager.acquireLock(holder));
+            lockWaitQueue.register(waiter);
+            Assertions.assertFalse(lockManager.acquireLock(contender));
+            Assertions.assertTrue(notified.isEmpty());
+            Assertions.assertTrue(lockManager.isLockable(contender.getXid(), resourceId, "tb_1:32"));
+        } finally {
+            holder.unlock();
+            lockWaitQueue.signal(waiter);
+            lockWaitQueue.setNotifier(null);
+        }
+    }
+
+    private static BranchSession newBranchSession(long transactionId, long branchId, String lockKey) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(XID.generateXID(transactionId));
+        branchSession.setBranchId(branchId);
+        branchSession.setTransactionId(transactionId);
+        branchSession.setClientId("c1");
+        branchSession.setResourceGroupId(DEFAULT_TX_GROUP);
+        branchSession.setResourceId(resourceId);
+        branchSession.setLockKey(lockKey);
+        branchSession.setBranchType(BranchType.AT);
+        return branchSession;
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
@@ -0,0 +1,109 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.file;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import io.seata.server.storage.file.lock.RowLockHolder;
+import io.seata.server.storage.file.lock.RowLockTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Row lock table test.
+ */
+public class RowLockTableTest {
+
+    private static final String RESOURCE_ID = "jdbc:mysql://127.0.0.1:3306/seata";
+
+    @Test
+    public void testAcquireAllOrNothing() {
+        RowLockTable table = new RowLockTable(4, 4);
+        RowLockHolder holder1 = new RowLockHolder();
+        long[] keys1 = keys("t", 1, 2, 3);
+        Assertions.assertEquals(0, table.acquire(100L, 1L, keys1, holder1).length);
+        Assertions.assertEquals(3, holder1.size());
+
+        // re-acquired by the same transaction, nothing new is held
+        RowLockHolder sameTransactionHolder = new RowLockHolder();
+        Assertions.assertEquals(0, table.acquire(100L, 2L, keys("t", 1, 2), sameTransactionHolder).length);
+        Assertions.assertTrue(sameTransactionHolder.isEmpty());
+
+        RowLockHolder holder2 = new RowLockHolder();
+        long[] conflicts = table.acquire(200L, 3L, keys("t", 3, 4), holder2);
+        Assertions.assertArrayEquals(new long[] {1L}, conflicts);
+        Assertions.assertTrue(holder2.isEmpty());
+        Assertions.assertEquals(0L, table.getTransactionId(RowLockTable.keyOf(RESOURCE_ID, "t", "4")));
+
+        table.release(1L, holder1.drain());
+        Assertions.assertTrue(holder1.isEmpty());
+        Assertions.assertEquals(0, table.size());
+        Assertions.assertEquals(0, table.acquire(200L, 3L, keys("t", 3, 4), holder2).length);
+        Assertions.assertEquals(200L, table.getTransactionId(RowLockTable.keyOf(RESOURCE_ID, "t", "3")));
+    }
+
+    @Test
+    public void testReleaseOnlyOwnKeys() {
+        RowLockTable table = new RowLockTable(2, 2);
+        RowLockHolder holder = new RowLockHolder();
+        long[] keys = keys("t", 1, 2);
+        table.acquire(100L, 1L, keys, holder);
+        table.release(2L, keys);
+        Assertions.assertEquals(2, table.size());
+        table.release(1L, holder.drain());
+        Assertions.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testKeyOfSeparatesFields() {
+        Assertions.assertNotEquals(RowLockTable.keyOf(RESOURCE_ID, "ab", "c"), RowLockTable.keyOf(RESOURCE_ID, "a", "bc"));
+        Assertions.assertNotEquals(0L, RowLockTable.keyOf("", "", ""));
+    }
+
+    @Test
+    public void testRandomAgainstHashMap() {
+        RowLockTable table = new RowLockTable(4, 2);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            long pk = random.nextInt(2000);
+            long key = RowLockTable.keyOf(RESOURCE_ID, "t", String.valueOf(pk));
+            long branchId = pk % 7 + 1;
+            if (random.nextBoolean()) {
+                long[] conflicts = table.acquire(branchId, branchId, new long[] {key}, new RowLockHolder());
+                Long owner = expected.putIfAbsent(key, branchId);
+                Assertions.assertEquals(owner == null || owner == branchId, conflicts.length == 0);
+            } else {
+                table.release(branchId, new long[] {key});
+                expected.remove(key, branchId);
+            }
+        }
+        Assertions.assertEquals(expected.size(), table.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            Assertions.assertEquals((long)entry.getValue(), table.getTransactionId(entry.getKey()));
+        }
+    }
+
+    private static long[] keys(String tableName, int... pks) {
+        long[] keys = new long[pks.length];
+        for (int i = 0; i < pks.length; i++) {
+            keys[i] = RowLockTable.keyOf(RESOURCE_ID, tableName, String.valueOf(pks[i]));
+        }
+        return keys;
+    }
+}
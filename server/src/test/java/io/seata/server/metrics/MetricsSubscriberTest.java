@@ -0,0 +1,102 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.metrics;
+
+import io.seata.core.event.GlobalTransactionEvent;
+import io.seata.core.model.GlobalStatus;
+import io.seata.metrics.IdConstants;
+import io.seata.metrics.registry.Registry;
+import io.seata.metrics.registry.compact.CompactRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Metrics subscriber test.
+ */
+public class MetricsSubscriberTest {
+
+    @Test
+    public void testMetersPerGroup() {
+        Registry registry = new CompactRegistry();
+        MetricsSubscriber subscriber = new MetricsSubscriber(registry);
+        GlobalTransactionEvent groupA = newEvent("app", "groupA", GlobalStatus.Begin);
+        GlobalTransactionEvent groupB = newEvent("app", "groupB", GlobalStatus.Begin);
+        subscriber.recordGlobalTransactionEventForMetrics(groupA);
+        subscriber.recordGlobalTransactionEventForMetrics(groupA);
+        subscriber.recordGlobalTransactionEventForMetrics(groupB);
+
+        MetricsSubscriber.GroupMeters metersA = subscriber.getGroupMeters(groupA);
+        MetricsSubscriber.GroupMeters metersB = subscriber.getGroupMeters(groupB);
+        Assertions.assertSame(metersA, subscriber.getGroupMeters(newEvent("app", "groupA", GlobalStatus.Committed)));
+        Assertions.assertNotSame(metersA.active, metersB.active);
+        Assertions.assertEquals(2, metersA.active.get());
+        Assertions.assertEquals(1, metersB.active.get());
+        Assertions.assertEquals("groupA", metersA.active.getId().getTag(IdConstants.GROUP_KEY));
+        Assertions.assertEquals("groupB", metersB.active.getId().getTag(IdConstants.GROUP_KEY));
+        Assertions.assertEquals("app", metersB.active.getId().getTag(IdConstants.APP_ID_KEY));
+
+        // the shared templates are left untouched
+        Assertions.assertNull(MeterIdConstants.COUNTER_ACTIVE.getTag(IdConstants.GROUP_KEY));
+
+        // an event without group gets its own meters
+        GlobalTransactionEvent noGroup = newEvent("app", null, GlobalStatus.Begin);
+        subscriber.recordGlobalTransactionEventForMetrics(noGroup);
+        Assertions.assertEquals(1, subscriber.getGroupMeters(noGroup).active.get());
+    }
+
+    @Test
+    public void testRecordedValues() {
+        MetricsSubscriber subscriber = new MetricsSubscriber(new CompactRegistry());
+        GlobalTransactionEvent begin = newEvent("app", "group", GlobalStatus.Begin);
+        GlobalTransactionEvent committed = newEvent("app", "group", GlobalStatus.Committed);
+        GlobalTransactionEvent rollbacked = newEvent("app", "group", GlobalStatus.Rollbacked);
+        GlobalTransactionEvent commitFailed = newEvent("app", "group", GlobalStatus.CommitFailed);
+        MetricsSubscriber.GroupMeters meters = subscriber.getGroupMeters(begin);
+        for (int i = 0; i < 1000; i++) {
+            subscriber.recordGlobalTransactionEventForMetrics(begin);
+            subscriber.recordGlobalTransactionEventForMetrics(committed);
+        }
+        subscriber.recordGlobalTransactionEventForMetrics(begin);
+        subscriber.recordGlobalTransactionEventForMetrics(rollbacked);
+        subscriber.recordGlobalTransactionEventForMetrics(begin);
+        subscriber.recordGlobalTransactionEventForMetrics(commitFailed);
+        // a retried commit is not counted again
+        subscriber.recordGlobalTransactionEventForMetrics(new GlobalTransactionEvent(1L, IdConstants.ROLE_VALUE_TC,
+            "test", "app", "group", 1L, 5L, GlobalStatus.Committed.name(), true, false));
+
+        // every event of the group was recorded into the meters resolved for its first one
+        Assertions.assertSame(meters, subscriber.getGroupMeters(commitFailed));
+        Assertions.assertEquals(0, meters.active.get());
+        Assertions.assertEquals(1000, meters.committed.get());
+        Assertions.assertEquals(1, meters.rollbacked.get());
+        Assertions.assertEquals(1000, meters.committedSummary.count());
+        Assertions.assertEquals(1000, meters.committedSummary.total());
+        Assertions.assertEquals(1000, meters.committedTimer.count());
+        Assertions.assertEquals(4000 * 1000, meters.committedTimer.total());
+        Assertions.assertEquals(4000, meters.committedTimer.max());
+        Assertions.assertEquals(1, meters.rollbackedSummary.count());
+        Assertions.assertEquals(1, meters.rollbackTimer.count());
+        Assertions.assertEquals(1, meters.failedSummary.count());
+        Assertions.assertEquals(1, meters.failedTimer.count());
+        Assertions.assertEquals(4000, meters.failedTimer.max());
+        Assertions.assertEquals(0, meters.twoPhaseTimeoutSummary.count());
+    }
+
+    private static GlobalTransactionEvent newEvent(String applicationId, String group, GlobalStatus status) {
+        return new GlobalTransactionEvent(1L, IdConstants.ROLE_VALUE_TC, "test", applicationId, group, 1L, 5L,
+            status.name(), false, false);
+    }
+}
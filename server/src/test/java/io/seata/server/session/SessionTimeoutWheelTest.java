@@ -0,0 +1,154 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The type Session timeout wheel test.
+ */
+@SpringBootTest
+public class SessionTimeoutWheelTest {
+
+    @Test
+    public void testAdvanceExpiresOnlyPassedDeadlines() {
+        long now = System.currentTimeMillis();
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 4);
+        GlobalSession first = newGlobalSession(now, 25);
+        GlobalSession second = newGlobalSession(now, 55);
+        wheel.add(first);
+        wheel.add(second);
+        wheel.add(first);
+        Assertions.assertEquals(2, wheel.size());
+
+        Assertions.assertTrue(wheel.advance(now + 25).isEmpty());
+        List<GlobalSession> expired = wheel.advance(now + 26);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(first, expired.get(0));
+        Assertions.assertEquals(1, wheel.size());
+
+        expired = wheel.advance(now + 100);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(second, expired.get(0));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRemove() {
+        long now = System.currentTimeMillis();
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 4);
+        GlobalSession removed = newGlobalSession(now, 30);
+        GlobalSession kept = newGlobalSession(now, 30);
+        GlobalSession overdue = newGlobalSession(now - 100, 10);
+        wheel.add(removed);
+        wheel.add(kept);
+        wheel.add(overdue);
+        wheel.remove(removed.getXid());
+        wheel.remove(overdue.getXid());
+        wheel.remove("unknown");
+        Assertions.assertEquals(1, wheel.size());
+
+        List<GlobalSession> expired = wheel.advance(now + 31);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(kept, expired.get(0));
+    }
+
+    @Test
+    public void testCascadeAcrossLevels() {
+        long now = System.currentTimeMillis();
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 4);
+        // the level 0 covers 40ms, the level 1 160ms and the level 2 640ms
+        List<GlobalSession> sessions = new ArrayList<>();
+        for (int timeout = 5; timeout <= 2000; timeout += 35) {
+            GlobalSession globalSession = newGlobalSession(now, timeout);
+            sessions.add(globalSession);
+            wheel.add(globalSession);
+        }
+        List<GlobalSession> expired = new ArrayList<>();
+        for (long time = now; time <= now + 2100; time += 7) {
+            for (GlobalSession globalSession : wheel.advance(time)) {
+                Assertions.assertTrue(time - globalSession.getBeginTime() > globalSession.getTimeout());
+                Assertions.assertTrue(time - 7 - globalSession.getBeginTime() <= globalSession.getTimeout());
+                expired.add(globalSession);
+            }
+        }
+        Assertions.assertEquals(sessions, expired);
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testOverdue() {
+        long now = System.currentTimeMillis();
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 4);
+        wheel.advance(now);
+        GlobalSession globalSession = newGlobalSession(now - 1000, 10);
+        wheel.add(globalSession);
+        List<GlobalSession> expired = wheel.advance(now);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(globalSession, expired.get(0));
+    }
+
+    @Test
+    public void testConcurrentAddAndRemove() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        SessionTimeoutWheel wheel = new SessionTimeoutWheel(10, 4);
+        int threads = 4;
+        int sessionsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<GlobalSession> kept = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<GlobalSession> sessions = new ArrayList<>();
+            for (int i = 0; i < sessionsPerThread; i++) {
+                sessions.add(newGlobalSession(now, 10 + i % 500));
+            }
+            kept.add(sessions.get(0));
+            executor.execute(() -> {
+                for (GlobalSession globalSession : sessions) {
+                    wheel.add(globalSession);
+                    if (globalSession != sessions.get(0)) {
+                        wheel.remove(globalSession.getXid());
+                    }
+                }
+                done.countDown();
+            });
+            wheel.advance(now);
+        }
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assertions.assertEquals(threads, wheel.size());
+
+        List<GlobalSession> expired = wheel.advance(now + 1000);
+        Assertions.assertEquals(threads, expired.size());
+        Assertions.assertTrue(expired.containsAll(kept));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    private static GlobalSession newGlobalSession(long beginTime, int timeout) {
+        GlobalSession globalSession = new GlobalSession("demo-app", "my_test_tx_group", "test", timeout);
+        globalSession.setBeginTime(beginTime);
+        return globalSession;
+    }
+}
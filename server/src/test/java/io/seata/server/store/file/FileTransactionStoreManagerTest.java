@@ -16,10 +16,12 @@
 package io.seata.server.store.file;
 
 import java.io.File;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import io.seata.server.UUIDGenerator;
 import io.seata.server.session.BranchSession;
@@ -28,6 +30,7 @@ import io.seata.server.session.SessionManager;
 import io.seata.server.storage.file.TransactionWriteStore;
 import io.seata.server.storage.file.session.FileSessionManager;
 import io.seata.server.storage.file.store.FileTransactionStoreManager;
+import io.seata.server.storage.file.store.GroupCommitJournal;
 import io.seata.server.store.StoreConfig;
 import io.seata.server.store.TransactionStoreManager;
 import org.assertj.core.util.Files;
@@ -75,6 +78,42 @@ public class FileTransactionStoreManagerTest {
         }
     }
 
+    @Test
+    public void testGroupCommitWrite() throws Exception {
+        File seataFile = Files.newTemporaryFile();
+        FileTransactionStoreManager fileTransactionStoreManager = null;
+        try {
+            fileTransactionStoreManager = new FileTransactionStoreManager(seataFile.getAbsolutePath(), null, true);
+            Field journalField = FileTransactionStoreManager.class.getDeclaredField("groupCommitJournal");
+            journalField.setAccessible(true);
+            GroupCommitJournal<?> journal = (GroupCommitJournal<?>) journalField.get(fileTransactionStoreManager);
+            Assertions.assertNotNull(journal);
+            final FileTransactionStoreManager storeManager = fileTransactionStoreManager;
+            List<Thread> writers = new ArrayList<>();
+            List<Boolean> results = Collections.synchronizedList(new ArrayList<>());
+            for (int i = 0; i < 16; i++) {
+                Thread writer = new Thread(() -> results.add(storeManager.writeSession(
+                    TransactionStoreManager.LogOperation.GLOBAL_ADD, new GlobalSession("demo-app", "default", "test", 6000))));
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            Assertions.assertEquals(16, results.size());
+            Assertions.assertFalse(results.contains(false));
+            List<TransactionWriteStore> list = fileTransactionStoreManager.readWriteStore(2000, false);
+            Assertions.assertNotNull(list);
+            Assertions.assertEquals(16, list.size());
+            Assertions.assertEquals(16, journal.getEntryCount());
+        } finally {
+            if (fileTransactionStoreManager != null) {
+                fileTransactionStoreManager.shutdown();
+            }
+            Assertions.assertTrue(seataFile.delete());
+        }
+    }
+
     @Test
     public void testFindTimeoutAndSave() throws Exception {
         File seataFile = Files.newTemporaryFile();
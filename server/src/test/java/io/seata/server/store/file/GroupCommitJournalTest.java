@@ -0,0 +1,113 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.server.storage.file.store.GroupCommitJournal;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The type Group commit journal test.
+ */
+@SpringBootTest
+public class GroupCommitJournalTest {
+
+    @Test
+    public void testBatchAcknowledged() throws InterruptedException {
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger forced = new AtomicInteger();
+        GroupCommitJournal<byte[]> journal = new GroupCommitJournal<>("testGroupCommit", 8, 20000, true,
+            new GroupCommitJournal.BatchWriter<byte[]>() {
+                @Override
+                public boolean write(List<byte[]> frames) {
+                    Assertions.assertTrue(frames.size() <= 8);
+                    written.addAndGet(frames.size());
+                    return true;
+                }
+
+                @Override
+                public void force() {
+                    forced.incrementAndGet();
+                }
+            });
+        try {
+            int threads = 32;
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger acknowledged = new AtomicInteger();
+            List<Thread> appenders = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Thread appender = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (journal.append(new byte[] {1}, 5000)) {
+                        acknowledged.incrementAndGet();
+                    }
+                });
+                appenders.add(appender);
+                appender.start();
+            }
+            start.countDown();
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            Assertions.assertEquals(threads, acknowledged.get());
+            Assertions.assertEquals(threads, written.get());
+            Assertions.assertEquals(threads, journal.getEntryCount());
+            Assertions.assertEquals(journal.getBatchCount(), journal.getFsyncCount());
+            Assertions.assertEquals(forced.get(), journal.getFsyncCount());
+            Assertions.assertTrue(journal.getFsyncCount() < threads);
+            long batches = 0;
+            for (long count : journal.getBatchSizeDistribution()) {
+                batches += count;
+            }
+            Assertions.assertEquals(journal.getBatchCount(), batches);
+        } finally {
+            journal.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedBatch() {
+        GroupCommitJournal<byte[]> journal = new GroupCommitJournal<>("testGroupCommit", 4, 0, true,
+            new GroupCommitJournal.BatchWriter<byte[]>() {
+                @Override
+                public boolean write(List<byte[]> frames) {
+                    return false;
+                }
+
+                @Override
+                public void force() {
+                    Assertions.fail("failed batch must not be forced");
+                }
+            });
+        try {
+            Assertions.assertFalse(journal.append(new byte[] {1}, 5000));
+            Assertions.assertEquals(0, journal.getFsyncCount());
+        } finally {
+            journal.shutdown();
+        }
+        Assertions.assertFalse(journal.append(new byte[] {1}, 5000));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.store.file;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.storage.file.store.SegmentedTransactionStoreManager;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The type Segmented transaction store manager test.
+ */
+@SpringBootTest
+public class SegmentedTransactionStoreManagerTest {
+
+    private static final int SESSION_COUNT = 300;
+
+    private static final int LIVE_COUNT = 5;
+
+    private File dir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("segmentedStore").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testFinishedSegmentsDeletedAndReplayFromCheckpoint() throws Exception {
+        String fileName = new File(dir, "root.data").getAbsolutePath();
+        SegmentedTransactionStoreManager storeManager = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        List<GlobalSession> liveSessions = new ArrayList<>();
+        try {
+            Assertions.assertFalse(storeManager.hasRemaining(false));
+            List<GlobalSession> finishedSessions = new ArrayList<>();
+            for (int i = 0; i < SESSION_COUNT; i++) {
+                GlobalSession globalSession = new GlobalSession("demo-app", "default", "test", 6000);
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, newBranchSession(globalSession)));
+                if (i < SESSION_COUNT - LIVE_COUNT) {
+                    finishedSessions.add(globalSession);
+                } else {
+                    liveSessions.add(globalSession);
+                }
+            }
+            int segmentCount = storeManager.getSegmentIds().size();
+            Assertions.assertTrue(segmentCount > 2);
+            for (GlobalSession globalSession : finishedSessions) {
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_REMOVE, globalSession));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (storeManager.getSegmentIds().size() >= segmentCount && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            Assertions.assertTrue(storeManager.getSegmentIds().size() < segmentCount);
+        } finally {
+            storeManager.shutdown();
+        }
+        Assertions.assertTrue(new File(dir, "root.data.checkpoint").exists());
+
+        SegmentedTransactionStoreManager reopened = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        try {
+            Set<String> addedXids = new HashSet<>();
+            int replayed = 0;
+            while (reopened.hasRemaining(false)) {
+                for (TransactionWriteStore writeStore : reopened.readWriteStore(100, false)) {
+                    replayed++;
+                    if (writeStore.getOperate() == LogOperation.GLOBAL_ADD) {
+                        addedXids.add(((GlobalSession)writeStore.getSessionRequest()).getXid());
+                    }
+                }
+            }
+            for (GlobalSession liveSession : liveSessions) {
+                Assertions.assertTrue(addedXids.contains(liveSession.getXid()));
+            }
+            Assertions.assertTrue(replayed < SESSION_COUNT * 3);
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testReopenAppendsBehindReplayedFrames() throws Exception {
+        String fileName = new File(dir, "root.data").getAbsolutePath();
+        SegmentedTransactionStoreManager storeManager = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        GlobalSession globalSession = new GlobalSession("demo-app", "default", "test", 6000);
+        try {
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        } finally {
+            storeManager.shutdown();
+        }
+        SegmentedTransactionStoreManager reopened = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        try {
+            Assertions.assertTrue(reopened.hasRemaining(false));
+            List<TransactionWriteStore> writeStores = reopened.readWriteStore(100, false);
+            Assertions.assertEquals(1, writeStores.size());
+            Assertions.assertEquals(globalSession.getXid(),
+                ((GlobalSession)writeStores.get(0).getSessionRequest()).getXid());
+            Assertions.assertFalse(reopened.hasRemaining(false));
+            // appended behind the replayed frames instead of overwriting them
+            Assertions.assertTrue(reopened.writeSession(LogOperation.GLOBAL_REMOVE, globalSession));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testLongLivedSessionCompactedInsteadOfPinningSegments() throws Exception {
+        String fileName = new File(dir, "root.data").getAbsolutePath();
+        SegmentedTransactionStoreManager storeManager = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        GlobalSession longLivedSession = new GlobalSession("demo-app", "default", "test", 6000);
+        try {
+            Assertions.assertFalse(storeManager.hasRemaining(false));
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, longLivedSession));
+            Assertions.assertTrue(
+                storeManager.writeSession(LogOperation.BRANCH_ADD, newBranchSession(longLivedSession)));
+            for (int i = 0; i < SESSION_COUNT * 2; i++) {
+                GlobalSession globalSession = new GlobalSession("demo-app", "default", "test", 6000);
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, newBranchSession(globalSession)));
+                Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_REMOVE, globalSession));
+            }
+            Assertions.assertTrue(
+                storeManager.getSegmentIds().size() > SegmentedTransactionStoreManager.COMPACT_SEGMENT_COUNT);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (storeManager.getSegmentIds().size() > SegmentedTransactionStoreManager.COMPACT_SEGMENT_COUNT
+                && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            Assertions.assertTrue(
+                storeManager.getSegmentIds().size() <= SegmentedTransactionStoreManager.COMPACT_SEGMENT_COUNT);
+        } finally {
+            storeManager.shutdown();
+        }
+
+        SegmentedTransactionStoreManager reopened = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        try {
+            List<TransactionWriteStore> writeStores = new ArrayList<>();
+            while (reopened.hasRemaining(false)) {
+                writeStores.addAll(reopened.readWriteStore(100, false));
+            }
+            // the frames of the long-lived session come first and in their order
+            Assertions.assertEquals(LogOperation.GLOBAL_ADD, writeStores.get(0).getOperate());
+            Assertions.assertEquals(longLivedSession.getXid(),
+                ((GlobalSession)writeStores.get(0).getSessionRequest()).getXid());
+            Assertions.assertEquals(LogOperation.BRANCH_ADD, writeStores.get(1).getOperate());
+            Assertions.assertTrue(writeStores.size() < SESSION_COUNT * 6);
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    public void testReplayStopsAtCorruptedFrame() throws Exception {
+        String fileName = new File(dir, "root.data").getAbsolutePath();
+        SegmentedTransactionStoreManager storeManager = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        GlobalSession firstSession = new GlobalSession("demo-app", "default", "test", 6000);
+        GlobalSession secondSession = new GlobalSession("demo-app", "default", "test", 6000);
+        try {
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, firstSession));
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, secondSession));
+        } finally {
+            storeManager.shutdown();
+        }
+        File[] segmentFiles = dir.listFiles((d, name) -> name.endsWith(".seg"));
+        Assertions.assertNotNull(segmentFiles);
+        Assertions.assertEquals(1, segmentFiles.length);
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFiles[0], "rw")) {
+            // flip a byte in the body of the second frame, behind its length and checksum
+            int secondFrame = 8 + raf.readInt();
+            raf.seek(secondFrame + 8 + 1);
+            int value = raf.read();
+            raf.seek(secondFrame + 8 + 1);
+            raf.write(value ^ 0xFF);
+        }
+        SegmentedTransactionStoreManager reopened = new SegmentedTransactionStoreManager(fileName, null,
+            SegmentedTransactionStoreManager.MIN_SEGMENT_SIZE, false);
+        try {
+            Assertions.assertTrue(reopened.hasRemaining(false));
+            List<TransactionWriteStore> writeStores = reopened.readWriteStore(100, false);
+            Assertions.assertEquals(1, writeStores.size());
+            Assertions.assertEquals(firstSession.getXid(),
+                ((GlobalSession)writeStores.get(0).getSessionRequest()).getXid());
+            Assertions.assertFalse(reopened.hasRemaining(false));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    private BranchSession newBranchSession(GlobalSession globalSession) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(globalSession.getXid());
+        branchSession.setTransactionId(globalSession.getTransactionId());
+        branchSession.setBranchId(globalSession.getTransactionId() + 1);
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setResourceId("jdbc:mysql://127.0.0.1:3306/db");
+        char[] applicationData = new char[8 * 1024];
+        Arrays.fill(applicationData, 'a');
+        branchSession.setApplicationData(new String(applicationData));
+        return branchSession;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.transaction.at;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.common.Constants;
+import io.seata.core.exception.BranchTransactionException;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.model.BranchType;
+import io.seata.core.rpc.RemotingServer;
+import io.seata.server.lock.LockWaitQueue;
+import io.seata.server.lock.LockerManagerFactory;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * The type At core test.
+ */
+@SpringBootTest
+public class ATCoreTest {
+
+    private static final String LOCK_WAIT_NOTIFY_DATA = "{\"" + Constants.LOCK_WAIT_NOTIFY + "\":true}";
+
+    @Test
+    public void testLockRetriedAfterWaiterQueued() throws TransactionException {
+        ATCore core = new ATCore(Mockito.mock(RemotingServer.class));
+        GlobalSession globalSession = new GlobalSession("demo-app", "default", "test", 6000);
+        LockWaitQueue lockWaitQueue = LockerManagerFactory.getLockManager().getLockWaitQueue();
+        int queuedRows = lockWaitQueue.size();
+        // the holder releases the row between the failed lock and the queueing of the waiter
+        ScriptedBranchSession branchSession = new ScriptedBranchSession(globalSession, "t_queued:1", false, true);
+        branchSession.setApplicationData(LOCK_WAIT_NOTIFY_DATA);
+
+        core.branchSessionLock(globalSession, branchSession);
+        Assertions.assertEquals(2, branchSession.lockCalls.get());
+        Assertions.assertEquals(queuedRows + 1, lockWaitQueue.size());
+    }
+
+    @Test
+    public void testLockNotRetriedWithoutWaitNotify() {
+        ATCore core = new ATCore(Mockito.mock(RemotingServer.class));
+        GlobalSession globalSession = new GlobalSession("demo-app", "default", "test", 6000);
+        ScriptedBranchSession branchSession = new ScriptedBranchSession(globalSession, "t_unqueued:1", false, true);
+
+        BranchTransactionException e = Assertions.assertThrows(BranchTransactionException.class,
+            () -> core.branchSessionLock(globalSession, branchSession));
+        Assertions.assertEquals(TransactionExceptionCode.LockKeyConflict, e.getCode());
+        Assertions.assertEquals(1, branchSession.lockCalls.get());
+    }
+
+    /**
+     * A branch session whose lock results are given up front.
+     */
+    private static class ScriptedBranchSession extends BranchSession {
+
+        private final boolean[] results;
+
+        private final AtomicInteger lockCalls = new AtomicInteger();
+
+        ScriptedBranchSession(GlobalSession globalSession, String lockKey, boolean... results) {
+            this.results = results;
+            setXid(globalSession.getXid());
+            setTransactionId(globalSession.getTransactionId());
+            setBranchId(globalSession.getTransactionId() + 1);
+            setBranchType(BranchType.AT);
+            setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+            setClientId("storage-service:127.0.0.1:20334");
+            setLockKey(lockKey);
+        }
+
+        @Override
+        public boolean lock(boolean autoCommit, boolean skipCheckLock) {
+            return results[Math.min(lockCalls.getAndIncrement(), results.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine;
+
+import io.seata.common.LockAndCallback;
+import io.seata.common.SagaCostPrint;
+import io.seata.saga.engine.mock.DemoException;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State machine non-blocking async tests
+ */
+public class StateMachineNonBlockingAsyncTests {
+
+    private static StateMachineEngine stateMachineEngine;
+
+    @BeforeAll
+    public static void initApplicationContext() {
+        ApplicationContext applicationContext = new ClassPathXmlApplicationContext("classpath:saga/spring/statemachine_engine_non_blocking_test.xml");
+        stateMachineEngine = applicationContext.getBean("stateMachineEngine", StateMachineEngine.class);
+    }
+
+    @Test
+    public void testNonBlockingServiceStateMachine() throws Exception {
+        String stateMachineName = "simpleStateMachineWithNonBlockingService";
+
+        SagaCostPrint.executeAndPrint("2-12", () -> {
+            Map<String, Object> paramMap = new HashMap<>(2);
+            paramMap.put("a", 1);
+            paramMap.put("sleepTime", 100);
+
+            LockAndCallback lockAndCallback = new LockAndCallback();
+            StateMachineInstance inst = stateMachineEngine.startAsync(stateMachineName, null, paramMap, lockAndCallback.getCallback());
+            lockAndCallback.waittingForFinish(inst);
+
+            Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+            Map<String, Object> fooResult = (Map<String, Object>) inst.getContext().get("fooResult");
+            Assertions.assertEquals(1, fooResult.get("fooInput"));
+            Assertions.assertNotNull(inst.getContext().get("barResult"));
+        });
+
+        SagaCostPrint.executeAndPrint("2-13", () -> {
+            Map<String, Object> paramMap = new HashMap<>(2);
+            paramMap.put("a", 1);
+            paramMap.put("fooThrowException", "true");
+
+            LockAndCallback lockAndCallback = new LockAndCallback();
+            StateMachineInstance inst = stateMachineEngine.startAsync(stateMachineName, null, paramMap, lockAndCallback.getCallback());
+            lockAndCallback.waittingForFinish(inst);
+
+            Assertions.assertEquals(ExecutionStatus.FA, inst.getStatus());
+            Assertions.assertTrue(inst.getException() instanceof DemoException);
+        });
+    }
+}
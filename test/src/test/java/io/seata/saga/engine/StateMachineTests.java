@@ -20,7 +20,9 @@ import io.seata.saga.engine.mock.DemoService.Engineer;
 import io.seata.saga.engine.mock.DemoService.People;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateMachine;
 import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.AbstractTaskState;
 import io.seata.saga.statelang.parser.JsonParserFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -293,6 +295,18 @@ public class StateMachineTests {
         });
     }
 
+    @Test
+    public void testExpressionsPreparedOnRegistry() {
+        StateMachineConfig stateMachineConfig = stateMachineEngine.getStateMachineConfig();
+        StateMachine stateMachine = stateMachineConfig.getStateMachineRepository()
+            .getStateMachine("simpleCompensationStateMachine", stateMachineConfig.getDefaultTenantId());
+        AbstractTaskState firstState = (AbstractTaskState)stateMachine.getState("FirstState");
+        Assertions.assertNotNull(firstState.getInputExpressions());
+        Assertions.assertEquals(firstState.getInput().size(), firstState.getInputExpressions().size());
+        Assertions.assertNotNull(firstState.getOutputExpressions());
+        Assertions.assertEquals(firstState.getOutput().keySet(), firstState.getOutputExpressions().keySet());
+    }
+
     @Test
     public void testSimpleStateMachineWithAsyncState() throws Exception {
         String stateMachineName = "simpleStateMachineWithAsyncState";
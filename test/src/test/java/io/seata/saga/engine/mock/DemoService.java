@@ -18,6 +18,7 @@ package io.seata.saga.engine.mock;
 import java.net.ConnectException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author lorne.cl
@@ -47,6 +48,10 @@ public class DemoService {
         return input;
     }
 
+    public CompletableFuture<Map<String, Object>> fooAsync(Map<String, Object> input) {
+        return CompletableFuture.supplyAsync(() -> foo(input));
+    }
+
     public Map<String, Object> compensateFoo(Map<String, Object> input) {
         if(input == null){
             return null;